@@ -0,0 +1,49 @@
+#!/bin/bash
+if [ "$#" -ne 2 ] && [ "$#" -ne 3 ]; then
+	echo "Missing arguments! Please provide number of parallel processes and number of iterations."
+	echo "Optionally, the output folder of an interrupted sweep can be provided to resume it."
+	echo "Usage: '$0 4 10 [output/<date>]'"
+	exit 1
+fi
+
+re='^[0-9]+$'
+if ! [[ $1 =~ $re ]] ; then
+	echo "$1 is not an integer! Please provide number of parallel processes."
+	echo "Usage: '$0 4 10'"
+	exit 1
+fi
+
+if ! [[ $2 =~ $re ]] ; then
+	echo "$2 is not an integer! Please provide number of iterations."
+	echo "Usage: '$0 4 10'"
+	exit 1
+fi
+
+# Unlike run_scenarios.sh, each (iteration, devices, scenario, policy) tuple
+# is a separate job. Jobs are taken longest-first from a shared queue by
+# the worker processes. Measured job costs are kept in sweep_costs.log.
+# Completed jobs are recorded in sweep_manifest.log of the output folder,
+# they are skipped if the same output folder is given again.
+# Results are cached in sweep_cache, a job is not simulated again unless
+# its config files, its parameters or the compiled classes are changed.
+# If SWEEP_CI_TARGET is set (e.g. SWEEP_CI_TARGET=0.05), the number of
+# iterations is a maximum; iterations of a sweep point are stopped once
+# the 95% confidence intervals of its service time, failed task
+# percentage and QoE are within +/-SWEEP_CI_TARGET of the mean.
+# If SWEEP_SLOTS is set (e.g. SWEEP_SLOTS=3), each worker process runs that
+# many jobs at the same time in a single JVM, so the number of processes
+# can be reduced while the libraries and JIT compiled code are shared.
+script_root_path="$(dirname "$(readlink -f "$0")")"
+root_out_folder=${script_root_path}/output
+num_of_processes=$1
+iterationNumber=$2
+
+if [ "$#" -eq 3 ]; then
+	simulation_out_folder=$(readlink -f "$3")
+else
+	date=$(date '+%d-%m-%Y_%H-%M')
+	simulation_out_folder=${root_out_folder}/${date}
+fi
+mkdir -p $simulation_out_folder
+
+java -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar' edu.boun.edgecloudsim.sweep.SweepLauncher edu.boun.edgecloudsim.applications.sample_app2.MainApp $script_root_path $simulation_out_folder $num_of_processes $iterationNumber ${SWEEP_CI_TARGET:-0} ${SWEEP_SLOTS:-1}
@@ -2,3 +2,4 @@
 rm -rf ../../bin
 mkdir ../../bin
 javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" -sourcepath ../../src ../../src/edu/boun/edgecloudsim/applications/sample_app3/MainApp.java -d ../../bin
+javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" -sourcepath ../../src ../../src/edu/boun/edgecloudsim/sweep/SweepLauncher.java ../../src/edu/boun/edgecloudsim/sweep/SweepWorker.java ../../src/edu/boun/edgecloudsim/sweep/SweepSampler.java ../../src/edu/boun/edgecloudsim/sweep/SweepTuner.java -d ../../bin
@@ -0,0 +1,38 @@
+#!/bin/bash
+if [ "$#" -ne 3 ]; then
+	echo "Missing arguments! Please provide the design file, number of parallel processes and number of iterations."
+	echo "Usage: '$0 config/<name>.design 4 10'"
+	exit 1
+fi
+
+re='^[0-9]+$'
+if ! [[ $2 =~ $re ]] ; then
+	echo "$2 is not an integer! Please provide number of parallel processes."
+	echo "Usage: '$0 config/<name>.design 4 10'"
+	exit 1
+fi
+
+if ! [[ $3 =~ $re ]] ; then
+	echo "$3 is not an integer! Please provide number of iterations."
+	echo "Usage: '$0 config/<name>.design 4 10'"
+	exit 1
+fi
+
+# Instead of the full grid of a config, a latin hypercube or Sobol design
+# over the ranges declared in the design file is simulated (see
+# SweepSampler). The derived config files and the simulation.list of the
+# samples are written to the design folder of the output folder, then
+# they are run by SweepLauncher as in run_sweep.sh.
+script_root_path="$(dirname "$(readlink -f "$0")")"
+root_out_folder=${script_root_path}/output
+design_file=$(readlink -f "$1")
+num_of_processes=$2
+iterationNumber=$3
+
+date=$(date '+%d-%m-%Y_%H-%M')
+simulation_out_folder=${root_out_folder}/${date}
+design_folder=${simulation_out_folder}/design
+mkdir -p $design_folder
+
+java -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar' edu.boun.edgecloudsim.sweep.SweepSampler $script_root_path $design_file $design_folder || exit 1
+java -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar' edu.boun.edgecloudsim.sweep.SweepLauncher edu.boun.edgecloudsim.applications.sample_app3.MainApp $design_folder $simulation_out_folder $num_of_processes $iterationNumber ${SWEEP_CI_TARGET:-0} ${SWEEP_SLOTS:-1}
@@ -0,0 +1,28 @@
+#!/bin/bash
+if [ "$#" -ne 2 ]; then
+	echo "Missing arguments! Please provide the tuning file and number of parallel processes."
+	echo "Usage: '$0 config/<name>.tuning 4'"
+	exit 1
+fi
+
+re='^[0-9]+$'
+if ! [[ $2 =~ $re ]] ; then
+	echo "$2 is not an integer! Please provide number of parallel processes."
+	echo "Usage: '$0 config/<name>.tuning 4'"
+	exit 1
+fi
+
+# The parameters declared in the tuning file are searched by successive
+# halving (see SweepTuner). Each round is run by SweepLauncher in the
+# round<N> folder of the output folder; the results of all candidates are
+# kept in tuning.log and the best config is written to best_config.properties
+script_root_path="$(dirname "$(readlink -f "$0")")"
+root_out_folder=${script_root_path}/output
+tuning_file=$(readlink -f "$1")
+num_of_processes=$2
+
+date=$(date '+%d-%m-%Y_%H-%M')
+simulation_out_folder=${root_out_folder}/tuning_${date}
+mkdir -p $simulation_out_folder
+
+java -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar:../../lib/weka.jar:../../lib/mtj-1.0.4.jar' -Djava.library.path=../../lib/native/linux edu.boun.edgecloudsim.sweep.SweepTuner edu.boun.edgecloudsim.applications.sample_app5.VehicularMainApp $script_root_path $tuning_file $simulation_out_folder $num_of_processes
@@ -0,0 +1,11 @@
+#!/bin/sh
+rm -rf ../../test_bin
+mkdir ../../test_bin
+javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" -sourcepath ../../src:../../test ../../test/edu/boun/edgecloudsim/edge_server/CloudletSchedulerVirtualTimeTest.java -d ../../test_bin || exit 1
+javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/jFuzzyLogic_v3.0.jar:../../lib/colt.jar:../../lib/weka.jar:../../lib/mtj-1.0.4.jar" -sourcepath ../../src:../../test ../../test/edu/boun/edgecloudsim/core/LazyUpdateDatacenterTest.java ../../src/edu/boun/edgecloudsim/applications/sample_app1/MainApp.java ../../src/edu/boun/edgecloudsim/applications/sample_app2/MainApp.java ../../src/edu/boun/edgecloudsim/applications/sample_app3/MainApp.java ../../src/edu/boun/edgecloudsim/applications/sample_app4/FuzzyMainApp.java ../../src/edu/boun/edgecloudsim/applications/sample_app5/VehicularMainApp.java -d ../../test_bin || exit 1
+javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" -sourcepath ../../src:../../test ../../test/edu/boun/edgecloudsim/sweep/SweepCacheTest.java ../../src/edu/boun/edgecloudsim/applications/sample_app2/MainApp.java -d ../../test_bin || exit 1
+javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" -sourcepath ../../src:../../test ../../test/edu/boun/edgecloudsim/edge_client/UncontendedVmExecutorTest.java ../../src/edu/boun/edgecloudsim/applications/sample_app1/MainApp.java ../../src/edu/boun/edgecloudsim/applications/sample_app3/MainApp.java -d ../../test_bin || exit 1
+java -classpath "../../test_bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" edu.boun.edgecloudsim.edge_server.CloudletSchedulerVirtualTimeTest || exit 1
+java -classpath "../../test_bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/jFuzzyLogic_v3.0.jar:../../lib/colt.jar:../../lib/weka.jar:../../lib/mtj-1.0.4.jar" edu.boun.edgecloudsim.core.LazyUpdateDatacenterTest .. || exit 1
+java -classpath "../../test_bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" edu.boun.edgecloudsim.sweep.SweepCacheTest .. || exit 1
+java -classpath "../../test_bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar" edu.boun.edgecloudsim.edge_client.UncontendedVmExecutorTest .. || exit 1
@@ -24,16 +24,20 @@ import org.cloudbus.cloudsim.core.SimEvent;
 import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 	
 	private int numberOfHost; //used by load balancer
 
+	//dummy task to simulate a task with 1 Mbit file size to upload and download
+	//it is not changed by the network model, so a single instance is used
+	private Task dummyTask = new Task(0, 0, 0, 0, 128, 128, new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+
 	public SampleEdgeOrchestrator(String _policy, String _simScenario) {
 		super(_policy, _simScenario);
 	}
@@ -59,45 +63,42 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 			result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 		}
 		else if(simScenario.equals("TWO_TIER_WITH_EO")){
-			//dummy task to simulate a task with 1 Mbit file size to upload and download 
-			Task dummyTask = new Task(0, 0, 0, 0, 128, 128, new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
-			
 			double wanDelay = SimManager.getInstance().getNetworkModel().getUploadDelay(task.getMobileDeviceId(),
 					SimSettings.CLOUD_DATACENTER_ID, dummyTask /* 1 Mbit */);
 			
 			double wanBW = (wanDelay == 0) ? 0 : (1 / wanDelay); /* Mbps */
 			
 			double edgeUtilization = SimManager.getInstance().getEdgeServerManager().getAvgUtilization();
+			double wanBwThreshold = SimSettings.getInstance().getOrchestratorWanBwThreshold(); //6 Mbps by default
+			double utilizationThreshold = SimSettings.getInstance().getOrchestratorUtilizationThreshold(); //80% by default
 			
 
 			if(policy.equals("NETWORK_BASED")){
-				if(wanBW > 6)
+				if(wanBW > wanBwThreshold)
 					result = SimSettings.CLOUD_DATACENTER_ID;
 				else
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else if(policy.equals("UTILIZATION_BASED")){
 				double utilization = edgeUtilization;
-				if(utilization > 80)
+				if(utilization > utilizationThreshold)
 					result = SimSettings.CLOUD_DATACENTER_ID;
 				else
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else if(policy.equals("HYBRID")){
 				double utilization = edgeUtilization;
-				if(wanBW > 6 && utilization > 80)
+				if(wanBW > wanBwThreshold && utilization > utilizationThreshold)
 					result = SimSettings.CLOUD_DATACENTER_ID;
 				else
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else {
-				SimLogger.printLine("Unknown edge orchestrator policy! Terminating simulation...");
-				System.exit(0);
+				throw new SimulationException("Unknown edge orchestrator policy! Terminating simulation...");
 			}
 		}
 		else {
-			SimLogger.printLine("Unknown simulation scenario! Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Unknown simulation scenario! Terminating simulation...");
 		}
 		return result;
 	}
@@ -138,8 +139,7 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 			}
 		}
 		else{
-			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
-			System.exit(0);
+			throw new SimulationException("Unknown device id! The simulation has been terminated.");
 		}
 		
 		return selectedVM;
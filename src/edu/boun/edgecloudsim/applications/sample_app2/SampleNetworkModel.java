@@ -21,10 +21,10 @@ import org.cloudbus.cloudsim.core.CloudSim;
 
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
-import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SampleNetworkModel extends NetworkModel {
 	public static enum NETWORK_TYPE {WLAN, LAN};
@@ -194,8 +194,7 @@ public class SampleNetworkModel extends NetworkModel {
 		SimSettings SS = SimSettings.getInstance();
 		for(int taskIndex=0; taskIndex<numOfApp; taskIndex++) {
 			if(SS.getTaskLookUpTable()[taskIndex][0] == 0) {
-				SimLogger.printLine("Usage percentage of task " + taskIndex + " is 0! Terminating simulation...");
-				System.exit(0);
+				throw new SimulationException("Usage percentage of task " + taskIndex + " is 0! Terminating simulation...");
 			}
 			else{
 				double weight = SS.getTaskLookUpTable()[taskIndex][0]/(double)100;
@@ -282,8 +281,7 @@ public class SampleNetworkModel extends NetworkModel {
 		else if (destDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID+1)
 			manClients++;
 		else {
-			SimLogger.printLine("Error - unknown device id in uploadStarted(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in uploadStarted(). Terminating simulation...");
 		}
 	}
 
@@ -296,8 +294,7 @@ public class SampleNetworkModel extends NetworkModel {
 		else if (destDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID+1)
 			manClients--;
 		else {
-			SimLogger.printLine("Error - unknown device id in uploadFinished(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in uploadFinished(). Terminating simulation...");
 		}
 	}
 
@@ -310,8 +307,7 @@ public class SampleNetworkModel extends NetworkModel {
 		else if(sourceDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID+1)
 			manClients++;
 		else {
-			SimLogger.printLine("Error - unknown device id in downloadStarted(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in downloadStarted(). Terminating simulation...");
 		}
 	}
 
@@ -324,8 +320,7 @@ public class SampleNetworkModel extends NetworkModel {
 		else if(sourceDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID+1)
 			manClients--;
 		else {
-			SimLogger.printLine("Error - unknown device id in downloadFinished(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in downloadFinished(). Terminating simulation...");
 		}
 	}
 
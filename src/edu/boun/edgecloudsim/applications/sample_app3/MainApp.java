@@ -57,7 +57,7 @@ public class MainApp {
 
 		//load settings from configuration file
 		SimSettings SS = SimSettings.getInstance();
-		if(SS.initialize(configFile, edgeDevicesFile, applicationsFile) == false){
+		if(initializeHelper(configFile, edgeDevicesFile, applicationsFile) == false){
 			SimLogger.printLine("cannot initialize simulation settings!");
 			System.exit(0);
 		}
@@ -79,35 +79,9 @@ public class MainApp {
 			{
 				for(int i=0; i<SS.getOrchestratorPolicies().length; i++)
 				{
-					String simScenario = SS.getSimulationScenarios()[k];
-					String orchestratorPolicy = SS.getOrchestratorPolicies()[i];
-					Date ScenarioStartDate = Calendar.getInstance().getTime();
-					now = df.format(ScenarioStartDate);
-
-					SimLogger.printLine("Scenario started at " + now);
-					SimLogger.printLine("Scenario: " + simScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
-					SimLogger.printLine("Duration: " + SS.getSimulationTime()/60 + " min (warm up period: "+ SS.getWarmUpPeriod()/60 +" min) - #devices: " + j);
-					SimLogger.getInstance().simStarted(outputFolder,"SIMRESULT_" + simScenario + "_"  + orchestratorPolicy + "_" + j + "DEVICES");
-					
 					try
 					{
-						// First step: Initialize the CloudSim package. It should be called
-						// before creating any entities.
-						int num_user = 2;   // number of grid users
-						Calendar calendar = Calendar.getInstance();
-						boolean trace_flag = false;  // mean trace events
-				
-						// Initialize the CloudSim library
-						CloudSim.init(num_user, calendar, trace_flag, 0.01);
-						
-						// Generate EdgeCloudsim Scenario Factory
-						ScenarioFactory sampleFactory = new SampleScenarioFactory(j,SS.getSimulationTime(), orchestratorPolicy, simScenario);
-						
-						// Generate EdgeCloudSim Simulation Manager
-						SimManager manager = new SimManager(sampleFactory, j, simScenario, orchestratorPolicy);
-						
-						// Start simulation
-						manager.startSimulation();
+						mainHelper(outputFolder, SS.getSimulationScenarios()[k], SS.getOrchestratorPolicies()[i], iterationNumber, j);
 					}
 					catch (Exception e)
 					{
@@ -115,11 +89,6 @@ public class MainApp {
 						e.printStackTrace();
 						System.exit(0);
 					}
-					
-					Date ScenarioEndDate = Calendar.getInstance().getTime();
-					now = df.format(ScenarioEndDate);
-					SimLogger.printLine("Scenario finished at " + now +  ". It took " + SimUtils.getTimeDifference(ScenarioStartDate,ScenarioEndDate));
-					SimLogger.printLine("----------------------------------------------------------------------");
 				}//End of orchestrators loop
 			}//End of scenarios loop
 		}//End of mobile devices loop
@@ -128,4 +97,52 @@ public class MainApp {
 		now = df.format(SimulationEndDate);
 		SimLogger.printLine("Simulation finished at " + now +  ". It took " + SimUtils.getTimeDifference(SimulationStartDate,SimulationEndDate));
 	}
+
+	/**
+	 * Initializes the simulation settings of this application. It is also
+	 * invoked by SimulationContext to prepare an isolated simulation run.
+	 */
+	public static boolean initializeHelper(String configFile, String edgeDevicesFile, String applicationsFile){
+		return SimSettings.getInstance().initialize(configFile, edgeDevicesFile, applicationsFile);
+	}
+
+	/**
+	 * Runs a single simulation scenario. Errors are not handled here,
+	 * they are propagated to the caller instead.
+	 */
+	public static void mainHelper(String outputFolder, String simScenario, String orchestratorPolicy, int iterationNumber, int numOfMobileDevice) throws Exception {
+		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		Date ScenarioStartDate = Calendar.getInstance().getTime();
+		String now = df.format(ScenarioStartDate);
+		SimSettings SS = SimSettings.getInstance();
+
+		SimLogger.printLine("Scenario started at " + now);
+		SimLogger.printLine("Scenario: " + simScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
+		SimLogger.printLine("Duration: " + SS.getSimulationTime()/60 + " min (warm up period: "+ SS.getWarmUpPeriod()/60 +" min) - #devices: " + numOfMobileDevice);
+		SimLogger.getInstance().simStarted(outputFolder,"SIMRESULT_" + simScenario + "_"  + orchestratorPolicy + "_" + numOfMobileDevice + "DEVICES");
+		SimUtils.initializeRandomStreams(orchestratorPolicy, iterationNumber, numOfMobileDevice);
+
+		// First step: Initialize the CloudSim package. It should be called
+		// before creating any entities.
+		int num_user = 2;   // number of grid users
+		Calendar calendar = Calendar.getInstance();
+		boolean trace_flag = false;  // mean trace events
+
+		// Initialize the CloudSim library
+		CloudSim.init(num_user, calendar, trace_flag, 0.01);
+
+		// Generate EdgeCloudsim Scenario Factory
+		ScenarioFactory sampleFactory = new SampleScenarioFactory(numOfMobileDevice, SS.getSimulationTime(), orchestratorPolicy, simScenario);
+
+		// Generate EdgeCloudSim Simulation Manager
+		SimManager manager = new SimManager(sampleFactory, numOfMobileDevice, simScenario, orchestratorPolicy);
+
+		// Start simulation
+		manager.startSimulation();
+
+		Date ScenarioEndDate = Calendar.getInstance().getTime();
+		now = df.format(ScenarioEndDate);
+		SimLogger.printLine("Scenario finished at " + now +  ". It took " + SimUtils.getTimeDifference(ScenarioStartDate,ScenarioEndDate));
+		SimLogger.printLine("----------------------------------------------------------------------");
+	}
 }
@@ -19,12 +19,13 @@ import org.cloudbus.cloudsim.core.SimEvent;
 
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileVM;
-import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 	
@@ -55,9 +56,10 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 			result = SimSettings.MOBILE_DATACENTER_ID;
 		}
 		else if(policy.equals("HYBRID")){
-			List<MobileVM> vmArray = SimManager.getInstance().getMobileServerManager().getVmList(task.getMobileDeviceId());
-			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(0).getVmType());
-			double targetVmCapacity = (double) 100 - vmArray.get(0).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
+			MobileServerManager mobileServerManager = SimManager.getInstance().getMobileServerManager();
+			MobileVM vm = mobileServerManager.getVm(task.getMobileDeviceId());
+			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vm.getVmType());
+			double targetVmCapacity = (double) 100 - mobileServerManager.getUtilization(task.getMobileDeviceId());
 			
 			if (requiredCapacity <= targetVmCapacity)
 				result = SimSettings.MOBILE_DATACENTER_ID;
@@ -65,8 +67,7 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 				result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 		}
 		else {
-			SimLogger.printLine("Unknow edge orchestrator policy! Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Unknow edge orchestrator policy! Terminating simulation...");
 		}
 
 		return result;
@@ -77,12 +78,13 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 		Vm selectedVM = null;
 		
 		if (deviceId == SimSettings.MOBILE_DATACENTER_ID) {
-			List<MobileVM> vmArray = SimManager.getInstance().getMobileServerManager().getVmList(task.getMobileDeviceId());
-			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(0).getVmType());
-			double targetVmCapacity = (double) 100 - vmArray.get(0).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
+			MobileServerManager mobileServerManager = SimManager.getInstance().getMobileServerManager();
+			MobileVM vm = mobileServerManager.getVm(task.getMobileDeviceId());
+			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vm.getVmType());
+			double targetVmCapacity = (double) 100 - mobileServerManager.getUtilization(task.getMobileDeviceId());
 			
 			if (requiredCapacity <= targetVmCapacity)
-				selectedVM = vmArray.get(0);
+				selectedVM = vm;
 		 }
 		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
 			//Select VM on edge devices via Least Loaded algorithm!
@@ -100,8 +102,7 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 			}
 		}
 		else{
-			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
-			System.exit(0);
+			throw new SimulationException("Unknown device id! The simulation has been terminated.");
 		}
 		
 		return selectedVM;
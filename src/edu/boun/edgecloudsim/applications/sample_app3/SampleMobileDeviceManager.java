@@ -13,7 +13,7 @@
  * mobile device processing unit.
  * 
  * If you want to use different topology, you should modify
- * the flow implemented in this class.
+ * the stages defined in this class.
  * 
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -22,34 +22,82 @@
 package edu.boun.edgecloudsim.applications.sample_app3;
 
 import org.cloudbus.cloudsim.UtilizationModel;
-import org.cloudbus.cloudsim.UtilizationModelFull;
-import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
-import org.cloudbus.cloudsim.core.CloudSimTags;
-import org.cloudbus.cloudsim.core.SimEvent;
 
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
 import edu.boun.edgecloudsim.core.SimSettings.VM_TYPES;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_client.TaskHop;
+import edu.boun.edgecloudsim.edge_client.TaskHop.HOP_DIRECTIONS;
+import edu.boun.edgecloudsim.edge_client.TaskHop.MOBILITY_CHECKS;
+import edu.boun.edgecloudsim.edge_client.TaskLifecycle;
+import edu.boun.edgecloudsim.edge_client.TaskRoute;
+import edu.boun.edgecloudsim.edge_client.TaskStage;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.TaskProperty;
-import edu.boun.edgecloudsim.utils.Location;
-import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SampleMobileDeviceManager extends MobileDeviceManager {
-	private static final int BASE = 100000; //start from base in order not to conflict cloudsim tag!
-	
-	private static final int REQUEST_RECEIVED_BY_EDGE_DEVICE = BASE + 1;
-	private static final int REQUEST_RECEIVED_BY_MOBILE_DEVICE = BASE + 2;
-	private static final int RESPONSE_RECEIVED_BY_MOBILE_DEVICE = BASE + 3;
+	private static final TaskHop WLAN_UPLOAD = new TaskHop(HOP_DIRECTIONS.UPLOAD,
+			NETWORK_DELAY_TYPES.WLAN_DELAY, SimSettings.GENERIC_EDGE_DEVICE_ID, MOBILITY_CHECKS.NONE) {
+		@Override
+		public double getDelay(NetworkModel networkModel, Task task) {
+			return networkModel.getUploadDelay(task.getMobileDeviceId(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+		}
+	};
+
+	private static final TaskHop WLAN_DOWNLOAD = new TaskHop(HOP_DIRECTIONS.DOWNLOAD,
+			NETWORK_DELAY_TYPES.WLAN_DELAY, SimSettings.GENERIC_EDGE_DEVICE_ID, MOBILITY_CHECKS.SUBMITTED_LOCATION) {
+		@Override
+		public double getDelay(NetworkModel networkModel, Task task) {
+			return networkModel.getDownloadDelay(task.getAssociatedDatacenterId(), task.getMobileDeviceId(), task);
+		}
+	};
 
-	private int taskIdCounter=0;
+	private TaskRoute edgeRequest;
+	private TaskRoute mobileRequest;
 	
 	public SampleMobileDeviceManager() throws Exception{
+		TaskLifecycle lifecycle = getLifecycle();
+
+		TaskStage responseReceived = lifecycle.addCompletionStage("RESPONSE_RECEIVED_BY_MOBILE_DEVICE");
+
+		TaskStage requestReceivedByEdge = lifecycle.addExecutionStage("REQUEST_RECEIVED_BY_EDGE_DEVICE", VM_TYPES.EDGE_VM,
+				lifecycle.addTransferStage("RESPONSE_SENT_BY_EDGE_DEVICE",
+						new TaskRoute(WLAN_DOWNLOAD, VM_TYPES.EDGE_VM, responseReceived)));
+
+		/*
+		 * TODO: In this scenario device to device (D2D) communication is ignored.
+		 * If you want to consider D2D communication, you should transmit the result
+		 * of the task to the sender mobile device. Hence, you should define a
+		 * D2D_DELAY hop and use a transfer stage as the next stage of the following
+		 * execution stage.
+		 * 
+		 * Please not that you should deal with the mobility and D2D delay calculation.
+		 * The task can be failed due to the network bandwidth or the nobility.
+		 */
+		TaskStage requestReceivedByMobile = lifecycle.addExecutionStage("REQUEST_RECEIVED_BY_MOBILE_DEVICE",
+				VM_TYPES.MOBILE_VM, responseReceived);
+
+		edgeRequest = new TaskRoute(WLAN_UPLOAD, VM_TYPES.EDGE_VM,
+				SimSettings.GENERIC_EDGE_DEVICE_ID, requestReceivedByEdge);
+
+		/*
+		 * TODO: In this scenario device to device (D2D) communication is ignored.
+		 * If you want to consider D2D communication, you should define a D2D
+		 * network hop for the following route.
+		 * 
+		 * You should also add D2D_DELAY to the following enum in SimSettings
+		 * public static enum NETWORK_DELAY_TYPES { WLAN_DELAY, MAN_DELAY, WAN_DELAY }
+		 * 
+		 * If you want to get statistics of the D2D networking, you should modify
+		 * SimLogger in a way to consider D2D_DELAY statistics.
+		 */
+		mobileRequest = new TaskRoute(null, VM_TYPES.MOBILE_VM,
+				SimSettings.MOBILE_DATACENTER_ID, requestReceivedByMobile);
 	}
 
 	@Override
@@ -57,244 +105,29 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 	}
 	
 	@Override
-	public UtilizationModel getCpuUtilizationModel() {
-		return new CpuUtilizationModel_Custom();
+	public UtilizationModel getCpuUtilizationModel(int taskType) {
+		return new CpuUtilizationModel_Custom(taskType);
 	}
 	
 	@Override
 	public void startEntity() {
 		super.startEntity();
 	}
-	
-	/**
-	 * Submit cloudlets to the created VMs.
-	 * 
-	 * @pre $none
-	 * @post $none
-	 */
-	protected void submitCloudlets() {
-		//do nothing!
-	}
-	
-	/**
-	 * Process a cloudlet return event.
-	 * 
-	 * @param ev a SimEvent object
-	 * @pre ev != $null
-	 * @post $none
-	 */
-	protected void processCloudletReturn(SimEvent ev) {
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
-		Task task = (Task) ev.getData();
-		
-		SimLogger.getInstance().taskExecuted(task.getCloudletId());
-
-		if(task.getAssociatedDatacenterId() == SimSettings.GENERIC_EDGE_DEVICE_ID){
-			double delay = networkModel.getDownloadDelay(task.getAssociatedDatacenterId(), task.getMobileDeviceId(), task);
-			
-			if(delay > 0)
-			{
-				Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock()+delay);
-				if(task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
-				{
-					networkModel.downloadStarted(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
-					SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), delay, NETWORK_DELAY_TYPES.WLAN_DELAY);
-					
-					schedule(getId(), delay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
-				}
-				else
-				{
-					SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
-				}
-			}
-			else
-			{
-				SimLogger.getInstance().failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WLAN_DELAY);
-			}
-		}
-		else if(task.getAssociatedDatacenterId() == SimSettings.MOBILE_DATACENTER_ID) {
-			SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
-			
-			/*
-			 * TODO: In this scenario device to device (D2D) communication is ignored.
-			 * If you want to consider D2D communication, you should transmit the result
-			 * of the task to the sender mobile device. Hence, you should calculate
-			 * D2D_DELAY here and send the following event:
-			 * 
-			 * schedule(getId(), delay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
-			 * 
-			 * Please not that you should deal with the mobility and D2D delay calculation.
-			 * The task can be failed due to the network bandwidth or the nobility.
-			 */
-		}
-		else {
-			SimLogger.printLine("Unknown datacenter id! Terminating simulation...");
-			System.exit(0);
-		}
-	}
-	
-	protected void processOtherEvent(SimEvent ev) {
-		if (ev == null) {
-			SimLogger.printLine(getName() + ".processOtherEvent(): " + "Error - an event is null! Terminating simulation...");
-			System.exit(0);
-			return;
-		}
-		
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
-		
-		switch (ev.getTag()) {
-			case REQUEST_RECEIVED_BY_MOBILE_DEVICE:
-			{
-				Task task = (Task) ev.getData();			
-				submitTaskToVm(task, SimSettings.VM_TYPES.MOBILE_VM);
-				break;
-			}
-			case REQUEST_RECEIVED_BY_EDGE_DEVICE:
-			{
-				Task task = (Task) ev.getData();
-				networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
-				submitTaskToVm(task, SimSettings.VM_TYPES.EDGE_VM);
-				break;
-			}
-			case RESPONSE_RECEIVED_BY_MOBILE_DEVICE:
-			{
-				Task task = (Task) ev.getData();
-				
-				networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
-				
-				SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
-				break;
-			}
-			default:
-				SimLogger.printLine(getName() + ".processOtherEvent(): " + "Error - event unknown by this DatacenterBroker. Terminating simulation...");
-				System.exit(0);
-				break;
-		}
-	}
 
 	public void submitTask(TaskProperty edgeTask) {
-		double delay = 0;
-		int nextEvent = 0;
-		int nextDeviceForNetworkModel = 0;
-		VM_TYPES vmType = null;
-		NETWORK_DELAY_TYPES delayType = null;
-		
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
-		
 		//create a task
 		Task task = createTask(edgeTask);
-		
-		Location currentLocation = SimManager.getInstance().getMobilityModel().
-				getLocation(task.getMobileDeviceId(), CloudSim.clock());
-		
-		//set location of the mobile device which generates this task
-		task.setSubmittedLocation(currentLocation);
-
-		//add related task to log list
-		SimLogger.getInstance().addLog(task.getMobileDeviceId(),
-				task.getCloudletId(),
-				task.getTaskType(),
-				(int)task.getCloudletLength(),
-				(int)task.getCloudletFileSize(),
-				(int)task.getCloudletOutputSize());
 
 		int nextHopId = SimManager.getInstance().getEdgeOrchestrator().getDeviceToOffload(task);
 		
 		if(nextHopId == SimSettings.GENERIC_EDGE_DEVICE_ID){
-			delay = networkModel.getUploadDelay(task.getMobileDeviceId(), nextHopId, task);
-			vmType = SimSettings.VM_TYPES.EDGE_VM;
-			nextEvent = REQUEST_RECEIVED_BY_EDGE_DEVICE;
-			delayType = NETWORK_DELAY_TYPES.WLAN_DELAY;
-			nextDeviceForNetworkModel = SimSettings.GENERIC_EDGE_DEVICE_ID;
+			getLifecycle().start(task, edgeRequest);
 		}
 		else if(nextHopId == SimSettings.MOBILE_DATACENTER_ID){
-			vmType = VM_TYPES.MOBILE_VM;
-			nextEvent = REQUEST_RECEIVED_BY_MOBILE_DEVICE;
-			
-			/*
-			 * TODO: In this scenario device to device (D2D) communication is ignored.
-			 * If you want to consider D2D communication, you should calculate D2D
-			 * network delay here.
-			 * 
-			 * You should also add D2D_DELAY to the following enum in SimSettings
-			 * public static enum NETWORK_DELAY_TYPES { WLAN_DELAY, MAN_DELAY, WAN_DELAY }
-			 * 
-			 * If you want to get statistics of the D2D networking, you should modify
-			 * SimLogger in a way to consider D2D_DELAY statistics.
-			 */
+			getLifecycle().start(task, mobileRequest);
 		}
 		else {
-			SimLogger.printLine("Unknown nextHopId! Terminating simulation...");
-			System.exit(0);
-		}
-		
-		if(delay>0 || nextHopId == SimSettings.MOBILE_DATACENTER_ID){
-			
-			Vm selectedVM = SimManager.getInstance().getEdgeOrchestrator().getVmToOffload(task, nextHopId);
-			
-			if(selectedVM != null){
-				//set related host id
-				task.setAssociatedDatacenterId(nextHopId);
-
-				//set related host id
-				task.setAssociatedHostId(selectedVM.getHost().getId());
-				
-				//set related vm id
-				task.setAssociatedVmId(selectedVM.getId());
-				
-				//bind task to related VM
-				getCloudletList().add(task);
-				bindCloudletToVm(task.getCloudletId(), selectedVM.getId());
-
-				SimLogger.getInstance().taskStarted(task.getCloudletId(), CloudSim.clock());
-				
-				if(nextHopId != SimSettings.MOBILE_DATACENTER_ID) {
-					networkModel.uploadStarted(task.getSubmittedLocation(), nextDeviceForNetworkModel);
-					SimLogger.getInstance().setUploadDelay(task.getCloudletId(), delay, delayType);
-				}
-
-				schedule(getId(), delay, nextEvent, task);
-			}
-			else{
-				//SimLogger.printLine("Task #" + task.getCloudletId() + " cannot assign to any VM");
-				SimLogger.getInstance().rejectedDueToVMCapacity(task.getCloudletId(), CloudSim.clock(), vmType.ordinal());
-			}
-		}
-		else
-		{
-			//SimLogger.printLine("Task #" + task.getCloudletId() + " cannot assign to any VM");
-			SimLogger.getInstance().rejectedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), vmType.ordinal(), delayType);
+			throw new SimulationException("Unknown nextHopId! Terminating simulation...");
 		}
 	}
-	
-	private void submitTaskToVm(Task task, SimSettings.VM_TYPES vmType) {
-		//SimLogger.printLine(CloudSim.clock() + ": Cloudlet#" + task.getCloudletId() + " is submitted to VM#" + task.getVmId());
-		schedule(getVmsToDatacentersMap().get(task.getVmId()), 0, CloudSimTags.CLOUDLET_SUBMIT, task);
-
-		SimLogger.getInstance().taskAssigned(task.getCloudletId(),
-				task.getAssociatedDatacenterId(),
-				task.getAssociatedHostId(),
-				task.getAssociatedVmId(),
-				vmType.ordinal());
-	}
-	
-	private Task createTask(TaskProperty edgeTask){
-		UtilizationModel utilizationModel = new UtilizationModelFull(); /*UtilizationModelStochastic*/
-		UtilizationModel utilizationModelCPU = getCpuUtilizationModel();
-
-		Task task = new Task(edgeTask.getMobileDeviceId(), ++taskIdCounter,
-				edgeTask.getLength(), edgeTask.getPesNumber(),
-				edgeTask.getInputFileSize(), edgeTask.getOutputFileSize(),
-				utilizationModelCPU, utilizationModel, utilizationModel);
-		
-		//set the owner of this task
-		task.setUserId(this.getId());
-		task.setTaskType(edgeTask.getTaskType());
-		
-		if (utilizationModelCPU instanceof CpuUtilizationModel_Custom) {
-			((CpuUtilizationModel_Custom)utilizationModelCPU).setTask(task);
-		}
-		
-		return task;
-	}
 }
@@ -28,6 +28,7 @@ import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
+import edu.boun.edgecloudsim.core.LazyUpdateDatacenter;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileHost;
@@ -134,7 +135,10 @@ public class SampleMobileServerManager extends MobileServerManager{
 		Datacenter datacenter = null;
 	
 		VmAllocationPolicy vm_policy = getVmAllocationPolicy(hostList,index);
-		datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
+		if(SimSettings.getInstance().getLazyDatacenterUpdate())
+			datacenter = new LazyUpdateDatacenter(name, characteristics, vm_policy, storageList, 0);
+		else
+			datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
 		
 		return datacenter;
 	}
@@ -17,10 +17,10 @@ import org.cloudbus.cloudsim.core.CloudSim;
 
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
-import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SampleNetworkModel extends NetworkModel {
 	private int[] wlanClients;
@@ -150,8 +150,7 @@ public class SampleNetworkModel extends NetworkModel {
 			delay = getWlanUploadDelay(task.getSubmittedLocation(), task.getCloudletFileSize());
 		}
 		else {
-			SimLogger.printLine("Error - unknown device id in getUploadDelay(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in getUploadDelay(). Terminating simulation...");
 		}
 		return delay;
 	}
@@ -170,8 +169,7 @@ public class SampleNetworkModel extends NetworkModel {
 			delay = getWlanDownloadDelay(accessPointLocation, task.getCloudletOutputSize());
 		}
 		else {
-			SimLogger.printLine("Error - unknown device id in getDownloadDelay(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in getDownloadDelay(). Terminating simulation...");
 		}
 		
 		return delay;
@@ -183,8 +181,7 @@ public class SampleNetworkModel extends NetworkModel {
 			wlanClients[accessPointLocation.getServingWlanId()]++;
 		}
 		else {
-			SimLogger.printLine("Error - unknown device id in uploadStarted(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in uploadStarted(). Terminating simulation...");
 		}
 	}
 
@@ -194,8 +191,7 @@ public class SampleNetworkModel extends NetworkModel {
 			wlanClients[accessPointLocation.getServingWlanId()]--;
 		 }
 		else {
-			SimLogger.printLine("Error - unknown device id in uploadFinished(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in uploadFinished(). Terminating simulation...");
 		}
 	}
 
@@ -205,8 +201,7 @@ public class SampleNetworkModel extends NetworkModel {
 			wlanClients[accessPointLocation.getServingWlanId()]++;
 		}
 		else {
-			SimLogger.printLine("Error - unknown device id in downloadStarted(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in downloadStarted(). Terminating simulation...");
 		}
 	}
 
@@ -216,8 +211,7 @@ public class SampleNetworkModel extends NetworkModel {
 			wlanClients[accessPointLocation.getServingWlanId()]--;
 		}
 		else {
-			SimLogger.printLine("Error - unknown device id in downloadFinished(). Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Error - unknown device id in downloadFinished(). Terminating simulation...");
 		}
 	}
 
@@ -13,10 +13,12 @@ package edu.boun.edgecloudsim.applications.sample_app3;
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.cloud_server.DefaultCloudServerManager;
 import edu.boun.edgecloudsim.core.ScenarioFactory;
+import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.DefaultEdgeServerManager;
 import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
+import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.LightweightMobileServerManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.mobility.NomadicMobility;
@@ -77,6 +79,9 @@ public class SampleScenarioFactory implements ScenarioFactory {
 
 	@Override
 	public MobileServerManager getMobileServerManager() {
+		if(SimSettings.getInstance().getLightweightMobileExecution())
+			return new LightweightMobileServerManager(numOfMobileDevice);
+
 		return new SampleMobileServerManager(numOfMobileDevice);
 	}
 }
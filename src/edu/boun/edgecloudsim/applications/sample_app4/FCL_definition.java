@@ -1,6 +1,11 @@
 package edu.boun.edgecloudsim.applications.sample_app4;
 
 public final class FCL_definition {
+	//centers of the medium terms of wan_bw and avg_edge_util, they can be
+	//changed via fuzzy_wan_bw_center and fuzzy_edge_util_center properties
+	public final static double DEFAULT_WAN_BW_CENTER = 5;
+	public final static double DEFAULT_EDGE_UTIL_CENTER = 50;
+
 	public final static String memberShipFunctions1 = String.join("\n"
 			, "FUNCTION_BLOCK tipper"
 			, "VAR_INPUT"
@@ -12,11 +17,7 @@ public final class FCL_definition {
 			, "VAR_OUTPUT"
 			, "	offload_decision : REAL;"
 			, "END_VAR"
-			, "FUZZIFY wan_bw"
-			, "	TERM low := (0, 1) (2, 1) (4, 0);"
-			, "	TERM medium := (3, 0) (5, 1) (7, 0);"
-			, "	TERM high := (6, 0) (8, 1) (21, 1);"
-			, "END_FUZZIFY"
+			, fuzzifyWanBw(DEFAULT_WAN_BW_CENTER)
 			, "FUZZIFY task_size"
 			, "	TERM low := (0, 1) (4000, 1) (8000, 0) ; "
 			, "	TERM medium := (6000, 0) (12000,1) (18000,0);"
@@ -27,11 +28,7 @@ public final class FCL_definition {
 			, "	TERM medium := (0.3, 0) (0.5,1) (0.7,0);"
 			, "	TERM high := (0.6, 0) (0.8, 1) (1, 1);"
 			, "END_FUZZIFY"
-			, "FUZZIFY avg_edge_util"
-			, "	TERM low := (0, 1) (20, 1) (40, 0);"
-			, "	TERM medium := (30, 0) (50,1) (70,0);"
-			, "	TERM high := (60, 0) (80, 1) (100, 1);"
-			, "END_FUZZIFY"
+			, fuzzifyAvgEdgeUtil(DEFAULT_EDGE_UTIL_CENTER)
 			, "DEFUZZIFY offload_decision"
 			, "	TERM edge := (0, 0) (30, 1) (60, 0);"
 			, "	TERM cloud := (40, 0) (70, 1) (100, 0);"
@@ -212,11 +209,7 @@ public final class FCL_definition {
 			, "VAR_OUTPUT"
 			, "	offload_decision : REAL;"
 			, "END_VAR"
-			, "FUZZIFY wan_bw"
-			, "	TERM low := (0, 1) (2, 1) (4, 0);"
-			, "	TERM medium := (3, 0) (5, 1) (7, 0);"
-			, "	TERM high := (6, 0) (8, 1) (21, 1);"
-			, "END_FUZZIFY"
+			, fuzzifyWanBw(DEFAULT_WAN_BW_CENTER)
 			, "FUZZIFY video_execution"
 			, "	TERM low := (0, 1) (0.2, 1) (0.4, 0) ; "
 			, "	TERM normal := (0.3, 0) (0.5,1) (0.7,0);"
@@ -317,4 +310,47 @@ public final class FCL_definition {
 			, "END_RULEBLOCK"
 			, "END_FUNCTION_BLOCK"
 	);
+
+	/**
+	 * returns fclDefinition1 with the given centers of wan_bw and avg_edge_util terms
+	 */
+	public static String getFclDefinition1(double wanBwCenter, double edgeUtilCenter) {
+		return fclDefinition1
+				.replace(fuzzifyWanBw(DEFAULT_WAN_BW_CENTER), fuzzifyWanBw(wanBwCenter))
+				.replace(fuzzifyAvgEdgeUtil(DEFAULT_EDGE_UTIL_CENTER), fuzzifyAvgEdgeUtil(edgeUtilCenter));
+	}
+
+	/**
+	 * returns fclDefinition3 with the given center of wan_bw terms
+	 */
+	public static String getFclDefinition3(double wanBwCenter) {
+		return fclDefinition3.replace(fuzzifyWanBw(DEFAULT_WAN_BW_CENTER), fuzzifyWanBw(wanBwCenter));
+	}
+
+	/*
+	 * terms are placed around the center with the same spacing as the original definition,
+	 * i.e. (0, 1) (2, 1) (4, 0) - (3, 0) (5, 1) (7, 0) - (6, 0) (8, 1) (21, 1) for center 5
+	 */
+	private static String fuzzifyWanBw(double center) {
+		return String.join("\n"
+				, "FUZZIFY wan_bw"
+				, "	TERM low := (0, 1) (" + (center - 3) + ", 1) (" + (center - 1) + ", 0);"
+				, "	TERM medium := (" + (center - 2) + ", 0) (" + center + ", 1) (" + (center + 2) + ", 0);"
+				, "	TERM high := (" + (center + 1) + ", 0) (" + (center + 3) + ", 1) (" + Math.max(21, center + 4) + ", 1);"
+				, "END_FUZZIFY"
+		);
+	}
+
+	/*
+	 * (0, 1) (20, 1) (40, 0) - (30, 0) (50, 1) (70, 0) - (60, 0) (80, 1) (100, 1) for center 50
+	 */
+	private static String fuzzifyAvgEdgeUtil(double center) {
+		return String.join("\n"
+				, "FUZZIFY avg_edge_util"
+				, "	TERM low := (0, 1) (" + (center - 30) + ", 1) (" + (center - 10) + ", 0);"
+				, "	TERM medium := (" + (center - 20) + ", 0) (" + center + ", 1) (" + (center + 20) + ", 0);"
+				, "	TERM high := (" + (center + 10) + ", 0) (" + (center + 30) + ", 1) (" + Math.max(100, center + 40) + ", 1);"
+				, "END_FUZZIFY"
+		);
+	}
 }
@@ -25,6 +25,7 @@ import net.sourceforge.jFuzzyLogic.FIS;
 import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.EdgeHost;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
@@ -40,6 +41,10 @@ public class FuzzyEdgeOrchestrator extends EdgeOrchestrator {
 	private FIS fis2 = null;
 	private FIS fis3 = null;
 
+	//dummy task to simulate a task with 1 Mbit file size to upload and download
+	//it is not changed by the network model, so a single instance is used
+	private Task dummyTask = new Task(0, 0, 0, 0, 128, 128, new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+
 	public FuzzyEdgeOrchestrator(String _policy, String _simScenario) {
 		super(_policy, _simScenario);
 	}
@@ -49,13 +54,12 @@ public class FuzzyEdgeOrchestrator extends EdgeOrchestrator {
 		numberOfHost=SimSettings.getInstance().getNumOfEdgeHosts();
 		
 		try {
-			fis1 = FIS.createFromString(FCL_definition.fclDefinition1, false);
+			SimSettings SS = SimSettings.getInstance();
+			fis1 = FIS.createFromString(FCL_definition.getFclDefinition1(SS.getFuzzyWanBwCenter(), SS.getFuzzyEdgeUtilCenter()), false);
 			fis2 = FIS.createFromString(FCL_definition.fclDefinition2, false);
-			fis3 = FIS.createFromString(FCL_definition.fclDefinition3, false);
+			fis3 = FIS.createFromString(FCL_definition.getFclDefinition3(SS.getFuzzyWanBwCenter()), false);
 		} catch (RecognitionException e) {
-			SimLogger.printLine("Cannot generate FIS! Terminating simulation...");
-			e.printStackTrace();
-			System.exit(0);
+			throw new SimulationException("Cannot generate FIS! Terminating simulation...", e);
 		}
 	}
 
@@ -79,9 +83,6 @@ public class FuzzyEdgeOrchestrator extends EdgeOrchestrator {
 			int nearestEdgeHostIndex = 0;
 			double nearestEdgeUtilization = 0;
 			
-			//dummy task to simulate a task with 1 Mbit file size to upload and download 
-			Task dummyTask = new Task(0, 0, 0, 0, 128, 128, new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
-			
 			double wanDelay = SimManager.getInstance().getNetworkModel().getUploadDelay(task.getMobileDeviceId(),
 					SimSettings.CLOUD_DATACENTER_ID, dummyTask /* 1 Mbit */);
 			double wanBW = (wanDelay == 0) ? 0 : (1 / wanDelay); /* Mbps */
@@ -200,33 +201,31 @@ public class FuzzyEdgeOrchestrator extends EdgeOrchestrator {
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else if(policy.equals("NETWORK_BASED")){
-				if(wanBW > 6)
+				if(wanBW > SimSettings.getInstance().getOrchestratorWanBwThreshold())
 					result = SimSettings.CLOUD_DATACENTER_ID;
 				else
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else if(policy.equals("UTILIZATION_BASED")){
 				double utilization = edgeUtilization;
-				if(utilization > 80)
+				if(utilization > SimSettings.getInstance().getOrchestratorUtilizationThreshold())
 					result = SimSettings.CLOUD_DATACENTER_ID;
 				else
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else if(policy.equals("HYBRID")){
 				double utilization = edgeUtilization;
-				if(wanBW > 6 && utilization > 80)
+				if(wanBW > SimSettings.getInstance().getOrchestratorWanBwThreshold() && utilization > SimSettings.getInstance().getOrchestratorUtilizationThreshold())
 					result = SimSettings.CLOUD_DATACENTER_ID;
 				else
 					result = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			}
 			else {
-				SimLogger.printLine("Unknown edge orchestrator policy! Terminating simulation...");
-				System.exit(0);
+				throw new SimulationException("Unknown edge orchestrator policy! Terminating simulation...");
 			}
 		}
 		else {
-			SimLogger.printLine("Unknown simulation scenario! Terminating simulation...");
-			System.exit(0);
+			throw new SimulationException("Unknown simulation scenario! Terminating simulation...");
 		}
 		return result;
 	}
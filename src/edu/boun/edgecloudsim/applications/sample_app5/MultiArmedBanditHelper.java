@@ -1,10 +1,11 @@
 package edu.boun.edgecloudsim.applications.sample_app5;
 
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 
 public class MultiArmedBanditHelper {
-	private static final double Beta = 1;
+	private final double Beta; //1 by default, see mab_beta in the config file
 
 	private double MAX_TASK_LENGTH;
 	private double MIN_TASK_LENGTH;
@@ -17,6 +18,7 @@ public class MultiArmedBanditHelper {
 	public MultiArmedBanditHelper(double minTaskLength, double maxTaskLength) {
 		MIN_TASK_LENGTH = minTaskLength;
 		MAX_TASK_LENGTH = maxTaskLength;
+		Beta = SimSettings.getInstance().getMabBeta();
 		isInitialized = false;
 	}
 
@@ -77,9 +79,7 @@ public class MultiArmedBanditHelper {
 			choice = 0;
 			break;
 		default:
-			SimLogger.printLine("Unknown datacenter id. Terminating simulation...");
-			System.exit(1);
-			break;
+			throw new SimulationException("Unknown datacenter id. Terminating simulation...");
 		}
 
 		if(serviceTime == 0) {
@@ -95,8 +95,7 @@ public class MultiArmedBanditHelper {
 		K_tn[choice] = K_tn[choice] + 1;
 
 		if(U_tn[choice] == Double.POSITIVE_INFINITY) {
-			SimLogger.printLine("Unexpected MAB calculation! Utility function goes to infinity. Terminating simulation...");
-			System.exit(1);
+			throw new SimulationException("Unexpected MAB calculation! Utility function goes to infinity. Terminating simulation...");
 		}
 
 		t++;
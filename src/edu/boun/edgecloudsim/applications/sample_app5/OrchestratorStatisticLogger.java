@@ -1,7 +1,7 @@
 package edu.boun.edgecloudsim.applications.sample_app5;
 
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.core.SimulationException;
 
 public class OrchestratorStatisticLogger {
 	public static final int NUMBER_OF_HISTORY_WINDOW = 4;
@@ -51,9 +51,7 @@ public class OrchestratorStatisticLogger {
 				failureRate = cloudViaGsmStat.getFailureRate();
 				break;
 			default:
-				SimLogger.printLine("Unknow target datacenter in predictive orchestration policy! Terminating simulation...");
-				System.exit(1);
-				break;
+				throw new SimulationException("Unknow target datacenter in predictive orchestration policy! Terminating simulation...");
 			}
 
 			return failureRate; 
@@ -73,9 +71,7 @@ public class OrchestratorStatisticLogger {
 				serviceTime = cloudViaGsmStat.getAvgServiceTime();
 				break;
 			default:
-				SimLogger.printLine("Unknow target datacenter in predictive orchestration policy! Terminating simulation...");
-				System.exit(1);
-				break;
+				throw new SimulationException("Unknow target datacenter in predictive orchestration policy! Terminating simulation...");
 			}
 
 			return serviceTime;
@@ -120,9 +116,7 @@ public class OrchestratorStatisticLogger {
 			statItem = statForCurrentWindow.cloudViaGsmStat;
 			break;
 		default:
-			SimLogger.printLine("Unknow target datacenter in predictive orchestration policy! Terminating simulation...");
-			System.exit(1);
-			break;
+			throw new SimulationException("Unknow target datacenter in predictive orchestration policy! Terminating simulation...");
 		}
 
 		if(isCompleted) {
@@ -14,6 +14,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.utils.SimLogger;
@@ -99,16 +100,14 @@ public class OrchestratorTrainerLogger {
 			learnerBW.newLine();
 
 		} catch (IOException e) {
-			e.printStackTrace();
-			System.exit(1);
+			throw new SimulationException(e);
 		}
 	}
 	public void closeTrainerOutputFile() {
 		try {
 			learnerBW.close();
 		} catch (IOException e) {
-			e.printStackTrace();
-			System.exit(1);
+			throw new SimulationException(e);
 		}
 	}
 
@@ -127,9 +126,7 @@ public class OrchestratorTrainerLogger {
 			line = "CLOUD_VIA_GSM";
 			break;
 		default:
-			SimLogger.printLine("Unknown datacenter type");
-			System.exit(1);
-			break;
+			throw new SimulationException("Unknown datacenter type");
 		}
 
 		int submittedLocation = task.getSubmittedLocation().getServingWlanId();
@@ -159,8 +156,7 @@ public class OrchestratorTrainerLogger {
 			learnerBW.write(line);
 			learnerBW.newLine();
 		} catch (IOException e) {
-			e.printStackTrace();
-			System.exit(1);
+			throw new SimulationException(e);
 		}
 	}
 
@@ -201,13 +197,16 @@ public class OrchestratorTrainerLogger {
 	}
 
 	public synchronized void addSuccessStat(Task task, double serviceTime) {
+		//the tasks offloaded before the orchestrator is switched to the trainer policy are skipped
 		TrainerItem trainerItem = trainerMap.remove(task.getCloudletId());
-		saveStat(trainerItem, task, true, serviceTime);
+		if(trainerItem != null)
+			saveStat(trainerItem, task, true, serviceTime);
 	}
 
 	public synchronized void addFailStat(Task task) {
 		TrainerItem trainerItem = trainerMap.remove(task.getCloudletId());
-		saveStat(trainerItem, task, false, 0);
+		if(trainerItem != null)
+			saveStat(trainerItem, task, false, 0);
 	}
 
 	public synchronized void addOffloadStat(int datacenterIdx) {
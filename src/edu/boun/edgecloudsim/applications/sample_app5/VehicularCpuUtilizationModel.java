@@ -16,16 +16,20 @@
 
 package edu.boun.edgecloudsim.applications.sample_app5;
 
-import org.cloudbus.cloudsim.UtilizationModel;
-
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.edge_client.TaskUtilizationModel;
 
-public class VehicularCpuUtilizationModel implements UtilizationModel {
-	private Task task;
+public class VehicularCpuUtilizationModel implements TaskUtilizationModel {
+	private int taskType;
 
-	public VehicularCpuUtilizationModel(){
+	/*
+	 * the model has no state other than the task type,
+	 * so it is shared by all tasks of the same type
+	 */
+	public VehicularCpuUtilizationModel(int _taskType){
+		taskType = _taskType;
 	}
 
 	/*
@@ -34,6 +38,15 @@ public class VehicularCpuUtilizationModel implements UtilizationModel {
 	 */
 	@Override
 	public double getUtilization(double time) {
+		throw new SimulationException("CPU utilization depends on the datacenter of the task! Terminating simulation...");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see edu.boun.edgecloudsim.edge_client.TaskUtilizationModel#getUtilization(edu.boun.edgecloudsim.edge_client.Task, double)
+	 */
+	@Override
+	public double getUtilization(Task task, double time) {
 		int datacenterId = task.getAssociatedDatacenterId();
 		int index = 0;
 
@@ -43,11 +56,7 @@ public class VehicularCpuUtilizationModel implements UtilizationModel {
 				datacenterId == VehicularEdgeOrchestrator.CLOUD_DATACENTER_VIA_RSU)
 			index = 10;
 
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
-	}
-
-	public void setTask(Task _task){
-		task=_task;
+		return SimSettings.getInstance().getTaskLookUpTable()[taskType][index];
 	}
 
 	public double predictUtilization(SimSettings.VM_TYPES _vmType){
@@ -59,9 +68,8 @@ public class VehicularCpuUtilizationModel implements UtilizationModel {
 		else if(_vmType == SimSettings.VM_TYPES.MOBILE_VM)
 			index = 11;
 		else{
-			SimLogger.printLine("Unknown VM Type! Terminating simulation...");
-			System.exit(1);
+			throw new SimulationException("Unknown VM Type! Terminating simulation...");
 		}
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
+		return SimSettings.getInstance().getTaskLookUpTable()[taskType][index];
 	}
 }
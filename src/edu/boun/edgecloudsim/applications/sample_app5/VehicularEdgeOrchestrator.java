@@ -20,6 +20,7 @@ import org.cloudbus.cloudsim.core.SimEvent;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.utils.SimLogger;
@@ -43,6 +44,8 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 	private MultiArmedBanditHelper MAB;
 	private GameTheoryHelper GTH;
 
+	private double predictionStartTime; //predictive offloading is not used before this time
+
 	public VehicularEdgeOrchestrator(int _numOfMobileDevices, String _policy, String _simScenario) {
 		super(_policy, _simScenario);
 		this.numOfMobileDevice = _numOfMobileDevices;
@@ -66,6 +69,8 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 		//double minTaskArrivalRate = lookupTable[0][2];
 		//double maxTaskArrivalRate = lookupTable[lookupTable.length-1][2];
 		GTH = new GameTheoryHelper(0, 20, numOfMobileDevice);
+
+		predictionStartTime = SimSettings.getInstance().getWarmUpPeriod();
 	}
 
 	@Override
@@ -159,8 +164,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 				}
 
 				if(!resultFound) {
-					SimLogger.printLine("Unexpected probability calculation! Terminating simulation...");
-					System.exit(1);
+					throw new SimulationException("Unexpected probability calculation! Terminating simulation...");
 				}
 			}
 			else if(predictedServiceTimeForEdge <= Math.min(predictedServiceTimeForCloudViaRSU, predictedServiceTimeForCloudViaGSM))
@@ -170,8 +174,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 			else if(predictedServiceTimeForCloudViaGSM <= Math.min(predictedServiceTimeForEdge, predictedServiceTimeForCloudViaRSU))
 				result = CLOUD_DATACENTER_VIA_GSM;
 			else{
-				SimLogger.printLine("Impossible occurred in AI based algorithm! Terminating simulation...");
-				System.exit(1);
+				throw new SimulationException("Impossible occurred in AI based algorithm! Terminating simulation...");
 			}
 
 			trainerLogger.addOffloadStat(result-1);
@@ -204,8 +207,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 			}
 
 			if(!resultFound) {
-				SimLogger.printLine("Unexpected probability calculation for AI based orchestrator! Terminating simulation...");
-				System.exit(1);
+				throw new SimulationException("Unexpected probability calculation for AI based orchestrator! Terminating simulation...");
 			}
 		}
 		else if(policy.equals("RANDOM")){
@@ -224,8 +226,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 			}
 
 			if(!resultFound) {
-				SimLogger.printLine("Unexpected probability calculation for random orchestrator! Terminating simulation...");
-				System.exit(1);
+				throw new SimulationException("Unexpected probability calculation for random orchestrator! Terminating simulation...");
 			}
 
 		}
@@ -287,7 +288,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 			double probabilities[] = {0.34, 0.33, 0.33};
 
 			//do not use predictive offloading during warm-up period
-			if(CloudSim.clock() > SimSettings.getInstance().getWarmUpPeriod()) {
+			if(CloudSim.clock() > predictionStartTime) {
 				/*
 				 * failureRate_i = 100 * numOfFailedTask / (numOfFailedTask + numOfSuccessfulTask)
 				 */
@@ -342,13 +343,11 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 			}
 
 			if(!resultFound) {
-				SimLogger.printLine("Unexpected probability calculation for predictive orchestrator! Terminating simulation...");
-				System.exit(1);
+				throw new SimulationException("Unexpected probability calculation for predictive orchestrator! Terminating simulation...");
 			}
 		}
 		else {
-			SimLogger.printLine("Unknow edge orchestrator policy! Terminating simulation...");
-			System.exit(1);
+			throw new SimulationException("Unknow edge orchestrator policy! Terminating simulation...");
 		}
 
 		return result;
@@ -383,14 +382,36 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 			edgeVmCounter = edgeVmCounter % numOfEdgeVMs;
 		}
 		else {
-			SimLogger.printLine("Unknow device id! Terminating simulation...");
-			System.exit(1);
+			throw new SimulationException("Unknow device id! Terminating simulation...");
 		}
 		return selectedVM;
 	}
 
+	@Override
+	public void setPolicy(String _policy) {
+		//the policy specific resources and events are started by startEntity if the simulation is not running yet
+		if(CloudSim.running()) {
+			if(_policy.equals("AI_TRAINER") && !policy.equals("AI_TRAINER"))
+				openTrainerOutputFile();
+
+			//the prediction window is switched at the same times as it is started by startEntity,
+			//the predictions are used after the statistics of the history windows are collected
+			if(_policy.equals("PREDICTIVE") && !policy.equals("PREDICTIVE")) {
+				double interval = OrchestratorStatisticLogger.PREDICTION_WINDOW_UPDATE_INTERVAL;
+				double elapsedTime = CloudSim.clock() - SimSettings.CLIENT_ACTIVITY_START_TIME;
+				schedule(getId(), interval - elapsedTime % interval, UPDATE_PREDICTION_WINDOW);
+				predictionStartTime = Math.max(predictionStartTime, CloudSim.clock() +
+						(OrchestratorStatisticLogger.NUMBER_OF_HISTORY_WINDOW + 1) * interval);
+			}
+		}
+		super.setPolicy(_policy);
+	}
+
 	@Override
 	public void startEntity() {
+		if(policy.equals("AI_TRAINER"))
+			openTrainerOutputFile();
+
 		if(policy.equals("PREDICTIVE")) {
 			schedule(getId(), SimSettings.CLIENT_ACTIVITY_START_TIME +
 					OrchestratorStatisticLogger.PREDICTION_WINDOW_UPDATE_INTERVAL, 
@@ -400,15 +421,15 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 
 	@Override
 	public void shutdownEntity() {
+		if(policy.equals("AI_TRAINER"))
+			closeTrainerOutputFile();
 	}
 
 
 	@Override
 	public void processEvent(SimEvent ev) {
 		if (ev == null) {
-			SimLogger.printLine(getName() + ".processOtherEvent(): " + "Error - an event is null! Terminating simulation...");
-			System.exit(1);
-			return;
+			throw new SimulationException(getName() + ".processOtherEvent(): " + "Error - an event is null! Terminating simulation...");
 		}
 
 		switch (ev.getTag()) {
@@ -427,9 +448,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 
 	public void processOtherEvent(SimEvent ev) {
 		if (ev == null) {
-			SimLogger.printLine(getName() + ".processOtherEvent(): " + "Error - an event is null! Terminating simulation...");
-			System.exit(1);
-			return;
+			throw new SimulationException(getName() + ".processOtherEvent(): " + "Error - an event is null! Terminating simulation...");
 		}
 	}
 
@@ -440,7 +459,8 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 		if(policy.equals("PREDICTIVE"))
 			statisticLogger.addSuccessStat(task, serviceTime);
 
-		if(policy.equals("MAB"))
+		//the bandit learns the results of its own decisions, which start with its initialization
+		if(policy.equals("MAB") && MAB.isInitialized())
 			MAB.updateUCB(task, serviceTime);
 	}
 
@@ -451,7 +471,7 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 		if(policy.equals("PREDICTIVE"))
 			statisticLogger.addFailStat(task);
 
-		if(policy.equals("MAB"))
+		if(policy.equals("MAB") && MAB.isInitialized())
 			MAB.updateUCB(task, 0);
 	}
 
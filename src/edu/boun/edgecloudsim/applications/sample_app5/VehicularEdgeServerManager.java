@@ -15,7 +15,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -32,8 +31,10 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import edu.boun.edgecloudsim.core.LazyUpdateDatacenter;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_server.CloudletSchedulerVirtualTime;
 import edu.boun.edgecloudsim.edge_server.EdgeHost;
 import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
@@ -97,7 +98,7 @@ public class VehicularEdgeServerManager extends EdgeServerManager{
 					long bandwidth = SimSettings.getInstance().getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
 
 					//VM Parameters		
-					EdgeVM vm = new EdgeVM(vmCounter, brockerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+					EdgeVM vm = new EdgeVM(vmCounter, brockerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerVirtualTime());
 					vmList.get(hostCounter).add(vm);
 					vmCounter++;
 				}
@@ -162,7 +163,10 @@ public class VehicularEdgeServerManager extends EdgeServerManager{
 		Datacenter datacenter = null;
 
 		VmAllocationPolicy vm_policy = getVmAllocationPolicy(hostList,index);
-		datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
+		if(SimSettings.getInstance().getLazyDatacenterUpdate())
+			datacenter = new LazyUpdateDatacenter(name, characteristics, vm_policy, storageList, 0);
+		else
+			datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
 
 		return datacenter;
 	}
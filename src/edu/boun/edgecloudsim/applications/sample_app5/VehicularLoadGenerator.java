@@ -1,7 +1,5 @@
 package edu.boun.edgecloudsim.applications.sample_app5;
 
-import java.util.ArrayList;
-
 import org.apache.commons.math3.distribution.ExponentialDistribution;
 
 import edu.boun.edgecloudsim.core.SimSettings;
@@ -12,6 +10,9 @@ import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class VehicularLoadGenerator extends LoadGeneratorModel{
 	int taskTypeOfDevices[];
+	ExponentialDistribution[] intervalRngOfDevices;
+	double[] activePeriodStartTimeOfDevices;
+	double[] virtualTimeOfDevices;
 
 	public VehicularLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
 		super(_numberOfMobileDevices, _simulationTime, _simScenario);
@@ -20,13 +21,17 @@ public class VehicularLoadGenerator extends LoadGeneratorModel{
 
 	@Override
 	public void initializeModel() {
-		taskList = new ArrayList<TaskProperty>();
+		//tasks are created on demand, see getNextTask
+		taskList = null;
 
 		//Each mobile device utilizes an app type (task type)
 		taskTypeOfDevices = new int[numberOfMobileDevices];
+		intervalRngOfDevices = new ExponentialDistribution[numberOfMobileDevices];
+		activePeriodStartTimeOfDevices = new double[numberOfMobileDevices];
+		virtualTimeOfDevices = new double[numberOfMobileDevices];
 		for(int i=0; i<numberOfMobileDevices; i++) {
 			int randomTaskType = -1;
-			double taskTypeSelector = SimUtils.getRandomDoubleNumber(0,100);
+			double taskTypeSelector = SimUtils.getRandomDoubleNumber(SimUtils.RNG_STREAM.TASK_GENERATION, 0,100);
 			double taskTypePercentage = 0;
 			for (int j=0; j<SimSettings.getInstance().getTaskLookUpTable().length; j++) {
 				taskTypePercentage += SimSettings.getInstance().getTaskLookUpTable()[j][0];
@@ -43,54 +48,65 @@ public class VehicularLoadGenerator extends LoadGeneratorModel{
 			taskTypeOfDevices[i] = randomTaskType;
 
 			double poissonMean = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][2];
-			double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
-			double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
-			double activePeriodStartTime = SimUtils.getRandomDoubleNumber(
+			activePeriodStartTimeOfDevices[i] = SimUtils.getRandomDoubleNumber(SimUtils.RNG_STREAM.TASK_GENERATION, 
 					SimSettings.CLIENT_ACTIVITY_START_TIME, 
 					SimSettings.CLIENT_ACTIVITY_START_TIME * 2);  //active period starts shortly after the simulation started (e.g. 10 seconds)
-			double virtualTime = activePeriodStartTime;
+			virtualTimeOfDevices[i] = activePeriodStartTimeOfDevices[i];
 
-			ExponentialDistribution rng = new ExponentialDistribution(poissonMean);
+			intervalRngOfDevices[i] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), poissonMean);
 			//ExponentialDistribution rng[] = new ExponentialDistribution[10];
 			//for(int j=0; j<10; j++)
 			//	rng[j] = new ExponentialDistribution(poissonMean * ((double)1 + (double)j * (double) 0.12));
+		}
+	}
 
-			while(virtualTime < simulationTime) {
-				//int index = Math.min(9, (int)virtualTime / 15);
-				//double interval = rng[9-index].sample();
-				double interval = rng.sample();
-
-				if(interval <= 0){
-					SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + i + " time " + virtualTime);
-					continue;
-				}
-				//SimLogger.printLine(virtualTime + " -> " + interval + " for device " + i + " time ");
-				virtualTime += interval;
+	@Override
+	public TaskProperty getNextTask(int deviceId) {
+		//device without a task type
+		if(intervalRngOfDevices[deviceId] == null)
+			return null;
+
+		int randomTaskType = taskTypeOfDevices[deviceId];
+		double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
+		double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
+
+		while(virtualTimeOfDevices[deviceId] < simulationTime) {
+			//int index = Math.min(9, (int)virtualTime / 15);
+			//double interval = rng[9-index].sample();
+			double interval = intervalRngOfDevices[deviceId].sample();
+
+			if(interval <= 0){
+				SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + deviceId + " time " + virtualTimeOfDevices[deviceId]);
+				continue;
+			}
+			//SimLogger.printLine(virtualTime + " -> " + interval + " for device " + deviceId + " time ");
+			virtualTimeOfDevices[deviceId] += interval;
 
-				if(virtualTime > activePeriodStartTime + activePeriod){
-					activePeriodStartTime = activePeriodStartTime + activePeriod + idlePeriod;
-					virtualTime = activePeriodStartTime;
-					continue;
-				}
+			if(virtualTimeOfDevices[deviceId] > activePeriodStartTimeOfDevices[deviceId] + activePeriod){
+				activePeriodStartTimeOfDevices[deviceId] = activePeriodStartTimeOfDevices[deviceId] + activePeriod + idlePeriod;
+				virtualTimeOfDevices[deviceId] = activePeriodStartTimeOfDevices[deviceId];
+				continue;
+			}
 
-				long inputFileSize = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][5];
-				long inputFileSizeBias = inputFileSize / 10;
+			long inputFileSize = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][5];
+			long inputFileSizeBias = inputFileSize / 10;
 
-				long outputFileSize =(long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][6];
-				long outputFileSizeBias = outputFileSize / 10;
+			long outputFileSize =(long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][6];
+			long outputFileSizeBias = outputFileSize / 10;
 
-				long length = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][7];	
-				long lengthBias = length / 10;
+			long length = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][7];	
+			long lengthBias = length / 10;
 
-				int pesNumber = (int)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][8];
+			int pesNumber = (int)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][8];
 
-				inputFileSize = SimUtils.getRandomLongNumber(inputFileSize - inputFileSizeBias, inputFileSize + inputFileSizeBias);
-				outputFileSize = SimUtils.getRandomLongNumber(outputFileSize - outputFileSizeBias, outputFileSize + outputFileSizeBias);
-				length = SimUtils.getRandomLongNumber(length - lengthBias, length + lengthBias);
+			inputFileSize = SimUtils.getRandomLongNumber(SimUtils.RNG_STREAM.TASK_GENERATION, inputFileSize - inputFileSizeBias, inputFileSize + inputFileSizeBias);
+			outputFileSize = SimUtils.getRandomLongNumber(SimUtils.RNG_STREAM.TASK_GENERATION, outputFileSize - outputFileSizeBias, outputFileSize + outputFileSizeBias);
+			length = SimUtils.getRandomLongNumber(SimUtils.RNG_STREAM.TASK_GENERATION, length - lengthBias, length + lengthBias);
 
-				taskList.add(new TaskProperty(virtualTime, i, randomTaskType, pesNumber, length, inputFileSize, outputFileSize));
-			}
+			return new TaskProperty(virtualTimeOfDevices[deviceId], deviceId, randomTaskType, pesNumber, length, inputFileSize, outputFileSize);
 		}
+
+		return null;
 	}
 
 	@Override
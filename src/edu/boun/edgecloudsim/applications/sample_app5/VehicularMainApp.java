@@ -58,7 +58,7 @@ public class VehicularMainApp {
 
 		//load settings from configuration file
 		SimSettings SS = SimSettings.getInstance();
-		if(SS.initialize(configFile, edgeDevicesFile, applicationsFile) == false) {
+		if(initializeHelper(configFile, edgeDevicesFile, applicationsFile) == false) {
 			SimLogger.printLine("cannot initialize simulation settings!");
 			System.exit(1);
 		}
@@ -74,20 +74,46 @@ public class VehicularMainApp {
 		SimLogger.printLine("Simulation started at " + now);
 		SimLogger.printLine("----------------------------------------------------------------------");
 
-		String wekaModelsFolder = configFile.substring(0, configFile.lastIndexOf('/')) + "/weka/";
-		WekaWrapper.getInstance().initialize("MultilayerPerceptron", "LinearRegression", wekaModelsFolder);
-
 		for(int i=SS.getMinNumOfMobileDev(); i<=SS.getMaxNumOfMobileDev(); i+=SS.getMobileDevCounterSize())
 			for(int s=0; s<SS.getSimulationScenarios().length; s++)
-				for(int p=0; p<SS.getOrchestratorPolicies().length; p++)
-					mainHelper(outputFolder, SS.getSimulationScenarios()[s], SS.getOrchestratorPolicies()[p], iterationNumber, i);
+				for(int p=0; p<SS.getOrchestratorPolicies().length; p++) {
+					try {
+						mainHelper(outputFolder, SS.getSimulationScenarios()[s], SS.getOrchestratorPolicies()[p], iterationNumber, i);
+					}
+					catch (Exception e) {
+						SimLogger.printLine("The simulation has been terminated due to an unexpected error");
+						e.printStackTrace();
+						System.exit(1);
+					}
+
+					//suggest garbage collector to run in order to decrease heap memory
+					System.gc();
+				}
 
 		Date SimulationEndDate = Calendar.getInstance().getTime();
 		now = df.format(SimulationEndDate);
 		SimLogger.printLine("Simulation finished at " + now +  ". It took " + SimUtils.getTimeDifference(SimulationStartDate,SimulationEndDate));
 	}
 
-	public static void mainHelper(String outputFolder, String simulationScenario, String orchestratorPolicy, int iterationNumber, int numOfMobileDevice){
+	/**
+	 * Initializes the simulation settings and the weka models of this
+	 * application. It is also invoked by SimulationContext to prepare
+	 * an isolated simulation run.
+	 */
+	public static boolean initializeHelper(String configFile, String edgeDevicesFile, String applicationsFile){
+		if(SimSettings.getInstance().initialize(configFile, edgeDevicesFile, applicationsFile) == false)
+			return false;
+
+		String wekaModelsFolder = configFile.substring(0, configFile.lastIndexOf('/')) + "/weka/";
+		WekaWrapper.getInstance().initialize("MultilayerPerceptron", "LinearRegression", wekaModelsFolder);
+		return true;
+	}
+
+	/**
+	 * Runs a single simulation scenario. Errors are not handled here,
+	 * they are propagated to the caller instead.
+	 */
+	public static void mainHelper(String outputFolder, String simulationScenario, String orchestratorPolicy, int iterationNumber, int numOfMobileDevice) throws Exception {
 		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
 		Date ScenarioStartDate = Calendar.getInstance().getTime();
 		String now = df.format(ScenarioStartDate);
@@ -97,54 +123,37 @@ public class VehicularMainApp {
 		SimLogger.printLine("Scenario: " + simulationScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
 		SimLogger.printLine("Duration: " + SS.getSimulationTime()/60 + " min (warm up period: "+ SS.getWarmUpPeriod()/60 +" min) - #devices: " + numOfMobileDevice);
 		SimLogger.getInstance().simStarted(outputFolder, "SIMRESULT_" + simulationScenario + "_"  + orchestratorPolicy + "_" + numOfMobileDevice + "DEVICES");
+		SimUtils.initializeRandomStreams(orchestratorPolicy, iterationNumber, numOfMobileDevice);
 
-		try
-		{
-			// First step: Initialize the CloudSim package. It should be called
-			// before creating any entities.
-			int num_user = 2;   // number of grid users
-			Calendar calendar = Calendar.getInstance();
-			boolean trace_flag = false;  // mean trace events
-
-			// Initialize the CloudSim library
-			CloudSim.init(num_user, calendar, trace_flag, 0.01);
-
-			// Generate EdgeCloudsim Scenario Factory
-			ScenarioFactory sampleFactory = new VehicularScenarioFactory(numOfMobileDevice, SS.getSimulationTime(), orchestratorPolicy, simulationScenario);
-
-			// Generate EdgeCloudSim Simulation Manager
-			SimManager manager = new SimManager(sampleFactory, numOfMobileDevice, simulationScenario, orchestratorPolicy);
+		// First step: Initialize the CloudSim package. It should be called
+		// before creating any entities.
+		int num_user = 2;   // number of grid users
+		Calendar calendar = Calendar.getInstance();
+		boolean trace_flag = false;  // mean trace events
 
-			if(orchestratorPolicy.equals("AI_TRAINER")){
-				SimLogger.disableFileLog();
-				((VehicularEdgeOrchestrator)manager.getEdgeOrchestrator()).openTrainerOutputFile();
-			}
+		// Initialize the CloudSim library
+		CloudSim.init(num_user, calendar, trace_flag, 0.01);
 
-			// Start simulation
-			manager.startSimulation();
+		// Generate EdgeCloudsim Scenario Factory
+		ScenarioFactory sampleFactory = new VehicularScenarioFactory(numOfMobileDevice, SS.getSimulationTime(), orchestratorPolicy, simulationScenario);
 
-			//SimLogger.printLine("maxWanDelay: " + ((VehicularNetworkModel)manager.getNetworkModel()).maxWanDelay);
-			//SimLogger.printLine("maxGsmDelay: " + ((VehicularNetworkModel)manager.getNetworkModel()).maxGsmDelay);
-			//SimLogger.printLine("maxWlanDelay: " + ((VehicularNetworkModel)manager.getNetworkModel()).maxWlanDelay);
+		// Generate EdgeCloudSim Simulation Manager
+		SimManager manager = new SimManager(sampleFactory, numOfMobileDevice, simulationScenario, orchestratorPolicy);
 
-			if(orchestratorPolicy.equals("AI_TRAINER"))
-				((VehicularEdgeOrchestrator)manager.getEdgeOrchestrator()).closeTrainerOutputFile();
-		}
-		catch (Exception e)
-		{
-			SimLogger.printLine("The simulation has been terminated due to an unexpected error");
-			e.printStackTrace();
-			System.exit(1);
-		}
+		//the orchestrator writes the trainer output file while the simulation is running
+		if(orchestratorPolicy.equals("AI_TRAINER"))
+			SimLogger.disableFileLog();
 
+		// Start simulation
+		manager.startSimulation();
 
+		//SimLogger.printLine("maxWanDelay: " + ((VehicularNetworkModel)manager.getNetworkModel()).maxWanDelay);
+		//SimLogger.printLine("maxGsmDelay: " + ((VehicularNetworkModel)manager.getNetworkModel()).maxGsmDelay);
+		//SimLogger.printLine("maxWlanDelay: " + ((VehicularNetworkModel)manager.getNetworkModel()).maxWlanDelay);
 
 		Date ScenarioEndDate = Calendar.getInstance().getTime();
 		now = df.format(ScenarioEndDate);
 		SimLogger.printLine("Scenario finished at " + now +  ". It took " + SimUtils.getTimeDifference(ScenarioStartDate,ScenarioEndDate));
 		SimLogger.printLine("----------------------------------------------------------------------");
-
-		//suggest garbage collector to run in order to decrease heap memory
-		System.gc();
-	}//End of scenarios loop
+	}
 }
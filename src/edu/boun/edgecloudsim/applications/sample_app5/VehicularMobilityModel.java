@@ -72,7 +72,7 @@ public class VehicularMobilityModel extends MobilityModel {
 		initialLocationIndexArray =  new int[numberOfMobileDevices];
 		timeToReachNextLocationArray =  new double[numberOfMobileDevices];
 		for(int i=0; i<numberOfMobileDevices; i++) {
-			initialPositionArray[i] = SimUtils.getRandomNumber(0, totalLengthOfRoad-1);
+			initialPositionArray[i] = SimUtils.getRandomNumber(SimUtils.RNG_STREAM.MOBILITY, 0, totalLengthOfRoad-1);
 			initialLocationIndexArray[i] = initialPositionArray[i] / lengthOfSegment;
 			timeToReachNextLocationArray[i] = ((double)3.6 *
 					(double)(lengthOfSegment - (initialPositionArray[i] % lengthOfSegment))) /
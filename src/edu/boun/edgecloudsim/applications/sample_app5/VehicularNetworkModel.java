@@ -15,6 +15,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
@@ -73,9 +74,8 @@ public class VehicularNetworkModel extends NetworkModel {
 			double mu = bandwidth /*Kbps*/ / avgTaskSize /*Kb*/; //task per seconds
 
 			if(mu <= lamda) {
-				SimLogger.printLine("Error in initializeMM1QueueValues function:" +
+				throw new SimulationException("Error in initializeMM1QueueValues function:" +
 						"MU is smallar than LAMDA! Check your simulation settings.");
-				System.exit(1);
 			}
 		}
 
@@ -168,9 +168,8 @@ public class VehicularNetworkModel extends NetworkModel {
 			double taskOutputSize = SS.getTaskLookUpTable()[taskIndex][6];
 
 			if(percentageOfAppUsage <= 0 && percentageOfAppUsage > 100) {
-				SimLogger.printLine("Usage percantage of task " + taskIndex + " is invalid (" +
+				throw new SimulationException("Usage percantage of task " + taskIndex + " is invalid (" +
 						percentageOfAppUsage + ")! Terminating simulation...");
-				System.exit(1);
 			}
 
 			weightedTaskInputSize += taskInputSize * (percentageOfAppUsage / (double)100);
@@ -203,9 +202,7 @@ public class VehicularNetworkModel extends NetworkModel {
 	 */
 	@Override
 	public double getUploadDelay(int sourceDeviceId, int destDeviceId, Task task) {
-		SimLogger.printLine("getUploadDelay is not used in this scenario! Terminating simulation...");
-		System.exit(1);
-		return 0;
+		throw new SimulationException("getUploadDelay is not used in this scenario! Terminating simulation...");
 	}
 
 	/**
@@ -213,32 +210,26 @@ public class VehicularNetworkModel extends NetworkModel {
 	 */
 	@Override
 	public double getDownloadDelay(int sourceDeviceId, int destDeviceId, Task task) {
-		SimLogger.printLine("getDownloadDelay is not used in this scenario! Terminating simulation...");
-		System.exit(1);
-		return 0;
+		throw new SimulationException("getDownloadDelay is not used in this scenario! Terminating simulation...");
 	}
 	@Override
 	public void uploadStarted(Location accessPointLocation, int destDeviceId) {
-		SimLogger.printLine("uploadStarted is not used in this scenario! Terminating simulation...");
-		System.exit(1);
+		throw new SimulationException("uploadStarted is not used in this scenario! Terminating simulation...");
 	}
 
 	@Override
 	public void uploadFinished(Location accessPointLocation, int destDeviceId) {
-		SimLogger.printLine("uploadFinished is not used in this scenario! Terminating simulation...");
-		System.exit(1);
+		throw new SimulationException("uploadFinished is not used in this scenario! Terminating simulation...");
 	}
 
 	@Override
 	public void downloadStarted(Location accessPointLocation, int sourceDeviceId) {
-		SimLogger.printLine("downloadStarted is not used in this scenario! Terminating simulation...");
-		System.exit(1);
+		throw new SimulationException("downloadStarted is not used in this scenario! Terminating simulation...");
 	}
 
 	@Override
 	public void downloadFinished(Location accessPointLocation, int sourceDeviceId) {
-		SimLogger.printLine("downloadFinished is not used in this scenario! Terminating simulation...");
-		System.exit(1);
+		throw new SimulationException("downloadFinished is not used in this scenario! Terminating simulation...");
 	}
 
 	public double estimateWlanDownloadDelay(int apId){
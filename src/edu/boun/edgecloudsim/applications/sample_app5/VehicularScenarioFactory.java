@@ -13,9 +13,11 @@ package edu.boun.edgecloudsim.applications.sample_app5;
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.cloud_server.DefaultCloudServerManager;
 import edu.boun.edgecloudsim.core.ScenarioFactory;
+import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
+import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.LightweightMobileServerManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
@@ -73,6 +75,9 @@ public class VehicularScenarioFactory implements ScenarioFactory {
 
 	@Override
 	public MobileServerManager getMobileServerManager() {
+		if(SimSettings.getInstance().getLightweightMobileExecution())
+			return new LightweightMobileServerManager(numOfMobileDevice);
+
 		return new VehicularMobileServerManager(numOfMobileDevice);
 	}
 }
@@ -2,7 +2,7 @@ package edu.boun.edgecloudsim.applications.sample_app5;
 
 import java.util.ArrayList;
 
-import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.core.SimulationException;
 import weka.classifiers.AbstractClassifier;
 import weka.classifiers.bayes.NaiveBayes;
 import weka.classifiers.functions.LinearRegression;
@@ -105,8 +105,7 @@ public class WekaWrapper {
 			}
 		}
 		catch (Exception e) {
-			SimLogger.printLine("cannot serialize weka objects!");
-			System.exit(1);
+			throw new SimulationException("cannot serialize weka objects!", e);
 		}
 	}
 
@@ -137,8 +136,7 @@ public class WekaWrapper {
 			}
 		}
 		catch (Exception e) {
-			SimLogger.printLine("cannot handle regression!");
-			System.exit(1);
+			throw new SimulationException("cannot handle regression!", e);
 		}
 
 		return result;
@@ -171,8 +169,7 @@ public class WekaWrapper {
 			}
 		}
 		catch (Exception e) {
-			SimLogger.printLine("cannot handle classification!");
-			System.exit(1);
+			throw new SimulationException("cannot handle classification!", e);
 		}
 
 		return result;
@@ -14,7 +14,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -27,8 +26,10 @@ import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
+import edu.boun.edgecloudsim.core.LazyUpdateDatacenter;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_server.CloudletSchedulerVirtualTime;
 
 public class DefaultCloudServerManager extends CloudServerManager{
 
@@ -69,7 +70,7 @@ public class DefaultCloudServerManager extends CloudServerManager{
 				long bandwidth = 0;
 				
 				//VM Parameters		
-				CloudVM vm = new CloudVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+				CloudVM vm = new CloudVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerVirtualTime());
 				vmList.get(i).add(vm);
 				vmCounter++;
 			}
@@ -121,7 +122,10 @@ public class DefaultCloudServerManager extends CloudServerManager{
 		Datacenter datacenter = null;
 	
 		VmAllocationPolicy vm_policy = getVmAllocationPolicy(hostList,index);
-		datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
+		if(SimSettings.getInstance().getLazyDatacenterUpdate())
+			datacenter = new LazyUpdateDatacenter(name, characteristics, vm_policy, storageList, 0);
+		else
+			datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
 		
 		return datacenter;
 	}
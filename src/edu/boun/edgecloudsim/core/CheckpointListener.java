@@ -0,0 +1,41 @@
+/*
+ * Title:        EdgeCloudSim - Checkpoint Listener
+ *
+ * Description:
+ * CheckpointListener is implemented by the objects which keep resources
+ * outside of the simulation state, such as open files. The fields of
+ * such resources should be transient, they are not written to the
+ * checkpoints. The listeners are notified before their state is written
+ * to a checkpoint and after it is restored from a checkpoint, so that
+ * they can flush and reopen their resources.
+ *
+ * The files which a listener appends to are recorded in the checkpoint
+ * with their lengths; the checkpoint is restored only if they are not
+ * deleted or truncated meanwhile, so they should be kept with it.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface CheckpointListener {
+	/**
+	 * called before the state of the object is written to a checkpoint
+	 */
+	public void checkpointStarted() throws IOException;
+
+	/**
+	 * called after the whole simulation state is restored from a checkpoint
+	 */
+	public void checkpointRestored() throws IOException;
+
+	/**
+	 * returns the files which the object appends to, they should be in
+	 * the folder of the checkpoint; called after checkpointStarted
+	 */
+	public File[] getAppendedFiles();
+}
@@ -0,0 +1,397 @@
+/*
+ * Title:        EdgeCloudSim - Checkpoint Reader
+ *
+ * Description:
+ * CheckpointReader restores the object graph written by CheckpointWriter.
+ * The records may refer to the objects coming after them, hence the file
+ * is read twice: the objects are created in the first pass and their
+ * fields are set in the second one. The collections and maps are filled
+ * at the end, when the fields of their elements, i.e. their hash codes
+ * and orders, are restored.
+ *
+ * The static final fields cannot be set, so the objects stored in them
+ * are restored into the existing objects of the current run.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+class CheckpointReader {
+	private ClassLoader classLoader;
+
+	//objects in the order of their numbers, starting from one
+	private Object[] objects;
+	private boolean[] existing;
+	private int[][] contents;
+
+	private List<Field> rootFields;
+	private List<Object> rootValues;
+
+	private List<Class<?>> classes;
+	private Map<Class<?>, Field[]> fields;
+	private Map<Class<?>, Constructor<?>> constructors;
+	private ObjectInstantiator instantiator;
+
+	CheckpointReader(ClassLoader _classLoader) {
+		classLoader = _classLoader;
+		fields = new HashMap<Class<?>, Field[]>();
+		constructors = new HashMap<Class<?>, Constructor<?>>();
+		instantiator = new ObjectInstantiator();
+	}
+
+	/*
+	 * first pass: creates the objects
+	 */
+	void allocate(DataInputStream in) throws IOException {
+		try {
+			classes = new ArrayList<Class<?>>();
+			rootFields = new ArrayList<Field>();
+			rootValues = new ArrayList<Object>();
+			int numOfRootFields = in.readInt();
+			for(int i=0; i<numOfRootFields; i++) {
+				Class<?> clazz = readClass(in);
+				Field field = clazz.getDeclaredField(in.readUTF());
+				field.setAccessible(true);
+				rootFields.add(field);
+				rootValues.add(readValue(in, field.getType()));
+			}
+
+			int numOfObjects = in.readInt();
+			objects = new Object[numOfObjects + 1];
+			existing = new boolean[numOfObjects + 1];
+			contents = new int[numOfObjects + 1][];
+
+			//the objects in static final fields are kept
+			for(int i=0; i<rootFields.size(); i++) {
+				Field field = rootFields.get(i);
+				if(Modifier.isFinal(field.getModifiers()) && !field.getType().isPrimitive()) {
+					int number = (Integer)rootValues.get(i);
+					Object value = field.get(null);
+					if(number != 0 && value != null) {
+						objects[number] = value;
+						existing[number] = true;
+					}
+				}
+			}
+
+			for(int number=1; number<=numOfObjects; number++)
+				allocateRecord(in, number);
+		} catch (ReflectiveOperationException e) {
+			throw new SimulationException("The checkpoint cannot be restored!", e);
+		}
+	}
+
+	/*
+	 * second pass: sets the fields of the objects
+	 */
+	void fill(DataInputStream in) throws IOException {
+		try {
+			classes = new ArrayList<Class<?>>();
+			int numOfRootFields = in.readInt();
+			for(int i=0; i<numOfRootFields; i++) {
+				readClass(in);
+				in.readUTF();
+				readValue(in, rootFields.get(i).getType());
+			}
+
+			in.readInt();
+			for(int number=1; number<objects.length; number++)
+				fillRecord(in, number);
+		} catch (ReflectiveOperationException e) {
+			throw new SimulationException("The checkpoint cannot be restored!", e);
+		}
+	}
+
+	/*
+	 * fills the collections, sets the static fields and notifies the listeners unless the checkpoint is forked
+	 */
+	@SuppressWarnings("unchecked")
+	void finish(boolean notifyListeners) throws IOException {
+		//the collections used as keys or elements are filled before the ones containing them
+		for(int number=objects.length-1; number>0; number--) {
+			if(contents[number] == null)
+				continue;
+
+			int[] elements = contents[number];
+			if(objects[number] instanceof Map) {
+				Map<Object,Object> map = (Map<Object,Object>)objects[number];
+				map.clear();
+				for(int i=0; i<elements.length; i+=2)
+					map.put(objects[elements[i]], objects[elements[i+1]]);
+			}
+			else {
+				Collection<Object> collection = (Collection<Object>)objects[number];
+				collection.clear();
+				for(int i=0; i<elements.length; i++)
+					collection.add(objects[elements[i]]);
+			}
+		}
+
+		try {
+			for(int i=0; i<rootFields.size(); i++) {
+				Field field = rootFields.get(i);
+				if(Modifier.isFinal(field.getModifiers()))
+					continue;
+
+				Object value = rootValues.get(i);
+				field.set(null, field.getType().isPrimitive() ? value : objects[(Integer)value]);
+			}
+		} catch (IllegalAccessException e) {
+			throw new SimulationException("The checkpoint cannot be restored!", e);
+		}
+
+		if(!notifyListeners)
+			return;
+
+		for(int number=1; number<objects.length; number++)
+			if(objects[number] instanceof CheckpointListener)
+				((CheckpointListener)objects[number]).checkpointRestored();
+	}
+
+	private void allocateRecord(DataInputStream in, int number) throws IOException, ReflectiveOperationException {
+		byte kind = in.readByte();
+		Object object = null;
+		switch (kind) {
+		case SimCheckpoint.OBJECT:
+			Class<?> clazz = readClass(in);
+			for(Field field : SimCheckpoint.getFields(clazz, fields))
+				readValue(in, field.getType());
+			if(!existing[number])
+				object = newInstance(clazz);
+			break;
+		case SimCheckpoint.ARRAY:
+			Class<?> componentType = readClass(in);
+			int length = in.readInt();
+			//the elements are read by the second pass, an object is referred by its number
+			in.skipBytes(length * (componentType.isPrimitive() ? SimCheckpoint.getPrimitiveSize(componentType) : 4));
+			if(!existing[number])
+				object = Array.newInstance(componentType, length);
+			else if(Array.getLength(objects[number]) != length)
+				throw new SimulationException("The length of a static final array is changed!");
+			break;
+		case SimCheckpoint.STRING:
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			object = new String(bytes, StandardCharsets.UTF_8);
+			break;
+		case SimCheckpoint.BOXED:
+			object = readBoxed(in, in.readByte());
+			break;
+		case SimCheckpoint.ENUM:
+			object = readEnum(in);
+			break;
+		case SimCheckpoint.CLASS:
+			object = resolveClass(in.readUTF());
+			break;
+		case SimCheckpoint.COLLECTION:
+		case SimCheckpoint.MAP:
+			Class<?> collectionClass = readClass(in);
+			Comparator<?> comparator = null;
+			if(SimCheckpoint.isSorted(collectionClass))
+				comparator = (Comparator<?>)objects[in.readInt()];
+			int size = in.readInt();
+			for(int i=0; i<(kind == SimCheckpoint.MAP ? 2 * size : size); i++)
+				in.readInt();
+			if(!existing[number])
+				object = newCollection(collectionClass, comparator, size);
+			break;
+		case SimCheckpoint.SERIALIZED:
+			bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			object = deserialize(bytes);
+			break;
+		case SimCheckpoint.STANDARD:
+			object = SimCheckpoint.STANDARD_OBJECTS[in.readByte()];
+			break;
+		default:
+			throw new SimulationException("Unknown checkpoint record: " + kind);
+		}
+
+		//the existing objects are kept, the immutable values of static final fields as well
+		if(!existing[number])
+			objects[number] = object;
+	}
+
+	private void fillRecord(DataInputStream in, int number) throws IOException, ReflectiveOperationException {
+		byte kind = in.readByte();
+		Object object = objects[number];
+		switch (kind) {
+		case SimCheckpoint.OBJECT:
+			Class<?> clazz = readClass(in);
+			if(object.getClass() != clazz)
+				throw new SimulationException("The class of a static final field is changed: " + clazz.getName());
+			for(Field field : SimCheckpoint.getFields(clazz, fields))
+				setValue(field, object, readValue(in, field.getType()));
+			break;
+		case SimCheckpoint.ARRAY:
+			Class<?> componentType = readClass(in);
+			int length = in.readInt();
+			for(int i=0; i<length; i++)
+				setElement(object, i, readValue(in, componentType));
+			break;
+		case SimCheckpoint.STRING:
+			in.skipBytes(in.readInt());
+			break;
+		case SimCheckpoint.BOXED:
+			readBoxed(in, in.readByte());
+			break;
+		case SimCheckpoint.ENUM:
+			readEnum(in);
+			break;
+		case SimCheckpoint.CLASS:
+			in.readUTF();
+			break;
+		case SimCheckpoint.COLLECTION:
+		case SimCheckpoint.MAP:
+			Class<?> collectionClass = readClass(in);
+			if(object.getClass() != collectionClass)
+				throw new SimulationException("The class of a static final field is changed: " + collectionClass.getName());
+			if(SimCheckpoint.isSorted(collectionClass))
+				in.readInt();
+			int size = in.readInt();
+			int[] elements = new int[kind == SimCheckpoint.MAP ? 2 * size : size];
+			for(int i=0; i<elements.length; i++)
+				elements[i] = in.readInt();
+			contents[number] = elements;
+			break;
+		case SimCheckpoint.SERIALIZED:
+			in.skipBytes(in.readInt());
+			break;
+		case SimCheckpoint.STANDARD:
+			in.readByte();
+			break;
+		}
+	}
+
+	/*
+	 * reads the class written with its name for the first time, with its id otherwise
+	 */
+	private Class<?> readClass(DataInputStream in) throws IOException, ClassNotFoundException {
+		int id = in.readInt();
+		if(id >= 0)
+			return classes.get(id);
+
+		Class<?> clazz = resolveClass(in.readUTF());
+		if(SimCheckpoint.isReflective(clazz) && in.readInt() != SimCheckpoint.getLayoutHash(clazz, fields))
+			throw new SimulationException("The checkpoint is written by another version of " + clazz.getName() + "!");
+
+		classes.add(clazz);
+		return clazz;
+	}
+
+	private Class<?> resolveClass(String name) throws ClassNotFoundException {
+		Class<?> clazz = SimCheckpoint.getPrimitiveClass(name);
+		if(clazz == null)
+			clazz = Class.forName(name, false, classLoader);
+		return clazz;
+	}
+
+	/*
+	 * reads a primitive value or the number of an object
+	 */
+	private Object readValue(DataInputStream in, Class<?> type) throws IOException {
+		if(type == boolean.class)
+			return in.readBoolean();
+		else if(type == byte.class)
+			return in.readByte();
+		else if(type == char.class)
+			return in.readChar();
+		else if(type == short.class)
+			return in.readShort();
+		else if(type == int.class)
+			return in.readInt();
+		else if(type == long.class)
+			return in.readLong();
+		else if(type == float.class)
+			return in.readFloat();
+		else if(type == double.class)
+			return in.readDouble();
+		return in.readInt();
+	}
+
+	private void setValue(Field field, Object object, Object value) throws IllegalAccessException {
+		field.set(object, field.getType().isPrimitive() ? value : objects[(Integer)value]);
+	}
+
+	private void setElement(Object array, int index, Object value) {
+		Array.set(array, index, array.getClass().getComponentType().isPrimitive() ? value : objects[(Integer)value]);
+	}
+
+	private Object readBoxed(DataInputStream in, byte index) throws IOException {
+		switch (index) {
+		case 0: return in.readBoolean();
+		case 1: return in.readByte();
+		case 2: return in.readChar();
+		case 3: return in.readShort();
+		case 4: return in.readInt();
+		case 5: return in.readLong();
+		case 6: return in.readFloat();
+		default: return in.readDouble();
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readEnum(DataInputStream in) throws IOException, ClassNotFoundException {
+		Class enumClass = readClass(in);
+		return Enum.valueOf(enumClass, in.readUTF());
+	}
+
+	/*
+	 * creates an object without running the constructors of its class
+	 * like Java serialization does, see ObjectInstantiator
+	 */
+	private Object newInstance(Class<?> clazz) throws ReflectiveOperationException {
+		Constructor<?> constructor = constructors.get(clazz);
+		if(constructor == null) {
+			constructor = instantiator.getConstructor(clazz);
+			constructors.put(clazz, constructor);
+		}
+		return constructor.newInstance();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object newCollection(Class<?> clazz, Comparator comparator, int size) throws ReflectiveOperationException {
+		if(clazz == PriorityQueue.class)
+			return new PriorityQueue(Math.max(size, 1), comparator);
+		else if(SimCheckpoint.isSorted(clazz))
+			return clazz.getConstructor(Comparator.class).newInstance(comparator);
+		return clazz.getConstructor().newInstance();
+	}
+
+	private Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+			@Override
+			protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+				//the classes of the simulation may be loaded by the class loader of a simulation context
+				Class<?> clazz = SimCheckpoint.getPrimitiveClass(desc.getName());
+				return (clazz != null) ? clazz : Class.forName(desc.getName(), false, classLoader);
+			}
+		};
+		try {
+			return objectIn.readObject();
+		}
+		finally {
+			objectIn.close();
+		}
+	}
+}
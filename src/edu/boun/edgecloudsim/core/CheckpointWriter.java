@@ -0,0 +1,328 @@
+/*
+ * Title:        EdgeCloudSim - Checkpoint Writer
+ *
+ * Description:
+ * CheckpointWriter writes the object graph of a simulation run which is
+ * reachable from the static fields of the root classes. The objects are
+ * numbered in the order of a breadth first traversal, so that the graph
+ * is written without recursion. The static fields of the classes of the
+ * reached objects are added to the roots during the traversal. A sorted
+ * collection is numbered after its comparator, so that the comparator
+ * exists when the collection is created by the reader.
+ *
+ * The roots are written first, then a record for each object in the
+ * order of the numbers. The fields of the records refer to the objects
+ * by their numbers, zero stands for null.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class CheckpointWriter {
+	private DataOutputStream out;
+
+	//objects in the order of their numbers, starting from one
+	private Map<Object, Integer> numbers;
+	private List<Object> objects;
+
+	private Set<Class<?>> rootClasses;
+	private List<Field> rootFields;
+
+	private Map<Class<?>, Integer> classIds;
+	private Map<Class<?>, Field[]> fields;
+
+	private List<File> appendedFiles;
+
+	CheckpointWriter(DataOutputStream _out) {
+		out = _out;
+		numbers = new IdentityHashMap<Object, Integer>();
+		objects = new ArrayList<Object>();
+		rootClasses = new HashSet<Class<?>>();
+		rootFields = new ArrayList<Field>();
+		classIds = new HashMap<Class<?>, Integer>();
+		fields = new HashMap<Class<?>, Field[]>();
+		appendedFiles = new ArrayList<File>();
+	}
+
+	/*
+	 * numbers the objects reachable from the root classes, the listeners
+	 * are notified meanwhile
+	 */
+	void number(Class<?>[] _rootClasses) throws IOException {
+		try {
+			for(Class<?> rootClass : _rootClasses)
+				addRootClass(rootClass);
+
+			for(int i=0; i<objects.size(); i++)
+				traverse(objects.get(i));
+		} catch (IllegalAccessException e) {
+			throw new SimulationException(e);
+		}
+	}
+
+	/*
+	 * returns the files appended by the listeners, which are numbered
+	 */
+	List<File> getAppendedFiles() {
+		return appendedFiles;
+	}
+
+	/*
+	 * writes the roots and the records of the numbered objects
+	 */
+	void write() throws IOException {
+		try {
+			out.writeInt(rootFields.size());
+			for(Field field : rootFields) {
+				writeClass(field.getDeclaringClass());
+				out.writeUTF(field.getName());
+				writeField(field, null);
+			}
+
+			out.writeInt(objects.size());
+			for(int i=0; i<objects.size(); i++)
+				writeRecord(objects.get(i));
+		} catch (IllegalAccessException e) {
+			throw new SimulationException(e);
+		}
+	}
+
+	/*
+	 * adds the static fields of a class and its super classes to the roots
+	 */
+	private void addRootClass(Class<?> clazz) throws IOException, IllegalAccessException {
+		for(Class<?> c = clazz; c != null && SimCheckpoint.isRootClass(c); c = c.getSuperclass()) {
+			if(!rootClasses.add(c))
+				return;
+
+			for(Field field : SimCheckpoint.getStaticFields(c)) {
+				rootFields.add(field);
+				if(!field.getType().isPrimitive())
+					getNumber(field.get(null));
+			}
+		}
+	}
+
+	/*
+	 * returns the number of an object, the object is numbered if it is
+	 * reached for the first time
+	 */
+	private int getNumber(Object object) throws IOException, IllegalAccessException {
+		if(object == null)
+			return 0;
+
+		Integer number = numbers.get(object);
+		if(number != null)
+			return number;
+
+		if(SimCheckpoint.isSorted(object.getClass()))
+			getNumber(SimCheckpoint.getComparator(object));
+
+		if(object instanceof CheckpointListener){
+			((CheckpointListener)object).checkpointStarted();
+			appendedFiles.addAll(Arrays.asList(((CheckpointListener)object).getAppendedFiles()));
+		}
+
+		objects.add(object);
+		numbers.put(object, objects.size());
+		addRootClass(object.getClass());
+		return objects.size();
+	}
+
+	/*
+	 * numbers the objects referred by an object
+	 */
+	private void traverse(Object object) throws IOException, IllegalAccessException {
+		switch (SimCheckpoint.getKind(object)) {
+		case SimCheckpoint.OBJECT:
+			for(Field field : SimCheckpoint.getFields(object.getClass(), fields))
+				if(!field.getType().isPrimitive())
+					getNumber(field.get(object));
+			break;
+		case SimCheckpoint.ARRAY:
+			if(!object.getClass().getComponentType().isPrimitive())
+				for(Object element : (Object[])object)
+					getNumber(element);
+			break;
+		case SimCheckpoint.COLLECTION:
+			for(Object element : (Collection<?>)object)
+				getNumber(element);
+			break;
+		case SimCheckpoint.MAP:
+			for(Map.Entry<?,?> entry : ((Map<?,?>)object).entrySet()) {
+				getNumber(entry.getKey());
+				getNumber(entry.getValue());
+			}
+			break;
+		default:
+			//values without references
+			break;
+		}
+	}
+
+	private void writeRecord(Object object) throws IOException, IllegalAccessException {
+		byte kind = SimCheckpoint.getKind(object);
+		out.writeByte(kind);
+
+		Class<?> clazz = object.getClass();
+		switch (kind) {
+		case SimCheckpoint.OBJECT:
+			writeClass(clazz);
+			for(Field field : SimCheckpoint.getFields(clazz, fields))
+				writeField(field, object);
+			break;
+		case SimCheckpoint.ARRAY:
+			writeClass(clazz.getComponentType());
+			writeArray(object);
+			break;
+		case SimCheckpoint.STRING:
+			byte[] bytes = ((String)object).getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+			break;
+		case SimCheckpoint.BOXED:
+			out.writeByte(SimCheckpoint.getBoxedIndex(clazz));
+			writeBoxed(object);
+			break;
+		case SimCheckpoint.ENUM:
+			writeClass(((Enum<?>)object).getDeclaringClass());
+			out.writeUTF(((Enum<?>)object).name());
+			break;
+		case SimCheckpoint.CLASS:
+			out.writeUTF(((Class<?>)object).getName());
+			break;
+		case SimCheckpoint.COLLECTION:
+			writeClass(clazz);
+			if(SimCheckpoint.isSorted(clazz))
+				out.writeInt(getNumber(SimCheckpoint.getComparator(object)));
+			out.writeInt(((Collection<?>)object).size());
+			for(Object element : (Collection<?>)object)
+				out.writeInt(getNumber(element));
+			break;
+		case SimCheckpoint.MAP:
+			writeClass(clazz);
+			if(SimCheckpoint.isSorted(clazz))
+				out.writeInt(getNumber(SimCheckpoint.getComparator(object)));
+			out.writeInt(((Map<?,?>)object).size());
+			for(Map.Entry<?,?> entry : ((Map<?,?>)object).entrySet()) {
+				out.writeInt(getNumber(entry.getKey()));
+				out.writeInt(getNumber(entry.getValue()));
+			}
+			break;
+		case SimCheckpoint.SERIALIZED:
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			ObjectOutputStream objectOut = new ObjectOutputStream(buffer);
+			objectOut.writeObject(object);
+			objectOut.close();
+			out.writeInt(buffer.size());
+			buffer.writeTo(out);
+			break;
+		case SimCheckpoint.STANDARD:
+			out.writeByte(SimCheckpoint.getStandardIndex(object));
+			break;
+		}
+	}
+
+	/*
+	 * writes the name of a class when it is used for the first time, its id otherwise
+	 */
+	private void writeClass(Class<?> clazz) throws IOException {
+		Integer id = classIds.get(clazz);
+		if(id != null) {
+			out.writeInt(id);
+			return;
+		}
+
+		out.writeInt(-1);
+		out.writeUTF(clazz.getName());
+		if(SimCheckpoint.isReflective(clazz))
+			out.writeInt(SimCheckpoint.getLayoutHash(clazz, fields));
+		classIds.put(clazz, classIds.size());
+	}
+
+	private void writeField(Field field, Object object) throws IOException, IllegalAccessException {
+		Class<?> type = field.getType();
+		if(type == boolean.class)
+			out.writeBoolean(field.getBoolean(object));
+		else if(type == byte.class)
+			out.writeByte(field.getByte(object));
+		else if(type == char.class)
+			out.writeChar(field.getChar(object));
+		else if(type == short.class)
+			out.writeShort(field.getShort(object));
+		else if(type == int.class)
+			out.writeInt(field.getInt(object));
+		else if(type == long.class)
+			out.writeLong(field.getLong(object));
+		else if(type == float.class)
+			out.writeFloat(field.getFloat(object));
+		else if(type == double.class)
+			out.writeDouble(field.getDouble(object));
+		else
+			out.writeInt(getNumber(field.get(object)));
+	}
+
+	private void writeArray(Object array) throws IOException, IllegalAccessException {
+		int length = Array.getLength(array);
+		out.writeInt(length);
+
+		Class<?> type = array.getClass().getComponentType();
+		if(type == boolean.class)
+			for(boolean value : (boolean[])array) out.writeBoolean(value);
+		else if(type == byte.class)
+			out.write((byte[])array);
+		else if(type == char.class)
+			for(char value : (char[])array) out.writeChar(value);
+		else if(type == short.class)
+			for(short value : (short[])array) out.writeShort(value);
+		else if(type == int.class)
+			for(int value : (int[])array) out.writeInt(value);
+		else if(type == long.class)
+			for(long value : (long[])array) out.writeLong(value);
+		else if(type == float.class)
+			for(float value : (float[])array) out.writeFloat(value);
+		else if(type == double.class)
+			for(double value : (double[])array) out.writeDouble(value);
+		else
+			for(Object element : (Object[])array) out.writeInt(getNumber(element));
+	}
+
+	private void writeBoxed(Object value) throws IOException {
+		if(value instanceof Boolean)
+			out.writeBoolean((Boolean)value);
+		else if(value instanceof Byte)
+			out.writeByte((Byte)value);
+		else if(value instanceof Character)
+			out.writeChar((Character)value);
+		else if(value instanceof Short)
+			out.writeShort((Short)value);
+		else if(value instanceof Integer)
+			out.writeInt((Integer)value);
+		else if(value instanceof Long)
+			out.writeLong((Long)value);
+		else if(value instanceof Float)
+			out.writeFloat((Float)value);
+		else
+			out.writeDouble((Double)value);
+	}
+}
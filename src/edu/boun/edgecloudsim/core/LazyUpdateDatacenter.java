@@ -0,0 +1,273 @@
+/*
+ * Title:        EdgeCloudSim - Lazy Update Datacenter
+ *
+ * Description:
+ * LazyUpdateDatacenter is a CloudSim Datacenter which does not update
+ * its idle VMs on each event. The VMs with running or waiting cloudlets
+ * are kept in a sorted set in the order of the hosts and VMs; only these
+ * VMs, and the VM which receives a new cloudlet, are updated. Hence the
+ * cost of an event scales with the number of busy VMs rather than the
+ * number of hosts, e.g. in the mobile datacenter which has one host per
+ * mobile device; every busy VM is still updated on each event.
+ *
+ * The cloudlet schedulers do not change a VM without cloudlets when it
+ * is updated, except for the time of its last update. So an idle VM is
+ * updated only when it receives a cloudlet, at the time Datacenter would
+ * have updated it last. The busy VMs are updated at the same times and
+ * the events are scheduled in the same way as Datacenter, and the
+ * finished cloudlets are returned in the order of the hosts and VMs;
+ * hence the results are exactly the same as the results of Datacenter.
+ * See scripts/test/run_tests.sh for the regression test comparing them.
+ *
+ * An event which is not used by EdgeCloudSim (VM destroy/migrate,
+ * cloudlet cancel/pause/resume/move etc.) causes a full update of the
+ * datacenter at the next processing time.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+public class LazyUpdateDatacenter extends Datacenter {
+	//VMs with running or waiting cloudlets, in the order of the hosts and VMs
+	private TreeSet<VmState> busyVms;
+	private Map<Vm, VmState> vmStates;
+
+	//VMs updated since the last completion check
+	private List<VmState> updatedVms;
+	private List<VmState> busyList;
+
+	//VM of the cloudlet being submitted, null otherwise
+	private VmState submittedVm;
+
+	private boolean fullUpdateRequired;
+
+	public LazyUpdateDatacenter(String name, DatacenterCharacteristics characteristics,
+			VmAllocationPolicy vmAllocationPolicy, List<Storage> storageList,
+			double schedulingInterval) throws Exception {
+		super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
+
+		busyVms = new TreeSet<VmState>(VmState.HOST_ORDER);
+		vmStates = new HashMap<Vm, VmState>();
+		updatedVms = new ArrayList<VmState>();
+		busyList = new ArrayList<VmState>();
+		submittedVm = null;
+		fullUpdateRequired = true;
+	}
+
+	/**
+	 * Same as Datacenter.processCloudletSubmit except that the VM of the
+	 * cloudlet is tracked as a busy VM after the cloudlet is submitted.
+	 */
+	@Override
+	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+		//invalid events are reported by Datacenter
+		if(ev.getData() instanceof Cloudlet) {
+			Cloudlet cl = (Cloudlet) ev.getData();
+			Host host = getVmAllocationPolicy().getHost(cl.getVmId(), cl.getUserId());
+			Vm vm = (host != null) ? host.getVm(cl.getVmId(), cl.getUserId()) : null;
+			if(vm != null)
+				submittedVm = getVmState(vm);
+		}
+
+		try {
+			super.processCloudletSubmit(ev, ack);
+		} finally {
+			if(submittedVm != null && isBusy(submittedVm))
+				busyVms.add(submittedVm);
+			submittedVm = null;
+		}
+	}
+
+	/**
+	 * Same as Datacenter.updateCloudletProcessing except that only the busy
+	 * VMs and the VM of the cloudlet being submitted are updated.
+	 */
+	@Override
+	protected void updateCloudletProcessing() {
+		if (CloudSim.clock() < 0.111 || CloudSim.clock() > getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
+			double smallerTime = Double.MAX_VALUE;
+			if(fullUpdateRequired) {
+				smallerTime = fullUpdate();
+			}
+			else {
+				busyList.addAll(busyVms);
+				for (int i = 0; i < busyList.size(); i++) {
+					VmState state = busyList.get(i);
+					double time = updateVm(state, CloudSim.clock());
+					if (time > 0.0 && time < smallerTime) {
+						smallerTime = time;
+					}
+					if(!isBusy(state))
+						busyVms.remove(state);
+				}
+				busyList.clear();
+
+				//an idle VM is not changed by the update, its next event time is not used
+				if(submittedVm != null && submittedVm.updateTime < CloudSim.clock())
+					updateVm(submittedVm, CloudSim.clock());
+			}
+
+			// guarantees a minimal interval before scheduling the event
+			if (smallerTime < CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01) {
+				smallerTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01;
+			}
+
+			if (smallerTime != Double.MAX_VALUE) {
+				schedule(getId(), (smallerTime - CloudSim.clock()), CloudSimTags.VM_DATACENTER_EVENT);
+			}
+
+			setLastProcessTime(CloudSim.clock());
+		}
+		else if(submittedVm != null && submittedVm.updateTime < getLastProcessTime()) {
+			//Datacenter has updated this VM at the last processing time as well,
+			//otherwise the new cloudlet would be credited for a longer time
+			updateVm(submittedVm, getLastProcessTime());
+		}
+	}
+
+	@Override
+	protected void checkCloudletCompletion() {
+		//return the finished cloudlets in the order of Datacenter
+		Collections.sort(updatedVms, VmState.HOST_ORDER);
+
+		for (int i = 0; i < updatedVms.size(); i++) {
+			VmState state = updatedVms.get(i);
+			state.updated = false;
+
+			while (state.vm.getCloudletScheduler().isFinishedCloudlets()) {
+				Cloudlet cl = state.vm.getCloudletScheduler().getNextFinishedCloudlet();
+				if (cl != null) {
+					sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+				}
+			}
+		}
+		updatedVms.clear();
+	}
+
+	@Override
+	protected void processVmDestroy(SimEvent ev, boolean ack) {
+		super.processVmDestroy(ev, ack);
+		fullUpdateRequired = true;
+	}
+
+	@Override
+	protected void processVmMigrate(SimEvent ev, boolean ack) {
+		super.processVmMigrate(ev, ack);
+		fullUpdateRequired = true;
+	}
+
+	@Override
+	protected void processCloudlet(SimEvent ev, int type) {
+		super.processCloudlet(ev, type);
+		fullUpdateRequired = true;
+	}
+
+	@Override
+	protected void processCloudletMove(int[] receivedData, int type) {
+		super.processCloudletMove(receivedData, type);
+		fullUpdateRequired = true;
+	}
+
+	/*
+	 * updates all VMs of the datacenter like Datacenter does, and returns
+	 * the time of the next event estimated by the VMs
+	 */
+	private double fullUpdate() {
+		busyVms.clear();
+
+		double smallerTime = Double.MAX_VALUE;
+		List<? extends Host> list = getVmAllocationPolicy().getHostList();
+		for (int i = 0; i < list.size(); i++) {
+			Host host = list.get(i);
+			List<? extends Vm> vmList = host.getVmList();
+			for (int j = 0; j < vmList.size(); j++) {
+				VmState state = getVmState(vmList.get(j));
+				state.hostIndex = i;
+				state.vmIndex = j;
+
+				double time = updateVm(state, CloudSim.clock());
+				if (time > 0.0 && time < smallerTime) {
+					smallerTime = time;
+				}
+				if(isBusy(state))
+					busyVms.add(state);
+			}
+		}
+		fullUpdateRequired = false;
+		return smallerTime;
+	}
+
+	private double updateVm(VmState state, double currentTime) {
+		double time = state.vm.updateVmProcessing(currentTime,
+				state.vm.getHost().getVmScheduler().getAllocatedMipsForVm(state.vm));
+		state.updateTime = currentTime;
+
+		if(!state.updated) {
+			state.updated = true;
+			updatedVms.add(state);
+		}
+		return time;
+	}
+
+	private boolean isBusy(VmState state) {
+		CloudletScheduler scheduler = state.vm.getCloudletScheduler();
+		return !scheduler.getCloudletExecList().isEmpty() || !scheduler.getCloudletWaitingList().isEmpty();
+	}
+
+	private VmState getVmState(Vm vm) {
+		VmState state = vmStates.get(vm);
+		if(state == null) {
+			Host host = vm.getHost();
+			state = new VmState(vm, getVmAllocationPolicy().getHostList().indexOf(host), host.getVmList().indexOf(vm));
+			vmStates.put(vm, state);
+		}
+		return state;
+	}
+
+	private static class VmState {
+		private static final Comparator<VmState> HOST_ORDER = new Comparator<VmState>() {
+			@Override
+			public int compare(VmState a, VmState b) {
+				if(a.hostIndex != b.hostIndex)
+					return (a.hostIndex < b.hostIndex) ? -1 : 1;
+				return (a.vmIndex < b.vmIndex) ? -1 : (a.vmIndex == b.vmIndex ? 0 : 1);
+			}
+		};
+
+		private Vm vm;
+		private int hostIndex;
+		private int vmIndex;
+		private double updateTime;
+		private boolean updated;
+
+		private VmState(Vm _vm, int _hostIndex, int _vmIndex) {
+			vm = _vm;
+			hostIndex = _hostIndex;
+			vmIndex = _vmIndex;
+			updateTime = 0;
+			updated = false;
+		}
+	}
+}
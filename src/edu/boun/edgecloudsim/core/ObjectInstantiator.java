@@ -0,0 +1,51 @@
+/*
+ * Title:        EdgeCloudSim - Object Instantiator
+ *
+ * Description:
+ * ObjectInstantiator creates the objects restored from a checkpoint
+ * without running the constructors of their classes, as Java
+ * serialization does; most of the classes of CloudSim and the simulator
+ * have neither a no-arg constructor nor the serialization hooks.
+ *
+ * The constructors are created by sun.reflect.ReflectionFactory, which
+ * is the only means of the JDK for this purpose. It is a critical
+ * internal API exported by the jdk.unsupported module (JEP 260), so it
+ * is accessed via reflection; the rest of the simulator does not depend
+ * on it at compile time, and a clear error is reported if a JDK does not
+ * provide it.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+class ObjectInstantiator {
+	private static final String REFLECTION_FACTORY = "sun.reflect.ReflectionFactory";
+
+	private Object reflectionFactory;
+	private Method newConstructorForSerialization;
+
+	ObjectInstantiator() {
+		try {
+			Class<?> factoryClass = Class.forName(REFLECTION_FACTORY);
+			reflectionFactory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+			newConstructorForSerialization = factoryClass.getMethod("newConstructorForSerialization",
+					Class.class, Constructor.class);
+		} catch (ReflectiveOperationException e) {
+			throw new SimulationException(REFLECTION_FACTORY + " is not available, checkpoints cannot be restored on this JDK!", e);
+		}
+	}
+
+	/*
+	 * returns a constructor which creates an object of the given class by
+	 * running only the no-arg constructor of Object
+	 */
+	Constructor<?> getConstructor(Class<?> clazz) throws ReflectiveOperationException {
+		return (Constructor<?>) newConstructorForSerialization.invoke(reflectionFactory,
+				clazz, Object.class.getDeclaredConstructor());
+	}
+}
@@ -0,0 +1,537 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Checkpoint
+ *
+ * Description:
+ * SimCheckpoint writes the state of a running simulation to a file and
+ * restores it, so that an interrupted run can be continued from its last
+ * checkpoint with exactly the same results.
+ *
+ * The state of a run is kept in the static fields of CloudSim and the
+ * simulator (the entities, the future and deferred event queues, the
+ * clock, SimManager and SimLogger singletons etc.) and in the objects
+ * reachable from them, including the random number generators. None of
+ * these classes is serializable, so the object graph is written field
+ * by field via reflection; the objects are restored without running
+ * their constructors, as Java serialization does. The static fields of
+ * the classes whose objects are written are saved as well. The objects
+ * of the JDK are written by value (strings, boxed numbers, enums), via
+ * their public interface (collections and maps) or by Java serialization
+ * (e.g. java.util.Random).
+ *
+ * The transient fields are not written. Objects which keep resources
+ * outside of the simulation state should implement CheckpointListener.
+ * The files appended by the listeners are listed in the header of the
+ * checkpoint with their lengths; the checkpoint cannot be restored if any
+ * of them is deleted or truncated afterwards, e.g. by cleaning the output
+ * folder, since the lines logged before the checkpoint would be lost.
+ *
+ * A checkpoint can also be forked, i.e. restored as the starting state of
+ * another run, such as the state at the end of a warm-up period which is
+ * shared by the runs of the orchestrator policies.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class SimCheckpoint {
+	static final int MAGIC = 0x45435343; //"ECSC"
+	static final int VERSION = 2;
+
+	//kinds of the object records
+	static final byte OBJECT = 1;
+	static final byte ARRAY = 2;
+	static final byte STRING = 3;
+	static final byte BOXED = 4;
+	static final byte ENUM = 5;
+	static final byte CLASS = 6;
+	static final byte COLLECTION = 7;
+	static final byte MAP = 8;
+	static final byte SERIALIZED = 9;
+	static final byte STANDARD = 10;
+
+	//the classes keeping the state of a run in static fields, even if no object of them is reachable
+	static final Class<?>[] ROOT_CLASSES = {CloudSim.class, SimManager.class, SimLogger.class, SimUtils.class};
+
+	//static fields are saved only for the classes of the simulator and CloudSim
+	private static final String[] ROOT_PACKAGES = {"edu.boun.edgecloudsim.", "org.cloudbus.cloudsim."};
+
+	//objects of the JDK which are written by identity
+	static final Object[] STANDARD_OBJECTS = {System.out, System.err, System.in,
+		Collections.EMPTY_LIST, Collections.EMPTY_SET, Collections.EMPTY_MAP};
+
+	//collections and maps which are written via their public interface
+	private static final Set<Class<?>> COLLECTION_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+			ArrayList.class, LinkedList.class, Vector.class, ArrayDeque.class, CopyOnWriteArrayList.class,
+			HashSet.class, LinkedHashSet.class, TreeSet.class, PriorityQueue.class));
+	private static final Set<Class<?>> MAP_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+			HashMap.class, LinkedHashMap.class, TreeMap.class, Hashtable.class,
+			ConcurrentHashMap.class, IdentityHashMap.class));
+
+	private static final int BUFFER_SIZE = 65536;
+
+	private static final Class<?>[] BOXED_CLASSES = {Boolean.class, Byte.class, Character.class,
+		Short.class, Integer.class, Long.class, Float.class, Double.class};
+
+	private static final Class<?>[] PRIMITIVE_CLASSES = {boolean.class, byte.class, char.class,
+		short.class, int.class, long.class, float.class, double.class, void.class};
+
+	/**
+	 * Writes the state of the running simulation to the given file.
+	 * It should be called while an event is processed, as the last action
+	 * of the event. The file is replaced only after the checkpoint is
+	 * written completely, so the previous checkpoint is kept if the
+	 * simulation is interrupted meanwhile.
+	 */
+	public static void write(File file) throws IOException {
+		//the runs sharing a checkpoint may write it at the same time
+		File tempFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new GZIPOutputStream(new FileOutputStream(tempFile))));
+		try {
+			//the listeners flush their files while the objects are numbered
+			CheckpointWriter writer = new CheckpointWriter(out);
+			writer.number(ROOT_CLASSES);
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeDouble(CloudSim.clock());
+			out.writeInt(writer.getAppendedFiles().size());
+			for(File appendedFile : writer.getAppendedFiles()) {
+				out.writeUTF(appendedFile.getName());
+				out.writeLong(appendedFile.length());
+			}
+			writer.write();
+		}
+		finally {
+			out.close();
+		}
+
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Restores the state of the simulation from the given file and
+	 * returns the simulation time of the checkpoint. The objects of the
+	 * current run are replaced by the restored ones, e.g. SimManager and
+	 * SimLogger instances, and CloudSim can be continued via its run loop.
+	 */
+	public static double restore(File file) throws IOException {
+		return read(file, true);
+	}
+
+	/**
+	 * Restores the state of the simulation from the given file in order to
+	 * continue it as another run, e.g. the run of another orchestrator
+	 * policy forked at the end of a shared warm-up period. Unlike restore,
+	 * the listeners are not notified; their resources belong to the run
+	 * which wrote the checkpoint, so the caller should hand the resources
+	 * of the new run over to the restored objects.
+	 */
+	public static double fork(File file) throws IOException {
+		return read(file, false);
+	}
+
+	private static double read(File file, boolean notifyListeners) throws IOException {
+		byte[] content = readFile(file);
+		CheckpointReader reader = new CheckpointReader(SimCheckpoint.class.getClassLoader());
+		double time = 0;
+
+		//the content is read twice, the objects are created first, their fields are set then
+		for(int pass=0; pass<2; pass++){
+			DataInputStream in = new DataInputStream(new ContentInputStream(content));
+			time = readHeader(in, file);
+			readAppendedFiles(in, file);
+			if(pass == 0)
+				reader.allocate(in);
+			else
+				reader.fill(in);
+		}
+
+		reader.finish(notifyListeners);
+		return time;
+	}
+
+	/**
+	 * returns the simulation time of the given checkpoint file
+	 */
+	public static double readTime(File file) throws IOException {
+		DataInputStream in = openFile(file);
+		try {
+			return readHeader(in, file);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns true if the given checkpoint can be restored by this
+	 * simulator version and the files appended by its run still exist and
+	 * they are at least as long as they are when the checkpoint is written.
+	 * Otherwise the checkpoint should be discarded and the run should be
+	 * started again.
+	 */
+	public static boolean isRestorable(File file) throws IOException {
+		DataInputStream in = openFile(file);
+		try {
+			if(!isCompatible(in))
+				return false;
+
+			in.readDouble();
+			for(Map.Entry<File, Long> entry : readAppendedFiles(in, file).entrySet())
+				if(!entry.getKey().isFile() || entry.getKey().length() < entry.getValue())
+					return false;
+			return true;
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns the files appended by the run which wrote the given
+	 * checkpoint, e.g. the deep log files; they should be kept as long as
+	 * the checkpoint is kept
+	 */
+	public static List<File> getAppendedFiles(File file) throws IOException {
+		DataInputStream in = openFile(file);
+		try {
+			readHeader(in, file);
+			return new ArrayList<File>(readAppendedFiles(in, file).keySet());
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns the names of the given files which should be kept when an
+	 * output folder is cleaned, i.e. the checkpoints of the interrupted
+	 * runs and the files appended by them. The checkpoints which cannot be
+	 * read by this simulator version are not kept.
+	 */
+	public static Set<String> getKeptFiles(File[] files) {
+		Set<String> keptFiles = new HashSet<String>();
+		for(File file : files) {
+			if(!file.isFile() || !file.getName().endsWith(".checkpoint"))
+				continue;
+
+			try {
+				for(File appendedFile : getAppendedFiles(file))
+					keptFiles.add(appendedFile.getName());
+				keptFiles.add(file.getName());
+			} catch (IOException | SimulationException e) {
+				SimLogger.printLine("Checkpoint " + file + " cannot be read, it is not kept: " + e.getMessage());
+			}
+		}
+		return keptFiles;
+	}
+
+	private static DataInputStream openFile(File file) throws IOException {
+		return new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+	}
+
+	/*
+	 * returns the uncompressed content of a checkpoint file
+	 */
+	private static byte[] readFile(File file) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		InputStream in = new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE);
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int length;
+			while((length = in.read(buffer)) > 0)
+				content.write(buffer, 0, length);
+		}
+		finally {
+			in.close();
+		}
+		return content.toByteArray();
+	}
+
+	private static double readHeader(DataInputStream in, File file) throws IOException {
+		if(!isCompatible(in))
+			throw new SimulationException(file + " is not a checkpoint of this simulator version!");
+		return in.readDouble();
+	}
+
+	private static boolean isCompatible(DataInputStream in) throws IOException {
+		return in.readInt() == MAGIC && in.readInt() == VERSION;
+	}
+
+	/*
+	 * returns the files appended by the run of a checkpoint with their
+	 * lengths; the files are in the folder of the checkpoint
+	 */
+	private static Map<File, Long> readAppendedFiles(DataInputStream in, File file) throws IOException {
+		Map<File, Long> appendedFiles = new LinkedHashMap<File, Long>();
+		int numOfFiles = in.readInt();
+		for(int i=0; i<numOfFiles; i++)
+			appendedFiles.put(new File(file.getAbsoluteFile().getParentFile(), in.readUTF()), in.readLong());
+		return appendedFiles;
+	}
+
+	/*
+	 * returns true if the fields of the class can be accessed via
+	 * reflection; the classes of the JDK modules are encapsulated
+	 */
+	static boolean isReflective(Class<?> clazz) {
+		if(clazz.isArray() || clazz.isPrimitive() || clazz.isInterface())
+			return false;
+
+		for(Class<?> c = clazz; c != Object.class; c = c.getSuperclass())
+			if(c.getModule().isNamed())
+				return false;
+		return true;
+	}
+
+	/*
+	 * returns true if the static fields of the class are a part of the simulation state
+	 */
+	static boolean isRootClass(Class<?> clazz) {
+		for(String rootPackage : ROOT_PACKAGES)
+			if(clazz.getName().startsWith(rootPackage))
+				return true;
+		return false;
+	}
+
+	/*
+	 * returns the kind of the record of an object
+	 */
+	static byte getKind(Object object) {
+		for(Object standardObject : STANDARD_OBJECTS)
+			if(object == standardObject)
+				return STANDARD;
+
+		Class<?> clazz = object.getClass();
+		if(clazz.isArray())
+			return ARRAY;
+		else if(clazz == String.class)
+			return STRING;
+		else if(getBoxedIndex(clazz) >= 0)
+			return BOXED;
+		else if(object instanceof Enum)
+			return ENUM;
+		else if(clazz == Class.class)
+			return CLASS;
+		else if(COLLECTION_CLASSES.contains(clazz))
+			return COLLECTION;
+		else if(MAP_CLASSES.contains(clazz))
+			return MAP;
+		else if(isReflective(clazz))
+			return OBJECT;
+		else if(object instanceof Serializable)
+			return SERIALIZED;
+
+		throw new SimulationException("An object of " + clazz.getName() + " cannot be written to a checkpoint!");
+	}
+
+	static int getStandardIndex(Object object) {
+		for(int i=0; i<STANDARD_OBJECTS.length; i++)
+			if(object == STANDARD_OBJECTS[i])
+				return i;
+		return -1;
+	}
+
+	static int getBoxedIndex(Class<?> clazz) {
+		for(int i=0; i<BOXED_CLASSES.length; i++)
+			if(clazz == BOXED_CLASSES[i])
+				return i;
+		return -1;
+	}
+
+	static Class<?> getPrimitiveClass(String name) {
+		for(Class<?> clazz : PRIMITIVE_CLASSES)
+			if(clazz.getName().equals(name))
+				return clazz;
+		return null;
+	}
+
+	/*
+	 * returns the number of bytes written for a value of a primitive type
+	 */
+	static int getPrimitiveSize(Class<?> clazz) {
+		if(clazz == boolean.class || clazz == byte.class)
+			return 1;
+		else if(clazz == char.class || clazz == short.class)
+			return 2;
+		else if(clazz == int.class || clazz == float.class)
+			return 4;
+		return 8;
+	}
+
+	/*
+	 * returns the comparator of a sorted collection or map,
+	 * null if it is not sorted or sorted by the natural order
+	 */
+	static Comparator<?> getComparator(Object object) {
+		if(object instanceof SortedSet)
+			return ((SortedSet<?>)object).comparator();
+		else if(object instanceof SortedMap)
+			return ((SortedMap<?,?>)object).comparator();
+		else if(object instanceof PriorityQueue)
+			return ((PriorityQueue<?>)object).comparator();
+		return null;
+	}
+
+	static boolean isSorted(Class<?> clazz) {
+		return clazz == TreeSet.class || clazz == TreeMap.class || clazz == PriorityQueue.class;
+	}
+
+	/*
+	 * returns the fields of a class which are written to a checkpoint,
+	 * the fields of the super classes come first, each class in the
+	 * order of the field names
+	 */
+	static Field[] getFields(Class<?> clazz, Map<Class<?>, Field[]> cache) {
+		Field[] fields = cache.get(clazz);
+		if(fields != null)
+			return fields;
+
+		List<Field> list = new ArrayList<Field>();
+		if(clazz.getSuperclass() != Object.class)
+			list.addAll(Arrays.asList(getFields(clazz.getSuperclass(), cache)));
+
+		Field[] declaredFields = clazz.getDeclaredFields();
+		Arrays.sort(declaredFields, new Comparator<Field>() {
+			@Override
+			public int compare(Field a, Field b) {
+				return a.getName().compareTo(b.getName());
+			}
+		});
+
+		for(Field field : declaredFields) {
+			int modifiers = field.getModifiers();
+			if(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+				continue;
+			field.setAccessible(true);
+			list.add(field);
+		}
+
+		fields = list.toArray(new Field[list.size()]);
+		cache.put(clazz, fields);
+		return fields;
+	}
+
+	/*
+	 * returns the static fields of a class which are written to a checkpoint;
+	 * the constants and the final fields of immutable values are skipped
+	 */
+	static List<Field> getStaticFields(Class<?> clazz) {
+		List<Field> list = new ArrayList<Field>();
+		for(Field field : clazz.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if(!Modifier.isStatic(modifiers) || field.isSynthetic())
+				continue;
+
+			if(Modifier.isFinal(modifiers)) {
+				Class<?> type = field.getType();
+				if(type.isPrimitive() || type == String.class || type.isEnum() || getBoxedIndex(type) >= 0)
+					continue;
+			}
+
+			field.setAccessible(true);
+			list.add(field);
+		}
+		return list;
+	}
+
+	/*
+	 * returns a hash of the names and types of the fields of a class,
+	 * which is used to detect the checkpoints written by another version
+	 */
+	static int getLayoutHash(Class<?> clazz, Map<Class<?>, Field[]> cache) {
+		int hash = 1;
+		for(Field field : getFields(clazz, cache)) {
+			hash = 31 * hash + field.getName().hashCode();
+			hash = 31 * hash + field.getType().getName().hashCode();
+		}
+		return hash;
+	}
+
+	/*
+	 * reads the content of a checkpoint from memory; the records are read
+	 * by a large number of small reads, which are not synchronized unlike
+	 * the ones of ByteArrayInputStream
+	 */
+	private static class ContentInputStream extends InputStream {
+		private byte[] content;
+		private int position;
+
+		ContentInputStream(byte[] _content) {
+			content = _content;
+			position = 0;
+		}
+
+		@Override
+		public int read() {
+			return position < content.length ? content[position++] & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			if(position >= content.length)
+				return length == 0 ? 0 : -1;
+
+			length = Math.min(length, content.length - position);
+			System.arraycopy(content, position, buffer, offset, length);
+			position += length;
+			return length;
+		}
+
+		@Override
+		public long skip(long length) {
+			length = Math.max(0, Math.min(length, content.length - position));
+			position += (int)length;
+			return length;
+		}
+	}
+}
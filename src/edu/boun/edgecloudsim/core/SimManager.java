@@ -12,8 +12,15 @@
 
 package edu.boun.edgecloudsim.core;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -26,11 +33,16 @@ import edu.boun.edgecloudsim.edge_server.EdgeVmAllocationPolicy_Custom;
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
+import edu.boun.edgecloudsim.event_list.BinaryHeapEventList;
+import edu.boun.edgecloudsim.event_list.EventList;
+import edu.boun.edgecloudsim.event_list.EventListFutureQueue;
+import edu.boun.edgecloudsim.event_list.PartitionProfiler;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class SimManager extends SimEntity {
 	private static final int CREATE_TASK = 0;
@@ -38,6 +50,11 @@ public class SimManager extends SimEntity {
 	private static final int GET_LOAD_LOG = 2;
 	private static final int PRINT_PROGRESS = 3;
 	private static final int STOP_SIMULATION = 4;
+	private static final int CHECKPOINT = 5;
+	private static final int WARM_UP_FORK = 6;
+
+	private static final String WARM_UP_FILE_EXTENSION = ".warmup";
+	private static final String FINISHED_FILE_EXTENSION = ".finished";
 	
 	private String simScenario;
 	private String orchestratorPolicy;
@@ -51,6 +68,10 @@ public class SimManager extends SimEntity {
 	private MobileServerManager mobileServerManager;
 	private LoadGeneratorModel loadGeneratorModel;
 	private MobileDeviceManager mobileDeviceManager;
+	private EventList eventList;
+	private PartitionProfiler profiler;
+	private File checkpointFile;
+	private File warmUpFile;
 	
 	private static SimManager instance = null;
 	
@@ -106,6 +127,37 @@ public class SimManager extends SimEntity {
 	 * Triggering CloudSim to start simulation
 	 */
 	public void startSimulation() throws Exception{
+		checkpointFile = new File(SimLogger.getInstance().getOutputFolder(), SimLogger.getInstance().getFilePrefix() + ".checkpoint");
+		if(checkpointFile.exists() && (SimSettings.getInstance().getCheckpointInterval() <= 0 || !SimCheckpoint.isRestorable(checkpointFile))){
+			//The run is started again if its checkpoints are disabled or the logs of the interrupted run are deleted or truncated
+			SimLogger.printLine(super.getName()+" discards the checkpoint of the interrupted run");
+			if(!checkpointFile.delete())
+				throw new SimulationException("file cannot be deleted: " + checkpointFile.getAbsolutePath());
+			SimLogger.getInstance().checkpointDiscarded();
+		}
+		if(SimSettings.getInstance().getCheckpointInterval() > 0 && checkpointFile.exists()){
+			//An interrupted run is continued from its checkpoint, the objects of this run are replaced
+			double checkpointTime = SimCheckpoint.restore(checkpointFile);
+			SimLogger.printLine(super.getName()+" is restored from the checkpoint at " + checkpointTime + " seconds");
+			instance.checkpointFile = checkpointFile;
+			instance.runSimulation();
+			return;
+		}
+
+		//The policies may share a warm-up period which is simulated once under a neutral policy
+		String warmUpPolicy = SimSettings.getInstance().getWarmUpForkPolicy();
+		if(warmUpPolicy != null){
+			warmUpFile = new File(SimLogger.getInstance().getOutputFolder(), getWarmUpFileName(warmUpPolicy));
+			if(warmUpFile.exists()){
+				forkWarmUp();
+				return;
+			}
+
+			//This run simulates the warm-up period and writes its state for the other policies
+			edgeOrchestrator.setPolicy(warmUpPolicy);
+			SimUtils.initializeOrchestratorStream(warmUpPolicy);
+		}
+
 		//Starts the simulation
 		SimLogger.print(super.getName()+" is starting...");
 		
@@ -121,7 +173,150 @@ public class SimManager extends SimEntity {
 		mobileServerManager.startDatacenters();
 		mobileServerManager.createVmList(mobileDeviceManager.getId());
 		
+		//Replace the future queue of CloudSim if another event list is selected
+		eventList = EventListFutureQueue.createEventList(SimSettings.getInstance().getFutureEventList());
+		profiler = null;
+		if(SimSettings.getInstance().getPdesProfileEnabled()){
+			//events are observed via the event list, a binary heap keeps the same event order
+			if(eventList == null)
+				eventList = new BinaryHeapEventList();
+			profiler = new PartitionProfiler();
+		}
+		if(eventList != null)
+			EventListFutureQueue.install(eventList, profiler);
+		
+		runSimulation();
+	}
+
+	/*
+	 * continues this run from the state of the shared warm-up period; the
+	 * objects of this run are replaced by the restored ones except for the
+	 * output of the run
+	 */
+	private void forkWarmUp() throws IOException {
+		SimLogger runLogger = SimLogger.getInstance();
+		boolean fileLogEnabled = SimLogger.isFileLogEnabled();
+
+		double warmUpTime = SimCheckpoint.fork(warmUpFile);
+		SimLogger.getInstance().forkRun(runLogger);
+		if(fileLogEnabled)
+			SimLogger.enableFileLog();
+		else
+			SimLogger.disableFileLog();
+		SimLogger.printLine(super.getName()+" is forked from the warm-up period at " + warmUpTime + " seconds");
+
+		instance.scenarioFactory = scenarioFactory;
+		instance.orchestratorPolicy = orchestratorPolicy;
+		instance.checkpointFile = checkpointFile;
+		instance.endWarmUp();
+		instance.runSimulation();
+	}
+
+	/*
+	 * returns the name of the warm-up snapshot; the runs share it only if
+	 * they have the same scenario, number of devices, iteration, neutral
+	 * policy and configuration files, which include the random seed
+	 */
+	private String getWarmUpFileName(String warmUpPolicy) {
+		return getWarmUpFilePrefix(simScenario, numOfMobileDevice, SimUtils.getIterationNumber()) +
+				warmUpPolicy + "_" + SimSettings.getInstance().getConfigurationDigest() + WARM_UP_FILE_EXTENSION;
+	}
+
+	private static String getWarmUpFilePrefix(String simScenario, int numOfMobileDevice, int iterationNumber) {
+		return simScenario + "_" + numOfMobileDevice + "DEVICES_ITE" + iterationNumber + "_";
+	}
+
+	/**
+	 * Deletes the warm-up snapshots of the given scenario, number of mobile
+	 * devices and iteration in the output folder, and their records of the
+	 * finished policies. SweepLauncher calls it when the jobs of all policies
+	 * are finished, skipped, restored from the cache or failed; since some
+	 * of the policies may never run, their snapshot is not deleted by the
+	 * runs themselves.
+	 */
+	public static void deleteWarmUpFiles(String outputFolder, String simScenario, int numOfMobileDevice, int iterationNumber) throws IOException {
+		File[] files = new File(outputFolder).listFiles();
+		if(files == null)
+			return;
+
+		String prefix = getWarmUpFilePrefix(simScenario, numOfMobileDevice, iterationNumber);
+		for(File file : files) {
+			String name = file.getName();
+			boolean isWarmUpFile = name.endsWith(WARM_UP_FILE_EXTENSION) || name.endsWith(WARM_UP_FILE_EXTENSION + FINISHED_FILE_EXTENSION);
+			if(name.startsWith(prefix) && isWarmUpFile && !file.delete())
+				throw new IOException("file cannot be deleted: " + file.getAbsolutePath());
+		}
+	}
+
+	/*
+	 * records that the run of this policy is finished next to the warm-up
+	 * snapshot; the snapshot is deleted when the runs of all policies are
+	 * finished. The record is locked since the policies may run concurrently.
+	 * A policy which is not run, e.g. it is restored from the cache of a
+	 * sweep, is never recorded; see deleteWarmUpFiles.
+	 */
+	private void warmUpRunFinished() throws IOException {
+		File finishedFile = new File(warmUpFile.getPath() + FINISHED_FILE_EXTENSION);
+		boolean allFinished;
+		RandomAccessFile file = new RandomAccessFile(finishedFile, "rw");
+		try {
+			FileLock lock = file.getChannel().lock();
+			try {
+				Set<String> finishedPolicies = new HashSet<String>();
+				String line;
+				while((line = file.readLine()) != null)
+					finishedPolicies.add(line);
+
+				if(finishedPolicies.add(orchestratorPolicy))
+					file.write((orchestratorPolicy + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+
+				allFinished = finishedPolicies.containsAll(Arrays.asList(SimSettings.getInstance().getOrchestratorPolicies()));
+				if(allFinished && warmUpFile.exists() && !warmUpFile.delete())
+					throw new SimulationException("file cannot be deleted: " + warmUpFile.getAbsolutePath());
+			} finally {
+				lock.release();
+			}
+		} finally {
+			file.close();
+		}
+
+		if(allFinished)
+			finishedFile.delete();
+	}
+
+	/*
+	 * switches the orchestrator from the neutral policy of the shared
+	 * warm-up period to the policy of this run
+	 */
+	private void endWarmUp() {
+		edgeOrchestrator.setPolicy(orchestratorPolicy);
+		SimUtils.initializeOrchestratorStream(orchestratorPolicy);
+	}
+
+	/*
+	 * runs CloudSim until the simulation is stopped; a restored
+	 * simulation is continued from the event of its checkpoint
+	 */
+	private void runSimulation() throws IOException {
 		CloudSim.startSimulation();
+		
+		if(eventList != null)
+			SimLogger.printLine("Future event list: " + eventList.getClass().getSimpleName() +
+					", " + eventList.getNumOfEnqueues() + " enqueue and " +
+					eventList.getNumOfDequeues() + " dequeue operations");
+		if(profiler != null)
+			profiler.printSummary();
+		if(mobileDeviceManager.getNumOfInlineEvents() + mobileDeviceManager.getNumOfScheduledEvents() > 0)
+			SimLogger.printLine("Zero delay events: " + mobileDeviceManager.getNumOfInlineEvents() +
+					" processed inline, " + mobileDeviceManager.getNumOfScheduledEvents() + " scheduled");
+		edgeOrchestrator.getDecisionLatencyModel().simulationFinished();
+
+		//the run is completed, it should not be continued from its checkpoint again
+		if(checkpointFile.exists())
+			checkpointFile.delete();
+
+		if(warmUpFile != null)
+			warmUpRunFinished();
 	}
 
 	public String getSimulationScenario(){
@@ -194,14 +389,20 @@ public class SimManager extends SimEntity {
 		}
 		
 		//Creation of tasks are scheduled here!
-		for(int i=0; i< loadGeneratorModel.getTaskList().size(); i++)
-			schedule(getId(), loadGeneratorModel.getTaskList().get(i).getStartTime(), CREATE_TASK, loadGeneratorModel.getTaskList().get(i));
+		//only the first task of each device is scheduled, the next task of
+		//a device is scheduled when its current task is created
+		for(int i=0; i<numOfMobileDevice; i++)
+			scheduleNextTask(i);
 		
 		//Periodic event loops starts from here!
 		schedule(getId(), 5, CHECK_ALL_VM);
 		schedule(getId(), SimSettings.getInstance().getSimulationTime()/100, PRINT_PROGRESS);
 		schedule(getId(), SimSettings.getInstance().getVmLoadLogInterval(), GET_LOAD_LOG);
 		schedule(getId(), SimSettings.getInstance().getSimulationTime(), STOP_SIMULATION);
+		if(SimSettings.getInstance().getCheckpointInterval() > 0)
+			schedule(getId(), SimSettings.getInstance().getCheckpointInterval(), CHECKPOINT);
+		if(warmUpFile != null)
+			schedule(getId(), SimSettings.getInstance().getWarmUpPeriod(), WARM_UP_FORK);
 		
 		SimLogger.printLine("Done.");
 	}
@@ -213,17 +414,16 @@ public class SimManager extends SimEntity {
 			case CREATE_TASK:
 				try {
 					TaskProperty edgeTask = (TaskProperty) ev.getData();
+					scheduleNextTask(edgeTask.getMobileDeviceId());
 					mobileDeviceManager.submitTask(edgeTask);						
 				} catch (Exception e) {
-					e.printStackTrace();
-					System.exit(1);
+					throw new SimulationException(e);
 				}
 				break;
 			case CHECK_ALL_VM:
 				int totalNumOfVm = SimSettings.getInstance().getNumOfEdgeVMs();
 				if(EdgeVmAllocationPolicy_Custom.getCreatedVmNum() != totalNumOfVm){
-					SimLogger.printLine("All VMs cannot be created! Terminating simulation...");
-					System.exit(1);
+					throw new SimulationException("All VMs cannot be created! Terminating simulation...");
 				}
 				break;
 			case GET_LOAD_LOG:
@@ -244,6 +444,25 @@ public class SimManager extends SimEntity {
 				if(CloudSim.clock() < SimSettings.getInstance().getSimulationTime())
 					schedule(getId(), SimSettings.getInstance().getSimulationTime()/100, PRINT_PROGRESS);
 
+				break;
+			case CHECKPOINT:
+				//the next checkpoint is scheduled first, so that it belongs to the state written
+				if(CloudSim.clock() + SimSettings.getInstance().getCheckpointInterval() < SimSettings.getInstance().getSimulationTime())
+					schedule(getId(), SimSettings.getInstance().getCheckpointInterval(), CHECKPOINT);
+				try {
+					SimCheckpoint.write(checkpointFile);
+				} catch (IOException e) {
+					throw new SimulationException(e);
+				}
+				break;
+			case WARM_UP_FORK:
+				//the other policies continue from the state written here, as this run does
+				try {
+					SimCheckpoint.write(warmUpFile);
+				} catch (IOException e) {
+					throw new SimulationException(e);
+				}
+				endWarmUp();
 				break;
 			case STOP_SIMULATION:
 				SimLogger.printLine("100");
@@ -251,8 +470,7 @@ public class SimManager extends SimEntity {
 				try {
 					SimLogger.getInstance().simStopped();
 				} catch (IOException e) {
-					e.printStackTrace();
-					System.exit(1);
+					throw new SimulationException(e);
 				}
 				break;
 			default:
@@ -262,6 +480,16 @@ public class SimManager extends SimEntity {
 		}
 	}
 
+	/*
+	 * schedules the creation of the next task of the mobile device
+	 * so that a single creation event per device is kept in the queue
+	 */
+	private void scheduleNextTask(int deviceId) {
+		TaskProperty task = loadGeneratorModel.getNextTask(deviceId);
+		if(task != null)
+			schedule(getId(), Math.max(0, task.getStartTime() - CloudSim.clock()), CREATE_TASK, task);
+	}
+
 	@Override
 	public void shutdownEntity() {
 		edgeServerManager.terminateDatacenters();
@@ -17,7 +17,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Properties;
+import java.util.zip.CRC32;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -27,8 +30,6 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import edu.boun.edgecloudsim.utils.SimLogger;
-
 public class SimSettings {
 	private static SimSettings instance = null;
 	private Document edgeDevicesDoc = null;
@@ -41,6 +42,14 @@ public class SimSettings {
 	//enumarations for the VM types
 	public static enum NETWORK_DELAY_TYPES { WLAN_DELAY, MAN_DELAY, WAN_DELAY, GSM_DELAY }
 
+	//enumarations for the data structures keeping the future events
+	//DEFAULT is the SortedSet based future queue of CloudSim
+	public static enum FUTURE_EVENT_LISTS { DEFAULT, BINARY_HEAP, CALENDAR_QUEUE, LADDER_QUEUE }
+
+	//enumarations for the models of the orchestrator decision time
+	//NONE means that the decisions take no simulated time
+	public static enum DECISION_LATENCY_MODELS { NONE, FIXED, PER_CANDIDATE, PROFILE }
+
 	//predifined IDs for the components.
 	public static final int CLOUD_DATACENTER_ID = 1000;
 	public static final int MOBILE_DATACENTER_ID = 1001;
@@ -57,6 +66,24 @@ public class SimSettings {
 	private double INTERVAL_TO_GET_AP_DELAY_LOG; //minutes unit in properties file
 	private boolean FILE_LOG_ENABLED; //boolean to check file logging option
 	private boolean DEEP_FILE_LOG_ENABLED; //boolean to check deep file logging option
+	private boolean COMMON_RANDOM_NUMBERS_ENABLED; //true if random_seed is given in properties file
+	private long RANDOM_SEED;
+	private FUTURE_EVENT_LISTS FUTURE_EVENT_LIST;
+	private boolean PDES_PROFILE_ENABLED; //boolean to check partition profiling option
+	private boolean INLINE_ZERO_DELAY_EVENTS; //boolean to check inline processing of zero delay self events
+	private boolean LAZY_DATACENTER_UPDATE; //boolean to check lazy update option of the datacenters
+	private boolean[] ANALYTIC_EXECUTION_VM_TYPES; //true for the VM types whose tasks bypass the datacenters
+	private boolean LIGHTWEIGHT_MOBILE_EXECUTION; //boolean to check lightweight execution option of the mobile devices
+	private boolean TASK_RELEASE_CHECK_ENABLED; //boolean to check the use of the tasks after their lifecycle is over
+	private double CHECKPOINT_INTERVAL; //minutes unit in properties file, zero if checkpoints are disabled
+	private String WARM_UP_FORK_POLICY; //neutral policy of the shared warm-up period, empty if the policies are not forked
+	private String CONFIGURATION_DIGEST; //CRC32 of the configuration files in hex, identifies the settings of a run
+	private DECISION_LATENCY_MODELS DECISION_LATENCY_MODEL;
+	private double DECISION_TIME; //seconds
+	private double DECISION_TIME_PER_CANDIDATE; //seconds
+	private String DECISION_LATENCY_PROFILE; //file of the measured decision times of the policies, empty if not given
+	private double DECISION_TIME_SCALE; //ratio of the decision time on the orchestrator to the measured decision time
+	private int NUM_OF_DECISION_SERVERS; //number of decisions made by the orchestrator in parallel
 
 	private int MIN_NUM_OF_MOBILE_DEVICES;
 	private int MAX_NUM_OF_MOBILE_DEVICES;
@@ -96,6 +123,13 @@ public class SimSettings {
 	private double SOUTHERN_BOUND;
 	private double WESTERN_BOUND;
 
+	//tunable constants of the orchestrator policies of the sample applications
+	private double ORCHESTRATOR_WAN_BW_THRESHOLD; //Mbps
+	private double ORCHESTRATOR_UTILIZATION_THRESHOLD; //percentage
+	private double FUZZY_WAN_BW_CENTER; //Mbps
+	private double FUZZY_EDGE_UTIL_CENTER; //percentage
+	private double MAB_BETA;
+
 	// mean waiting time (minute) is stored for each place types
 	private double[] mobilityLookUpTable;
 
@@ -150,6 +184,29 @@ public class SimSettings {
 			INTERVAL_TO_GET_AP_DELAY_LOG = (double)60 * Double.parseDouble(prop.getProperty("ap_delay_check_interval", "0")); //seconds		
 			FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("file_log_enabled"));
 			DEEP_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_enabled"));
+			COMMON_RANDOM_NUMBERS_ENABLED = prop.getProperty("random_seed") != null;
+			RANDOM_SEED = Long.parseLong(prop.getProperty("random_seed", "0"));
+			FUTURE_EVENT_LIST = FUTURE_EVENT_LISTS.valueOf(prop.getProperty("future_event_list", FUTURE_EVENT_LISTS.DEFAULT.name()).trim());
+			PDES_PROFILE_ENABLED = Boolean.parseBoolean(prop.getProperty("pdes_profile_enabled", "false"));
+			INLINE_ZERO_DELAY_EVENTS = Boolean.parseBoolean(prop.getProperty("inline_zero_delay_events", "true"));
+			LAZY_DATACENTER_UPDATE = Boolean.parseBoolean(prop.getProperty("lazy_datacenter_update", "false"));
+
+			ANALYTIC_EXECUTION_VM_TYPES = new boolean[VM_TYPES.values().length];
+			String analyticExecutionVmTypes = prop.getProperty("analytic_execution_vm_types", "").trim();
+			if(!analyticExecutionVmTypes.isEmpty())
+				for(String vmType : analyticExecutionVmTypes.split(","))
+					ANALYTIC_EXECUTION_VM_TYPES[VM_TYPES.valueOf(vmType.trim()).ordinal()] = true;
+			LIGHTWEIGHT_MOBILE_EXECUTION = Boolean.parseBoolean(prop.getProperty("lightweight_mobile_execution", "false"));
+			TASK_RELEASE_CHECK_ENABLED = Boolean.parseBoolean(prop.getProperty("task_release_check_enabled", "false"));
+			CHECKPOINT_INTERVAL = (double)60 * Double.parseDouble(prop.getProperty("checkpoint_interval", "0")); //seconds
+			WARM_UP_FORK_POLICY = prop.getProperty("warm_up_fork_policy", "").trim();
+			CONFIGURATION_DIGEST = calculateDigest(propertiesFile, edgeDevicesFile, applicationsFile);
+			DECISION_LATENCY_MODEL = DECISION_LATENCY_MODELS.valueOf(prop.getProperty("orchestrator_decision_latency_model", DECISION_LATENCY_MODELS.NONE.name()).trim());
+			DECISION_TIME = Double.parseDouble(prop.getProperty("orchestrator_decision_time", "0")); //seconds
+			DECISION_TIME_PER_CANDIDATE = Double.parseDouble(prop.getProperty("orchestrator_decision_time_per_candidate", "0")); //seconds
+			DECISION_LATENCY_PROFILE = prop.getProperty("orchestrator_decision_profile", "").trim();
+			DECISION_TIME_SCALE = Double.parseDouble(prop.getProperty("orchestrator_decision_time_scale", "1"));
+			NUM_OF_DECISION_SERVERS = Integer.parseInt(prop.getProperty("orchestrator_decision_servers", "1"));
 
 			MIN_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("min_number_of_mobile_devices"));
 			MAX_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("max_number_of_mobile_devices"));
@@ -185,6 +242,12 @@ public class SimSettings {
 			EASTERN_BOUND = Double.parseDouble(prop.getProperty("eastern_bound", "0"));
 			WESTERN_BOUND = Double.parseDouble(prop.getProperty("western_bound", "0"));
 
+			ORCHESTRATOR_WAN_BW_THRESHOLD = Double.parseDouble(prop.getProperty("orchestrator_wan_bw_threshold", "6"));
+			ORCHESTRATOR_UTILIZATION_THRESHOLD = Double.parseDouble(prop.getProperty("orchestrator_utilization_threshold", "80"));
+			FUZZY_WAN_BW_CENTER = Double.parseDouble(prop.getProperty("fuzzy_wan_bw_center", "5"));
+			FUZZY_EDGE_UTIL_CENTER = Double.parseDouble(prop.getProperty("fuzzy_edge_util_center", "50"));
+			MAB_BETA = Double.parseDouble(prop.getProperty("mab_beta", "1"));
+
 			//avg waiting time in a place (min)
 			double place1_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L1_mean_waiting_time"));
 			double place2_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L2_mean_waiting_time"));
@@ -216,6 +279,16 @@ public class SimSettings {
 		return result;
 	}
 
+	/*
+	 * returns the CRC32 of the contents of the given files in hex
+	 */
+	private static String calculateDigest(String... files) throws IOException {
+		CRC32 crc = new CRC32();
+		for(String file : files)
+			crc.update(Files.readAllBytes(Paths.get(file)));
+		return String.format("%08x", crc.getValue());
+	}
+
 	/**
 	 * returns the parsed XML document for edge_devices.xml
 	 */
@@ -272,6 +345,172 @@ public class SimSettings {
 		return FILE_LOG_ENABLED && DEEP_FILE_LOG_ENABLED; 
 	}
 
+	/**
+	 * returns true if random_seed is given in properties file; in this case
+	 * all orchestrator policies are simulated with the same workload and
+	 * mobility for the same iteration and number of mobile devices
+	 */
+	public boolean isCommonRandomNumbersEnabled()
+	{
+		return COMMON_RANDOM_NUMBERS_ENABLED;
+	}
+
+	/**
+	 * returns base seed of the random number streams from properties file
+	 */
+	public long getRandomSeed()
+	{
+		return RANDOM_SEED;
+	}
+
+	/**
+	 * returns the data structure keeping the future events from properties file
+	 */
+	public FUTURE_EVENT_LISTS getFutureEventList()
+	{
+		return FUTURE_EVENT_LIST;
+	}
+
+	/**
+	 * returns true if the events are profiled to estimate the speedup of
+	 * a parallel execution partitioned by edge site
+	 */
+	public boolean getPdesProfileEnabled()
+	{
+		return PDES_PROFILE_ENABLED;
+	}
+
+	/**
+	 * returns true if the zero delay events which the mobile device manager
+	 * sends to itself are processed without scheduling when it is possible
+	 */
+	public boolean getInlineZeroDelayEvents()
+	{
+		return INLINE_ZERO_DELAY_EVENTS;
+	}
+
+	/**
+	 * returns true if the datacenters only update the VMs which have
+	 * cloudlets or receive a cloudlet, see LazyUpdateDatacenter
+	 */
+	public boolean getLazyDatacenterUpdate()
+	{
+		return LAZY_DATACENTER_UPDATE;
+	}
+
+	/**
+	 * returns true if the tasks on the given type of VMs are submitted to
+	 * the VMs directly and complete at their calculated time, instead of
+	 * being processed by the datacenters; this changes the model slightly,
+	 * see UncontendedVmExecutor
+	 */
+	public boolean getAnalyticExecutionEnabled(VM_TYPES vmType)
+	{
+		return ANALYTIC_EXECUTION_VM_TYPES[vmType.ordinal()];
+	}
+
+	/**
+	 * returns true if the tasks on the mobile devices are executed by a
+	 * lightweight model instead of CloudSim hosts and VMs per device
+	 */
+	public boolean getLightweightMobileExecution()
+	{
+		return LIGHTWEIGHT_MOBILE_EXECUTION;
+	}
+
+	/**
+	 * returns true if the use of a task after it is completed or failed
+	 * should terminate the simulation (for debugging purposes)
+	 */
+	public boolean getTaskReleaseCheckEnabled()
+	{
+		return TASK_RELEASE_CHECK_ENABLED;
+	}
+
+	/**
+	 * returns the period of the checkpoints in simulated time (in seconds),
+	 * zero if the simulation state is not written to checkpoints; an
+	 * interrupted run is continued from its checkpoint in the output folder,
+	 * which is kept when the folder is cleaned (see SimUtils.cleanOutputFolder)
+	 */
+	public double getCheckpointInterval()
+	{
+		return CHECKPOINT_INTERVAL;
+	}
+
+	/**
+	 * returns the orchestrator policy which simulates the warm-up period
+	 * once for all policies, the other policies are forked from its state
+	 * at the end of the warm-up period; null if each policy simulates its
+	 * own warm-up period or there is no warm-up period
+	 */
+	public String getWarmUpForkPolicy()
+	{
+		return WARM_UP_FORK_POLICY.isEmpty() || WARM_UP_PERIOD <= 0 ? null : WARM_UP_FORK_POLICY;
+	}
+
+	/**
+	 * returns a digest of the properties, edge devices and applications
+	 * files; the runs having the same digest use the same settings
+	 */
+	public String getConfigurationDigest()
+	{
+		return CONFIGURATION_DIGEST;
+	}
+
+	/**
+	 * returns the model of the time which the edge orchestrator needs
+	 * for an offloading decision in simulated time
+	 */
+	public DECISION_LATENCY_MODELS getDecisionLatencyModel()
+	{
+		return DECISION_LATENCY_MODEL;
+	}
+
+	/**
+	 * returns the fixed time of an orchestrator decision (in seconds)
+	 */
+	public double getDecisionTime()
+	{
+		return DECISION_TIME;
+	}
+
+	/**
+	 * returns the time of an orchestrator decision for each candidate
+	 * examined by the orchestrator (in seconds)
+	 */
+	public double getDecisionTimePerCandidate()
+	{
+		return DECISION_TIME_PER_CANDIDATE;
+	}
+
+	/**
+	 * returns the file which keeps the measured decision times of the
+	 * orchestrator policies, null if it is not given
+	 */
+	public String getDecisionLatencyProfile()
+	{
+		return DECISION_LATENCY_PROFILE.isEmpty() ? null : DECISION_LATENCY_PROFILE;
+	}
+
+	/**
+	 * returns the factor which converts the measured decision times of the
+	 * profile to the decision times on the orchestrator
+	 */
+	public double getDecisionTimeScale()
+	{
+		return DECISION_TIME_SCALE;
+	}
+
+	/**
+	 * returns the number of offloading decisions which the orchestrator
+	 * can make at the same time
+	 */
+	public int getNumOfDecisionServers()
+	{
+		return NUM_OF_DECISION_SERVERS;
+	}
+
 	/**
 	 * returns deep statistics logging status from properties file
 	 */
@@ -506,6 +745,46 @@ public class SimSettings {
 	}
 
 
+	/**
+	 * returns WAN bandwidth threshold (in Mbps) of the network based
+	 * orchestrator policies from properties file
+	 */
+	public double getOrchestratorWanBwThreshold() {
+		return ORCHESTRATOR_WAN_BW_THRESHOLD;
+	}
+
+	/**
+	 * returns edge utilization threshold (in percentage) of the utilization
+	 * based orchestrator policies from properties file
+	 */
+	public double getOrchestratorUtilizationThreshold() {
+		return ORCHESTRATOR_UTILIZATION_THRESHOLD;
+	}
+
+	/**
+	 * returns center of the medium WAN bandwidth term (in Mbps) of the fuzzy
+	 * orchestrator from properties file
+	 */
+	public double getFuzzyWanBwCenter() {
+		return FUZZY_WAN_BW_CENTER;
+	}
+
+	/**
+	 * returns center of the medium edge utilization term (in percentage) of
+	 * the fuzzy orchestrator from properties file
+	 */
+	public double getFuzzyEdgeUtilCenter() {
+		return FUZZY_EDGE_UTIL_CENTER;
+	}
+
+	/**
+	 * returns exploration coefficient of the multi armed bandit
+	 * orchestrator from properties file
+	 */
+	public double getMabBeta() {
+		return MAB_BETA;
+	}
+
 	public double getNorthernBound() {
 		return NORTHERN_BOUND;
 	}
@@ -663,9 +942,7 @@ public class SimSettings {
 				}
 			}
 		} catch (Exception e) {
-			SimLogger.printLine("Edge Devices XML cannot be parsed! Terminating simulation...");
-			e.printStackTrace();
-			System.exit(1);
+			throw new SimulationException("Edge Devices XML cannot be parsed! Terminating simulation...", e);
 		}
 	}
 
@@ -678,6 +955,12 @@ public class SimSettings {
 			edgeDevicesDoc = dBuilder.parse(devicesFile);
 			edgeDevicesDoc.getDocumentElement().normalize();
 
+			//counters are reset since the settings can be initialized again in the same JVM
+			NUM_OF_EDGE_DATACENTERS = 0;
+			NUM_OF_EDGE_HOSTS = 0;
+			NUM_OF_EDGE_VMS = 0;
+			NUM_OF_PLACE_TYPES = 0;
+
 			NodeList datacenterList = edgeDevicesDoc.getElementsByTagName("datacenter");
 			for (int i = 0; i < datacenterList.getLength(); i++) {
 				NUM_OF_EDGE_DATACENTERS++;
@@ -730,9 +1013,7 @@ public class SimSettings {
 			}
 
 		} catch (Exception e) {
-			SimLogger.printLine("Edge Devices XML cannot be parsed! Terminating simulation...");
-			e.printStackTrace();
-			System.exit(1);
+			throw new SimulationException("Edge Devices XML cannot be parsed! Terminating simulation...", e);
 		}
 	}
 }
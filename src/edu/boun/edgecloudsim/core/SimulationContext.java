@@ -0,0 +1,172 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Context
+ *
+ * Description:
+ * SimulationContext owns the whole state of a single simulation run.
+ * SimManager, SimLogger, SimSettings, the VM counters of the allocation
+ * policies and the clock of CloudSim are kept in static fields. In order
+ * to run more than one simulation in the same JVM, each context loads the
+ * simulator classes via its own class loader, so every static field
+ * exists once per context. The main application is accessed reflectively
+ * via its initializeHelper() and mainHelper() methods.
+ *
+ * The libraries without simulation state (commons-math, colt, weka etc.)
+ * are loaded once by a class loader shared by all contexts of the JVM,
+ * so an additional context costs only the simulator classes and the
+ * state of its run. CloudSim keeps its clock and entities in static
+ * fields, hence it is loaded by each context like the simulator.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimulationContext implements Closeable {
+	private static final String SIM_LOGGER_CLASS = "edu.boun.edgecloudsim.utils.SimLogger";
+	private static final String SIM_SETTINGS_CLASS = "edu.boun.edgecloudsim.core.SimSettings";
+	private static final String CLOUDSIM_LOG_CLASS = "org.cloudbus.cloudsim.Log";
+
+	private static URLClassLoader sharedLibraryLoader = null;
+
+	private URLClassLoader classLoader;
+	private Class<?> mainAppClass;
+	private boolean initialized;
+	private boolean fileLogEnabled;
+
+	/**
+	 * Creates an isolated context for the given main application class.
+	 * The class must provide the static initializeHelper(String, String, String)
+	 * and mainHelper(String, String, String, int, int) methods.
+	 */
+	public SimulationContext(String _mainAppClassName) {
+		classLoader = new URLClassLoader(getClassPathUrls(false), getSharedLibraryLoader());
+		mainAppClass = loadClass(_mainAppClassName);
+		initialized = false;
+	}
+
+	/**
+	 * Loads the simulation settings inside this context.
+	 * Print log is kept disabled if the runs are executed concurrently,
+	 * otherwise the outputs of different runs would be mixed up.
+	 * A context can be initialized again to load different settings.
+	 */
+	public boolean initialize(String configFile, String edgeDevicesFile, String applicationsFile, boolean printLogEnabled) {
+		//disable console output of cloudsim library
+		invokeStatic(loadClass(CLOUDSIM_LOG_CLASS), "disable", new Class<?>[0]);
+
+		Class<?> simLoggerClass = loadClass(SIM_LOGGER_CLASS);
+		invokeStatic(simLoggerClass, printLogEnabled ? "enablePrintLog" : "disablePrintLog", new Class<?>[0]);
+
+		Object result = invokeStatic(mainAppClass, "initializeHelper",
+				new Class<?>[] {String.class, String.class, String.class},
+				configFile, edgeDevicesFile, applicationsFile);
+
+		initialized = ((Boolean)result).booleanValue();
+		if(initialized){
+			Class<?> simSettingsClass = loadClass(SIM_SETTINGS_CLASS);
+			Object SS = invokeStatic(simSettingsClass, "getInstance", new Class<?>[0]);
+			fileLogEnabled = ((Boolean)invoke(SS, simSettingsClass, "getFileLoggingEnabled", new Class<?>[0])).booleanValue();
+		}
+
+		return initialized;
+	}
+
+	/**
+	 * Runs a single simulation scenario inside this context.
+	 * Any error raised by the simulation is thrown as SimulationException.
+	 * A context can be used for consecutive runs; the logging state
+	 * which may be changed by the previous run is restored here.
+	 */
+	public void run(String outputFolder, String simScenario, String orchestratorPolicy, int iterationNumber, int numOfMobileDevice) {
+		if(!initialized)
+			throw new SimulationException("Simulation context is not initialized!");
+
+		invokeStatic(loadClass(SIM_LOGGER_CLASS), fileLogEnabled ? "enableFileLog" : "disableFileLog", new Class<?>[0]);
+
+		invokeStatic(mainAppClass, "mainHelper",
+				new Class<?>[] {String.class, String.class, String.class, int.class, int.class},
+				outputFolder, simScenario, orchestratorPolicy, iterationNumber, numOfMobileDevice);
+	}
+
+	public ClassLoader getClassLoader() {
+		return classLoader;
+	}
+
+	@Override
+	public void close() throws IOException {
+		classLoader.close();
+	}
+
+	private Class<?> loadClass(String className) {
+		try {
+			return Class.forName(className, true, classLoader);
+		} catch (ClassNotFoundException e) {
+			throw new SimulationException("Class " + className + " cannot be found on the class path!", e);
+		}
+	}
+
+	private Object invokeStatic(Class<?> clazz, String methodName, Class<?>[] parameterTypes, Object... args) {
+		return invoke(null, clazz, methodName, parameterTypes, args);
+	}
+
+	private Object invoke(Object target, Class<?> clazz, String methodName, Class<?>[] parameterTypes, Object... args) {
+		Thread currentThread = Thread.currentThread();
+		ClassLoader previousLoader = currentThread.getContextClassLoader();
+		currentThread.setContextClassLoader(classLoader);
+		try {
+			Method method = clazz.getMethod(methodName, parameterTypes);
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			//exceptions of the simulation belong to the isolated class loader, so wrap them
+			Throwable cause = e.getCause();
+			throw new SimulationException(clazz.getSimpleName() + "." + methodName + "() failed: " + cause, cause);
+		} catch (ReflectiveOperationException e) {
+			throw new SimulationException(clazz.getName() + "." + methodName + "() cannot be invoked!", e);
+		} finally {
+			currentThread.setContextClassLoader(previousLoader);
+		}
+	}
+
+	private static synchronized ClassLoader getSharedLibraryLoader() {
+		if(sharedLibraryLoader == null)
+			sharedLibraryLoader = new URLClassLoader(getClassPathUrls(true), ClassLoader.getSystemClassLoader().getParent());
+		return sharedLibraryLoader;
+	}
+
+	/*
+	 * returns the jar files except cloudsim if sharedLibraries is true,
+	 * otherwise the remaining class path entries, i.e. compiled simulator
+	 * classes and cloudsim
+	 */
+	private static URL[] getClassPathUrls(boolean sharedLibraries) {
+		List<URL> urls = new ArrayList<URL>();
+		for(String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if(entry.isEmpty())
+				continue;
+
+			String name = new File(entry).getName();
+			boolean isSharedLibrary = name.endsWith(".jar") && !name.startsWith("cloudsim");
+			if(isSharedLibrary != sharedLibraries)
+				continue;
+
+			try {
+				urls.add(new File(entry).toURI().toURL());
+			} catch (MalformedURLException e) {
+				throw new SimulationException("Invalid class path entry: " + entry, e);
+			}
+		}
+		return urls.toArray(new URL[urls.size()]);
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Exception
+ *
+ * Description:
+ * SimulationException is thrown when a simulation run cannot continue.
+ * Former System.exit calls are replaced by this exception so that a
+ * failing run only terminates itself instead of the whole JVM, which
+ * is necessary when several runs share the same process.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+public class SimulationException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public SimulationException(String message) {
+		super(message);
+	}
+
+	public SimulationException(Throwable cause) {
+		super(cause);
+	}
+
+	public SimulationException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -9,6 +9,10 @@
  * values defined in the applications.xml file. For those who wants to
  * add another VM Cpu Utilization Model to EdgeCloudSim should provide
  * another concrete instance of UtilizationModel via ScenarioFactory
+ * 
+ * The utilization of a task is looked up by its type and the datacenter
+ * it is assigned to, which is read from the task when it is used. Hence
+ * one instance is created for each task type and shared by the tasks.
  *               
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -16,15 +20,18 @@
 
 package edu.boun.edgecloudsim.edge_client;
 
-import org.cloudbus.cloudsim.UtilizationModel;
-
 import edu.boun.edgecloudsim.core.SimSettings;
-import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.core.SimulationException;
 
-public class CpuUtilizationModel_Custom implements UtilizationModel {
-	private Task task;
+public class CpuUtilizationModel_Custom implements TaskUtilizationModel {
+	private int taskType;
 	
-	public CpuUtilizationModel_Custom(){
+	/*
+	 * the model has no state other than the task type,
+	 * so it is shared by all tasks of the same type
+	 */
+	public CpuUtilizationModel_Custom(int _taskType){
+		taskType = _taskType;
 	}
 	
 	/*
@@ -33,17 +40,22 @@ public class CpuUtilizationModel_Custom implements UtilizationModel {
 	 */
 	@Override
 	public double getUtilization(double time) {
+		throw new SimulationException("CPU utilization depends on the datacenter of the task! Terminating simulation...");
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see edu.boun.edgecloudsim.edge_client.TaskUtilizationModel#getUtilization(edu.boun.edgecloudsim.edge_client.Task, double)
+	 */
+	@Override
+	public double getUtilization(Task task, double time) {
 		int index = 9;
 		if(task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID)
 			index = 10;
 		else if(task.getAssociatedDatacenterId() == SimSettings.MOBILE_DATACENTER_ID)
 			index = 11;
 
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
-	}
-	
-	public void setTask(Task _task){
-		task=_task;
+		return SimSettings.getInstance().getTaskLookUpTable()[taskType][index];
 	}
 	
 	public double predictUtilization(SimSettings.VM_TYPES _vmType){
@@ -55,9 +67,8 @@ public class CpuUtilizationModel_Custom implements UtilizationModel {
 		else if(_vmType == SimSettings.VM_TYPES.MOBILE_VM)
 			index = 11;
 		else{
-			SimLogger.printLine("Unknown VM Type! Terminating simulation...");
-			System.exit(1);
+			throw new SimulationException("Unknown VM Type! Terminating simulation...");
 		}
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
+		return SimSettings.getInstance().getTaskLookUpTable()[taskType][index];
 	}
-}
+}
\ No newline at end of file
@@ -1,25 +1,316 @@
 package edu.boun.edgecloudsim.edge_client;
 
 import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
 
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.VM_TYPES;
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.edge_client.TaskLifecycle.FAILURE_REASONS;
+import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.LightweightMobileServerManager;
+import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 
 public abstract class MobileDeviceManager  extends DatacenterBroker {
+	//RAM and bandwidth utilization models have no state, they are shared by the tasks
+	private static final UtilizationModel UTILIZATION_MODEL_FULL = new UtilizationModelFull(); /*UtilizationModelStochastic*/
+
+	private UtilizationModel[] cpuUtilizationModels;
+	private TaskLifecycle lifecycle;
+	private UncontendedVmExecutor uncontendedVmExecutor;
+	private int taskIdCounter;
+	private long numOfInlineEvents;
+	private long numOfScheduledEvents;
 
 	public MobileDeviceManager() throws Exception {
 		super("Global_Broker");
+		cpuUtilizationModels = new UtilizationModel[SimSettings.getInstance().getTaskLookUpTable().length];
+		lifecycle = new TaskLifecycle(this);
+		uncontendedVmExecutor = new UncontendedVmExecutor(this);
+		taskIdCounter = 0;
+		numOfInlineEvents = 0;
+		numOfScheduledEvents = 0;
 	}
-	
+
 	/*
 	 * initialize mobile device manager if needed
 	 */
 	public abstract void initialize();
-	
+
 	/*
-	 * provides abstract CPU Utilization Model
+	 * provides abstract CPU Utilization Model for the given task type
+	 * the model is created once for each task type and shared by the
+	 * tasks, so it should not keep any task specific state
 	 */
-	public abstract UtilizationModel getCpuUtilizationModel();
-	
+	public abstract UtilizationModel getCpuUtilizationModel(int taskType);
+
 	public abstract void submitTask(TaskProperty edgeTask);
+
+	/**
+	 * Returns the lifecycle of the tasks, the managers declare their
+	 * stages on it and start the tasks by using it.
+	 */
+	public TaskLifecycle getLifecycle() {
+		return lifecycle;
+	}
+
+	/**
+	 * Submit cloudlets to the created VMs.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void submitCloudlets() {
+		//do nothing!
+	}
+
+	/**
+	 * Process a cloudlet return event.
+	 * 
+	 * @param ev a SimEvent object
+	 * @pre ev != $null
+	 * @post $none
+	 */
+	protected void processCloudletReturn(SimEvent ev) {
+		lifecycle.taskExecuted((Task) ev.getData());
+	}
+
+	protected void processOtherEvent(SimEvent ev) {
+		if (ev == null) {
+			throw new SimulationException(getName() + ".processOtherEvent(): " + "Error - an event is null! Terminating simulation...");
+		}
+
+		processSelfEvent(ev.getTag(), ev.getData());
+	}
+
+	/**
+	 * Creates a task submitted from the current location of its mobile
+	 * device and adds it to the log list
+	 */
+	protected Task createTask(TaskProperty edgeTask){
+		UtilizationModel utilizationModelCPU = cpuUtilizationModels[edgeTask.getTaskType()];
+		if(utilizationModelCPU == null){
+			utilizationModelCPU = getCpuUtilizationModel(edgeTask.getTaskType());
+			cpuUtilizationModels[edgeTask.getTaskType()] = utilizationModelCPU;
+		}
+
+		Task task = new Task(edgeTask.getMobileDeviceId(), ++taskIdCounter,
+				edgeTask.getLength(), edgeTask.getPesNumber(),
+				edgeTask.getInputFileSize(), edgeTask.getOutputFileSize(),
+				utilizationModelCPU, UTILIZATION_MODEL_FULL, UTILIZATION_MODEL_FULL);
+
+		//set the owner of this task
+		task.setUserId(this.getId());
+		task.setTaskType(edgeTask.getTaskType());
+
+		Location currentLocation = SimManager.getInstance().getMobilityModel().
+				getLocation(task.getMobileDeviceId(), CloudSim.clock());
+
+		//set location of the mobile device which generates this task
+		task.setSubmittedLocation(currentLocation);
+
+		//add related task to log list
+		SimLogger.getInstance().addLog(task.getMobileDeviceId(),
+				task.getCloudletId(),
+				task.getTaskType(),
+				(int)task.getCloudletLength(),
+				(int)task.getCloudletFileSize(),
+				(int)task.getCloudletOutputSize());
+
+		return task;
+	}
+
+	/**
+	 * Binds the task to the VM selected by the edge orchestrator in the
+	 * given datacenter
+	 */
+	protected void assignVm(Task task, Vm selectedVM, int datacenterId) {
+		//set related datacenter id
+		task.setAssociatedDatacenterId(datacenterId);
+
+		LightweightMobileServerManager lightweightManager = getLightweightMobileServerManager();
+		if(lightweightManager != null && selectedVM == lightweightManager.getVm(task.getMobileDeviceId())){
+			//the task is executed on its own mobile device without a CloudSim host and VM
+			task.setAssociatedHostId(lightweightManager.getHostId(task.getMobileDeviceId()));
+			task.setAssociatedVmId(lightweightManager.getVmId(task.getMobileDeviceId()));
+			task.setVmId(lightweightManager.getVmId(task.getMobileDeviceId()));
+			return;
+		}
+
+		//set related host id
+		task.setAssociatedHostId(selectedVM.getHost().getId());
+
+		//set related vm id
+		task.setAssociatedVmId(selectedVM.getId());
+
+		//bind task to related VM
+		task.setVmId(selectedVM.getId());
+	}
+
+	/**
+	 * Returns false if the task cannot be executed on its VM
+	 */
+	protected boolean canExecute(Task task, VM_TYPES vmType) {
+		return true;
+	}
+
+	/**
+	 * Returns the datacenter id which is logged when the task is
+	 * submitted to its VM
+	 */
+	protected int getAssignedDatacenterId(Task task) {
+		return task.getAssociatedDatacenterId();
+	}
+
+	/**
+	 * Called when the task is rejected or failed in its lifecycle
+	 */
+	protected void taskFailed(Task task, FAILURE_REASONS reason) {
+	}
+
+	/**
+	 * Called when the task enters a completion stage, before it is logged as ended
+	 */
+	protected void taskCompleted(Task task) {
+	}
+
+	/**
+	 * Sends a zero delay event to this entity. If no other event is
+	 * waiting to be processed at the current time, the scheduled event
+	 * would be the next one to be processed; in this case it is passed
+	 * to processSelfEvent immediately, which keeps the order of the
+	 * events and saves a round trip over the future queue of CloudSim.
+	 *
+	 * Must be the last action of the event handler, since the inline
+	 * event is processed before the handler returns.
+	 */
+	protected void scheduleNowOrProcess(int tag, Object data) {
+		if(SimSettings.getInstance().getInlineZeroDelayEvents() &&
+				CloudSim.running() && !PendingEvents.exist()){
+			numOfInlineEvents++;
+			processSelfEvent(tag, data);
+		}
+		else{
+			numOfScheduledEvents++;
+			scheduleNow(getId(), tag, data);
+		}
+	}
+
+	/**
+	 * Processes an event sent by the manager to itself. The stages of
+	 * the lifecycle are processed here; the managers override this
+	 * method to process their own events.
+	 */
+	protected void processSelfEvent(int tag, Object data) {
+		if(lifecycle.process(tag, data))
+			return;
+
+		if(tag == UncontendedVmExecutor.UPDATE_VM){
+			uncontendedVmExecutor.update(data);
+			return;
+		}
+
+		if(tag == LightweightMobileServerManager.UPDATE_DEVICE){
+			Task task = getLightweightMobileServerManager().update((Integer) data);
+			if(task != null)
+				lifecycle.taskExecuted(task);
+			return;
+		}
+
+		throw new SimulationException(getName() + ".processSelfEvent(): " + "Error - event unknown by this DatacenterBroker. Terminating simulation...");
+	}
+
+	/**
+	 * Returns the number of zero delay events processed without scheduling
+	 */
+	public long getNumOfInlineEvents() {
+		return numOfInlineEvents;
+	}
+
+	/**
+	 * Returns the number of zero delay events scheduled since another
+	 * event was waiting to be processed at the same time
+	 */
+	public long getNumOfScheduledEvents() {
+		return numOfScheduledEvents;
+	}
+
+	/*
+	 * sends the task to the next stage after the given delay
+	 */
+	void scheduleStage(double delay, int tag, Task task) {
+		schedule(getId(), delay, tag, task);
+	}
+
+	/*
+	 * sends the task to the datacenter of its VM, or submits it to the
+	 * VM directly if analytic execution is enabled for the VM type; the
+	 * tasks on the mobile devices may be executed by the lightweight
+	 * mobile server manager as well
+	 */
+	void submitToVm(Task task, VM_TYPES vmType) {
+		LightweightMobileServerManager lightweightManager = getLightweightMobileServerManager();
+		if(vmType == VM_TYPES.MOBILE_VM && lightweightManager != null){
+			lightweightManager.submit(task);
+			return;
+		}
+
+		int datacenterId = getVmsToDatacentersMap().get(task.getVmId());
+
+		if(SimSettings.getInstance().getAnalyticExecutionEnabled(vmType))
+			uncontendedVmExecutor.submit(task, datacenterId);
+		else
+			schedule(datacenterId, 0, CloudSimTags.CLOUDLET_SUBMIT, task);
+	}
+
+	/*
+	 * returns the characteristics of a datacenter which are received when
+	 * the broker is started
+	 */
+	DatacenterCharacteristics getDatacenterCharacteristics(int datacenterId) {
+		return getDatacenterCharacteristicsList().get(datacenterId);
+	}
+
+	/*
+	 * sends the update event of a VM which executes the tasks analytically
+	 */
+	void scheduleVmUpdate(double delay, Object vmState) {
+		schedule(getId(), delay, UncontendedVmExecutor.UPDATE_VM, vmState);
+	}
+
+	/*
+	 * returns the mobile server manager if it executes the tasks on the
+	 * mobile devices by itself, null otherwise
+	 */
+	private static LightweightMobileServerManager getLightweightMobileServerManager() {
+		MobileServerManager mobileServerManager = SimManager.getInstance().getMobileServerManager();
+		if(mobileServerManager instanceof LightweightMobileServerManager)
+			return (LightweightMobileServerManager) mobileServerManager;
+		else
+			return null;
+	}
+
+	/*
+	 * checks the event queues of CloudSim for an event which would be
+	 * processed before a new zero delay event
+	 */
+	private static class PendingEvents extends CloudSim {
+		public static boolean exist() {
+			//events of the current clock tick which are not processed yet
+			if(deferred.size() > 0)
+				return true;
+
+			//events scheduled before with the current time
+			return future.size() > 0 && future.iterator().next().eventTime() <= CloudSim.clock();
+		}
+	}
 }
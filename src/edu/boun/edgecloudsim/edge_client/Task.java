@@ -25,6 +25,10 @@ public class Task extends Cloudlet {
 	private int hostIndex;
 	private int vmIndex;
 	private int datacenterId;
+	private TaskStage stage;
+	private TaskHop hop;
+	private TaskRoute route; //route of the task while it waits for the orchestrator decision
+	private boolean released;
 
 	public Task(int _mobileDeviceId, int cloudletId, long cloudletLength, int pesNumber,
 			long cloudletFileSize, long cloudletOutputSize,
@@ -87,4 +91,57 @@ public class Task extends Cloudlet {
 	public double getCreationTime() {
 		return creationTime;
 	}
+
+	/**
+	 * The shared utilization models get the task to look up its
+	 * utilization, see TaskUtilizationModel
+	 */
+	@Override
+	public double getUtilizationOfCpu(double time) {
+		if(getUtilizationModelCpu() instanceof TaskUtilizationModel)
+			return ((TaskUtilizationModel)getUtilizationModelCpu()).getUtilization(this, time);
+		else
+			return super.getUtilizationOfCpu(time);
+	}
+
+	/**
+	 * Returns true if the lifecycle of the task is over
+	 */
+	public boolean isReleased() {
+		return released;
+	}
+
+	public TaskStage getStage() {
+		return stage;
+	}
+
+	void setStage(TaskStage _stage) {
+		stage = _stage;
+	}
+
+	TaskHop getHop() {
+		return hop;
+	}
+
+	void setHop(TaskHop _hop) {
+		hop = _hop;
+	}
+
+	TaskRoute getRoute() {
+		return route;
+	}
+
+	void setRoute(TaskRoute _route) {
+		route = _route;
+	}
+
+	/*
+	 * drops the references of the task to the lifecycle when it ends
+	 */
+	void release() {
+		stage = null;
+		hop = null;
+		route = null;
+		released = true;
+	}
 }
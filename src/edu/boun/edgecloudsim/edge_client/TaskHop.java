@@ -0,0 +1,65 @@
+/*
+ * Title:        EdgeCloudSim - Task Hop
+ *
+ * Description:
+ * TaskHop describes a network hop of a task in its lifecycle: the
+ * direction of the transfer, the delay type used in the logs, the
+ * device id given to the network model and the mobility check done
+ * before the transfer is started. The delay of the hop is provided
+ * by the application.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.network.NetworkModel;
+
+public abstract class TaskHop {
+	//network model is not notified about the transfers of the hop
+	public static final int NO_NETWORK_DEVICE = -1;
+
+	public static enum HOP_DIRECTIONS { UPLOAD, DOWNLOAD }
+
+	//SUBMITTED_LOCATION: the device must be in the submission area when the transfer is finished
+	//CURRENT_LOCATION: the device must not leave its current area until the transfer is finished
+	public static enum MOBILITY_CHECKS { NONE, SUBMITTED_LOCATION, CURRENT_LOCATION }
+
+	private HOP_DIRECTIONS direction;
+	private NETWORK_DELAY_TYPES delayType;
+	private int networkDeviceId;
+	private MOBILITY_CHECKS mobilityCheck;
+
+	public TaskHop(HOP_DIRECTIONS _direction, NETWORK_DELAY_TYPES _delayType,
+			int _networkDeviceId, MOBILITY_CHECKS _mobilityCheck) {
+		direction = _direction;
+		delayType = _delayType;
+		networkDeviceId = _networkDeviceId;
+		mobilityCheck = _mobilityCheck;
+	}
+
+	/**
+	 * Returns the transfer delay of the task on this hop, the transfer
+	 * fails due to the bandwidth if the delay is not positive.
+	 * It is called once per transfer.
+	 */
+	public abstract double getDelay(NetworkModel networkModel, Task task);
+
+	public HOP_DIRECTIONS getDirection() {
+		return direction;
+	}
+
+	public NETWORK_DELAY_TYPES getDelayType() {
+		return delayType;
+	}
+
+	public int getNetworkDeviceId() {
+		return networkDeviceId;
+	}
+
+	public MOBILITY_CHECKS getMobilityCheck() {
+		return mobilityCheck;
+	}
+}
@@ -0,0 +1,332 @@
+/*
+ * Title:        EdgeCloudSim - Task Lifecycle
+ *
+ * Description:
+ * TaskLifecycle moves the tasks of a mobile device manager through a
+ * graph of stages declared by the application. It performs the steps
+ * which are common to all applications: network delay and mobility
+ * checks, VM selection, submission of the cloudlets, notification of
+ * the network model and logging of the task states.
+ *
+ * The graph is created once; a task only refers to its current stage
+ * and network hop, so no object is created while the task moves
+ * between the stages. When the task completes or fails, it is released
+ * and its references to the lifecycle are dropped; if the release
+ * check is enabled, any later use of the task by the lifecycle, e.g.
+ * a stale event, terminates the simulation.
+ *
+ * A task is forwarded on its first route when the decision of the edge
+ * orchestrator is available, see DecisionLatencyModel. The service time
+ * of the task starts with its creation, so it includes the waiting and
+ * decision times at the orchestrator.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.VM_TYPES;
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.edge_client.TaskHop.HOP_DIRECTIONS;
+import edu.boun.edgecloudsim.edge_client.TaskStage.STAGE_TYPES;
+import edu.boun.edgecloudsim.network.NetworkModel;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class TaskLifecycle {
+	public static final int STAGE_TAG_BASE = 200000; //start from base in order not to conflict cloudsim and application tags!
+	private static final int DECISION_MADE = STAGE_TAG_BASE - 3; //below the stage tags, UPDATE_VM and UPDATE_DEVICE
+
+	public static enum FAILURE_REASONS { BANDWIDTH, MOBILITY, VM_CAPACITY }
+
+	private MobileDeviceManager manager;
+	private List<TaskStage> stages;
+	private boolean releaseCheckEnabled;
+
+	TaskLifecycle(MobileDeviceManager _manager) {
+		manager = _manager;
+		stages = new ArrayList<TaskStage>();
+		releaseCheckEnabled = SimSettings.getInstance().getTaskReleaseCheckEnabled();
+	}
+
+	/**
+	 * Adds a stage where the task is forwarded on the given route
+	 */
+	public TaskStage addTransferStage(String name, final TaskRoute route) {
+		return addTransferStage(name, new TaskRouter() {
+			@Override
+			public TaskRoute selectRoute(Task task) {
+				return route;
+			}
+		});
+	}
+
+	/**
+	 * Adds a stage where the task is forwarded on the route selected
+	 * by the given router
+	 */
+	public TaskStage addTransferStage(String name, TaskRouter router) {
+		return addStage(name, STAGE_TYPES.TRANSFER, router, null, TaskRoute.NO_VM_SELECTION, null);
+	}
+
+	/**
+	 * Adds a stage where the task is executed on its VM, which must be
+	 * selected on the route of the task. The task enters the next stage
+	 * when the execution is finished.
+	 */
+	public TaskStage addExecutionStage(String name, VM_TYPES vmType, TaskStage nextStage) {
+		return addExecutionStage(name, vmType, TaskRoute.NO_VM_SELECTION, nextStage);
+	}
+
+	/**
+	 * Same as above, the VM is selected in the given datacenter when
+	 * the task enters the stage.
+	 */
+	public TaskStage addExecutionStage(String name, VM_TYPES vmType, int vmDatacenterId, TaskStage nextStage) {
+		return addStage(name, STAGE_TYPES.EXECUTION, null, vmType, vmDatacenterId, nextStage);
+	}
+
+	/**
+	 * Adds a stage where the task ends successfully
+	 */
+	public TaskStage addCompletionStage(String name) {
+		return addStage(name, STAGE_TYPES.COMPLETION, null, null, TaskRoute.NO_VM_SELECTION, null);
+	}
+
+	/**
+	 * Starts the lifecycle of a new task by forwarding it on the given route
+	 */
+	public void start(Task task, TaskRoute route) {
+		checkNotReleased(task);
+
+		double delay = SimManager.getInstance().getEdgeOrchestrator().getDecisionLatencyModel().getDecisionDelay(task);
+		if(delay > 0){
+			task.setRoute(route);
+			manager.scheduleStage(delay, DECISION_MADE, task);
+		}
+		else{
+			forward(task, route, true);
+		}
+	}
+
+	/**
+	 * Processes the arrival of a task to a stage
+	 *
+	 * @return false if the tag does not belong to a stage
+	 */
+	public boolean process(int tag, Object data) {
+		if(tag == DECISION_MADE){
+			Task task = (Task) data;
+			checkNotReleased(task);
+			TaskRoute route = task.getRoute();
+			task.setRoute(null);
+			forward(task, route, true);
+			return true;
+		}
+
+		int index = tag - STAGE_TAG_BASE;
+		if(index < 0 || index >= stages.size())
+			return false;
+
+		Task task = (Task) data;
+		checkNotReleased(task);
+		finishHop(task);
+		enter(task, stages.get(index));
+		return true;
+	}
+
+	/**
+	 * Moves a task to the next stage after its cloudlet returns
+	 */
+	public void taskExecuted(Task task) {
+		checkNotReleased(task);
+		SimLogger.getInstance().taskExecuted(task.getCloudletId());
+
+		TaskStage stage = task.getStage();
+		if(stage == null || stage.getType() != STAGE_TYPES.EXECUTION)
+			throw new SimulationException("Task #" + task.getCloudletId() + " is not in an execution stage! Terminating simulation...");
+
+		enter(task, stage.getNextStage());
+	}
+
+	private TaskStage addStage(String name, STAGE_TYPES type, TaskRouter router,
+			VM_TYPES vmType, int vmDatacenterId, TaskStage nextStage) {
+		if(type == STAGE_TYPES.EXECUTION && nextStage == null)
+			throw new SimulationException("Next stage of " + name + " is not defined! Terminating simulation...");
+
+		TaskStage stage = new TaskStage(STAGE_TAG_BASE + stages.size(), name,
+				type, router, vmType, vmDatacenterId, nextStage);
+		stages.add(stage);
+		return stage;
+	}
+
+	private void enter(Task task, TaskStage stage) {
+		task.setStage(stage);
+
+		switch (stage.getType()) {
+			case TRANSFER:
+				forward(task, stage.selectRoute(task), false);
+				break;
+			case EXECUTION:
+				execute(task, stage);
+				break;
+			case COMPLETION:
+				manager.taskCompleted(task);
+				SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
+				SimManager.getInstance().getLoadGeneratorModel().taskEnded(task, true);
+				task.release();
+				break;
+		}
+	}
+
+	private void forward(Task task, TaskRoute route, boolean first) {
+		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
+		TaskHop hop = route.getHop();
+		double delay = 0;
+
+		if(hop != null){
+			delay = hop.getDelay(networkModel, task);
+			if(delay <= 0){
+				if(hop.getDirection() == HOP_DIRECTIONS.UPLOAD)
+					SimLogger.getInstance().rejectedDueToBandwidth(task.getCloudletId(),
+							CloudSim.clock(), route.getVmType().ordinal(), hop.getDelayType());
+				else
+					SimLogger.getInstance().failedDueToBandwidth(task.getCloudletId(),
+							CloudSim.clock(), hop.getDelayType());
+
+				fail(task, FAILURE_REASONS.BANDWIDTH);
+				return;
+			}
+
+			if(!checkMobility(task, hop, delay)){
+				SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
+				fail(task, FAILURE_REASONS.MOBILITY);
+				return;
+			}
+		}
+
+		if(route.getVmDatacenterId() != TaskRoute.NO_VM_SELECTION &&
+				!selectVm(task, route.getVmType(), route.getVmDatacenterId()))
+			return;
+
+		if(first)
+			SimLogger.getInstance().taskStarted(task.getCloudletId(), task.getCreationTime());
+
+		task.setHop(hop);
+
+		if(hop != null){
+			if(hop.getNetworkDeviceId() != TaskHop.NO_NETWORK_DEVICE){
+				if(hop.getDirection() == HOP_DIRECTIONS.UPLOAD)
+					networkModel.uploadStarted(task.getSubmittedLocation(), hop.getNetworkDeviceId());
+				else
+					networkModel.downloadStarted(task.getSubmittedLocation(), hop.getNetworkDeviceId());
+			}
+
+			if(hop.getDirection() == HOP_DIRECTIONS.UPLOAD)
+				SimLogger.getInstance().setUploadDelay(task.getCloudletId(), delay, hop.getDelayType());
+			else
+				SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), delay, hop.getDelayType());
+
+			manager.scheduleStage(delay, route.getNextStage().getTag(), task);
+		}
+		else if(route.isDirect()){
+			enter(task, route.getNextStage());
+		}
+		else{
+			manager.scheduleNowOrProcess(route.getNextStage().getTag(), task);
+		}
+	}
+
+	private void finishHop(Task task) {
+		TaskHop hop = task.getHop();
+		if(hop == null)
+			return;
+
+		task.setHop(null);
+		if(hop.getNetworkDeviceId() == TaskHop.NO_NETWORK_DEVICE)
+			return;
+
+		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
+		if(hop.getDirection() == HOP_DIRECTIONS.UPLOAD)
+			networkModel.uploadFinished(task.getSubmittedLocation(), hop.getNetworkDeviceId());
+		else
+			networkModel.downloadFinished(task.getSubmittedLocation(), hop.getNetworkDeviceId());
+	}
+
+	private boolean checkMobility(Task task, TaskHop hop, double delay) {
+		int wlanId;
+		switch (hop.getMobilityCheck()) {
+			case SUBMITTED_LOCATION:
+				wlanId = task.getSubmittedLocation().getServingWlanId();
+				break;
+			case CURRENT_LOCATION:
+				wlanId = SimManager.getInstance().getMobilityModel().
+					getLocation(task.getMobileDeviceId(), CloudSim.clock()).getServingWlanId();
+				break;
+			default:
+				return true;
+		}
+
+		Location futureLocation = SimManager.getInstance().getMobilityModel().
+				getLocation(task.getMobileDeviceId(), CloudSim.clock() + delay);
+		return wlanId == futureLocation.getServingWlanId();
+	}
+
+	private void fail(Task task, FAILURE_REASONS reason) {
+		manager.taskFailed(task, reason);
+		SimManager.getInstance().getLoadGeneratorModel().taskEnded(task, false);
+		task.release();
+	}
+
+	/*
+	 * the task must not be used by the lifecycle after it is released
+	 */
+	private void checkNotReleased(Task task) {
+		if(releaseCheckEnabled && task.isReleased())
+			throw new SimulationException("Task #" + task.getCloudletId() + " is used after it is released! Terminating simulation...");
+	}
+
+	private boolean selectVm(Task task, VM_TYPES vmType, int datacenterId) {
+		Vm selectedVM = SimManager.getInstance().getEdgeOrchestrator().getVmToOffload(task, datacenterId);
+
+		if(selectedVM == null){
+			//SimLogger.printLine("Task #" + task.getCloudletId() + " cannot assign to any VM");
+			SimLogger.getInstance().rejectedDueToVMCapacity(task.getCloudletId(), CloudSim.clock(), vmType.ordinal());
+			fail(task, FAILURE_REASONS.VM_CAPACITY);
+			return false;
+		}
+
+		manager.assignVm(task, selectedVM, datacenterId);
+		return true;
+	}
+
+	private void execute(Task task, TaskStage stage) {
+		if(stage.getVmDatacenterId() != TaskRoute.NO_VM_SELECTION &&
+				!selectVm(task, stage.getVmType(), stage.getVmDatacenterId()))
+			return;
+
+		if(!manager.canExecute(task, stage.getVmType())){
+			SimLogger.getInstance().rejectedDueToVMCapacity(task.getCloudletId(), CloudSim.clock(), stage.getVmType().ordinal());
+			fail(task, FAILURE_REASONS.VM_CAPACITY);
+			return;
+		}
+
+		//SimLogger.printLine(CloudSim.clock() + ": Cloudlet#" + task.getCloudletId() + " is submitted to VM#" + task.getVmId());
+		manager.submitToVm(task, stage.getVmType());
+
+		SimLogger.getInstance().taskAssigned(task.getCloudletId(),
+				manager.getAssignedDatacenterId(task),
+				task.getAssociatedHostId(),
+				task.getAssociatedVmId(),
+				stage.getVmType().ordinal());
+	}
+}
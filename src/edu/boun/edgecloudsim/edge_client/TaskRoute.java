@@ -0,0 +1,75 @@
+/*
+ * Title:        EdgeCloudSim - Task Route
+ *
+ * Description:
+ * TaskRoute is an edge of the task lifecycle graph. The task is moved
+ * to the next stage over a network hop, by a zero delay event, or
+ * directly in the same event. A VM can be selected for the task on the
+ * route after the hop is checked and before the transfer is started.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import edu.boun.edgecloudsim.core.SimSettings.VM_TYPES;
+
+public class TaskRoute {
+	public static final int NO_VM_SELECTION = -1;
+
+	private TaskHop hop;
+	private VM_TYPES vmType;
+	private int vmDatacenterId;
+	private TaskStage nextStage;
+	private boolean direct;
+
+	/**
+	 * The task is moved to the next stage over the given hop, or by a
+	 * zero delay event if the hop is null. The VM type is the tier
+	 * which the task is sent to, it is logged if the task is rejected.
+	 */
+	public TaskRoute(TaskHop _hop, VM_TYPES _vmType, TaskStage _nextStage) {
+		this(_hop, _vmType, NO_VM_SELECTION, _nextStage);
+	}
+
+	/**
+	 * Same as above, a VM is also selected for the task in the given
+	 * datacenter by the edge orchestrator.
+	 */
+	public TaskRoute(TaskHop _hop, VM_TYPES _vmType, int _vmDatacenterId, TaskStage _nextStage) {
+		hop = _hop;
+		vmType = _vmType;
+		vmDatacenterId = _vmDatacenterId;
+		nextStage = _nextStage;
+		direct = false;
+	}
+
+	/**
+	 * The task enters the next stage in the same event.
+	 */
+	public TaskRoute(TaskStage _nextStage) {
+		this(null, null, NO_VM_SELECTION, _nextStage);
+		direct = true;
+	}
+
+	public TaskHop getHop() {
+		return hop;
+	}
+
+	public VM_TYPES getVmType() {
+		return vmType;
+	}
+
+	public int getVmDatacenterId() {
+		return vmDatacenterId;
+	}
+
+	public TaskStage getNextStage() {
+		return nextStage;
+	}
+
+	public boolean isDirect() {
+		return direct;
+	}
+}
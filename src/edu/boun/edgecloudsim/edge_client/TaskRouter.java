@@ -0,0 +1,17 @@
+/*
+ * Title:        EdgeCloudSim - Task Router
+ *
+ * Description:
+ * TaskRouter selects one of the routes of a transfer stage, e.g. the
+ * result of a task is sent over a relay if the task is executed on a
+ * neighbor edge server.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+public interface TaskRouter {
+	TaskRoute selectRoute(Task task);
+}
@@ -0,0 +1,71 @@
+/*
+ * Title:        EdgeCloudSim - Task Stage
+ *
+ * Description:
+ * TaskStage is a node of the task lifecycle graph. A task waits in a
+ * transfer stage until it is forwarded on one of the routes of the
+ * stage, in an execution stage until the related cloudlet returns,
+ * and ends its lifecycle in a completion stage.
+ * The stages are created by TaskLifecycle.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import edu.boun.edgecloudsim.core.SimSettings.VM_TYPES;
+
+public class TaskStage {
+	public static enum STAGE_TYPES { TRANSFER, EXECUTION, COMPLETION }
+
+	private int tag;
+	private String name;
+	private STAGE_TYPES type;
+	private TaskRouter router;
+	private VM_TYPES vmType;
+	private int vmDatacenterId;
+	private TaskStage nextStage;
+
+	TaskStage(int _tag, String _name, STAGE_TYPES _type, TaskRouter _router,
+			VM_TYPES _vmType, int _vmDatacenterId, TaskStage _nextStage) {
+		tag = _tag;
+		name = _name;
+		type = _type;
+		router = _router;
+		vmType = _vmType;
+		vmDatacenterId = _vmDatacenterId;
+		nextStage = _nextStage;
+	}
+
+	/*
+	 * returns the route of a transfer stage
+	 */
+	TaskRoute selectRoute(Task task) {
+		return router.selectRoute(task);
+	}
+
+	public int getTag() {
+		return tag;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public STAGE_TYPES getType() {
+		return type;
+	}
+
+	public VM_TYPES getVmType() {
+		return vmType;
+	}
+
+	public int getVmDatacenterId() {
+		return vmDatacenterId;
+	}
+
+	public TaskStage getNextStage() {
+		return nextStage;
+	}
+}
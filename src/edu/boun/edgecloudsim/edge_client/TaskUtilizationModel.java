@@ -0,0 +1,25 @@
+/*
+ * Title:        EdgeCloudSim - Task Utilization Model
+ *
+ * Description:
+ * TaskUtilizationModel is a utilization model whose result depends on
+ * the task using it, e.g. on the datacenter the task is assigned to.
+ * Since the task is passed to the model, one instance can be shared by
+ * all tasks of the same type instead of creating a model for each task.
+ * Task uses this method instead of getUtilization(double) to calculate
+ * its CPU utilization.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import org.cloudbus.cloudsim.UtilizationModel;
+
+public interface TaskUtilizationModel extends UtilizationModel {
+	/**
+	 * Returns the utilization of the given task at the given time
+	 */
+	public double getUtilization(Task task, double time);
+}
@@ -0,0 +1,130 @@
+/*
+ * Title:        EdgeCloudSim - Uncontended VM Executor
+ *
+ * Description:
+ * UncontendedVmExecutor executes the tasks on the VMs which are rarely
+ * contended, such as the cloud VMs or the VM of a mobile device, without
+ * sending them to the related datacenter. A task is submitted to the
+ * cloudlet scheduler of its VM directly, which calculates its completion
+ * time (length / MIPS of a core for a task running alone, or the
+ * processor sharing equivalent otherwise). The VM is updated by a single
+ * event when the next completion is due; the other hosts and VMs of the
+ * datacenter are not touched.
+ *
+ * The tasks stay in the cloudlet schedulers of the VMs while they are
+ * running, so the utilization of the VMs is reported as before.
+ *
+ * The results are not the same as the results of the datacenters. A
+ * datacenter checks the completions only at its update events, which are
+ * at least the minimum time between events plus 0.01 seconds apart, so a
+ * task is often returned a little after its finish time; here it is
+ * returned at its finish time. E.g. the mean service time of sample_app1
+ * is up to about 0.5% lower; see UncontendedVmExecutorTest for the bound.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+class UncontendedVmExecutor {
+	//below the stage tags, above the tags of the applications
+	static final int UPDATE_VM = TaskLifecycle.STAGE_TAG_BASE - 1;
+
+	private MobileDeviceManager manager;
+	private Map<Vm, VmState> vmStates;
+
+	UncontendedVmExecutor(MobileDeviceManager _manager) {
+		manager = _manager;
+		vmStates = new HashMap<Vm, VmState>();
+	}
+
+	/*
+	 * submits the task to the cloudlet scheduler of its VM, as the
+	 * datacenter with the given id would do
+	 */
+	void submit(Task task, int datacenterId) {
+		Datacenter datacenter = (Datacenter) CloudSim.getEntity(datacenterId);
+		Vm vm = datacenter.getVmAllocationPolicy().
+				getHost(task.getVmId(), task.getUserId()).
+				getVm(task.getVmId(), task.getUserId());
+
+		VmState state = vmStates.get(vm);
+		if(state == null) {
+			state = new VmState(vm);
+			vmStates.put(vm, state);
+		}
+
+		//the running tasks are updated before the new task arrives
+		scheduleUpdate(state, updateVm(state));
+
+		DatacenterCharacteristics characteristics = manager.getDatacenterCharacteristics(datacenterId);
+		task.setResourceParameter(datacenterId, characteristics.getCostPerSecond(), characteristics.getCostPerBw());
+
+		double estimatedFinishTime = vm.getCloudletScheduler().cloudletSubmit(task, 0);
+		if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime))
+			scheduleUpdate(state, CloudSim.clock() + estimatedFinishTime);
+	}
+
+	/*
+	 * processes the update event of a VM, which returns at most one
+	 * finished task so that the task is processed as the last action
+	 * of the event like a cloudlet return event
+	 */
+	void update(Object data) {
+		VmState state = (VmState) data;
+
+		//the earliest event of the VM is being processed
+		if(CloudSim.clock() >= state.nextEventTime)
+			state.nextEventTime = Double.MAX_VALUE;
+
+		scheduleUpdate(state, updateVm(state));
+
+		CloudletScheduler scheduler = state.vm.getCloudletScheduler();
+		if(!scheduler.isFinishedCloudlets())
+			return;
+
+		Task task = (Task) scheduler.getNextFinishedCloudlet();
+		if(scheduler.isFinishedCloudlets())
+			scheduleUpdate(state, CloudSim.clock());
+
+		manager.getLifecycle().taskExecuted(task);
+	}
+
+	/*
+	 * returns the estimated time of the next completion on the VM
+	 */
+	private double updateVm(VmState state) {
+		return state.vm.updateVmProcessing(CloudSim.clock(),
+				state.vm.getHost().getVmScheduler().getAllocatedMipsForVm(state.vm));
+	}
+
+	private void scheduleUpdate(VmState state, double time) {
+		//no running task or an earlier event is already waiting
+		if(time <= 0.0 || time == Double.MAX_VALUE || time >= state.nextEventTime)
+			return;
+
+		double delay = Math.max(time - CloudSim.clock(), 0);
+		manager.scheduleVmUpdate(delay, state);
+		state.nextEventTime = CloudSim.clock() + delay; //same as the time of the event
+	}
+
+	private static class VmState {
+		private Vm vm;
+		private double nextEventTime;
+
+		private VmState(Vm _vm) {
+			vm = _vm;
+			nextEventTime = Double.MAX_VALUE;
+		}
+	}
+}
@@ -0,0 +1,295 @@
+/*
+ * Title:        EdgeCloudSim - Lightweight Mobile Server Manager
+ *
+ * Description:
+ * LightweightMobileServerManager executes the tasks on the mobile
+ * devices without creating a CloudSim Datacenter, Host or VM for
+ * each device. The core capacity of the devices and the tasks running
+ * on them are kept in primitive arrays, and the completion times are
+ * calculated directly with the processor sharing model of CloudSim's
+ * time-shared cloudlet scheduler: the running tasks of a device share
+ * its cores, each task progressing at most the MIPS of a core.
+ *
+ * The tasks of a device are updated by a single event of the mobile
+ * device manager when the next completion is due, so the other devices
+ * are not touched. The host and VM ids of a device are the same as the
+ * ones of a mobile server manager which creates a host with one VM for
+ * each device, hence the logs are comparable.
+ *
+ * Please note that the completion times are not truncated to the
+ * instructions like CloudSim does, so the results are statistically
+ * the same, but not bit-identical with the CloudSim based managers.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client.mobile_processing_unit;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_client.TaskLifecycle;
+
+public class LightweightMobileServerManager extends MobileServerManager{
+	//below the stage tags and the VM update tag of the mobile device manager
+	public static final int UPDATE_DEVICE = TaskLifecycle.STAGE_TAG_BASE - 2;
+
+	private static final int NO_TASK = -1;
+	private static final double FINISH_TOLERANCE = 0.001; //remaining instructions (MI) of a finished task
+
+	private int numOfMobileDevices;
+	private int firstHostId;
+	private int firstVmId;
+	private int brokerId;
+
+	//stands for the processing unit of the mobile device of a task in the VM selection
+	private MobileVM processingUnit;
+
+	//core capacity of the devices
+	private int[] cores;
+	private double[] mips;
+
+	//processor sharing state of the devices
+	private double[] virtualTime; //instructions (MI) executed by a core of a running task
+	private double[] lastUpdateTime;
+	private double[] nextEventTime;
+	private int[] pesInUse;
+	private int[] firstTask;
+
+	//running tasks of all devices in slots which are linked per device
+	private Task[] tasks;
+	private double[] finishTags;
+	private int[] nextTask;
+	private int firstFreeSlot;
+
+	public LightweightMobileServerManager(int _numOfMobileDevices) {
+		numOfMobileDevices = _numOfMobileDevices;
+	}
+
+	@Override
+	public void initialize() {
+		SimSettings SS = SimSettings.getInstance();
+
+		//Hosts and VMs should have unique IDs, so they are numbered after Edge+Cloud ones
+		firstHostId = SS.getNumOfEdgeHosts() + SS.getNumOfCloudHost();
+		firstVmId = SS.getNumOfEdgeVMs() + SS.getNumOfCloudVMs();
+
+		cores = new int[numOfMobileDevices];
+		mips = new double[numOfMobileDevices];
+		Arrays.fill(cores, SS.getCoreForMobileVM());
+		Arrays.fill(mips, SS.getMipsForMobileVM());
+
+		virtualTime = new double[numOfMobileDevices];
+		lastUpdateTime = new double[numOfMobileDevices];
+		nextEventTime = new double[numOfMobileDevices];
+		pesInUse = new int[numOfMobileDevices];
+		firstTask = new int[numOfMobileDevices];
+		Arrays.fill(nextEventTime, Double.MAX_VALUE);
+		Arrays.fill(firstTask, NO_TASK);
+
+		tasks = new Task[0];
+		finishTags = new double[0];
+		nextTask = new int[0];
+		firstFreeSlot = NO_TASK;
+	}
+
+	@Override
+	public VmAllocationPolicy getVmAllocationPolicy(List<? extends Host> list, int dataCenterIndex) {
+		//the mobile devices are not operated by a datacenter
+		return null;
+	}
+
+	@Override
+	public void startDatacenters() throws Exception {
+		//the mobile devices are not operated by a datacenter
+	}
+
+	@Override
+	public void terminateDatacenters() {
+		//the mobile devices are not operated by a datacenter
+	}
+
+	@Override
+	public void createVmList(int _brokerId) {
+		brokerId = _brokerId;
+
+		//the VM list of the devices is left empty, so nothing is submitted to the broker
+		processingUnit = new MobileVM(NO_TASK, brokerId, SimSettings.getInstance().getMipsForMobileVM(),
+				SimSettings.getInstance().getCoreForMobileVM(), SimSettings.getInstance().getRamForMobileVM(), 0,
+				SimSettings.getInstance().getStorageForMobileVM(), "Xen", new CloudletSchedulerTimeShared());
+	}
+
+	/**
+	 * returns a VM which stands for the processing unit of the mobile
+	 * device of a task; the tasks assigned to it are executed by this
+	 * manager on the related device
+	 */
+	@Override
+	public MobileVM getVm(int mobileDeviceId) {
+		return processingUnit;
+	}
+
+	/**
+	 * returns the host id of a mobile device
+	 */
+	public int getHostId(int mobileDeviceId) {
+		return firstHostId + mobileDeviceId;
+	}
+
+	/**
+	 * returns the VM id of a mobile device
+	 */
+	public int getVmId(int mobileDeviceId) {
+		return firstVmId + mobileDeviceId;
+	}
+
+	@Override
+	public double getUtilization(int mobileDeviceId) {
+		double utilization = 0;
+		for(int slot = firstTask[mobileDeviceId]; slot != NO_TASK; slot = nextTask[slot])
+			utilization += tasks[slot].getUtilizationOfCpu(CloudSim.clock());
+
+		return utilization;
+	}
+
+	@Override
+	public double getAvgUtilization() {
+		double totalUtilization = 0;
+		for(int i=0; i<numOfMobileDevices; i++)
+			totalUtilization += getUtilization(i);
+
+		return totalUtilization / numOfMobileDevices;
+	}
+
+	/**
+	 * starts the execution of a task on its mobile device
+	 */
+	public void submit(Task task) {
+		int deviceId = task.getMobileDeviceId();
+		double currentTime = CloudSim.clock();
+
+		//the running tasks are updated before the new task arrives
+		updateDevice(deviceId, currentTime);
+
+		int slot = allocateSlot();
+		tasks[slot] = task;
+		finishTags[slot] = virtualTime[deviceId] + task.getCloudletLength();
+		nextTask[slot] = firstTask[deviceId];
+		firstTask[deviceId] = slot;
+		pesInUse[deviceId] += task.getNumberOfPes();
+
+		task.setExecStartTime(currentTime);
+		scheduleUpdate(deviceId, currentTime);
+	}
+
+	/**
+	 * processes the update event of a mobile device; returns at most one
+	 * finished task so that the task is processed as the last action of
+	 * the event like a cloudlet return event, null if no task is finished
+	 */
+	public Task update(int deviceId) {
+		double currentTime = CloudSim.clock();
+
+		//the earliest event of the device is being processed
+		if(currentTime >= nextEventTime[deviceId])
+			nextEventTime[deviceId] = Double.MAX_VALUE;
+
+		updateDevice(deviceId, currentTime);
+
+		//the earliest finished task completes first
+		int finishedSlot = NO_TASK;
+		int previousSlot = NO_TASK;
+		int finishedPreviousSlot = NO_TASK;
+		for(int slot = firstTask[deviceId]; slot != NO_TASK; slot = nextTask[slot]) {
+			if(finishTags[slot] - virtualTime[deviceId] < FINISH_TOLERANCE &&
+					(finishedSlot == NO_TASK || finishTags[slot] <= finishTags[finishedSlot])) {
+				finishedSlot = slot;
+				finishedPreviousSlot = previousSlot;
+			}
+			previousSlot = slot;
+		}
+
+		Task task = null;
+		if(finishedSlot != NO_TASK) {
+			task = tasks[finishedSlot];
+			if(finishedPreviousSlot == NO_TASK)
+				firstTask[deviceId] = nextTask[finishedSlot];
+			else
+				nextTask[finishedPreviousSlot] = nextTask[finishedSlot];
+
+			pesInUse[deviceId] -= task.getNumberOfPes();
+			releaseSlot(finishedSlot);
+		}
+
+		//another finished task is returned by an immediate event
+		scheduleUpdate(deviceId, currentTime);
+		return task;
+	}
+
+	/*
+	 * returns the MIPS given to a core of each running task of a device
+	 */
+	private double getCapacity(int deviceId) {
+		return cores[deviceId] * mips[deviceId] / Math.max(pesInUse[deviceId], cores[deviceId]);
+	}
+
+	/*
+	 * advances the progress of the running tasks of a device to the given time
+	 */
+	private void updateDevice(int deviceId, double currentTime) {
+		if(firstTask[deviceId] != NO_TASK)
+			virtualTime[deviceId] += getCapacity(deviceId) * (currentTime - lastUpdateTime[deviceId]);
+
+		lastUpdateTime[deviceId] = currentTime;
+	}
+
+	private void scheduleUpdate(int deviceId, double currentTime) {
+		if(firstTask[deviceId] == NO_TASK)
+			return;
+
+		double remaining = Double.MAX_VALUE;
+		for(int slot = firstTask[deviceId]; slot != NO_TASK; slot = nextTask[slot])
+			remaining = Math.min(remaining, finishTags[slot] - virtualTime[deviceId]);
+
+		double delay = Math.max(remaining, 0) / getCapacity(deviceId);
+
+		//an earlier event is already waiting
+		if(currentTime + delay >= nextEventTime[deviceId])
+			return;
+
+		CloudSim.send(brokerId, brokerId, delay, UPDATE_DEVICE, deviceId);
+		nextEventTime[deviceId] = currentTime + delay; //same as the time of the event
+	}
+
+	private int allocateSlot() {
+		if(firstFreeSlot == NO_TASK) {
+			//the slots are doubled and linked to the free list
+			int size = tasks.length;
+			int newSize = Math.max(2 * size, 16);
+			tasks = Arrays.copyOf(tasks, newSize);
+			finishTags = Arrays.copyOf(finishTags, newSize);
+			nextTask = Arrays.copyOf(nextTask, newSize);
+			for(int slot = size; slot < newSize; slot++)
+				nextTask[slot] = (slot + 1 < newSize) ? slot + 1 : NO_TASK;
+			firstFreeSlot = size;
+		}
+
+		int slot = firstFreeSlot;
+		firstFreeSlot = nextTask[slot];
+		return slot;
+	}
+
+	private void releaseSlot(int slot) {
+		tasks[slot] = null;
+		nextTask[slot] = firstFreeSlot;
+		firstFreeSlot = slot;
+	}
+}
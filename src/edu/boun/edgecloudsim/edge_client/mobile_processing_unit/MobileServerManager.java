@@ -27,6 +27,7 @@ import java.util.List;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
 
 public abstract class MobileServerManager {
 	protected Datacenter localDatacenter;
@@ -43,6 +44,29 @@ public abstract class MobileServerManager {
 			return null;
 	}
 	
+	/*
+	 * returns the VM which executes the tasks of a mobile device
+	 */
+	public MobileVM getVm(int mobileDeviceId){
+		List<MobileVM> vmArray = getVmList(mobileDeviceId);
+		if(vmArray != null && !vmArray.isEmpty())
+			return vmArray.get(0);
+		else
+			return null;
+	}
+
+	/*
+	 * returns total CPU utilization of the tasks running on a mobile device
+	 */
+	public double getUtilization(int mobileDeviceId){
+		double utilization = 0;
+		List<MobileVM> vmArray = getVmList(mobileDeviceId);
+		if(vmArray != null)
+			for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++)
+				utilization += vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
+		return utilization;
+	}
+
 	public Datacenter getDatacenter(){
 		return localDatacenter;
 	}
@@ -0,0 +1,298 @@
+/*
+ * Title:        EdgeCloudSim - Decision Latency Model
+ *
+ * Description:
+ * DecisionLatencyModel calculates how long a task waits for the offloading
+ * decision of the edge orchestrator in simulated time. A decision takes a
+ * fixed time, a fixed time plus a time for each candidate examined by the
+ * orchestrator, or a time drawn from the profile of the orchestrator
+ * policy. The decisions occupy a number of decision servers in first come
+ * first served order, so the tasks are queued while the orchestrator is
+ * busy. The waiting and decision times are part of the service time of
+ * the tasks.
+ *
+ * The decision itself is made when the task arrives at the orchestrator;
+ * its result is available to the task after the calculated delay.
+ *
+ * The profile file keeps the distribution of the measured (wall clock)
+ * decision times of the policies, one line per policy: the policy name
+ * and the percentiles of its decision times in nanoseconds. The measured
+ * times of a policy which is not in the profile are collected during the
+ * run and added to the file at the end of the run; the decisions of this
+ * policy take no simulated time in the calibration run.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_orchestrator;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.DECISION_LATENCY_MODELS;
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+import edu.boun.edgecloudsim.utils.SimUtils.RNG_STREAM;
+
+public class DecisionLatencyModel {
+	private static final int NUM_OF_PERCENTILES = 101;
+
+	//the measured times are counted in buckets of logarithmic width
+	private static final int BUCKETS_PER_DOUBLING = 16;
+	private static final int NUM_OF_BUCKETS = 48 * BUCKETS_PER_DOUBLING;
+
+	private EdgeOrchestrator orchestrator;
+	private DECISION_LATENCY_MODELS model;
+	private double[] serverAvailableTimes;
+
+	//percentiles of the decision times of the policies in the profile
+	private Map<String, double[]> profiles;
+
+	//measured decision times of the policies which are not in the profile
+	private Map<String, long[]> measurements;
+
+	private long numOfDecisions;
+	private double totalWaitingTime;
+	private double totalDecisionTime;
+
+	public DecisionLatencyModel(EdgeOrchestrator _orchestrator) {
+		SimSettings SS = SimSettings.getInstance();
+		orchestrator = _orchestrator;
+		model = SS.getDecisionLatencyModel();
+		serverAvailableTimes = new double[SS.getNumOfDecisionServers()];
+		profiles = new HashMap<String, double[]>();
+		measurements = new HashMap<String, long[]>();
+
+		if(model == DECISION_LATENCY_MODELS.PROFILE){
+			if(SS.getDecisionLatencyProfile() == null)
+				throw new SimulationException("Decision latency profile file is not given! Terminating simulation...");
+
+			try {
+				readProfiles(SS.getDecisionLatencyProfile(), profiles);
+			} catch (IOException e) {
+				throw new SimulationException(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the time from the arrival of the task at the orchestrator
+	 * until its decision is made, and occupies a decision server for the
+	 * decision time.
+	 */
+	public double getDecisionDelay(Task task) {
+		SimSettings SS = SimSettings.getInstance();
+		double decisionTime;
+		switch (model) {
+			case FIXED:
+				decisionTime = SS.getDecisionTime();
+				break;
+			case PER_CANDIDATE:
+				decisionTime = SS.getDecisionTime() +
+					SS.getDecisionTimePerCandidate() * orchestrator.getNumOfCandidates(task);
+				break;
+			case PROFILE:
+				decisionTime = getProfiledDecisionTime(orchestrator.getPolicy());
+				break;
+			default:
+				return 0;
+		}
+
+		if(decisionTime <= 0)
+			return 0;
+
+		//the decision is made by the server which becomes available first
+		int server = 0;
+		for(int i=1; i<serverAvailableTimes.length; i++)
+			if(serverAvailableTimes[i] < serverAvailableTimes[server])
+				server = i;
+
+		double arrivalTime = CloudSim.clock();
+		double startTime = Math.max(arrivalTime, serverAvailableTimes[server]);
+		serverAvailableTimes[server] = startTime + decisionTime;
+
+		numOfDecisions++;
+		totalWaitingTime += startTime - arrivalTime;
+		totalDecisionTime += decisionTime;
+
+		return serverAvailableTimes[server] - arrivalTime;
+	}
+
+	/**
+	 * Adds the measured (wall clock) time of a decision of the current
+	 * policy, which calibrates the profile of the policy if it is not
+	 * profiled yet
+	 */
+	public void decisionMeasured(long nanoseconds) {
+		if(model != DECISION_LATENCY_MODELS.PROFILE || profiles.containsKey(orchestrator.getPolicy()))
+			return;
+
+		long[] buckets = measurements.get(orchestrator.getPolicy());
+		if(buckets == null){
+			buckets = new long[NUM_OF_BUCKETS];
+			measurements.put(orchestrator.getPolicy(), buckets);
+		}
+
+		int bucket = 0;
+		if(nanoseconds > 1)
+			bucket = Math.min(NUM_OF_BUCKETS - 1,
+					(int)(BUCKETS_PER_DOUBLING * Math.log(nanoseconds) / Math.log(2)));
+		buckets[bucket]++;
+	}
+
+	/**
+	 * Prints the statistics of the delayed decisions and adds the
+	 * calibrated policies to the profile file at the end of a run
+	 */
+	public void simulationFinished() {
+		if(numOfDecisions > 0)
+			SimLogger.printLine("Orchestrator decisions: " + numOfDecisions +
+					", average waiting time: " + totalWaitingTime / numOfDecisions +
+					" seconds, average decision time: " + totalDecisionTime / numOfDecisions + " seconds");
+
+		if(measurements.isEmpty())
+			return;
+
+		Map<String, double[]> calibratedProfiles = new HashMap<String, double[]>();
+		for(Map.Entry<String, long[]> entry : measurements.entrySet())
+			calibratedProfiles.put(entry.getKey(), getPercentiles(entry.getValue()));
+
+		try {
+			addProfiles(SimSettings.getInstance().getDecisionLatencyProfile(), calibratedProfiles);
+		} catch (IOException e) {
+			throw new SimulationException(e);
+		}
+
+		for(String policy : calibratedProfiles.keySet())
+			SimLogger.printLine("Decision latency profile of " + policy + " is calibrated");
+	}
+
+	/*
+	 * draws a decision time (in seconds) from the profile of the policy,
+	 * zero if the policy is not profiled yet
+	 */
+	private double getProfiledDecisionTime(String policy) {
+		double[] percentiles = profiles.get(policy);
+		if(percentiles == null)
+			return 0;
+
+		double position = SimUtils.getRandomStream(RNG_STREAM.DECISION_LATENCY).nextDouble() * (NUM_OF_PERCENTILES - 1);
+		int index = (int)position;
+		double nanoseconds = percentiles[index];
+		if(index < NUM_OF_PERCENTILES - 1)
+			nanoseconds += (percentiles[index + 1] - percentiles[index]) * (position - index);
+
+		return nanoseconds / 1000000000.0 * SimSettings.getInstance().getDecisionTimeScale();
+	}
+
+	/*
+	 * returns the percentiles of the measured times, each bucket is
+	 * represented by its geometric center
+	 */
+	private static double[] getPercentiles(long[] buckets) {
+		long count = 0;
+		for(long value : buckets)
+			count += value;
+
+		double[] percentiles = new double[NUM_OF_PERCENTILES];
+		int bucket = 0;
+		long cumulativeCount = buckets[0];
+		for(int i=0; i<NUM_OF_PERCENTILES; i++){
+			long rank = Math.round((double)i / (NUM_OF_PERCENTILES - 1) * (count - 1));
+			while(cumulativeCount <= rank)
+				cumulativeCount += buckets[++bucket];
+			percentiles[i] = Math.pow(2, (bucket + 0.5) / BUCKETS_PER_DOUBLING);
+		}
+		return percentiles;
+	}
+
+	/*
+	 * reads the profiles of the policies, the file may not exist before
+	 * its first calibration run
+	 */
+	private static void readProfiles(String fileName, Map<String, double[]> profiles) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+		try {
+			FileLock lock = file.getChannel().lock();
+			try {
+				parseProfiles(readContent(file), profiles);
+			} finally {
+				lock.release();
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	/*
+	 * adds the profiles to the file; the file is locked while it is
+	 * updated since the runs of a sweep may share it
+	 */
+	private static void addProfiles(String fileName, Map<String, double[]> newProfiles) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+		try {
+			FileLock lock = file.getChannel().lock();
+			try {
+				Map<String, double[]> profiles = new HashMap<String, double[]>();
+				parseProfiles(readContent(file), profiles);
+				for(Map.Entry<String, double[]> entry : newProfiles.entrySet())
+					if(!profiles.containsKey(entry.getKey()))
+						profiles.put(entry.getKey(), entry.getValue());
+
+				List<String> policies = new ArrayList<String>(profiles.keySet());
+				Collections.sort(policies);
+
+				StringBuilder content = new StringBuilder();
+				for(String policy : policies){
+					content.append(policy);
+					for(double value : profiles.get(policy))
+						content.append(SimSettings.DELIMITER).append(value);
+					content.append(System.lineSeparator());
+				}
+
+				file.setLength(0);
+				file.write(content.toString().getBytes(StandardCharsets.UTF_8));
+			} finally {
+				lock.release();
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	private static String readContent(RandomAccessFile file) throws IOException {
+		byte[] content = new byte[(int)file.length()];
+		file.seek(0);
+		file.readFully(content);
+		return new String(content, StandardCharsets.UTF_8);
+	}
+
+	private static void parseProfiles(String content, Map<String, double[]> profiles) {
+		for(String line : content.split("\\r?\\n")){
+			if(line.trim().isEmpty())
+				continue;
+
+			String[] values = line.trim().split(SimSettings.DELIMITER);
+			if(values.length != NUM_OF_PERCENTILES + 1)
+				throw new SimulationException("Invalid decision latency profile of " + values[0] + "! Terminating simulation...");
+
+			double[] percentiles = new double[NUM_OF_PERCENTILES];
+			for(int i=0; i<NUM_OF_PERCENTILES; i++)
+				percentiles[i] = Double.parseDouble(values[i + 1]);
+			profiles.put(values[0], percentiles);
+		}
+	}
+}
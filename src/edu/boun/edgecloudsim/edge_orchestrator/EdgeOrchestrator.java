@@ -16,16 +16,19 @@ package edu.boun.edgecloudsim.edge_orchestrator;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.SimEntity;
 
+import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.Task;
 
 public abstract class EdgeOrchestrator extends SimEntity{
 	protected String policy;
 	protected String simScenario;
+	private DecisionLatencyModel decisionLatencyModel;
 	
 	public EdgeOrchestrator(String _policy, String _simScenario){
 		super("EdgeOrchestrator");
 		policy = _policy;
 		simScenario = _simScenario;
+		decisionLatencyModel = new DecisionLatencyModel(this);
 	}
 
 	/*
@@ -33,6 +36,41 @@ public abstract class EdgeOrchestrator extends SimEntity{
 	 */
 	public EdgeOrchestrator() {
         	super("EdgeOrchestrator");
+		decisionLatencyModel = new DecisionLatencyModel(this);
+	}
+
+	public String getPolicy(){
+		return policy;
+	}
+
+	/**
+	 * Switches the orchestrator to another policy, e.g. at the end of a
+	 * warm-up period shared by the policies. The state collected so far is
+	 * kept. The orchestrators which schedule policy specific events or open
+	 * policy specific resources while the simulation is running should
+	 * override this method.
+	 */
+	public void setPolicy(String _policy){
+		policy = _policy;
+	}
+
+	/**
+	 * Returns the model of the time which the offloading decisions take
+	 * in simulated time
+	 */
+	public DecisionLatencyModel getDecisionLatencyModel(){
+		return decisionLatencyModel;
+	}
+
+	/**
+	 * Returns the number of candidates examined for the offloading
+	 * decision of a task, which determines the decision time of the
+	 * per candidate decision latency model. All edge and cloud VMs are
+	 * candidates by default; the orchestrators which examine fewer or
+	 * more candidates should override this method.
+	 */
+	public int getNumOfCandidates(Task task){
+		return SimSettings.getInstance().getNumOfEdgeVMs() + SimSettings.getInstance().getNumOfCloudVMs();
 	}
 
 	/*
@@ -0,0 +1,320 @@
+/*
+ * Title:        EdgeCloudSim - Virtual Time Cloudlet Scheduler
+ *
+ * Description:
+ * CloudletSchedulerVirtualTime is a time-shared cloudlet scheduler which
+ * gives the same results as CloudSim's CloudletSchedulerTimeShared.
+ * The stock scheduler updates the progress of each running cloudlet and
+ * scans all of them for the next completion on every update. Since the
+ * cloudlets with the same number of PEs progress at the same rate, this
+ * scheduler keeps the executed instructions of such cloudlets as a
+ * virtual time, and a min-heap of their finish tags. Hence an update
+ * does not depend on the number of running cloudlets, and admission
+ * and completion of a cloudlet are O(log n).
+ *
+ * The progress is truncated to the instructions in the same way as the
+ * stock scheduler, so the completion times are exactly the same.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Consts;
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+public class CloudletSchedulerVirtualTime extends CloudletSchedulerTimeShared {
+	private static final Comparator<VirtualTimeCloudlet> FINISH_ORDER = new Comparator<VirtualTimeCloudlet>() {
+		@Override
+		public int compare(VirtualTimeCloudlet a, VirtualTimeCloudlet b) {
+			if(a.finishTag != b.finishTag)
+				return (a.finishTag < b.finishTag) ? -1 : 1;
+			return (a.sequence < b.sequence) ? -1 : (a.sequence == b.sequence ? 0 : 1);
+		}
+	};
+
+	private static final Comparator<VirtualTimeCloudlet> EXEC_ORDER = new Comparator<VirtualTimeCloudlet>() {
+		@Override
+		public int compare(VirtualTimeCloudlet a, VirtualTimeCloudlet b) {
+			return (a.sequence < b.sequence) ? -1 : (a.sequence == b.sequence ? 0 : 1);
+		}
+	};
+
+	//running cloudlets grouped by their number of PEs
+	private List<PesGroup> groups;
+	private int pesInUse;
+	private long nextSequence;
+
+	private List<VirtualTimeCloudlet> finishedCloudlets;
+	private Set<VirtualTimeCloudlet> finishedCloudletSet;
+
+	public CloudletSchedulerVirtualTime() {
+		super();
+		groups = new ArrayList<PesGroup>();
+		pesInUse = 0;
+		nextSequence = 0;
+		finishedCloudlets = new ArrayList<VirtualTimeCloudlet>();
+		finishedCloudletSet = new HashSet<VirtualTimeCloudlet>();
+	}
+
+	@Override
+	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		setCurrentMipsShare(mipsShare);
+		double timeSpan = currentTime - getPreviousTime();
+
+		if (getCloudletExecList().size() == 0) {
+			setPreviousTime(currentTime);
+			return 0.0;
+		}
+
+		//all running cloudlets of a group execute the same instructions
+		double capacity = getCapacity(mipsShare);
+		for (int i = 0; i < groups.size(); i++) {
+			PesGroup group = groups.get(i);
+			if(!group.cloudlets.isEmpty())
+				group.work += (long) (capacity * timeSpan * group.pes * Consts.MILLION);
+		}
+
+		for (int i = 0; i < groups.size(); i++) {
+			PesGroup group = groups.get(i);
+			while(!group.cloudlets.isEmpty() && group.cloudlets.peek().getRemainingCloudletLength() == 0)
+				finishedCloudlets.add(group.cloudlets.poll());
+		}
+
+		if(!finishedCloudlets.isEmpty()) {
+			//finish the cloudlets in the order of the execution list like the stock scheduler
+			Collections.sort(finishedCloudlets, EXEC_ORDER);
+			for (int i = 0; i < finishedCloudlets.size(); i++) {
+				VirtualTimeCloudlet rcl = finishedCloudlets.get(i);
+				detach(rcl);
+				cloudletFinish(rcl);
+			}
+
+			finishedCloudletSet.addAll(finishedCloudlets);
+			getCloudletExecList().removeAll(finishedCloudletSet);
+			finishedCloudletSet.clear();
+			finishedCloudlets.clear();
+		}
+
+		// estimate finish time of cloudlets
+		double nextEvent = Double.MAX_VALUE;
+		capacity = getCapacity(mipsShare);
+		for (int i = 0; i < groups.size(); i++) {
+			PesGroup group = groups.get(i);
+			if(group.cloudlets.isEmpty())
+				continue;
+
+			double estimatedFinishTime = currentTime
+					+ (group.cloudlets.peek().getRemainingCloudletLength() / (capacity * group.pes));
+			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+			}
+
+			if (estimatedFinishTime < nextEvent) {
+				nextEvent = estimatedFinishTime;
+			}
+		}
+
+		setPreviousTime(currentTime);
+		return nextEvent;
+	}
+
+	@Override
+	protected double getCapacity(List<Double> mipsShare) {
+		double capacity = 0.0;
+		int cpus = 0;
+		for (Double mips : mipsShare) {
+			capacity += mips;
+			if (mips > 0.0) {
+				cpus++;
+			}
+		}
+		currentCPUs = cpus;
+
+		//pesInUse is kept up to date instead of summing the execution list
+		if (pesInUse > currentCPUs) {
+			capacity /= pesInUse;
+		} else {
+			capacity /= currentCPUs;
+		}
+		return capacity;
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		VirtualTimeCloudlet rcl = new VirtualTimeCloudlet(cloudlet);
+		rcl.setCloudletStatus(Cloudlet.INEXEC);
+		for (int i = 0; i < cloudlet.getNumberOfPes(); i++) {
+			rcl.setMachineAndPeId(0, i);
+		}
+
+		addToExecList(rcl);
+
+		// use the current capacity to estimate the extra amount of
+		// time to file transferring. It must be added to the cloudlet length
+		double extraSize = getCapacity(getCurrentMipsShare()) * fileTransferTime;
+		long length = (long) (cloudlet.getCloudletLength() + extraSize);
+		cloudlet.setCloudletLength(length);
+
+		attach(rcl);
+		return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShare());
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet) {
+		return cloudletSubmit(cloudlet, 0.0);
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		VirtualTimeCloudlet rcl = findExecCloudlet(cloudletId);
+		if(rcl != null)
+			leave(rcl);
+
+		return super.cloudletCancel(cloudletId);
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		VirtualTimeCloudlet rcl = findExecCloudlet(cloudletId);
+		if(rcl != null)
+			leave(rcl);
+
+		return super.cloudletPause(cloudletId);
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		List<ResCloudlet> pausedList = getCloudletPausedList();
+		for (int i = 0; i < pausedList.size(); i++) {
+			if (pausedList.get(i).getCloudletId() == cloudletId) {
+				VirtualTimeCloudlet rcl = (VirtualTimeCloudlet) pausedList.remove(i);
+				rcl.setCloudletStatus(Cloudlet.INEXEC);
+				addToExecList(rcl);
+				attach(rcl);
+
+				double remainingLength = rcl.getRemainingCloudletLength();
+				double estimatedFinishTime = CloudSim.clock()
+						+ (remainingLength / (getCapacity(getCurrentMipsShare()) * rcl.getNumberOfPes()));
+
+				return estimatedFinishTime;
+			}
+		}
+
+		return 0.0;
+	}
+
+	@Override
+	public Cloudlet migrateCloudlet() {
+		List<ResCloudlet> execList = getCloudletExecList();
+		leave((VirtualTimeCloudlet) execList.get(0));
+		return super.migrateCloudlet();
+	}
+
+	private void addToExecList(VirtualTimeCloudlet rcl) {
+		List<ResCloudlet> execList = getCloudletExecList();
+		execList.add(rcl);
+		rcl.sequence = nextSequence++;
+		pesInUse += rcl.getNumberOfPes();
+	}
+
+	/*
+	 * starts tracking the progress of a cloudlet in the execution list
+	 */
+	private void attach(VirtualTimeCloudlet rcl) {
+		PesGroup group = null;
+		for (int i = 0; i < groups.size() && group == null; i++) {
+			if(groups.get(i).pes == rcl.getNumberOfPes())
+				group = groups.get(i);
+		}
+
+		if(group == null) {
+			group = new PesGroup(rcl.getNumberOfPes());
+			groups.add(group);
+		}
+
+		rcl.group = group;
+		rcl.startWork = group.work;
+		rcl.finishTag = group.work + rcl.getCloudletTotalLength() * Consts.MILLION - rcl.executed;
+		group.cloudlets.add(rcl);
+	}
+
+	/*
+	 * writes the progress of a cloudlet which leaves the execution list
+	 */
+	private void detach(VirtualTimeCloudlet rcl) {
+		long executed = rcl.group.work - rcl.startWork;
+		rcl.executed += executed;
+		rcl.updateCloudletFinishedSoFar(executed);
+		rcl.group = null;
+		pesInUse -= rcl.getNumberOfPes();
+	}
+
+	/*
+	 * removes a cloudlet from the heap before the stock scheduler
+	 * removes it from the execution list
+	 */
+	private void leave(VirtualTimeCloudlet rcl) {
+		rcl.group.cloudlets.remove(rcl);
+		detach(rcl);
+	}
+
+	private VirtualTimeCloudlet findExecCloudlet(int cloudletId) {
+		List<ResCloudlet> execList = getCloudletExecList();
+		for (int i = 0; i < execList.size(); i++) {
+			if (execList.get(i).getCloudletId() == cloudletId)
+				return (VirtualTimeCloudlet) execList.get(i);
+		}
+		return null;
+	}
+
+	private static class PesGroup {
+		private int pes;
+		//instructions executed by each running cloudlet of the group since the beginning
+		private long work;
+		private PriorityQueue<VirtualTimeCloudlet> cloudlets;
+
+		private PesGroup(int _pes) {
+			pes = _pes;
+			work = 0;
+			cloudlets = new PriorityQueue<VirtualTimeCloudlet>(11, FINISH_ORDER);
+		}
+	}
+
+	private static class VirtualTimeCloudlet extends ResCloudlet {
+		private PesGroup group;
+		private long startWork;
+		private long finishTag;
+		private long executed;
+		private long sequence;
+
+		private VirtualTimeCloudlet(Cloudlet cloudlet) {
+			super(cloudlet);
+			executed = 0;
+		}
+
+		@Override
+		public long getRemainingCloudletLength() {
+			if(group == null)
+				return super.getRemainingCloudletLength();
+
+			long length = finishTag - group.work;
+			if (length < 0) {
+				return 0;
+			}
+			return length / Consts.MILLION;
+		}
+	}
+}
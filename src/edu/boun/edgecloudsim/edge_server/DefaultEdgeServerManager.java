@@ -16,7 +16,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -33,6 +32,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import edu.boun.edgecloudsim.core.LazyUpdateDatacenter;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.utils.Location;
@@ -93,7 +93,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 					long bandwidth = SimSettings.getInstance().getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
 					
 					//VM Parameters		
-					EdgeVM vm = new EdgeVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+					EdgeVM vm = new EdgeVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerVirtualTime());
 					vmList.get(hostCounter).add(vm);
 					vmCounter++;
 				}
@@ -158,7 +158,10 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 		Datacenter datacenter = null;
 	
 		VmAllocationPolicy vm_policy = getVmAllocationPolicy(hostList,index);
-		datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
+		if(SimSettings.getInstance().getLazyDatacenterUpdate())
+			datacenter = new LazyUpdateDatacenter(name, characteristics, vm_policy, storageList, 0);
+		else
+			datacenter = new Datacenter(name, characteristics, vm_policy, storageList, 0);
 		
 		return datacenter;
 	}
@@ -0,0 +1,117 @@
+/*
+ * Title:        EdgeCloudSim - Binary Heap Event List
+ * 
+ * Description: 
+ * BinaryHeapEventList keeps the future events in an array based
+ * binary min heap. Enqueue and dequeue operations take O(log n) time
+ * without allocating a node per event.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryHeapEventList extends EventList {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private ScheduledEvent[] heap;
+	private int size;
+
+	public BinaryHeapEventList() {
+		heap = new ScheduledEvent[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	@Override
+	protected void enqueue(ScheduledEvent event) {
+		if(size == heap.length)
+			heap = Arrays.copyOf(heap, heap.length * 2);
+
+		heap[size] = event;
+		siftUp(size);
+		size++;
+	}
+
+	@Override
+	protected ScheduledEvent dequeue() {
+		if(size == 0)
+			return null;
+
+		ScheduledEvent first = heap[0];
+		removeAt(0);
+		return first;
+	}
+
+	@Override
+	protected boolean delete(ScheduledEvent event) {
+		for(int i=0; i<size; i++) {
+			if(heap[i] == event){
+				removeAt(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected void collect(List<ScheduledEvent> list) {
+		for(int i=0; i<size; i++)
+			list.add(heap[i]);
+	}
+
+	@Override
+	protected int count() {
+		return size;
+	}
+
+	@Override
+	protected void reset() {
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	private void removeAt(int index) {
+		size--;
+		ScheduledEvent last = heap[size];
+		heap[size] = null;
+		if(index == size)
+			return;
+
+		heap[index] = last;
+		siftDown(index);
+		if(heap[index] == last)
+			siftUp(index);
+	}
+
+	private void siftUp(int index) {
+		ScheduledEvent event = heap[index];
+		while(index > 0) {
+			int parent = (index - 1) / 2;
+			if(heap[parent].compareTo(event) <= 0)
+				break;
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = event;
+	}
+
+	private void siftDown(int index) {
+		ScheduledEvent event = heap[index];
+		while(true) {
+			int child = 2 * index + 1;
+			if(child >= size)
+				break;
+			if(child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0)
+				child++;
+			if(event.compareTo(heap[child]) <= 0)
+				break;
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = event;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Title:        EdgeCloudSim - Calendar Queue Event List
+ * 
+ * Description: 
+ * CalendarQueueEventList implements the calendar queue of R. Brown (1988).
+ * Events are hashed into buckets by their time, like the days of a year
+ * in a calendar, and the buckets are scanned day by day. The number of
+ * buckets follows the number of events, and the bucket width is estimated
+ * from the separation of the earliest events whenever the calendar is
+ * resized, so enqueue and dequeue operations take O(1) amortized time.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CalendarQueueEventList extends EventList {
+	private static final int MIN_NUM_OF_BUCKETS = 2;
+	private static final int NUM_OF_WIDTH_SAMPLES = 25;
+
+	//each bucket is sorted in descending order
+	private List<List<ScheduledEvent>> buckets;
+	private double width;
+	private int size;
+	private long lastDay;
+	private double lastTime;
+
+	public CalendarQueueEventList() {
+		size = 0;
+		initialize(MIN_NUM_OF_BUCKETS, 1.0, 0);
+	}
+
+	@Override
+	protected void enqueue(ScheduledEvent event) {
+		//calendar is moved back if an event is earlier than the last dequeued one
+		if(event.getTime() < lastTime)
+			setLastTime(event.getTime());
+
+		insertDescending(buckets.get(getBucketIndex(event.getTime())), event);
+		size++;
+
+		if(size > 2 * buckets.size())
+			resize(2 * buckets.size());
+	}
+
+	@Override
+	protected ScheduledEvent dequeue() {
+		if(size == 0)
+			return null;
+
+		//scan the buckets of the current year starting from the day of the last event
+		long day = lastDay;
+		for(int i=0; i<buckets.size(); i++) {
+			List<ScheduledEvent> bucket = buckets.get((int)(day % buckets.size()));
+			if(!bucket.isEmpty() && getDay(bucket.get(bucket.size() - 1).getTime()) <= day){
+				lastDay = day;
+				return removeLast(bucket);
+			}
+			day++;
+		}
+
+		//there is no event in the current year, directly search the earliest event
+		List<ScheduledEvent> earliestBucket = null;
+		for(List<ScheduledEvent> bucket : buckets) {
+			if(!bucket.isEmpty() && (earliestBucket == null ||
+					bucket.get(bucket.size() - 1).compareTo(earliestBucket.get(earliestBucket.size() - 1)) < 0))
+				earliestBucket = bucket;
+		}
+
+		setLastTime(earliestBucket.get(earliestBucket.size() - 1).getTime());
+		return removeLast(earliestBucket);
+	}
+
+	@Override
+	protected boolean delete(ScheduledEvent event) {
+		List<ScheduledEvent> bucket = buckets.get(getBucketIndex(event.getTime()));
+		for(int i=0; i<bucket.size(); i++) {
+			if(bucket.get(i) == event){
+				bucket.remove(i);
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected void collect(List<ScheduledEvent> list) {
+		for(List<ScheduledEvent> bucket : buckets)
+			list.addAll(bucket);
+	}
+
+	@Override
+	protected int count() {
+		return size;
+	}
+
+	@Override
+	protected void reset() {
+		size = 0;
+		initialize(MIN_NUM_OF_BUCKETS, 1.0, 0);
+	}
+
+	private ScheduledEvent removeLast(List<ScheduledEvent> bucket) {
+		ScheduledEvent event = bucket.remove(bucket.size() - 1);
+		lastTime = event.getTime();
+		size--;
+
+		if(size < buckets.size() / 2 && buckets.size() > MIN_NUM_OF_BUCKETS)
+			resize(buckets.size() / 2);
+
+		return event;
+	}
+
+	private long getDay(double time) {
+		return (long)(time / width);
+	}
+
+	private int getBucketIndex(double time) {
+		return (int)(getDay(time) % buckets.size());
+	}
+
+	/*
+	 * sets the time of the last dequeued event and the day of that time
+	 */
+	private void setLastTime(double time) {
+		lastTime = time;
+		lastDay = getDay(time);
+	}
+
+	private void initialize(int numOfBuckets, double bucketWidth, double startTime) {
+		buckets = new ArrayList<List<ScheduledEvent>>(numOfBuckets);
+		for(int i=0; i<numOfBuckets; i++)
+			buckets.add(new ArrayList<ScheduledEvent>());
+		width = bucketWidth;
+		setLastTime(startTime);
+	}
+
+	/*
+	 * copies the events to a new calendar having the given number of buckets
+	 * and a bucket width estimated from the earliest events
+	 */
+	private void resize(int numOfBuckets) {
+		List<ScheduledEvent> events = new ArrayList<ScheduledEvent>(size);
+		collect(events);
+		Collections.sort(events);
+
+		initialize(numOfBuckets, getNewWidth(events), lastTime);
+		for(ScheduledEvent event : events)
+			insertDescending(buckets.get(getBucketIndex(event.getTime())), event);
+	}
+
+	/*
+	 * bucket width is three times the average separation of the earliest
+	 * events, separations larger than twice the average are ignored
+	 */
+	private double getNewWidth(List<ScheduledEvent> sortedEvents) {
+		int numOfSamples = Math.min(NUM_OF_WIDTH_SAMPLES, sortedEvents.size());
+		if(numOfSamples < 2)
+			return width;
+
+		double totalSeparation = sortedEvents.get(numOfSamples - 1).getTime() - sortedEvents.get(0).getTime();
+		double averageSeparation = totalSeparation / (numOfSamples - 1);
+
+		double separation = 0;
+		int numOfSeparations = 0;
+		for(int i=1; i<numOfSamples; i++) {
+			double diff = sortedEvents.get(i).getTime() - sortedEvents.get(i - 1).getTime();
+			if(diff <= 2 * averageSeparation){
+				separation += diff;
+				numOfSeparations++;
+			}
+		}
+
+		if(separation <= 0)
+			return width;
+
+		return 3 * separation / numOfSeparations;
+	}
+}
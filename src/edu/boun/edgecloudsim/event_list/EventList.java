@@ -0,0 +1,141 @@
+/*
+ * Title:        EdgeCloudSim - Event List
+ * 
+ * Description: 
+ * EventList is an abstract class which is used for keeping the future
+ * events of the simulation. Events are served in the order of their time,
+ * events having the same time are served in the order of insertion.
+ * For those who wants to add a custom event list to EdgeCloudSim should
+ * extend this class and add it to EventListFutureQueue.
+ * 
+ * The number of enqueue and dequeue operations are counted, so that the
+ * event lists can be compared for a scenario. Removal of a cancelled
+ * event is counted as a dequeue operation.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import java.util.Collections;
+import java.util.List;
+
+public abstract class EventList {
+	private ScheduledEvent head;
+	private long numOfEnqueues;
+	private long numOfDequeues;
+
+	public EventList() {
+		head = null;
+		numOfEnqueues = 0;
+		numOfDequeues = 0;
+	}
+
+	/*
+	 * adds the event to the underlying data structure
+	 */
+	protected abstract void enqueue(ScheduledEvent event);
+
+	/*
+	 * removes and returns the first event of the underlying data structure,
+	 * returns null if it is empty
+	 */
+	protected abstract ScheduledEvent dequeue();
+
+	/*
+	 * removes the given event from the underlying data structure
+	 */
+	protected abstract boolean delete(ScheduledEvent event);
+
+	/*
+	 * adds all events of the underlying data structure to the list
+	 * in no particular order
+	 */
+	protected abstract void collect(List<ScheduledEvent> list);
+
+	/*
+	 * returns the number of events in the underlying data structure
+	 */
+	protected abstract int count();
+
+	/*
+	 * removes all events of the underlying data structure
+	 */
+	protected abstract void reset();
+
+	public void add(ScheduledEvent event) {
+		numOfEnqueues++;
+
+		//the first event is kept out of the data structure after a peek
+		if(head != null && event.compareTo(head) < 0){
+			enqueue(head);
+			head = event;
+		}
+		else {
+			enqueue(event);
+		}
+	}
+
+	public ScheduledEvent peek() {
+		if(head == null)
+			head = dequeue();
+		return head;
+	}
+
+	public ScheduledEvent poll() {
+		ScheduledEvent event = peek();
+		if(event != null){
+			head = null;
+			numOfDequeues++;
+		}
+		return event;
+	}
+
+	public boolean remove(ScheduledEvent event) {
+		boolean removed;
+		if(head == event){
+			head = null;
+			removed = true;
+		}
+		else {
+			removed = delete(event);
+		}
+
+		if(removed)
+			numOfDequeues++;
+		return removed;
+	}
+
+	public void getEvents(List<ScheduledEvent> list) {
+		if(head != null)
+			list.add(head);
+		collect(list);
+	}
+
+	public int size() {
+		return count() + (head == null ? 0 : 1);
+	}
+
+	public void clear() {
+		head = null;
+		reset();
+	}
+
+	public long getNumOfEnqueues() {
+		return numOfEnqueues;
+	}
+
+	public long getNumOfDequeues() {
+		return numOfDequeues;
+	}
+
+	/*
+	 * inserts the event to the list which is sorted in descending order,
+	 * so that the first event can be removed from the end of the list
+	 */
+	protected static void insertDescending(List<ScheduledEvent> list, ScheduledEvent event) {
+		int index = Collections.binarySearch(list, event, Collections.reverseOrder());
+		list.add(index < 0 ? -(index + 1) : index, event);
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Title:        EdgeCloudSim - Event List Future Queue
+ * 
+ * Description: 
+ * EventListFutureQueue replaces the SortedSet based future queue of
+ * CloudSim with an EventList, so that the data structure keeping the
+ * future events can be selected in the config file.
+ * 
+ * CloudSim iterates the future queue to find the events of the next
+ * clock tick, and to find the events to be cancelled. The events of the
+ * earliest time are moved from the event list to a small sorted front
+ * list and the iterator returns them first, followed by the earliest
+ * event of the event list; the remaining events are returned in no
+ * particular order. This is sufficient for CloudSim, since only the
+ * events having the same time with the first one are processed in a
+ * clock tick, and cancellation scans all events.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.FutureQueue;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
+
+public class EventListFutureQueue extends FutureQueue {
+	private EventList eventList;
+	//sorted events taken from the event list, all events having
+	//an earlier or the same time with the last one are in this list
+	private LinkedList<ScheduledEvent> front;
+	private long serial;
+	private PartitionProfiler profiler;
+
+	public EventListFutureQueue(EventList _eventList, PartitionProfiler _profiler) {
+		eventList = _eventList;
+		profiler = _profiler;
+		front = new LinkedList<ScheduledEvent>();
+		serial = 0;
+	}
+
+	/**
+	 * Creates the event list given in the config file
+	 * returns null if the default future queue of CloudSim is used
+	 */
+	public static EventList createEventList(SimSettings.FUTURE_EVENT_LISTS type) {
+		switch(type){
+		case DEFAULT:
+			return null;
+		case BINARY_HEAP:
+			return new BinaryHeapEventList();
+		case CALENDAR_QUEUE:
+			return new CalendarQueueEventList();
+		case LADDER_QUEUE:
+			return new LadderQueueEventList();
+		default:
+			throw new SimulationException("Unknown future event list: " + type);
+		}
+	}
+
+	/**
+	 * Replaces the future queue of CloudSim with the given event list,
+	 * events which are already scheduled are moved to the event list.
+	 * The profiler is notified about the events if it is not null.
+	 * CloudSim.init must be called before this method.
+	 */
+	public static void install(EventList eventList, PartitionProfiler profiler) {
+		EventListFutureQueue queue = new EventListFutureQueue(eventList, profiler);
+		Installer.setFutureQueue(queue);
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		add(new ScheduledEvent(newEvent, ++serial));
+		if(profiler != null)
+			profiler.eventScheduled(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		add(new ScheduledEvent(newEvent, 0));
+		if(profiler != null)
+			profiler.eventScheduled(newEvent);
+	}
+
+	private void add(ScheduledEvent event) {
+		if(!front.isEmpty() && event.getTime() <= front.getLast().getTime()){
+			ListIterator<ScheduledEvent> iter = front.listIterator(front.size());
+			while(iter.hasPrevious()) {
+				if(iter.previous().compareTo(event) <= 0){
+					iter.next();
+					break;
+				}
+			}
+			iter.add(event);
+		}
+		else {
+			eventList.add(event);
+		}
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		//events of the earliest time are moved to the front list
+		if(front.isEmpty() && eventList.peek() != null){
+			front.add(eventList.poll());
+			while(eventList.peek() != null && eventList.peek().getTime() == front.getFirst().getTime())
+				front.add(eventList.poll());
+		}
+
+		return new EventIterator();
+	}
+
+	@Override
+	public int size() {
+		return front.size() + eventList.size();
+	}
+
+	/*
+	 * CloudSim removes the processed events by this method, while
+	 * the cancelled events are removed by the iterator
+	 */
+	@Override
+	public boolean remove(SimEvent event) {
+		boolean removed = removeEvent(event);
+		if(removed && profiler != null)
+			profiler.eventProcessed(event);
+		return removed;
+	}
+
+	private boolean removeEvent(SimEvent event) {
+		Iterator<ScheduledEvent> iter = front.iterator();
+		while(iter.hasNext()) {
+			if(iter.next().getEvent() == event){
+				iter.remove();
+				return true;
+			}
+		}
+
+		List<ScheduledEvent> events = new ArrayList<ScheduledEvent>();
+		eventList.getEvents(events);
+		for(ScheduledEvent scheduledEvent : events) {
+			if(scheduledEvent.getEvent() == event)
+				return eventList.remove(scheduledEvent);
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean removed = false;
+		for(SimEvent event : events)
+			removed |= remove(event);
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		front.clear();
+		eventList.clear();
+	}
+
+	public EventList getEventList() {
+		return eventList;
+	}
+
+	/*
+	 * returns the events of the front list in order, then the first
+	 * event of the event list, then the remaining events in no order
+	 */
+	private class EventIterator implements Iterator<SimEvent> {
+		private Iterator<ScheduledEvent> frontIter;
+		private boolean inFront;
+		private ScheduledEvent firstOfList;
+		private Iterator<ScheduledEvent> listIter;
+		private ScheduledEvent lastOfList;
+
+		public EventIterator() {
+			frontIter = front.iterator();
+			inFront = true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(inFront && frontIter.hasNext())
+				return true;
+
+			if(firstOfList == null)
+				return eventList.peek() != null;
+
+			if(listIter == null){
+				//the remaining events are copied, since the event list
+				//may be changed while iterating
+				List<ScheduledEvent> events = new ArrayList<ScheduledEvent>();
+				eventList.getEvents(events);
+				events.remove(firstOfList);
+				listIter = events.iterator();
+			}
+
+			return listIter.hasNext();
+		}
+
+		@Override
+		public SimEvent next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+
+			if(inFront && frontIter.hasNext())
+				return frontIter.next().getEvent();
+
+			inFront = false;
+			if(firstOfList == null){
+				firstOfList = eventList.peek();
+				lastOfList = firstOfList;
+			}
+			else {
+				lastOfList = listIter.next();
+			}
+
+			return lastOfList.getEvent();
+		}
+
+		@Override
+		public void remove() {
+			if(inFront){
+				frontIter.remove();
+			}
+			else {
+				if(lastOfList == null)
+					throw new IllegalStateException();
+				eventList.remove(lastOfList);
+				lastOfList = null;
+			}
+		}
+	}
+
+	/*
+	 * future queue of CloudSim is a protected static field
+	 */
+	private static class Installer extends CloudSim {
+		public static void setFutureQueue(EventListFutureQueue queue) {
+			if(future == null)
+				throw new SimulationException("CloudSim is not initialized!");
+
+			Iterator<SimEvent> iter = future.iterator();
+			while(iter.hasNext())
+				queue.addEvent(iter.next());
+
+			future = queue;
+		}
+	}
+}
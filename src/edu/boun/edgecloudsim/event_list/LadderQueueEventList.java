@@ -0,0 +1,248 @@
+/*
+ * Title:        EdgeCloudSim - Ladder Queue Event List
+ * 
+ * Description: 
+ * LadderQueueEventList implements the ladder queue of W.T. Tang,
+ * R.S.M. Goh and I.L.J. Thng (2005). Far future events are appended to
+ * the unsorted top list. When the events are needed, the top list is
+ * spread over the buckets of a rung, and a crowded bucket is spread over
+ * the buckets of a new rung below it. Only a small bucket is sorted into
+ * the bottom list, from which the events are dequeued. Events are sorted
+ * lazily in small groups, so enqueue and dequeue operations take O(1)
+ * amortized time without tuning a bucket width.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LadderQueueEventList extends EventList {
+	//buckets having more events are spread over a new rung
+	private static final int THRESHOLD = 50;
+	private static final int MAX_NUM_OF_RUNGS = 8;
+
+	private List<ScheduledEvent> top;
+	private double topMin;
+	private double topMax;
+	private double topStart;
+	private List<Rung> rungs;
+	//bottom list is sorted in descending order
+	private List<ScheduledEvent> bottom;
+	private int size;
+
+	public LadderQueueEventList() {
+		top = new ArrayList<ScheduledEvent>();
+		rungs = new ArrayList<Rung>();
+		bottom = new ArrayList<ScheduledEvent>();
+		topStart = Double.NEGATIVE_INFINITY;
+		resetTop();
+		size = 0;
+	}
+
+	@Override
+	protected void enqueue(ScheduledEvent event) {
+		size++;
+		double time = event.getTime();
+
+		if(time >= topStart){
+			top.add(event);
+			topMin = Math.min(topMin, time);
+			topMax = Math.max(topMax, time);
+			return;
+		}
+
+		//events which are later than the buckets of an exhausted rung belong to the lower rungs
+		for(Rung rung : rungs) {
+			if(!rung.isExhausted() && time >= rung.getCurrentStart()){
+				rung.add(event);
+				return;
+			}
+		}
+
+		insertDescending(bottom, event);
+	}
+
+	@Override
+	protected ScheduledEvent dequeue() {
+		if(bottom.isEmpty())
+			fillBottom();
+
+		if(bottom.isEmpty())
+			return null;
+
+		size--;
+		return bottom.remove(bottom.size() - 1);
+	}
+
+	@Override
+	protected boolean delete(ScheduledEvent event) {
+		boolean removed = removeEvent(top, event) || removeEvent(bottom, event);
+		for(int i=0; !removed && i<rungs.size(); i++)
+			removed = rungs.get(i).remove(event);
+
+		if(removed)
+			size--;
+		return removed;
+	}
+
+	@Override
+	protected void collect(List<ScheduledEvent> list) {
+		list.addAll(top);
+		for(Rung rung : rungs)
+			rung.collect(list);
+		list.addAll(bottom);
+	}
+
+	@Override
+	protected int count() {
+		return size;
+	}
+
+	@Override
+	protected void reset() {
+		top.clear();
+		rungs.clear();
+		bottom.clear();
+		topStart = Double.NEGATIVE_INFINITY;
+		resetTop();
+		size = 0;
+	}
+
+	private void resetTop() {
+		top.clear();
+		topMin = Double.POSITIVE_INFINITY;
+		topMax = Double.NEGATIVE_INFINITY;
+	}
+
+	/*
+	 * moves the events of the earliest bucket to the bottom list
+	 */
+	private void fillBottom() {
+		while(bottom.isEmpty()) {
+			if(rungs.isEmpty()){
+				if(top.isEmpty())
+					return;
+
+				//later events are kept in the top list
+				topStart = topMax;
+				if(top.size() <= THRESHOLD || topMin == topMax){
+					sortIntoBottom(top);
+				}
+				else {
+					Rung rung = new Rung(topMin, topMax, top.size());
+					for(ScheduledEvent event : top)
+						rung.add(event);
+					rungs.add(rung);
+				}
+				resetTop();
+				continue;
+			}
+
+			Rung lowestRung = rungs.get(rungs.size() - 1);
+			List<ScheduledEvent> bucket = lowestRung.nextBucket();
+			if(bucket == null){
+				rungs.remove(rungs.size() - 1);
+				continue;
+			}
+
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for(ScheduledEvent event : bucket) {
+				min = Math.min(min, event.getTime());
+				max = Math.max(max, event.getTime());
+			}
+
+			if(bucket.size() > THRESHOLD && rungs.size() < MAX_NUM_OF_RUNGS && min < max){
+				Rung rung = new Rung(min, max, bucket.size());
+				for(ScheduledEvent event : bucket)
+					rung.add(event);
+				rungs.add(rung);
+			}
+			else {
+				sortIntoBottom(bucket);
+			}
+			bucket.clear();
+		}
+	}
+
+	private void sortIntoBottom(List<ScheduledEvent> events) {
+		bottom.addAll(events);
+		Collections.sort(bottom, Collections.reverseOrder());
+	}
+
+	private static boolean removeEvent(List<ScheduledEvent> list, ScheduledEvent event) {
+		for(int i=0; i<list.size(); i++) {
+			if(list.get(i) == event){
+				list.remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * a rung covers the time interval of a bucket of the upper rung, or the
+	 * interval of the top list, with the given number of buckets
+	 */
+	private static class Rung {
+		private double start;
+		private double width;
+		private List<List<ScheduledEvent>> buckets;
+		//index of the next bucket to be moved to the lower rung or bottom list
+		private int current;
+
+		public Rung(double min, double max, int numOfEvents) {
+			start = min;
+			width = (max - min) / numOfEvents;
+			//an additional bucket is used for the events at max
+			buckets = new ArrayList<List<ScheduledEvent>>(numOfEvents + 1);
+			for(int i=0; i<=numOfEvents; i++)
+				buckets.add(new ArrayList<ScheduledEvent>());
+			current = 0;
+		}
+
+		public double getCurrentStart() {
+			return start + current * width;
+		}
+
+		public boolean isExhausted() {
+			return current == buckets.size();
+		}
+
+		public void add(ScheduledEvent event) {
+			int index = (int)((event.getTime() - start) / width);
+			index = Math.max(current, Math.min(buckets.size() - 1, index));
+			buckets.get(index).add(event);
+		}
+
+		/*
+		 * returns the next nonempty bucket, or null if all buckets are used
+		 */
+		public List<ScheduledEvent> nextBucket() {
+			while(current < buckets.size()) {
+				List<ScheduledEvent> bucket = buckets.get(current++);
+				if(!bucket.isEmpty())
+					return bucket;
+			}
+			return null;
+		}
+
+		public boolean remove(ScheduledEvent event) {
+			for(int i=current; i<buckets.size(); i++) {
+				if(removeEvent(buckets.get(i), event))
+					return true;
+			}
+			return false;
+		}
+
+		public void collect(List<ScheduledEvent> list) {
+			for(int i=current; i<buckets.size(); i++)
+				list.addAll(buckets.get(i));
+		}
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Title:        EdgeCloudSim - Partition Profiler
+ * 
+ * Description: 
+ * PartitionProfiler observes the events of a simulation run to estimate
+ * the speedup of parallel execution strategies, before such a mode is
+ * implemented on top of CloudSim.
+ * 
+ * Conservative execution partitioned by edge site: each processed event
+ * is assigned to the edge site of its edge datacenter or of its task, or
+ * to the global partition for the cloud, periodic and other events. The
+ * run is split into synchronous windows with the length of the lookahead,
+ * i.e. the minimum positive MAN/WAN propagation delay in the config file.
+ * Within a window the sites are assumed to run in parallel while the
+ * global events run sequentially, so the estimated speedup is the number
+ * of events divided by the sum of the global events and the events of the
+ * busiest site over the windows. Task events moving from a site to another
+ * site or partition are also counted with their minimum delay; such an
+ * execution is only possible if this delay is not less than the lookahead.
+ * 
+ * Parallel processing of same time events: the events of a batch having
+ * the same time conflict if they are sent to the same datacenter, or if
+ * they belong to the same mobile device or VM. Conflicting events are
+ * grouped, and the groups of a batch are assumed to run in parallel, so
+ * the estimated speedup is the number of events in the batches divided
+ * by the sum of the largest group sizes. The state shared by all events,
+ * e.g. random number streams, orchestrator and logger, is ignored; this
+ * estimate is an upper bound.
+ * 
+ * In both cases the cost of an event is assumed to be the same and
+ * synchronization is assumed to be free.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_server.EdgeHost;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.TaskProperty;
+
+public class PartitionProfiler {
+	public static final int GLOBAL_PARTITION = -1;
+
+	//conflict keys of the different kinds of objects are kept apart
+	private static final long ENTITY_KEY = 1L << 40;
+	private static final long DEVICE_KEY = 2L << 40;
+	private static final long VM_KEY = 3L << 40;
+
+	private double lookahead;
+	private int numOfPartitions;
+	private Map<Integer, Integer> partitionOfDatacenters;
+	private Map<Task, Integer> lastPartitionOfTasks;
+
+	private long[] numOfEvents;
+	private long numOfGlobalEvents;
+
+	private long currentWindow;
+	private long[] numOfWindowEvents;
+	private long numOfWindowGlobalEvents;
+	private long numOfCriticalEvents;
+
+	private long numOfCrossPartitionHops;
+	private long numOfZeroDelayHops;
+	private double minCrossPartitionDelay;
+
+	private double batchTime;
+	private List<long[]> batchKeys;
+	private long numOfBatches;
+	private long numOfBatchEvents;
+	private long numOfBatchCriticalEvents;
+
+	public PartitionProfiler() {
+		SimSettings SS = SimSettings.getInstance();
+		lookahead = getMinPositive(SS.getInternalLanDelay(), SS.getWanPropagationDelay());
+
+		//edge datacenters are partitioned by the access point of their location
+		partitionOfDatacenters = new HashMap<Integer, Integer>();
+		List<Datacenter> datacenters = SimManager.getInstance().getEdgeServerManager().getDatacenterList();
+		numOfPartitions = SS.getNumOfEdgeDatacenters();
+		for(Datacenter datacenter : datacenters) {
+			EdgeHost host = (EdgeHost) datacenter.getHostList().get(0);
+			int wlanId = host.getLocation().getServingWlanId();
+			partitionOfDatacenters.put(datacenter.getId(), wlanId);
+			numOfPartitions = Math.max(numOfPartitions, wlanId + 1);
+		}
+
+		lastPartitionOfTasks = new WeakHashMap<Task, Integer>();
+		numOfEvents = new long[numOfPartitions];
+		numOfWindowEvents = new long[numOfPartitions];
+		currentWindow = -1;
+		minCrossPartitionDelay = Double.MAX_VALUE;
+		batchTime = -1;
+		batchKeys = new ArrayList<long[]>();
+	}
+
+	/**
+	 * called when an event is added to the future event list
+	 */
+	public void eventScheduled(SimEvent ev) {
+		if(!(ev.getData() instanceof Task))
+			return;
+
+		Task task = (Task) ev.getData();
+		int partition = getPartition(ev);
+		Integer lastPartition = lastPartitionOfTasks.put(task, partition);
+		if(lastPartition != null && lastPartition != partition){
+			double delay = ev.eventTime() - CloudSim.clock();
+			numOfCrossPartitionHops++;
+			if(delay <= 0)
+				numOfZeroDelayHops++;
+			minCrossPartitionDelay = Math.min(minCrossPartitionDelay, delay);
+		}
+	}
+
+	/**
+	 * called when an event is processed
+	 */
+	public void eventProcessed(SimEvent ev) {
+		long window = (lookahead > 0) ? (long)(ev.eventTime() / lookahead) : currentWindow + 1;
+		if(window != currentWindow){
+			closeWindow();
+			currentWindow = window;
+		}
+
+		if(ev.eventTime() != batchTime){
+			closeBatch();
+			batchTime = ev.eventTime();
+		}
+		batchKeys.add(getConflictKeys(ev));
+
+		int partition = getPartition(ev);
+		if(partition == GLOBAL_PARTITION){
+			numOfGlobalEvents++;
+			numOfWindowGlobalEvents++;
+		}
+		else {
+			numOfEvents[partition]++;
+			numOfWindowEvents[partition]++;
+		}
+	}
+
+	private static double getMinPositive(double value1, double value2) {
+		if(value1 <= 0)
+			return Math.max(0, value2);
+		if(value2 <= 0)
+			return value1;
+		return Math.min(value1, value2);
+	}
+
+	private void closeWindow() {
+		long max = 0;
+		for(int i=0; i<numOfPartitions; i++) {
+			max = Math.max(max, numOfWindowEvents[i]);
+			numOfWindowEvents[i] = 0;
+		}
+		numOfCriticalEvents += numOfWindowGlobalEvents + max;
+		numOfWindowGlobalEvents = 0;
+	}
+
+	/*
+	 * groups the conflicting events of the batch by union find over
+	 * their keys, the largest group is the critical path of the batch
+	 */
+	private void closeBatch() {
+		if(batchKeys.size() > 1){
+			Map<Long, Long> parents = new HashMap<Long, Long>();
+			for(long[] keys : batchKeys) {
+				for(int i=1; i<keys.length; i++)
+					parents.put(findRoot(parents, keys[i]), findRoot(parents, keys[0]));
+			}
+
+			Map<Long, Integer> groupSizes = new HashMap<Long, Integer>();
+			int maxGroupSize = 0;
+			for(long[] keys : batchKeys) {
+				long root = findRoot(parents, keys[0]);
+				Integer groupSize = groupSizes.get(root);
+				groupSize = (groupSize == null) ? 1 : groupSize + 1;
+				groupSizes.put(root, groupSize);
+				maxGroupSize = Math.max(maxGroupSize, groupSize);
+			}
+
+			numOfBatches++;
+			numOfBatchEvents += batchKeys.size();
+			numOfBatchCriticalEvents += maxGroupSize;
+		}
+		batchKeys.clear();
+	}
+
+	private static long findRoot(Map<Long, Long> parents, long key) {
+		Long parent = parents.get(key);
+		while(parent != null && parent != key) {
+			key = parent;
+			parent = parents.get(key);
+		}
+		return key;
+	}
+
+	/*
+	 * returns the datacenter, mobile device or VM keys of the event,
+	 * events having a common key cannot be processed in parallel
+	 */
+	private long[] getConflictKeys(SimEvent ev) {
+		if(partitionOfDatacenters.containsKey(ev.getDestination()) || ev.getData() == null)
+			return new long[] {ENTITY_KEY | ev.getDestination()};
+
+		if(ev.getData() instanceof Task){
+			Task task = (Task) ev.getData();
+			if(task.getVmId() >= 0)
+				return new long[] {DEVICE_KEY | task.getMobileDeviceId(), VM_KEY | task.getVmId()};
+			return new long[] {DEVICE_KEY | task.getMobileDeviceId()};
+		}
+
+		if(ev.getData() instanceof TaskProperty)
+			return new long[] {DEVICE_KEY | ((TaskProperty) ev.getData()).getMobileDeviceId()};
+
+		return new long[] {ENTITY_KEY | ev.getDestination()};
+	}
+
+	/**
+	 * returns the edge site of the event, or GLOBAL_PARTITION
+	 */
+	public int getPartition(SimEvent ev) {
+		Integer datacenterPartition = partitionOfDatacenters.get(ev.getDestination());
+		if(datacenterPartition != null)
+			return datacenterPartition;
+
+		Location location = null;
+		if(ev.getData() instanceof Task){
+			Task task = (Task) ev.getData();
+			if(task.getAssociatedDatacenterId() != SimSettings.CLOUD_DATACENTER_ID)
+				location = task.getSubmittedLocation();
+		}
+		else if(ev.getData() instanceof TaskProperty){
+			TaskProperty task = (TaskProperty) ev.getData();
+			location = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(), ev.eventTime());
+		}
+
+		if(location == null || location.getServingWlanId() < 0 || location.getServingWlanId() >= numOfPartitions)
+			return GLOBAL_PARTITION;
+
+		return location.getServingWlanId();
+	}
+
+	public void printSummary() {
+		closeWindow();
+		closeBatch();
+
+		long totalEvents = numOfGlobalEvents;
+		long maxEvents = 0;
+		for(int i=0; i<numOfPartitions; i++) {
+			totalEvents += numOfEvents[i];
+			maxEvents = Math.max(maxEvents, numOfEvents[i]);
+		}
+
+		SimLogger.printLine("Partition profile: " + numOfPartitions + " edge sites, " +
+				totalEvents + " events, " + numOfGlobalEvents + " global events, " +
+				maxEvents + " events on the busiest site");
+		SimLogger.printLine("Partition profile: " + numOfCrossPartitionHops + " cross partition task hops, " +
+				numOfZeroDelayHops + " of them without delay" +
+				(numOfCrossPartitionHops > 0 ? ", minimum delay " + String.format("%.4f", minCrossPartitionDelay) : ""));
+		if(lookahead > 0 && numOfCriticalEvents > 0)
+			SimLogger.printLine("Partition profile: lookahead " + lookahead + " seconds, estimated speedup " +
+					String.format("%.2f", (double)totalEvents / (double)numOfCriticalEvents));
+		else
+			SimLogger.printLine("Partition profile: no positive lookahead, conservative execution is not possible");
+
+		if(numOfBatches > 0)
+			SimLogger.printLine("Batch profile: " + numOfBatches + " batches of same time events, " +
+					numOfBatchEvents + " events in batches (" + String.format("%.1f", 100.0 * numOfBatchEvents / totalEvents) +
+					"%), estimated speedup " + String.format("%.2f", (double)numOfBatchEvents / (double)numOfBatchCriticalEvents));
+		else
+			SimLogger.printLine("Batch profile: no batch of same time events");
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Title:        EdgeCloudSim - Scheduled Event
+ * 
+ * Description: 
+ * ScheduledEvent is an entry of the future event list. It keeps the time
+ * and the insertion order of a CloudSim event, events having the same
+ * time are served in the order of insertion.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.event_list;
+
+import org.cloudbus.cloudsim.core.SimEvent;
+
+public class ScheduledEvent implements Comparable<ScheduledEvent> {
+	private SimEvent event;
+	private double time;
+	private long serial;
+
+	public ScheduledEvent(SimEvent _event, long _serial) {
+		event = _event;
+		time = _event.eventTime();
+		serial = _serial;
+	}
+
+	public SimEvent getEvent() {
+		return event;
+	}
+
+	public double getTime() {
+		return time;
+	}
+
+	public long getSerial() {
+		return serial;
+	}
+
+	@Override
+	public int compareTo(ScheduledEvent other) {
+		if(time < other.time)
+			return -1;
+		else if(time > other.time)
+			return 1;
+		else if(serial < other.serial)
+			return -1;
+		else if(serial > other.serial)
+			return 1;
+		return 0;
+	}
+}
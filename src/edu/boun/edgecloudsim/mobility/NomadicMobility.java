@@ -24,8 +24,8 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.utils.Location;
-import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class NomadicMobility extends MobilityModel {
@@ -52,14 +52,14 @@ public class NomadicMobility extends MobilityModel {
 			String attractiveness = location.getElementsByTagName("attractiveness").item(0).getTextContent();
 			int placeTypeIndex = Integer.parseInt(attractiveness);
 			
-			expRngList[i] = new ExponentialDistribution(SimSettings.getInstance().getMobilityLookUpTable()[placeTypeIndex]);
+			expRngList[i] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.MOBILITY), SimSettings.getInstance().getMobilityLookUpTable()[placeTypeIndex]);
 		}
 		
 		//initialize tree maps and position of mobile devices
 		for(int i=0; i<numberOfMobileDevices; i++) {
 			treeMapArray.add(i, new TreeMap<Double, Location>());
 			
-			int randDatacenterId = SimUtils.getRandomNumber(0, SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
+			int randDatacenterId = SimUtils.getRandomNumber(SimUtils.RNG_STREAM.MOBILITY, 0, SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
 			Node datacenterNode = datacenterList.item(randDatacenterId);
 			Element datacenterElement = (Element) datacenterNode;
 			Element location = (Element)datacenterElement.getElementsByTagName("location").item(0);
@@ -82,7 +82,7 @@ public class NomadicMobility extends MobilityModel {
 				double waitingTime = expRngList[currentLocationId].sample();
 				
 				while(placeFound == false){
-					int newDatacenterId = SimUtils.getRandomNumber(0,SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
+					int newDatacenterId = SimUtils.getRandomNumber(SimUtils.RNG_STREAM.MOBILITY, 0,SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
 					if(newDatacenterId != currentLocationId){
 						placeFound = true;
 						Node datacenterNode = datacenterList.item(newDatacenterId);
@@ -98,8 +98,7 @@ public class NomadicMobility extends MobilityModel {
 					}
 				}
 				if(!placeFound){
-					SimLogger.printLine("impossible is occurred! location cannot be assigned to the device!");
-					System.exit(1);
+					throw new SimulationException("impossible is occurred! location cannot be assigned to the device!");
 				}
 			}
 		}
@@ -113,8 +112,7 @@ public class NomadicMobility extends MobilityModel {
 		Entry<Double, Location> e = treeMap.floorEntry(time);
 	    
 	    if(e == null){
-	    	SimLogger.printLine("impossible is occurred! no location is found for the device '" + deviceId + "' at " + time);
-	    	System.exit(1);
+	    	throw new SimulationException("impossible is occurred! no location is found for the device '" + deviceId + "' at " + time);
 	    }
 	    
 		return e.getValue();
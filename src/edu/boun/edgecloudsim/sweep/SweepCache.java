@@ -0,0 +1,217 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Cache
+ *
+ * Description:
+ * SweepCache keeps the result files of the completed sweep jobs in a
+ * local folder. The key of a job is a hash of the config, edge devices
+ * and applications files, the scenario, the policy, the number of mobile
+ * devices, the iteration number and the build fingerprint. A job with
+ * a matching key is restored from the cache instead of being simulated.
+ *
+ * The sweep axes (scenarios, policies and numbers of mobile devices) are
+ * not a part of the hash of the config file, since each job keeps its own
+ * values in its key; so the cached results are still used after a new
+ * scenario, policy or number of devices is added to the sweep.
+ *
+ * The iteration number identifies the replication; either the random
+ * number streams are seeded from the clock, or they are derived from the
+ * random_seed of the config file, which is a part of the key.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+public class SweepCache {
+	//properties which define the sweep points of a config, not the simulated model
+	private static final String[] SWEEP_AXIS_KEYS = {"simulation_scenarios", "orchestrator_policies",
+			"min_number_of_mobile_devices", "max_number_of_mobile_devices", "mobile_device_counter_size"};
+
+	private File cacheFolder;
+	private String buildFingerprint;
+	private Map<String, String> fileHashes;
+	private Map<String, String> configHashes;
+
+	public SweepCache(File _cacheFolder, String _buildFingerprint) {
+		cacheFolder = _cacheFolder;
+		buildFingerprint = _buildFingerprint;
+		fileHashes = new HashMap<String, String>();
+		configHashes = new HashMap<String, String>();
+	}
+
+	public synchronized String getKey(SweepJob job) throws IOException {
+		SweepPoint point = job.getPoint();
+		MessageDigest digest = createDigest();
+		digest.update(getConfigHash(job.getConfigFile()).getBytes("UTF-8"));
+		digest.update(getFileHash(job.getEdgeDevicesFile()).getBytes("UTF-8"));
+		digest.update(getFileHash(job.getApplicationsFile()).getBytes("UTF-8"));
+		digest.update((point.getSimScenario() + ";" + point.getOrchestratorPolicy() + ";" +
+				point.getNumOfMobileDevice() + ";" + point.getIterationNumber() + ";" +
+				buildFingerprint).getBytes("UTF-8"));
+		return toHex(digest.digest());
+	}
+
+	/*
+	 * copies the cached result files of the job to its output folder;
+	 * returns false if the job is not in the cache
+	 */
+	public boolean restore(SweepJob job) throws IOException {
+		File entryFolder = new File(cacheFolder, getKey(job));
+		File[] files = entryFolder.listFiles();
+		if(files == null)
+			return false;
+
+		SweepPoint point = job.getPoint();
+		new File(point.getOutputFolder()).mkdirs();
+		for(File file : files)
+			Files.copy(file.toPath(), new File(point.getOutputFolder(), point.getName() + file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		return true;
+	}
+
+	/*
+	 * stores the result files of a successfully completed job
+	 */
+	public void store(SweepJob job) throws IOException {
+		SweepPoint point = job.getPoint();
+		String key = getKey(job);
+		File entryFolder = new File(cacheFolder, key);
+		if(entryFolder.exists())
+			return;
+
+		//files are copied to a temporary folder first, so that a partially
+		//written entry is never used
+		File tempFolder = new File(cacheFolder, key + "." + Thread.currentThread().getId() + ".tmp");
+		tempFolder.mkdirs();
+		for(File file : SweepManifest.getResultFiles(point)) {
+			String suffix = file.getName().substring(point.getName().length());
+			Files.copy(file.toPath(), new File(tempFolder, suffix).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		if(!tempFolder.renameTo(entryFolder)){
+			for(File file : tempFolder.listFiles())
+				file.delete();
+			tempFolder.delete();
+		}
+	}
+
+	/**
+	 * Calculates a fingerprint of the compiled classes and libraries
+	 * on the class path, so that the cached results are not used after
+	 * the simulator is changed.
+	 */
+	public static String calculateBuildFingerprint() throws IOException {
+		List<File> files = new ArrayList<File>();
+		for(String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if(!entry.isEmpty())
+				collectFiles(new File(entry), files);
+		}
+		Collections.sort(files);
+
+		MessageDigest digest = createDigest();
+		for(File file : files) {
+			digest.update(file.getPath().getBytes("UTF-8"));
+			updateDigest(digest, file);
+		}
+		return toHex(digest.digest());
+	}
+
+	/*
+	 * returns the hash of the properties of the config file except the
+	 * sweep axes; the properties are hashed in the order of their names,
+	 * so the comments and the layout of the file are not a part of it
+	 */
+	private String getConfigHash(String fileName) throws IOException {
+		String hash = configHashes.get(fileName);
+		if(hash == null){
+			Properties prop = new Properties();
+			InputStream input = new FileInputStream(fileName);
+			try {
+				prop.load(input);
+			}
+			finally {
+				input.close();
+			}
+
+			for(String key : SWEEP_AXIS_KEYS)
+				prop.remove(key);
+
+			List<String> names = new ArrayList<String>(prop.stringPropertyNames());
+			Collections.sort(names);
+
+			MessageDigest digest = createDigest();
+			for(String name : names)
+				digest.update((name + "=" + prop.getProperty(name) + "\n").getBytes("UTF-8"));
+			hash = toHex(digest.digest());
+			configHashes.put(fileName, hash);
+		}
+		return hash;
+	}
+
+	private String getFileHash(String fileName) throws IOException {
+		String hash = fileHashes.get(fileName);
+		if(hash == null){
+			MessageDigest digest = createDigest();
+			updateDigest(digest, new File(fileName));
+			hash = toHex(digest.digest());
+			fileHashes.put(fileName, hash);
+		}
+		return hash;
+	}
+
+	private static void collectFiles(File file, List<File> files) {
+		if(file.isDirectory()){
+			File[] children = file.listFiles();
+			if(children != null)
+				for(File child : children)
+					collectFiles(child, files);
+		}
+		else if(file.isFile()){
+			files.add(file);
+		}
+	}
+
+	static void updateDigest(MessageDigest digest, File file) throws IOException {
+		byte[] buffer = new byte[64 * 1024];
+		InputStream input = new FileInputStream(file);
+		try {
+			int length;
+			while ((length = input.read(buffer)) > 0)
+				digest.update(buffer, 0, length);
+		}
+		finally {
+			input.close();
+		}
+	}
+
+	static MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for(byte b : bytes)
+			hex.append(String.format("%02x", b));
+		return hex.toString();
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Convergence
+ *
+ * Description:
+ * SweepConvergence decides whether more iterations of a sweep point are
+ * necessary. The headline metrics of each iteration are read from the
+ * ALL_APPS_GENERIC result file; average service time, percentage of
+ * failed tasks and QoE. A sweep point is converged if the confidence
+ * interval of each metric is narrower than the target, relative to
+ * the mean of the metric.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class SweepConvergence {
+	public static final int MIN_ITERATIONS = 2;
+	public static final String[] METRIC_NAMES = {"service time", "failed task percentage", "QoE"};
+
+	private double targetHalfWidth;
+	private double confidenceLevel;
+
+	/*
+	 * targetHalfWidth is the half-width of the confidence interval relative
+	 * to the mean, e.g. 0.05 means +/-5%
+	 */
+	public SweepConvergence(double _targetHalfWidth, double _confidenceLevel) {
+		targetHalfWidth = _targetHalfWidth;
+		confidenceLevel = _confidenceLevel;
+	}
+
+	/*
+	 * reads service time, failed task percentage and QoE of all apps
+	 */
+	public static double[] readMetrics(SweepPoint point) throws IOException {
+		File file = new File(point.getOutputFolder(), point.getName() + "_ALL_APPS_GENERIC.log");
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if(line.startsWith("#"))
+					continue;
+
+				String[] fields = line.split(SimSettings.DELIMITER);
+				double completedTask = Double.parseDouble(fields[0]);
+				double failedTask = Double.parseDouble(fields[1]);
+				double serviceTime = Double.parseDouble(fields[4]);
+				double QoE = Double.parseDouble(fields[11]);
+				double failedTaskPercentage = 0;
+				if(completedTask + failedTask > 0)
+					failedTaskPercentage = (100 * failedTask) / (completedTask + failedTask);
+
+				return new double[] {serviceTime, failedTaskPercentage, QoE};
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		throw new IOException("no result is found in " + file.getPath());
+	}
+
+	public boolean isConverged(List<double[]> samples) {
+		if(samples.size() < MIN_ITERATIONS)
+			return false;
+
+		for(int i=0; i<METRIC_NAMES.length; i++)
+			if(getRelativeHalfWidth(samples, i) > targetHalfWidth)
+				return false;
+
+		return true;
+	}
+
+	/*
+	 * returns the half-width of the confidence interval of the given metric
+	 * relative to its mean; a metric which is always zero is assumed converged
+	 */
+	public double getRelativeHalfWidth(List<double[]> samples, int metricIndex) {
+		int n = samples.size();
+		if(n < 2)
+			return Double.POSITIVE_INFINITY;
+
+		double mean = 0;
+		for(double[] sample : samples)
+			mean += sample[metricIndex];
+		mean /= n;
+
+		double variance = 0;
+		for(double[] sample : samples)
+			variance += (sample[metricIndex] - mean) * (sample[metricIndex] - mean);
+		variance /= (n - 1);
+
+		double tScore = new TDistribution(n - 1).inverseCumulativeProbability(1 - (1 - confidenceLevel) / 2);
+		double halfWidth = tScore * Math.sqrt(variance / n);
+
+		if(mean == 0)
+			return (halfWidth == 0) ? 0 : Double.POSITIVE_INFINITY;
+
+		return halfWidth / Math.abs(mean);
+	}
+}
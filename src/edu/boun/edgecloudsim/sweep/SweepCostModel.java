@@ -0,0 +1,134 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Cost Model
+ *
+ * Description:
+ * SweepCostModel estimates the wall clock time of the sweep jobs.
+ * The measured time of each finished job is appended to a history file,
+ * each line of which is formatted as follows:
+ * configName;scenario;policy;numOfMobileDevice;simulationTime;elapsedTime
+ *
+ * If a job has already been measured, the mean of its measurements is used.
+ * Otherwise the cost is estimated as devices x simulation time x policy
+ * weight, where the policy weight is learned from the history.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SweepCostModel {
+	private File historyFile;
+
+	//total and count of the measured costs, keyed by job
+	private Map<String, double[]> jobCosts;
+
+	//total and count of the elapsed time per device x simulation time, keyed by policy
+	private Map<String, double[]> policyWeights;
+	private double[] overallWeight;
+
+	public SweepCostModel(File _historyFile) throws IOException {
+		historyFile = _historyFile;
+		jobCosts = new HashMap<String, double[]>();
+		policyWeights = new HashMap<String, double[]>();
+		overallWeight = new double[2];
+
+		if(historyFile.exists()){
+			BufferedReader reader = new BufferedReader(new FileReader(historyFile));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] fields = line.trim().split(";");
+					if(fields.length != 6)
+						continue;
+
+					try {
+						addMeasurement(fields[0], fields[1], fields[2],
+								Integer.parseInt(fields[3]),
+								Double.parseDouble(fields[4]),
+								Double.parseDouble(fields[5]));
+					}
+					catch (NumberFormatException e) {
+						//skip corrupted lines, e.g. a line of an interrupted run
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+	}
+
+	public synchronized double estimate(SweepJob job) {
+		double[] measured = jobCosts.get(getJobKey(job));
+		if(measured != null)
+			return measured[0] / measured[1];
+
+		double weight = 1;
+		double[] policyWeight = policyWeights.get(job.getPoint().getOrchestratorPolicy());
+		if(policyWeight != null)
+			weight = policyWeight[0] / policyWeight[1];
+		else if(overallWeight[1] > 0)
+			weight = overallWeight[0] / overallWeight[1];
+
+		return job.getPoint().getNumOfMobileDevice() * job.getSimulationTime() * weight;
+	}
+
+	/*
+	 * stores the measured wall clock time of a job in milliseconds
+	 */
+	public synchronized void record(SweepJob job, long elapsedTime) throws IOException {
+		SweepPoint point = job.getPoint();
+		addMeasurement(job.getConfigName(), point.getSimScenario(), point.getOrchestratorPolicy(),
+				point.getNumOfMobileDevice(), job.getSimulationTime(), elapsedTime);
+
+		FileWriter writer = new FileWriter(historyFile, true);
+		try {
+			writer.write(job.getConfigName() + ";" + point.getSimScenario() + ";" +
+					point.getOrchestratorPolicy() + ";" + point.getNumOfMobileDevice() + ";" +
+					job.getSimulationTime() + ";" + elapsedTime + System.lineSeparator());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private void addMeasurement(String configName, String simScenario, String orchestratorPolicy, int numOfMobileDevice, double simulationTime, double elapsedTime) {
+		add(jobCosts, getJobKey(configName, simScenario, orchestratorPolicy, numOfMobileDevice, simulationTime), elapsedTime);
+
+		double size = numOfMobileDevice * simulationTime;
+		if(size > 0){
+			add(policyWeights, orchestratorPolicy, elapsedTime / size);
+			overallWeight[0] += elapsedTime / size;
+			overallWeight[1]++;
+		}
+	}
+
+	private static void add(Map<String, double[]> map, String key, double value) {
+		double[] entry = map.get(key);
+		if(entry == null){
+			entry = new double[2];
+			map.put(key, entry);
+		}
+		entry[0] += value;
+		entry[1]++;
+	}
+
+	private static String getJobKey(SweepJob job) {
+		SweepPoint point = job.getPoint();
+		return getJobKey(job.getConfigName(), point.getSimScenario(), point.getOrchestratorPolicy(),
+				point.getNumOfMobileDevice(), job.getSimulationTime());
+	}
+
+	private static String getJobKey(String configName, String simScenario, String orchestratorPolicy, int numOfMobileDevice, double simulationTime) {
+		return configName + ";" + simScenario + ";" + orchestratorPolicy + ";" + numOfMobileDevice + ";" + simulationTime;
+	}
+}
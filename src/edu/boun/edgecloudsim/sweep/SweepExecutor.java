@@ -0,0 +1,120 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Executor
+ *
+ * Description:
+ * SweepExecutor runs the sweep points of a parameter sweep concurrently
+ * on a thread pool. Each sweep point is executed in its own
+ * SimulationContext, so the runs do not share any simulation state.
+ * A failing run does not affect the others; its error is reported
+ * in the corresponding SweepResult.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class SweepExecutor {
+	private String mainAppClassName;
+	private String configFile;
+	private String edgeDevicesFile;
+	private String applicationsFile;
+	private int numOfThreads;
+
+	public SweepExecutor(String _mainAppClassName, String _configFile, String _edgeDevicesFile, String _applicationsFile, int _numOfThreads) {
+		mainAppClassName = _mainAppClassName;
+		configFile = _configFile;
+		edgeDevicesFile = _edgeDevicesFile;
+		applicationsFile = _applicationsFile;
+		numOfThreads = _numOfThreads;
+	}
+
+	/**
+	 * Executes the given sweep points and waits until all of them are finished.
+	 * The results are returned in the order of the given sweep points.
+	 */
+	public List<SweepResult> execute(List<SweepPoint> points) throws InterruptedException {
+		int poolSize = Math.max(1, Math.min(numOfThreads, points.size()));
+		final boolean printLogEnabled = (poolSize == 1);
+		final int numOfPoints = points.size();
+		final AtomicInteger finishedCounter = new AtomicInteger(0);
+
+		ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+		List<Future<SweepResult>> futures = new ArrayList<Future<SweepResult>>();
+		try {
+			for(final SweepPoint point : points) {
+				futures.add(pool.submit(new Callable<SweepResult>() {
+					@Override
+					public SweepResult call() {
+						SweepResult result = runPoint(point, printLogEnabled);
+						if(!printLogEnabled)
+							SimLogger.printLine("[" + finishedCounter.incrementAndGet() + "/" + numOfPoints + "] " +
+									point + (result.isSucceeded() ? " finished" : " FAILED: " + result.getError().getMessage()) +
+									" in " + result.getElapsedTime()/1000 + " seconds");
+						return result;
+					}
+				}));
+			}
+
+			List<SweepResult> results = new ArrayList<SweepResult>();
+			for(Future<SweepResult> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					//runPoint() catches every error, this is not expected
+					throw new SimulationException(e.getCause());
+				}
+			}
+			return results;
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * runs a single sweep point in an isolated simulation context
+	 */
+	private SweepResult runPoint(SweepPoint point, boolean printLogEnabled) {
+		long startTime = System.currentTimeMillis();
+		Throwable error = null;
+
+		SimulationContext context = null;
+		try {
+			context = new SimulationContext(mainAppClassName);
+			if(context.initialize(configFile, edgeDevicesFile, applicationsFile, printLogEnabled) == false)
+				throw new SimulationException("cannot initialize simulation settings!");
+
+			context.run(point.getOutputFolder(), point.getSimScenario(), point.getOrchestratorPolicy(),
+					point.getIterationNumber(), point.getNumOfMobileDevice());
+		}
+		catch (Throwable e) {
+			error = e;
+		}
+		finally {
+			if(context != null) {
+				try {
+					context.close();
+				} catch (Exception e) {
+					if(error == null)
+						error = e;
+				}
+			}
+		}
+
+		return new SweepResult(point, System.currentTimeMillis() - startTime, error);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Job
+ *
+ * Description:
+ * SweepJob is a sweep point together with the configuration files it
+ * belongs to. The configuration name is the first column of the
+ * simulation.list file of the sample applications.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+public class SweepJob {
+	private String configName;
+	private String configFile;
+	private String edgeDevicesFile;
+	private String applicationsFile;
+	private double simulationTime;
+	private SweepPoint point;
+	private double estimatedCost;
+
+	public SweepJob(String _configName, String _configFile, String _edgeDevicesFile, String _applicationsFile, double _simulationTime, SweepPoint _point) {
+		configName = _configName;
+		configFile = _configFile;
+		edgeDevicesFile = _edgeDevicesFile;
+		applicationsFile = _applicationsFile;
+		simulationTime = _simulationTime;
+		point = _point;
+		estimatedCost = 0;
+	}
+
+	public String getConfigName() {
+		return configName;
+	}
+
+	public String getConfigFile() {
+		return configFile;
+	}
+
+	public String getEdgeDevicesFile() {
+		return edgeDevicesFile;
+	}
+
+	public String getApplicationsFile() {
+		return applicationsFile;
+	}
+
+	/*
+	 * returns the simulation time in minutes as given in the config file
+	 */
+	public double getSimulationTime() {
+		return simulationTime;
+	}
+
+	public SweepPoint getPoint() {
+		return point;
+	}
+
+	public double getEstimatedCost() {
+		return estimatedCost;
+	}
+
+	public void setEstimatedCost(double _estimatedCost) {
+		estimatedCost = _estimatedCost;
+	}
+
+	@Override
+	public String toString() {
+		return configName + "/" + point;
+	}
+}
@@ -0,0 +1,635 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Launcher
+ *
+ * Description:
+ * SweepLauncher runs the sweep defined by the simulation.list file of
+ * a sample application on a given number of worker processes.
+ * Each (config, iteration, devices, scenario, policy) tuple is a separate
+ * job. Jobs are kept in a single queue shared by all workers and sorted
+ * by their estimated cost, so the longest jobs are started first and an
+ * idle worker always takes the next job from the queue. The measured cost
+ * of each job is stored to improve the estimations of the next sweeps.
+ *
+ * Worker processes are started once and kept alive during the sweep, the
+ * jobs are sent to them via pipes (see SweepWorker). A worker which is
+ * terminated unexpectedly is replaced by a new one for the next job.
+ *
+ * The status of the jobs is recorded in a manifest in the output folder
+ * (see SweepManifest). If the sweep is started again with the same output
+ * folder, only the missing, failed or corrupted jobs are executed.
+ *
+ * Results of the completed jobs are also stored in a cache in the script
+ * root folder (see SweepCache). A job whose inputs did not change since
+ * it was simulated is restored from the cache instead of being executed.
+ *
+ * A worker process can run more than one job at the same time on its
+ * slots (see SweepWorker), so that they share a single JVM instead of
+ * being executed in separate processes. The jobs are sent to a worker one
+ * at a time whenever one of its slots is free, so the longest jobs are
+ * still started first and no slot waits for the other jobs of the worker.
+ *
+ * In adaptive mode, the number of iterations is a maximum; the iterations
+ * of a sweep point are stopped once its results are converged
+ * (see SweepConvergence).
+ *
+ * If the policies are forked from a shared warm-up period, the warm-up
+ * snapshot of a scenario, number of devices and iteration is deleted when
+ * the jobs of all its policies are settled, including the skipped, cached
+ * and failed ones.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class SweepLauncher {
+	public static final String SIMULATION_LIST_FILE = "simulation.list";
+	public static final String COST_HISTORY_FILE = "sweep_costs.log";
+	public static final String MANIFEST_FILE = "sweep_manifest.log";
+	public static final String CACHE_FOLDER = "sweep_cache";
+
+	private String mainAppClassName;
+	private File outputFolder;
+	private SweepCostModel costModel;
+	private SweepManifest manifest;
+	private SweepCache cache;
+	private SweepConvergence convergence;
+	private int numOfSlots;
+	private AtomicInteger numOfFailures;
+	private AtomicInteger numOfExecutedJobs;
+	private AtomicInteger numOfUnfinishedJobs;
+	private int numOfSkippedJobs;
+	private int numOfCachedJobs;
+	private Map<String, SweepPointJobs> groups;
+	private Map<String, Integer> numOfUnsettledWarmUpJobs;
+	private BlockingQueue<SweepJob> queue;
+
+	/*
+	 * cache can be null if the results should not be cached
+	 */
+	public SweepLauncher(String _mainAppClassName, File _outputFolder, SweepCostModel _costModel, SweepCache _cache) throws IOException {
+		mainAppClassName = _mainAppClassName;
+		outputFolder = _outputFolder;
+		costModel = _costModel;
+		cache = _cache;
+		manifest = new SweepManifest(new File(outputFolder, MANIFEST_FILE));
+		numOfFailures = new AtomicInteger(0);
+		numOfSlots = 1;
+	}
+
+	/**
+	 * Usage: SweepLauncher mainAppClass scriptRootFolder outputFolder numOfProcesses numOfIterations [ciTarget] [numOfSlots]
+	 *
+	 * If ciTarget is given and it is not zero, numOfIterations is the maximum number of
+	 * iterations and the iterations of a sweep point are stopped once the relative half-width
+	 * of the 95% confidence interval of its metrics is below ciTarget, e.g. 0.05
+	 *
+	 * numOfSlots is the number of jobs executed at the same time by each worker process
+	 */
+	public static void main(String[] args) {
+		SimLogger.enablePrintLog();
+
+		if (args.length < 5 || args.length > 7){
+			SimLogger.printLine("Usage: SweepLauncher <main app class> <script root folder> <output folder> <number of processes> <number of iterations> [ci target] [number of slots]");
+			System.exit(1);
+		}
+
+		String mainAppClassName = args[0];
+		File scriptRootFolder = new File(args[1]);
+		File outputFolder = new File(args[2]);
+		int numOfProcesses = Integer.parseInt(args[3]);
+		int numOfIterations = Integer.parseInt(args[4]);
+
+		try {
+			SweepCostModel costModel = new SweepCostModel(new File(scriptRootFolder, COST_HISTORY_FILE));
+			SweepCache cache = new SweepCache(new File(scriptRootFolder, CACHE_FOLDER), SweepCache.calculateBuildFingerprint());
+			SweepLauncher launcher = new SweepLauncher(mainAppClassName, outputFolder, costModel, cache);
+			if(args.length >= 6 && Double.parseDouble(args[5]) > 0)
+				launcher.setConvergence(new SweepConvergence(Double.parseDouble(args[5]), 0.95));
+			if(args.length == 7)
+				launcher.setNumOfSlots(Integer.parseInt(args[6]));
+			List<SweepJob> jobs = createJobs(scriptRootFolder, outputFolder, numOfIterations);
+			if(launcher.launch(jobs, numOfProcesses) > 0)
+				System.exit(1);
+		}
+		catch (Exception e) {
+			SimLogger.printLine("The sweep has been terminated due to an unexpected error");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Creates the jobs of all configurations listed in the simulation.list file.
+	 * Each line of this file is formatted as follows:
+	 * configName;edgeDevicesFile;applicationsFile
+	 */
+	public static List<SweepJob> createJobs(File scriptRootFolder, File outputFolder, int numOfIterations) throws IOException {
+		List<SweepJob> jobs = new ArrayList<SweepJob>();
+		File configFolder = new File(scriptRootFolder, "config");
+
+		BufferedReader reader = new BufferedReader(new FileReader(new File(scriptRootFolder, SIMULATION_LIST_FILE)));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if(line.isEmpty())
+					continue;
+
+				String[] fields = line.split(";");
+				String configName = fields[0];
+				String configFile = new File(configFolder, configName + ".properties").getPath();
+				String edgeDevicesFile = new File(configFolder, fields[1]).getPath();
+				String applicationsFile = new File(configFolder, fields[2]).getPath();
+
+				Properties prop = new Properties();
+				InputStream input = new FileInputStream(configFile);
+				try {
+					prop.load(input);
+				}
+				finally {
+					input.close();
+				}
+
+				double simulationTime = Double.parseDouble(prop.getProperty("simulation_time"));
+				int minNumOfMobileDev = Integer.parseInt(prop.getProperty("min_number_of_mobile_devices"));
+				int maxNumOfMobileDev = Integer.parseInt(prop.getProperty("max_number_of_mobile_devices"));
+				int mobileDevCounterSize = Integer.parseInt(prop.getProperty("mobile_device_counter_size"));
+				String[] simScenarios = prop.getProperty("simulation_scenarios").split(",");
+				String[] orchestratorPolicies = prop.getProperty("orchestrator_policies").split(",");
+
+				for(int ite=1; ite<=numOfIterations; ite++) {
+					String iterationFolder = new File(new File(outputFolder, configName), "ite" + ite).getPath();
+					for(int i=minNumOfMobileDev; i<=maxNumOfMobileDev; i+=mobileDevCounterSize)
+						for(int s=0; s<simScenarios.length; s++)
+							for(int p=0; p<orchestratorPolicies.length; p++)
+								jobs.add(new SweepJob(configName, configFile, edgeDevicesFile, applicationsFile, simulationTime,
+										new SweepPoint(iterationFolder, simScenarios[s], orchestratorPolicies[p], ite, i)));
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		return jobs;
+	}
+
+	/**
+	 * Runs the given jobs, longest first, on the given number of worker processes
+	 * and returns the number of failed jobs. Jobs which are already completed
+	 * according to the manifest are skipped.
+	 *
+	 * In adaptive mode, the iterations of each sweep point are released one by
+	 * one after the minimum number of iterations, until the confidence interval
+	 * of the sweep point is narrow enough or all iterations are executed.
+	 */
+	public int launch(List<SweepJob> jobs, int numOfProcesses) throws InterruptedException, IOException {
+		queue = new PriorityBlockingQueue<SweepJob>(Math.max(1, jobs.size()), new Comparator<SweepJob>() {
+			@Override
+			public int compare(SweepJob o1, SweepJob o2) {
+				return Double.compare(o2.getEstimatedCost(), o1.getEstimatedCost());
+			}
+		});
+		numOfUnfinishedJobs = new AtomicInteger(0);
+		numOfExecutedJobs = new AtomicInteger(0);
+		numOfSkippedJobs = 0;
+		numOfCachedJobs = 0;
+
+		for(File configFolder : getConfigFolders(jobs)) {
+			configFolder.mkdirs();
+			appendLine(new File(configFolder, "progress.log"), "STARTED");
+		}
+
+		//jobs of the same sweep point are kept in iteration order
+		groups = new LinkedHashMap<String, SweepPointJobs>();
+		for(SweepJob job : jobs) {
+			String key = getGroupKey(job);
+			if(!groups.containsKey(key))
+				groups.put(key, new SweepPointJobs());
+			groups.get(key).jobs.add(job);
+		}
+		//jobs sharing a warm-up snapshot, i.e. the policies of the same run
+		numOfUnsettledWarmUpJobs = new HashMap<String, Integer>();
+		for(SweepJob job : jobs) {
+			String key = getWarmUpKey(job);
+			Integer numOfJobs = numOfUnsettledWarmUpJobs.get(key);
+			numOfUnsettledWarmUpJobs.put(key, (numOfJobs == null) ? 1 : numOfJobs + 1);
+		}
+
+		for(SweepPointJobs group : groups.values())
+			Collections.sort(group.jobs, new Comparator<SweepJob>() {
+				@Override
+				public int compare(SweepJob o1, SweepJob o2) {
+					return Integer.compare(o1.getPoint().getIterationNumber(), o2.getPoint().getIterationNumber());
+				}
+			});
+
+		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		Date SweepStartDate = Calendar.getInstance().getTime();
+
+		synchronized (this) {
+			for(SweepPointJobs group : groups.values()) {
+				int numOfInitialJobs = group.jobs.size();
+				if(convergence != null)
+					numOfInitialJobs = Math.min(numOfInitialJobs, SweepConvergence.MIN_ITERATIONS);
+				while(group.numOfReleasedJobs < numOfInitialJobs)
+					release(group);
+			}
+		}
+
+		if(numOfSkippedJobs > 0)
+			SimLogger.printLine(numOfSkippedJobs + " of " + jobs.size() + " jobs are already completed, they are skipped");
+		if(numOfCachedJobs > 0)
+			SimLogger.printLine(numOfCachedJobs + " of " + jobs.size() + " jobs are restored from the cache");
+		SimLogger.printLine("Sweep of " + (convergence == null ? "" : "up to ") + jobs.size() + " jobs started at " +
+				df.format(SweepStartDate) + " using " + numOfProcesses + " process(es)" +
+				(numOfSlots > 1 ? " with " + numOfSlots + " slots" : ""));
+
+		ExecutorService workers = Executors.newFixedThreadPool(numOfProcesses);
+		for(int i=0; i<numOfProcesses; i++) {
+			workers.submit(new Runnable() {
+				@Override
+				public void run() {
+					WorkerProcess worker = null;
+					Map<Integer, SweepJob> runningJobs = new HashMap<Integer, SweepJob>();
+					try {
+						//in adaptive mode new jobs may be released while the last jobs are running
+						while(numOfUnfinishedJobs.get() > 0 || !runningJobs.isEmpty()) {
+							//a free slot takes the next job of the queue
+							while(runningJobs.size() < numOfSlots) {
+								SweepJob job = runningJobs.isEmpty() ? queue.poll(100, TimeUnit.MILLISECONDS) : queue.poll();
+								if(job == null)
+									break;
+								worker = startJob(job, worker, runningJobs);
+							}
+
+							if(!runningJobs.isEmpty())
+								worker = finishNextJob(worker, runningJobs);
+						}
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+
+					if(worker != null)
+						worker.stop();
+				}
+			});
+		}
+		workers.shutdown();
+		workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+		//in adaptive mode some of the jobs may not be released at all
+		for(SweepJob job : jobs)
+			if(numOfUnsettledWarmUpJobs.get(getWarmUpKey(job)) > 0)
+				warmUpJobSettled(job, true);
+
+		Date SweepEndDate = Calendar.getInstance().getTime();
+		SimLogger.printLine("Sweep finished at " + df.format(SweepEndDate) +  ". It took " + SimUtils.getTimeDifference(SweepStartDate,SweepEndDate));
+		SimLogger.printLine((numOfExecutedJobs.get() - numOfFailures.get()) + " job(s) succeeded, " + numOfFailures.get() + " job(s) failed");
+		if(convergence != null){
+			int numOfSavedJobs = jobs.size() - numOfExecutedJobs.get() - numOfSkippedJobs - numOfCachedJobs;
+			SimLogger.printLine(numOfSavedJobs + " of " + jobs.size() + " jobs are not needed since their sweep points are converged");
+		}
+
+		return numOfFailures.get();
+	}
+
+	/*
+	 * sets the number of jobs executed at the same time by each worker process
+	 */
+	public void setNumOfSlots(int _numOfSlots) {
+		numOfSlots = _numOfSlots;
+	}
+
+	/*
+	 * enables the adaptive mode; the number of iterations given to createJobs
+	 * becomes the maximum number of iterations of each sweep point
+	 */
+	public void setConvergence(SweepConvergence _convergence) {
+		convergence = _convergence;
+	}
+
+	/*
+	 * releases the next iteration of the sweep point; the job is queued unless it is
+	 * already completed or it is restored from the cache
+	 */
+	private synchronized void release(SweepPointJobs group) throws IOException {
+		SweepJob job = group.jobs.get(group.numOfReleasedJobs++);
+		numOfUnfinishedJobs.incrementAndGet();
+
+		if(manifest.isCompleted(job)){
+			numOfSkippedJobs++;
+			jobFinished(job, true);
+			return;
+		}
+
+		new File(job.getPoint().getOutputFolder()).mkdirs();
+		SweepManifest.deleteResultFiles(job.getPoint());
+		if(cache != null && cache.restore(job)){
+			manifest.jobFinished(job, true);
+			appendLine(new File(new File(outputFolder, job.getConfigName()), "progress.log"),
+					"ite" + job.getPoint().getIterationNumber() + " " + job.getPoint().getName() + " CACHED");
+			numOfCachedJobs++;
+			jobFinished(job, true);
+			return;
+		}
+
+		job.setEstimatedCost(costModel.estimate(job));
+		queue.add(job);
+	}
+
+	/*
+	 * called when a released job is finished, skipped or restored from the cache;
+	 * in adaptive mode the next iteration of the sweep point is released if
+	 * all of its iterations are finished but it is not converged yet
+	 */
+	private synchronized void jobFinished(SweepJob job, boolean succeeded) {
+		SweepPointJobs group = groups.get(getGroupKey(job));
+		group.numOfFinishedJobs++;
+
+		if(convergence != null){
+			if(succeeded){
+				try {
+					group.samples.add(SweepConvergence.readMetrics(job.getPoint()));
+				}
+				catch (Exception e) {
+					SimLogger.printLine("Metrics of job " + job + " cannot be read: " + e.getMessage());
+				}
+			}
+
+			if(group.numOfFinishedJobs == group.numOfReleasedJobs && group.numOfReleasedJobs < group.jobs.size()){
+				if(convergence.isConverged(group.samples)){
+					SimLogger.printLine(getGroupKey(job) + " is converged after " + group.numOfReleasedJobs + " iteration(s)");
+				}
+				else {
+					try {
+						release(group);
+					}
+					catch (IOException e) {
+						SimLogger.printLine("Next iteration of " + getGroupKey(job) + " cannot be released: " + e.getMessage());
+					}
+				}
+			}
+			else if(group.numOfFinishedJobs == group.jobs.size() && !convergence.isConverged(group.samples)){
+				SimLogger.printLine(getGroupKey(job) + " is not converged after the maximum number of iterations");
+			}
+		}
+
+		warmUpJobSettled(job, false);
+
+		//decremented after the next iteration is released, so that the workers do not exit
+		numOfUnfinishedJobs.decrementAndGet();
+	}
+
+	/*
+	 * deletes the warm-up snapshot of the job when the jobs of all policies
+	 * sharing it are settled, or immediately if the sweep is finished
+	 */
+	private synchronized void warmUpJobSettled(SweepJob job, boolean sweepFinished) {
+		String key = getWarmUpKey(job);
+		int numOfJobs = sweepFinished ? 0 : numOfUnsettledWarmUpJobs.get(key) - 1;
+		numOfUnsettledWarmUpJobs.put(key, numOfJobs);
+		if(numOfJobs > 0)
+			return;
+
+		SweepPoint point = job.getPoint();
+		try {
+			SimManager.deleteWarmUpFiles(point.getOutputFolder(), point.getSimScenario(), point.getNumOfMobileDevice(), point.getIterationNumber());
+		}
+		catch (IOException e) {
+			SimLogger.printLine("Warm-up snapshot of job " + job + " cannot be deleted: " + e.getMessage());
+		}
+	}
+
+	/*
+	 * sends the job to a free slot of the given worker process; returns the
+	 * worker process to be used for the next jobs
+	 */
+	private WorkerProcess startJob(SweepJob job, WorkerProcess worker, Map<Integer, SweepJob> runningJobs) {
+		try {
+			manifest.jobStarted(job);
+			numOfExecutedJobs.incrementAndGet();
+
+			if(worker == null)
+				worker = new WorkerProcess(createWorkerCommand());
+			runningJobs.put(worker.submit(SweepWorker.getJobLine(job, getLogFile(job))), job);
+		}
+		catch (IOException e) {
+			SimLogger.printLine("Job " + job + " cannot be executed: " + e.getMessage());
+			jobExecuted(job, -1);
+		}
+		return worker;
+	}
+
+	/*
+	 * waits for the next job finished by the given worker process and records
+	 * its measured cost; if the worker is terminated, its running jobs are
+	 * failed and null is returned, so a new worker is started for the next jobs
+	 */
+	private WorkerProcess finishNextJob(WorkerProcess worker, Map<Integer, SweepJob> runningJobs) {
+		try {
+			long[] result = worker.waitForJob();
+			jobExecuted(runningJobs.remove((int)result[0]), result[1]);
+			return worker;
+		}
+		catch (IOException e) {
+			SimLogger.printLine("Job(s) " + runningJobs.values() + " cannot be executed: " + e.getMessage());
+			worker.kill();
+			for(SweepJob job : runningJobs.values())
+				jobExecuted(job, -1);
+			runningJobs.clear();
+			return null;
+		}
+	}
+
+	/*
+	 * records the result of an executed job, the elapsed time is -1 if the job failed
+	 */
+	private void jobExecuted(SweepJob job, long elapsedTime) {
+		SweepPoint point = job.getPoint();
+		File configFolder = new File(outputFolder, job.getConfigName());
+		boolean succeeded = (elapsedTime >= 0);
+
+		try {
+			manifest.jobFinished(job, succeeded);
+			if(succeeded){
+				costModel.record(job, elapsedTime);
+				if(cache != null)
+					cache.store(job);
+			}
+			else
+				numOfFailures.incrementAndGet();
+
+			appendLine(new File(configFolder, "progress.log"), "ite" + point.getIterationNumber() + " " + point.getName() + (succeeded ? " OK" : " FAIL !!!"));
+		}
+		catch (IOException e) {
+			SimLogger.printLine("Progress of job " + job + " cannot be saved: " + e.getMessage());
+		}
+
+		SimLogger.printLine(job + (succeeded ? " finished in " + elapsedTime/1000 + " seconds" : " FAILED") +
+				" (estimated cost: " + String.format("%.2f", job.getEstimatedCost()) + ")");
+
+		jobFinished(job, succeeded);
+	}
+
+	private File getLogFile(SweepJob job) {
+		SweepPoint point = job.getPoint();
+		File configFolder = new File(outputFolder, job.getConfigName());
+		return new File(configFolder, "ite" + point.getIterationNumber() + "_" + point.getName() + ".log");
+	}
+
+	/*
+	 * worker processes use the same java runtime, class path and JVM options as this process
+	 */
+	private List<String> createWorkerCommand() {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-classpath");
+		command.add(System.getProperty("java.class.path"));
+		command.add(SweepWorker.class.getName());
+		command.add(mainAppClassName);
+		command.add(Integer.toString(numOfSlots));
+		return command;
+	}
+
+	private List<File> getConfigFolders(List<SweepJob> jobs) {
+		List<File> folders = new ArrayList<File>();
+		for(SweepJob job : jobs) {
+			File folder = new File(outputFolder, job.getConfigName());
+			if(!folders.contains(folder))
+				folders.add(folder);
+		}
+		return folders;
+	}
+
+	private static String getWarmUpKey(SweepJob job) {
+		SweepPoint point = job.getPoint();
+		return point.getOutputFolder() + ";" + point.getSimScenario() + ";" + point.getNumOfMobileDevice() + ";" + point.getIterationNumber();
+	}
+
+	private static String getGroupKey(SweepJob job) {
+		SweepPoint point = job.getPoint();
+		return job.getConfigName() + ";" + point.getSimScenario() + ";" + point.getOrchestratorPolicy() + ";" + point.getNumOfMobileDevice();
+	}
+
+	private static synchronized void appendLine(File file, String line) throws IOException {
+		FileWriter writer = new FileWriter(file, true);
+		try {
+			writer.write(line + System.lineSeparator());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	/*
+	 * iterations of a sweep point
+	 */
+	private static class SweepPointJobs {
+		private List<SweepJob> jobs = new ArrayList<SweepJob>();
+		private List<double[]> samples = new ArrayList<double[]>();
+		private int numOfReleasedJobs = 0;
+		private int numOfFinishedJobs = 0;
+	}
+
+	/*
+	 * a long-lived SweepWorker process which receives jobs via its standard input
+	 */
+	private static class WorkerProcess {
+		private Process process;
+		private BufferedWriter input;
+		private BufferedReader output;
+		private int nextJobIndex;
+
+		public WorkerProcess(List<String> command) throws IOException {
+			ProcessBuilder builder = new ProcessBuilder(command);
+			builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+			process = builder.start();
+			input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+			output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+			nextJobIndex = 0;
+		}
+
+		/*
+		 * sends the job to the worker and returns its index
+		 */
+		public int submit(String jobLine) throws IOException {
+			input.write(jobLine);
+			input.newLine();
+			input.flush();
+			return nextJobIndex++;
+		}
+
+		/*
+		 * waits until a job of the worker is finished; returns the index of the
+		 * job and its elapsed time in milliseconds or -1 if the job failed
+		 */
+		public long[] waitForJob() throws IOException {
+			String line;
+			while ((line = output.readLine()) != null) {
+				String[] fields = line.split(";");
+				if(fields.length == 4 && fields[0].equals(SweepWorker.JOB_DONE)){
+					long elapsedTime = fields[1].equals(SweepWorker.JOB_SUCCEEDED) ? Long.parseLong(fields[2]) : -1;
+					return new long[] {Long.parseLong(fields[3]), elapsedTime};
+				}
+			}
+
+			throw new IOException("worker process is terminated unexpectedly");
+		}
+
+		/*
+		 * closes the job queue of the worker and waits until it exits
+		 */
+		public void stop() {
+			try {
+				input.close();
+				process.waitFor();
+			}
+			catch (Exception e) {
+				process.destroy();
+			}
+		}
+
+		public void kill() {
+			process.destroy();
+		}
+	}
+}
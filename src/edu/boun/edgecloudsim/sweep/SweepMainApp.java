@@ -0,0 +1,92 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Main Application
+ *
+ * Description:
+ * Runs all devices x scenarios x policies combinations of a main
+ * application concurrently within a single JVM
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class SweepMainApp {
+
+	/**
+	 * Usage: SweepMainApp mainAppClass configFile edgeDevicesFile applicationsFile outputFolder iterationNumber [numOfThreads]
+	 */
+	public static void main(String[] args) {
+		SimLogger.enablePrintLog();
+
+		if (args.length != 6 && args.length != 7){
+			SimLogger.printLine("Usage: SweepMainApp <main app class> <config file> <edge devices file> <applications file> <output folder> <iteration number> [number of threads]");
+			System.exit(1);
+		}
+
+		String mainAppClassName = args[0];
+		String configFile = args[1];
+		String edgeDevicesFile = args[2];
+		String applicationsFile = args[3];
+		String outputFolder = args[4];
+		int iterationNumber = Integer.parseInt(args[5]);
+		int numOfThreads = Runtime.getRuntime().availableProcessors();
+		if(args.length == 7)
+			numOfThreads = Integer.parseInt(args[6]);
+
+		//settings are loaded here only to create the sweep points,
+		//each run loads its own copy in its simulation context
+		SimSettings SS = SimSettings.getInstance();
+		if(SS.initialize(configFile, edgeDevicesFile, applicationsFile) == false){
+			SimLogger.printLine("cannot initialize simulation settings!");
+			System.exit(1);
+		}
+
+		if(SS.getFileLoggingEnabled())
+			SimUtils.cleanOutputFolder(outputFolder);
+
+		List<SweepPoint> points = SweepPoint.createFullFactorial(outputFolder, iterationNumber);
+
+		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		Date SimulationStartDate = Calendar.getInstance().getTime();
+		String now = df.format(SimulationStartDate);
+		SimLogger.printLine("Sweep of " + points.size() + " simulations started at " + now + " using " + numOfThreads + " thread(s)");
+		SimLogger.printLine("----------------------------------------------------------------------");
+
+		List<SweepResult> results = null;
+		try {
+			SweepExecutor executor = new SweepExecutor(mainAppClassName, configFile, edgeDevicesFile, applicationsFile, numOfThreads);
+			results = executor.execute(points);
+		} catch (InterruptedException e) {
+			SimLogger.printLine("The sweep has been interrupted!");
+			System.exit(1);
+		}
+
+		int numOfFailures = 0;
+		for(SweepResult result : results) {
+			if(!result.isSucceeded()) {
+				numOfFailures++;
+				SimLogger.printLine("The simulation " + result.getPoint() + " has been terminated due to an unexpected error");
+				result.getError().printStackTrace();
+			}
+		}
+
+		Date SimulationEndDate = Calendar.getInstance().getTime();
+		now = df.format(SimulationEndDate);
+		SimLogger.printLine("Sweep finished at " + now +  ". It took " + SimUtils.getTimeDifference(SimulationStartDate,SimulationEndDate));
+		SimLogger.printLine((points.size() - numOfFailures) + " simulation(s) succeeded, " + numOfFailures + " simulation(s) failed");
+
+		if(numOfFailures > 0)
+			System.exit(1);
+	}
+}
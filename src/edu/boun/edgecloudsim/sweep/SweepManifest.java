@@ -0,0 +1,151 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Manifest
+ *
+ * Description:
+ * SweepManifest records the status of the sweep jobs in an append-only
+ * file, so that an interrupted sweep can be resumed. Each line of the
+ * manifest is formatted as follows:
+ * configName;iterationNumber;scenario;policy;numOfMobileDevice;status;checksum
+ *
+ * The checksum is calculated over the result files of the job when it is
+ * completed. A job is skipped on restart only if its last status is
+ * COMPLETED and its result files still have the same checksum.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import edu.boun.edgecloudsim.core.SimCheckpoint;
+
+public class SweepManifest {
+	public static enum JOB_STATUS {
+		STARTED,
+		COMPLETED,
+		FAILED
+	}
+
+	private File manifestFile;
+
+	//last status and checksum of each job
+	private Map<String, String[]> entries;
+
+	public SweepManifest(File _manifestFile) throws IOException {
+		manifestFile = _manifestFile;
+		entries = new HashMap<String, String[]>();
+
+		if(manifestFile.exists()){
+			BufferedReader reader = new BufferedReader(new FileReader(manifestFile));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] fields = line.trim().split(";", -1);
+					//skip corrupted lines, e.g. a line of an interrupted run
+					if(fields.length != 7)
+						continue;
+
+					String key = fields[0] + ";" + fields[1] + ";" + fields[2] + ";" + fields[3] + ";" + fields[4];
+					entries.put(key, new String[] {fields[5], fields[6]});
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+	}
+
+	/*
+	 * returns true if the job is completed and its results are not modified
+	 */
+	public synchronized boolean isCompleted(SweepJob job) throws IOException {
+		String[] entry = entries.get(getKey(job));
+		if(entry == null || !entry[0].equals(JOB_STATUS.COMPLETED.name()))
+			return false;
+
+		return entry[1].equals(calculateChecksum(job.getPoint()));
+	}
+
+	public synchronized void jobStarted(SweepJob job) throws IOException {
+		append(job, JOB_STATUS.STARTED, "");
+	}
+
+	public synchronized void jobFinished(SweepJob job, boolean succeeded) throws IOException {
+		if(succeeded)
+			append(job, JOB_STATUS.COMPLETED, calculateChecksum(job.getPoint()));
+		else
+			append(job, JOB_STATUS.FAILED, "");
+	}
+
+	/*
+	 * result files of a previous, not completed execution of the job must be
+	 * deleted before running it again, since SimLogger appends to the files;
+	 * if the execution is interrupted after a checkpoint, the checkpoint and
+	 * the files appended by it are kept, the job is continued from it
+	 */
+	public static void deleteResultFiles(SweepPoint point) throws IOException {
+		File checkpointFile = new File(point.getOutputFolder(), point.getName() + ".checkpoint");
+		Set<String> keptFiles = SimCheckpoint.getKeptFiles(new File[] {checkpointFile});
+		if(checkpointFile.exists() && !keptFiles.contains(checkpointFile.getName()) && !checkpointFile.delete())
+			throw new IOException("file cannot be deleted: " + checkpointFile.getAbsolutePath());
+
+		for(File file : getResultFiles(point)) {
+			if(!keptFiles.contains(file.getName()) && !file.delete())
+				throw new IOException("file cannot be deleted: " + file.getAbsolutePath());
+		}
+	}
+
+	public static File[] getResultFiles(SweepPoint point) {
+		final String prefix = point.getName() + "_";
+		File[] files = new File(point.getOutputFolder()).listFiles();
+		if(files == null)
+			return new File[0];
+
+		int count = 0;
+		for(int i=0; i<files.length; i++)
+			if(files[i].isFile() && files[i].getName().startsWith(prefix))
+				files[count++] = files[i];
+
+		File[] resultFiles = Arrays.copyOf(files, count);
+		Arrays.sort(resultFiles);
+		return resultFiles;
+	}
+
+	public static String calculateChecksum(SweepPoint point) throws IOException {
+		MessageDigest digest = SweepCache.createDigest();
+		for(File file : getResultFiles(point)) {
+			digest.update(file.getName().getBytes("UTF-8"));
+			SweepCache.updateDigest(digest, file);
+		}
+		return SweepCache.toHex(digest.digest());
+	}
+
+	private void append(SweepJob job, JOB_STATUS status, String checksum) throws IOException {
+		entries.put(getKey(job), new String[] {status.name(), checksum});
+
+		FileWriter writer = new FileWriter(manifestFile, true);
+		try {
+			writer.write(getKey(job) + ";" + status.name() + ";" + checksum + System.lineSeparator());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private static String getKey(SweepJob job) {
+		SweepPoint point = job.getPoint();
+		return job.getConfigName() + ";" + point.getIterationNumber() + ";" + point.getSimScenario() + ";" +
+				point.getOrchestratorPolicy() + ";" + point.getNumOfMobileDevice();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Point
+ *
+ * Description:
+ * SweepPoint represents a single simulation run of a parameter sweep,
+ * which is identified by the scenario, orchestrator policy, number of
+ * mobile devices and iteration number
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class SweepPoint {
+	private String outputFolder;
+	private String simScenario;
+	private String orchestratorPolicy;
+	private int iterationNumber;
+	private int numOfMobileDevice;
+
+	public SweepPoint(String _outputFolder, String _simScenario, String _orchestratorPolicy, int _iterationNumber, int _numOfMobileDevice) {
+		outputFolder = _outputFolder;
+		simScenario = _simScenario;
+		orchestratorPolicy = _orchestratorPolicy;
+		iterationNumber = _iterationNumber;
+		numOfMobileDevice = _numOfMobileDevice;
+	}
+
+	/**
+	 * Creates the sweep points of devices x scenarios x policies defined in
+	 * the settings, in the same order used by the main applications.
+	 * SimSettings must be initialized before calling this method.
+	 */
+	public static List<SweepPoint> createFullFactorial(String outputFolder, int iterationNumber) {
+		SimSettings SS = SimSettings.getInstance();
+		List<SweepPoint> points = new ArrayList<SweepPoint>();
+
+		for(int i=SS.getMinNumOfMobileDev(); i<=SS.getMaxNumOfMobileDev(); i+=SS.getMobileDevCounterSize())
+			for(int s=0; s<SS.getSimulationScenarios().length; s++)
+				for(int p=0; p<SS.getOrchestratorPolicies().length; p++)
+					points.add(new SweepPoint(outputFolder, SS.getSimulationScenarios()[s], SS.getOrchestratorPolicies()[p], iterationNumber, i));
+
+		return points;
+	}
+
+	public String getOutputFolder() {
+		return outputFolder;
+	}
+
+	public String getSimScenario() {
+		return simScenario;
+	}
+
+	public String getOrchestratorPolicy() {
+		return orchestratorPolicy;
+	}
+
+	public int getIterationNumber() {
+		return iterationNumber;
+	}
+
+	public int getNumOfMobileDevice() {
+		return numOfMobileDevice;
+	}
+
+	/*
+	 * returns the name used for the result files of this sweep point
+	 */
+	public String getName() {
+		return "SIMRESULT_" + simScenario + "_"  + orchestratorPolicy + "_" + numOfMobileDevice + "DEVICES";
+	}
+
+	@Override
+	public String toString() {
+		return getName() + " (ite" + iterationNumber + ")";
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Result
+ *
+ * Description:
+ * SweepResult keeps the outcome of a sweep point; the elapsed wall clock
+ * time and the error, if the simulation run failed
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+public class SweepResult {
+	private SweepPoint point;
+	private long elapsedTime;
+	private Throwable error;
+
+	public SweepResult(SweepPoint _point, long _elapsedTime, Throwable _error) {
+		point = _point;
+		elapsedTime = _elapsedTime;
+		error = _error;
+	}
+
+	public SweepPoint getPoint() {
+		return point;
+	}
+
+	/*
+	 * returns the elapsed wall clock time in milliseconds
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	public Throwable getError() {
+		return error;
+	}
+
+	public boolean isSucceeded() {
+		return error == null;
+	}
+}
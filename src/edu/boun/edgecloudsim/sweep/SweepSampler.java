@@ -0,0 +1,308 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Sampler
+ *
+ * Description:
+ * SweepSampler creates a design of experiments over numeric ranges of the
+ * properties in a config file, instead of the full grid of the config.
+ * Samples are generated by latin hypercube sampling or from a Sobol
+ * sequence, so that the parameter space is covered evenly with a small
+ * number of runs. A derived properties file is written for each sample,
+ * together with a simulation.list file; the output folder can be used as
+ * the script root folder of SweepLauncher.
+ *
+ * The design is described in a properties file as follows:
+ * base_config=default_config           (a config listed in simulation.list)
+ * method=LHS|SOBOL                     (LHS by default)
+ * samples=20
+ * seed=1                               (used by LHS)
+ * range.wlan_bandwidth=100,400
+ * range.number_of_mobile_devices=200,2000
+ *
+ * The values of a range are written as integers if both bounds are
+ * integers. number_of_mobile_devices sets both min and max number of
+ * mobile devices of the derived config.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class SweepSampler {
+	public static enum SAMPLING_METHOD { LHS, SOBOL }
+
+	public static final String RANGE_PREFIX = "range.";
+	public static final String NUM_OF_MOBILE_DEVICES = "number_of_mobile_devices";
+	public static final String SAMPLES_FILE = "samples.log";
+
+	private List<String> names;
+	private List<double[]> ranges;
+	private List<Boolean> integerRanges;
+
+	public SweepSampler() {
+		names = new ArrayList<String>();
+		ranges = new ArrayList<double[]>();
+		integerRanges = new ArrayList<Boolean>();
+	}
+
+	/**
+	 * Usage: SweepSampler scriptRootFolder designFile outputFolder
+	 */
+	public static void main(String[] args) {
+		SimLogger.enablePrintLog();
+
+		if (args.length != 3){
+			SimLogger.printLine("Usage: SweepSampler <script root folder> <design file> <output folder>");
+			System.exit(1);
+		}
+
+		try {
+			int numOfSamples = createDesign(new File(args[0]), new File(args[1]), new File(args[2]));
+			SimLogger.printLine(numOfSamples + " sample configs are written to " + args[2]);
+		}
+		catch (Exception e) {
+			SimLogger.printLine("The design cannot be created due to an unexpected error");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Writes the derived config files of the design and a simulation.list
+	 * file to the output folder; returns the number of samples.
+	 */
+	public static int createDesign(File scriptRootFolder, File designFile, File outputFolder) throws IOException {
+		Properties design = loadProperties(designFile);
+		String baseConfigName = design.getProperty("base_config");
+		if(baseConfigName == null)
+			throw new SimulationException("base_config is not defined in " + designFile.getPath());
+
+		String[] listEntry = findListEntry(new File(scriptRootFolder, SweepLauncher.SIMULATION_LIST_FILE), baseConfigName);
+		File configFolder = new File(scriptRootFolder, "config");
+		Properties baseConfig = loadProperties(new File(configFolder, baseConfigName + ".properties"));
+
+		SweepSampler sampler = new SweepSampler();
+		//ranges are sorted by name so that the design does not depend on the file order
+		for(String key : new TreeSet<String>(design.stringPropertyNames())) {
+			if(!key.startsWith(RANGE_PREFIX))
+				continue;
+
+			String name = key.substring(RANGE_PREFIX.length());
+			String[] bounds = design.getProperty(key).split(",");
+			if(bounds.length != 2)
+				throw new SimulationException("invalid range of " + name + ": " + design.getProperty(key));
+			if(!name.equals(NUM_OF_MOBILE_DEVICES) && baseConfig.getProperty(name) == null)
+				throw new SimulationException(name + " is not a property of " + baseConfigName);
+
+			sampler.addRange(name, bounds[0].trim(), bounds[1].trim());
+		}
+		if(sampler.names.isEmpty())
+			throw new SimulationException("no range is defined in " + designFile.getPath());
+
+		int numOfSamples = Integer.parseInt(design.getProperty("samples"));
+		SAMPLING_METHOD method = SAMPLING_METHOD.valueOf(design.getProperty("method", SAMPLING_METHOD.LHS.name()).trim());
+		long seed = Long.parseLong(design.getProperty("seed", "1"));
+		List<double[]> samples = sampler.createSamples(method, numOfSamples, new Random(seed));
+
+		//derived configs use the same xml files
+		File sampleConfigFolder = new File(outputFolder, "config");
+		sampleConfigFolder.mkdirs();
+		copyFile(new File(configFolder, listEntry[1]), new File(sampleConfigFolder, listEntry[1]));
+		copyFile(new File(configFolder, listEntry[2]), new File(sampleConfigFolder, listEntry[2]));
+
+		StringBuilder simulationList = new StringBuilder();
+		StringBuilder samplesLog = new StringBuilder("config");
+		for(String name : sampler.names)
+			samplesLog.append(";").append(name);
+		samplesLog.append(System.lineSeparator());
+
+		for(int i=0; i<samples.size(); i++) {
+			String configName = String.format("%s_s%03d", baseConfigName, i + 1);
+			Properties config = new Properties();
+			config.putAll(baseConfig);
+			samplesLog.append(configName);
+
+			for(int d=0; d<sampler.names.size(); d++) {
+				String value = sampler.getValue(d, samples.get(i)[d]);
+				if(sampler.names.get(d).equals(NUM_OF_MOBILE_DEVICES)){
+					config.setProperty("min_number_of_mobile_devices", value);
+					config.setProperty("max_number_of_mobile_devices", value);
+				}
+				else {
+					config.setProperty(sampler.names.get(d), value);
+				}
+				samplesLog.append(";").append(value);
+			}
+			samplesLog.append(System.lineSeparator());
+
+			writeConfig(new File(sampleConfigFolder, configName + ".properties"), config,
+					"sample " + (i + 1) + " of " + designFile.getName() + ", derived from " + baseConfigName);
+			simulationList.append(configName + ";" + listEntry[1] + ";" + listEntry[2] + System.lineSeparator());
+		}
+
+		writeFile(new File(outputFolder, SweepLauncher.SIMULATION_LIST_FILE), simulationList.toString());
+		writeFile(new File(outputFolder, SAMPLES_FILE), samplesLog.toString());
+
+		return samples.size();
+	}
+
+	public void addRange(String name, String min, String max) {
+		names.add(name);
+		ranges.add(new double[] {Double.parseDouble(min), Double.parseDouble(max)});
+		integerRanges.add(isInteger(min) && isInteger(max));
+	}
+
+	/**
+	 * Returns the samples in the unit hypercube, one value per range
+	 */
+	public List<double[]> createSamples(SAMPLING_METHOD method, int numOfSamples, Random random) {
+		switch(method){
+		case LHS:
+			return createLatinHypercube(numOfSamples, names.size(), random);
+		case SOBOL:
+			return createSobolSequence(numOfSamples, names.size());
+		default:
+			throw new SimulationException("Unknown sampling method: " + method);
+		}
+	}
+
+	/*
+	 * each dimension is divided into numOfSamples strata and each stratum
+	 * is sampled exactly once
+	 */
+	public static List<double[]> createLatinHypercube(int numOfSamples, int numOfDimensions, Random random) {
+		List<double[]> samples = new ArrayList<double[]>();
+		for(int i=0; i<numOfSamples; i++)
+			samples.add(new double[numOfDimensions]);
+
+		for(int d=0; d<numOfDimensions; d++) {
+			int[] strata = new int[numOfSamples];
+			for(int i=0; i<numOfSamples; i++)
+				strata[i] = i;
+
+			//Fisher-Yates shuffle
+			for(int i=numOfSamples-1; i>0; i--) {
+				int j = random.nextInt(i + 1);
+				int temp = strata[i];
+				strata[i] = strata[j];
+				strata[j] = temp;
+			}
+
+			for(int i=0; i<numOfSamples; i++)
+				samples.get(i)[d] = (strata[i] + random.nextDouble()) / numOfSamples;
+		}
+
+		return samples;
+	}
+
+	/*
+	 * the first point of the sequence (origin) is skipped
+	 */
+	public static List<double[]> createSobolSequence(int numOfSamples, int numOfDimensions) {
+		SobolSequenceGenerator generator = new SobolSequenceGenerator(numOfDimensions);
+		generator.nextVector();
+
+		List<double[]> samples = new ArrayList<double[]>();
+		for(int i=0; i<numOfSamples; i++)
+			samples.add(generator.nextVector());
+
+		return samples;
+	}
+
+	/*
+	 * maps the unit value to the range of the given dimension
+	 */
+	String getValue(int dimension, double unitValue) {
+		double[] range = ranges.get(dimension);
+		if(integerRanges.get(dimension)){
+			long min = (long)range[0];
+			long max = (long)range[1];
+			return Long.toString(Math.min(max, min + (long)Math.floor(unitValue * (max - min + 1))));
+		}
+
+		return Double.toString(range[0] + unitValue * (range[1] - range[0]));
+	}
+
+	private static boolean isInteger(String value) {
+		try {
+			Long.parseLong(value);
+			return true;
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	static String[] findListEntry(File listFile, String configName) throws IOException {
+		BufferedReader reader = new BufferedReader(new FileReader(listFile));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.trim().split(";");
+				if(fields.length == 3 && fields[0].equals(configName))
+					return fields;
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		throw new SimulationException(configName + " is not listed in " + listFile.getPath());
+	}
+
+	static Properties loadProperties(File file) throws IOException {
+		Properties prop = new Properties();
+		InputStream input = new FileInputStream(file);
+		try {
+			prop.load(input);
+		}
+		finally {
+			input.close();
+		}
+		return prop;
+	}
+
+	static void writeConfig(File file, Properties config, String comment) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			config.store(writer, comment);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	static void copyFile(File source, File target) throws IOException {
+		Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	static void writeFile(File file, String content) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
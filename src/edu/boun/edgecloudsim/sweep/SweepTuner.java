@@ -0,0 +1,299 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Tuner
+ *
+ * Description:
+ * SweepTuner searches the tunable constants of an orchestrator policy,
+ * e.g. orchestrator_wan_bw_threshold or mab_beta, for the lowest average
+ * service time by successive halving. The candidates are sampled by latin
+ * hypercube sampling and simulated in parallel with a short simulation
+ * time. Only the best 1/reduction_factor of the candidates are simulated
+ * again with a reduction_factor times longer simulation time, so poor
+ * candidates are dropped by their results of the short runs.
+ *
+ * The tuning is described in a properties file as follows:
+ * base_config=default_config           (a config listed in simulation.list)
+ * simulation_scenario=TWO_TIER_WITH_EO
+ * orchestrator_policy=HYBRID
+ * number_of_mobile_devices=1000
+ * candidates=27
+ * reduction_factor=3
+ * min_simulation_time=5                (minutes, first round)
+ * max_simulation_time=45               (minutes, last round)
+ * iterations=1                         (iterations of each candidate per round)
+ * seed=1
+ * max_failed_task_percentage=10        (optional, candidates above it are dropped)
+ * param.orchestrator_wan_bw_threshold=2,12
+ * param.orchestrator_utilization_threshold=50,95
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeSet;
+
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class SweepTuner {
+	public static final String PARAM_PREFIX = "param.";
+	public static final String TUNING_LOG_FILE = "tuning.log";
+	public static final String BEST_CONFIG_FILE = "best_config.properties";
+
+	private String mainAppClassName;
+	private File scriptRootFolder;
+	private File outputFolder;
+	private int numOfProcesses;
+
+	public SweepTuner(String _mainAppClassName, File _scriptRootFolder, File _outputFolder, int _numOfProcesses) {
+		mainAppClassName = _mainAppClassName;
+		scriptRootFolder = _scriptRootFolder;
+		outputFolder = _outputFolder;
+		numOfProcesses = _numOfProcesses;
+	}
+
+	/**
+	 * Usage: SweepTuner mainAppClass scriptRootFolder tuningFile outputFolder numOfProcesses
+	 */
+	public static void main(String[] args) {
+		SimLogger.enablePrintLog();
+
+		if (args.length != 5){
+			SimLogger.printLine("Usage: SweepTuner <main app class> <script root folder> <tuning file> <output folder> <number of processes>");
+			System.exit(1);
+		}
+
+		try {
+			SweepTuner tuner = new SweepTuner(args[0], new File(args[1]), new File(args[3]), Integer.parseInt(args[4]));
+			tuner.tune(new File(args[2]));
+		}
+		catch (Exception e) {
+			SimLogger.printLine("The tuning has been terminated due to an unexpected error");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs the successive halving rounds and writes the config of the best
+	 * candidate to the output folder; returns the best candidate.
+	 */
+	public Candidate tune(File tuningFile) throws IOException, InterruptedException {
+		Properties tuning = SweepSampler.loadProperties(tuningFile);
+		String baseConfigName = getRequiredProperty(tuning, "base_config");
+		String simScenario = getRequiredProperty(tuning, "simulation_scenario");
+		String orchestratorPolicy = getRequiredProperty(tuning, "orchestrator_policy");
+		String numOfMobileDevices = getRequiredProperty(tuning, "number_of_mobile_devices");
+		int numOfCandidates = Integer.parseInt(getRequiredProperty(tuning, "candidates"));
+		int reductionFactor = Integer.parseInt(tuning.getProperty("reduction_factor", "3"));
+		double minSimulationTime = Double.parseDouble(getRequiredProperty(tuning, "min_simulation_time"));
+		double maxSimulationTime = Double.parseDouble(getRequiredProperty(tuning, "max_simulation_time"));
+		int numOfIterations = Integer.parseInt(tuning.getProperty("iterations", "1"));
+		long seed = Long.parseLong(tuning.getProperty("seed", "1"));
+		double maxFailedTaskPercentage = Double.parseDouble(tuning.getProperty("max_failed_task_percentage", "100"));
+
+		if(reductionFactor < 2)
+			throw new SimulationException("reduction_factor must be at least 2");
+
+		String[] listEntry = SweepSampler.findListEntry(new File(scriptRootFolder, SweepLauncher.SIMULATION_LIST_FILE), baseConfigName);
+		File configFolder = new File(scriptRootFolder, "config");
+		Properties baseConfig = SweepSampler.loadProperties(new File(configFolder, baseConfigName + ".properties"));
+
+		//tunable parameters are sampled in the same way as the design of experiments
+		SweepSampler sampler = new SweepSampler();
+		List<String> paramNames = new ArrayList<String>();
+		for(String key : new TreeSet<String>(tuning.stringPropertyNames())) {
+			if(!key.startsWith(PARAM_PREFIX))
+				continue;
+
+			String[] bounds = tuning.getProperty(key).split(",");
+			if(bounds.length != 2)
+				throw new SimulationException("invalid range of " + key + ": " + tuning.getProperty(key));
+
+			paramNames.add(key.substring(PARAM_PREFIX.length()));
+			sampler.addRange(key.substring(PARAM_PREFIX.length()), bounds[0].trim(), bounds[1].trim());
+		}
+		if(paramNames.isEmpty())
+			throw new SimulationException("no parameter is defined in " + tuningFile.getPath());
+
+		List<Candidate> candidates = new ArrayList<Candidate>();
+		List<double[]> samples = sampler.createSamples(SweepSampler.SAMPLING_METHOD.LHS, numOfCandidates, new Random(seed));
+		for(int i=0; i<samples.size(); i++) {
+			Candidate candidate = new Candidate(String.format("%s_c%03d", baseConfigName, i + 1));
+			for(int d=0; d<paramNames.size(); d++)
+				candidate.params.setProperty(paramNames.get(d), sampler.getValue(d, samples.get(i)[d]));
+			candidates.add(candidate);
+		}
+
+		SweepCostModel costModel = new SweepCostModel(new File(scriptRootFolder, SweepLauncher.COST_HISTORY_FILE));
+		SweepCache cache = new SweepCache(new File(scriptRootFolder, SweepLauncher.CACHE_FOLDER), SweepCache.calculateBuildFingerprint());
+		File tuningLog = new File(outputFolder, TUNING_LOG_FILE);
+		appendLine(tuningLog, "round;simulationTime;config;" + String.join(";", paramNames) + ";serviceTime;failedTaskPercentage");
+
+		double simulationTime = minSimulationTime;
+		for(int round=1; ; round++) {
+			SimLogger.printLine("Round " + round + ": " + candidates.size() + " candidate(s) with " + simulationTime + " minute(s) simulation time");
+
+			//each round is a separate script root with the derived configs of the candidates
+			File roundFolder = new File(outputFolder, "round" + round);
+			File roundConfigFolder = new File(roundFolder, "config");
+			roundConfigFolder.mkdirs();
+			SweepSampler.copyFile(new File(configFolder, listEntry[1]), new File(roundConfigFolder, listEntry[1]));
+			SweepSampler.copyFile(new File(configFolder, listEntry[2]), new File(roundConfigFolder, listEntry[2]));
+
+			StringBuilder simulationList = new StringBuilder();
+			for(Candidate candidate : candidates) {
+				Properties config = new Properties();
+				config.putAll(baseConfig);
+				config.putAll(candidate.params);
+				config.setProperty("simulation_scenarios", simScenario);
+				config.setProperty("orchestrator_policies", orchestratorPolicy);
+				config.setProperty("min_number_of_mobile_devices", numOfMobileDevices);
+				config.setProperty("max_number_of_mobile_devices", numOfMobileDevices);
+				config.setProperty("simulation_time", Double.toString(simulationTime));
+				//warm up period must be shorter than the short runs
+				double warmUpPeriod = Double.parseDouble(baseConfig.getProperty("warm_up_period"));
+				config.setProperty("warm_up_period", Double.toString(Math.min(warmUpPeriod, simulationTime / 3)));
+
+				SweepSampler.writeConfig(new File(roundConfigFolder, candidate.name + ".properties"), config,
+						"candidate of " + tuningFile.getName() + " for round " + round);
+				simulationList.append(candidate.name + ";" + listEntry[1] + ";" + listEntry[2] + System.lineSeparator());
+			}
+			SweepSampler.writeFile(new File(roundFolder, SweepLauncher.SIMULATION_LIST_FILE), simulationList.toString());
+
+			List<SweepJob> jobs = SweepLauncher.createJobs(roundFolder, roundFolder, numOfIterations);
+			SweepLauncher launcher = new SweepLauncher(mainAppClassName, roundFolder, costModel, cache);
+			launcher.launch(jobs, numOfProcesses);
+
+			for(Candidate candidate : candidates) {
+				candidate.evaluate(jobs, maxFailedTaskPercentage);
+				StringBuilder line = new StringBuilder(round + ";" + simulationTime + ";" + candidate.name);
+				for(String name : paramNames)
+					line.append(";").append(candidate.params.getProperty(name));
+				line.append(";" + candidate.serviceTime + ";" + candidate.failedTaskPercentage);
+				appendLine(tuningLog, line.toString());
+			}
+
+			Collections.sort(candidates, new Comparator<Candidate>() {
+				@Override
+				public int compare(Candidate o1, Candidate o2) {
+					return Double.compare(o1.score, o2.score);
+				}
+			});
+
+			if(candidates.size() == 1 || simulationTime >= maxSimulationTime)
+				break;
+
+			candidates = new ArrayList<Candidate>(candidates.subList(0, Math.max(1, candidates.size() / reductionFactor)));
+			simulationTime = Math.min(maxSimulationTime, simulationTime * reductionFactor);
+		}
+
+		Candidate best = candidates.get(0);
+		if(Double.isInfinite(best.score))
+			throw new SimulationException("no candidate satisfies the constraints of " + tuningFile.getName());
+
+		Properties bestConfig = new Properties();
+		bestConfig.putAll(baseConfig);
+		bestConfig.putAll(best.params);
+		SweepSampler.writeConfig(new File(outputFolder, BEST_CONFIG_FILE), bestConfig,
+				"best candidate of " + tuningFile.getName() + ", service time: " + best.serviceTime);
+
+		SimLogger.printLine("Best candidate is " + best.name + " " + best.params + " with " +
+				String.format("%.4f", best.serviceTime) + " seconds service time and " +
+				String.format("%.2f", best.failedTaskPercentage) + "% failed tasks");
+
+		return best;
+	}
+
+	private static String getRequiredProperty(Properties prop, String key) {
+		String value = prop.getProperty(key);
+		if(value == null)
+			throw new SimulationException(key + " is not defined in the tuning file");
+		return value.trim();
+	}
+
+	private static void appendLine(File file, String line) throws IOException {
+		FileWriter writer = new FileWriter(file, true);
+		try {
+			writer.write(line + System.lineSeparator());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	/*
+	 * a set of parameter values and its results of the last round
+	 */
+	public static class Candidate {
+		private String name;
+		private Properties params;
+		private double serviceTime;
+		private double failedTaskPercentage;
+		private double score;
+
+		public Candidate(String _name) {
+			name = _name;
+			params = new Properties();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Properties getParams() {
+			return params;
+		}
+
+		public double getServiceTime() {
+			return serviceTime;
+		}
+
+		/*
+		 * averages the results of all iterations; a candidate with a failed
+		 * run or too many failed tasks is ranked last
+		 */
+		private void evaluate(List<SweepJob> jobs, double maxFailedTaskPercentage) {
+			int numOfResults = 0;
+			boolean failed = false;
+			serviceTime = 0;
+			failedTaskPercentage = 0;
+
+			for(SweepJob job : jobs) {
+				if(!job.getConfigName().equals(name))
+					continue;
+
+				try {
+					double[] metrics = SweepConvergence.readMetrics(job.getPoint());
+					serviceTime += metrics[0];
+					failedTaskPercentage += metrics[1];
+					numOfResults++;
+				}
+				catch (Exception e) {
+					SimLogger.printLine("Results of " + job + " cannot be read: " + e.getMessage());
+					failed = true;
+				}
+			}
+
+			if(numOfResults > 0){
+				serviceTime /= numOfResults;
+				failedTaskPercentage /= numOfResults;
+			}
+
+			if(failed || numOfResults == 0 || failedTaskPercentage > maxFailedTaskPercentage)
+				score = Double.POSITIVE_INFINITY;
+			else
+				score = serviceTime;
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Worker
+ *
+ * Description:
+ * SweepWorker is a long-lived process which executes sweep jobs one
+ * after another. The jobs are read from the standard input, so the
+ * queue can be a pipe of SweepLauncher or a job file. The compiled
+ * classes, the simulation settings and the weka models are loaded once
+ * and kept while consecutive jobs use the same configuration files;
+ * JVM startup and JIT warm-up are not paid for each job.
+ *
+ * A worker can run more than one job at the same time on its slots,
+ * e.g. the replications of a sweep point. Each slot has its own
+ * SimulationContext, the libraries, the JIT compiled code and the heap
+ * of the JVM are shared, so an additional slot costs only the state of
+ * a simulation run.
+ *
+ * Each input line describes a job as follows:
+ * configFile;edgeDevicesFile;applicationsFile;outputFolder;iterationNumber;scenario;policy;numOfMobileDevice;logFile
+ *
+ * The console output of the job is written to the log file and the
+ * result is reported on the standard output as follows, where jobIndex
+ * is the index of the job line in the input starting from zero:
+ * DONE;OK|FAIL;elapsedTime;jobIndex
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.core.SimulationException;
+
+public class SweepWorker {
+	public static final String JOB_DONE = "DONE";
+	public static final String JOB_SUCCEEDED = "OK";
+	public static final String JOB_FAILED = "FAIL";
+
+	private String mainAppClassName;
+	private PrintStream protocolOut;
+	private JobOutputStream jobOutput;
+	private List<SimulationContext> contexts;
+	private ThreadLocal<Slot> slots;
+
+	private SweepWorker(String _mainAppClassName, PrintStream _protocolOut, JobOutputStream _jobOutput) {
+		mainAppClassName = _mainAppClassName;
+		protocolOut = _protocolOut;
+		jobOutput = _jobOutput;
+		contexts = new ArrayList<SimulationContext>();
+		slots = new ThreadLocal<Slot>();
+	}
+
+	/**
+	 * Usage: SweepWorker mainAppClass [numOfSlots]
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length != 1 && args.length != 2){
+			System.err.println("Usage: SweepWorker <main app class> [number of slots]");
+			System.exit(1);
+		}
+
+		int numOfSlots = (args.length == 2) ? Integer.parseInt(args[1]) : 1;
+
+		//console output of the simulation is written to the log file of the job
+		//which is running on the current thread
+		PrintStream protocolOut = System.out;
+		JobOutputStream jobOutput = new JobOutputStream(System.err);
+		PrintStream jobPrintStream = new PrintStream(jobOutput, true);
+		System.setOut(jobPrintStream);
+		System.setErr(jobPrintStream);
+
+		final SweepWorker worker = new SweepWorker(args[0], protocolOut, jobOutput);
+		final boolean suggestGc = (numOfSlots == 1);
+		ExecutorService executor = Executors.newFixedThreadPool(numOfSlots);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+
+		int jobIndex = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if(line.isEmpty())
+				continue;
+
+			final String jobLine = line;
+			final int index = jobIndex++;
+			executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					worker.runJob(jobLine, index);
+
+					//suggest garbage collector to run in order to decrease heap memory
+					if(suggestGc)
+						System.gc();
+				}
+			});
+		}
+
+		executor.shutdown();
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		worker.close();
+	}
+
+	/*
+	 * runs the job on the slot of the current thread and reports its result
+	 */
+	private void runJob(String jobLine, int jobIndex) {
+		String[] fields = jobLine.split(";", -1);
+		boolean succeeded = false;
+		long startTime = System.currentTimeMillis();
+
+		PrintStream log = null;
+		try {
+			if(fields.length != 9)
+				throw new SimulationException("Invalid job description: " + jobLine);
+
+			log = new PrintStream(new FileOutputStream(fields[8]), true);
+			jobOutput.setOutput(log);
+
+			Slot slot = getSlot();
+
+			//settings and weka models are loaded only if they are changed
+			String settings = fields[0] + ";" + fields[1] + ";" + fields[2];
+			if(!settings.equals(slot.loadedSettings)){
+				slot.loadedSettings = null;
+				if(slot.context.initialize(fields[0], fields[1], fields[2], true) == false)
+					throw new SimulationException("cannot initialize simulation settings!");
+				slot.loadedSettings = settings;
+			}
+
+			slot.context.run(fields[3], fields[5], fields[6], Integer.parseInt(fields[4]), Integer.parseInt(fields[7]));
+			succeeded = true;
+		}
+		catch (Exception e) {
+			System.out.println("The simulation has been terminated due to an unexpected error");
+			e.printStackTrace();
+		}
+		finally {
+			jobOutput.setOutput(null);
+			if(log != null)
+				log.close();
+		}
+
+		synchronized (protocolOut) {
+			protocolOut.println(JOB_DONE + ";" + (succeeded ? JOB_SUCCEEDED : JOB_FAILED) + ";" + (System.currentTimeMillis() - startTime) + ";" + jobIndex);
+			protocolOut.flush();
+		}
+	}
+
+	private Slot getSlot() {
+		Slot slot = slots.get();
+		if(slot == null){
+			slot = new Slot(new SimulationContext(mainAppClassName));
+			slots.set(slot);
+			synchronized (contexts) {
+				contexts.add(slot.context);
+			}
+		}
+		return slot;
+	}
+
+	private void close() throws IOException {
+		synchronized (contexts) {
+			for(SimulationContext context : contexts)
+				context.close();
+		}
+	}
+
+	/*
+	 * returns the input line of the given job
+	 */
+	public static String getJobLine(SweepJob job, File logFile) {
+		SweepPoint point = job.getPoint();
+		return job.getConfigFile() + ";" + job.getEdgeDevicesFile() + ";" + job.getApplicationsFile() + ";" +
+				point.getOutputFolder() + ";" + point.getIterationNumber() + ";" + point.getSimScenario() + ";" +
+				point.getOrchestratorPolicy() + ";" + point.getNumOfMobileDevice() + ";" + logFile.getPath();
+	}
+
+	/*
+	 * simulation context of a slot and the settings loaded into it
+	 */
+	private static class Slot {
+		private SimulationContext context;
+		private String loadedSettings;
+
+		public Slot(SimulationContext _context) {
+			context = _context;
+			loadedSettings = null;
+		}
+	}
+
+	/*
+	 * forwards the output to the stream of the current thread; the output of
+	 * a thread without a stream is forwarded to the default stream
+	 */
+	private static class JobOutputStream extends OutputStream {
+		private OutputStream defaultOutput;
+		private ThreadLocal<OutputStream> output;
+
+		public JobOutputStream(OutputStream _defaultOutput) {
+			defaultOutput = _defaultOutput;
+			output = new ThreadLocal<OutputStream>();
+		}
+
+		public void setOutput(OutputStream stream) {
+			output.set(stream);
+		}
+
+		private OutputStream getOutput() {
+			OutputStream stream = output.get();
+			return (stream == null) ? defaultOutput : stream;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			getOutput().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			getOutput().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			getOutput().flush();
+		}
+	}
+}
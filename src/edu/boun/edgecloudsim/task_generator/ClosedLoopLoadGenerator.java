@@ -0,0 +1,84 @@
+/*
+ * Title:        EdgeCloudSim - Closed Loop Load Generator
+ *
+ * Description:
+ * ClosedLoopLoadGenerator is a process load generator where each mobile
+ * device waits for the result of its task before it creates the next one.
+ * Each device utilizes an app type (task type) as in the idle/active load
+ * generator; after a think time drawn from the exponential distribution
+ * of the poisson interarrival mean of its task type, the device submits a
+ * task and waits until it is completed or failed.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+import org.apache.commons.math3.distribution.ExponentialDistribution;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class ClosedLoopLoadGenerator extends ProcessLoadGenerator {
+	private int[] taskTypeOfDevices;
+	private DeviceProgram[] programsOfTaskTypes;
+
+	public ClosedLoopLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
+		super(_numberOfMobileDevices, _simulationTime, _simScenario);
+	}
+
+	@Override
+	public void initializeModel() {
+		double[][] taskLookUpTable = SimSettings.getInstance().getTaskLookUpTable();
+
+		//the devices having the same task type share their program
+		programsOfTaskTypes = new DeviceProgram[taskLookUpTable.length];
+		for(int i=0; i<taskLookUpTable.length; i++) {
+			if(taskLookUpTable[i][0] ==0)
+				continue;
+
+			ExponentialDistribution thinkTimeRng = new ExponentialDistribution(
+					SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), taskLookUpTable[i][2]);
+			programsOfTaskTypes[i] = new DeviceProgram().hold(thinkTimeRng).submitTask(i).awaitTasks().repeat();
+		}
+
+		//Each mobile device utilizes an app type (task type)
+		taskTypeOfDevices = new int[numberOfMobileDevices];
+		for(int i=0; i<numberOfMobileDevices; i++) {
+			int randomTaskType = -1;
+			double taskTypeSelector = SimUtils.getRandomDoubleNumber(SimUtils.RNG_STREAM.TASK_GENERATION, 0,100);
+			double taskTypePercentage = 0;
+			for (int j=0; j<taskLookUpTable.length; j++) {
+				taskTypePercentage += taskLookUpTable[j][0];
+				if(taskTypeSelector <= taskTypePercentage){
+					randomTaskType = j;
+					break;
+				}
+			}
+			if(randomTaskType == -1){
+				SimLogger.printLine("Impossible is occurred! no random task type!");
+				taskTypeOfDevices[i] = -1;
+				continue;
+			}
+
+			taskTypeOfDevices[i] = randomTaskType;
+		}
+
+		super.initializeModel();
+	}
+
+	@Override
+	protected DeviceProgram getProgram(int deviceId) {
+		if(taskTypeOfDevices[deviceId] == -1)
+			return null;
+
+		return programsOfTaskTypes[taskTypeOfDevices[deviceId]];
+	}
+
+	@Override
+	public int getTaskTypeOfDevice(int deviceId) {
+		return taskTypeOfDevices[deviceId];
+	}
+}
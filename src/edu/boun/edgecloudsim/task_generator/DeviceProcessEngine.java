@@ -0,0 +1,165 @@
+/*
+ * Title:        EdgeCloudSim - Device Process Engine
+ *
+ * Description:
+ * DeviceProcessEngine runs the programs of the mobile devices as
+ * processes in simulated time. A device runs the steps of its program
+ * until a step holds it or waits for its running tasks; then the device
+ * is suspended and resumed by a single event, when the hold time is over
+ * or when its last running task is completed or failed.
+ *
+ * The state of a device is its position in its program and the number of
+ * its running tasks, so no thread or object is created per device. The
+ * devices are resumed in the order of their events; the devices resumed
+ * at the same time keep the order in which their events are scheduled,
+ * so the runs are deterministic.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class DeviceProcessEngine extends SimEntity {
+	private static final int RESUME_DEVICE = 0;
+
+	private ProcessLoadGenerator loadGenerator;
+	private DeviceProgram[] programs;
+	private Integer[] deviceIds; //event data of the devices, boxed once
+	private int[] nextSteps;
+	private int[] numOfRunningTasks;
+	private boolean[] awaitingTasks;
+	private boolean[] lastTaskCompleted;
+
+	public DeviceProcessEngine(ProcessLoadGenerator _loadGenerator, DeviceProgram[] _programs) {
+		super("DeviceProcessEngine");
+		loadGenerator = _loadGenerator;
+		programs = _programs;
+		deviceIds = new Integer[programs.length];
+		nextSteps = new int[programs.length];
+		numOfRunningTasks = new int[programs.length];
+		awaitingTasks = new boolean[programs.length];
+		lastTaskCompleted = new boolean[programs.length];
+		for(int i=0; i<programs.length; i++)
+			deviceIds[i] = i;
+	}
+
+	@Override
+	public void startEntity() {
+		//the devices are started when the clients become active
+		for(int i=0; i<programs.length; i++)
+			if(programs[i] != null)
+				schedule(getId(), SimSettings.CLIENT_ACTIVITY_START_TIME, RESUME_DEVICE, deviceIds[i]);
+	}
+
+	@Override
+	public void processEvent(SimEvent ev) {
+		switch (ev.getTag()) {
+			case RESUME_DEVICE:
+				resume((Integer) ev.getData());
+				break;
+			default:
+				SimLogger.printLine(getName() + ": unknown event type");
+				break;
+		}
+	}
+
+	@Override
+	public void shutdownEntity() {
+	}
+
+	/**
+	 * Creates a task of the given type for the device and submits it to
+	 * the mobile device manager
+	 */
+	public void submitTask(int deviceId, int taskType) {
+		//the task may fail before submitTask returns
+		numOfRunningTasks[deviceId]++;
+		SimManager.getInstance().getMobileDeviceManager().submitTask(
+				loadGenerator.createTask(deviceId, taskType, CloudSim.clock()));
+	}
+
+	/**
+	 * Resumes the device if it waits for this task
+	 */
+	public void taskEnded(Task task, boolean completed) {
+		int deviceId = task.getMobileDeviceId();
+		if(numOfRunningTasks[deviceId] == 0)
+			return;
+
+		numOfRunningTasks[deviceId]--;
+		lastTaskCompleted[deviceId] = completed;
+
+		//the device is resumed by an event, not inside the lifecycle of the task
+		if(awaitingTasks[deviceId] && numOfRunningTasks[deviceId] == 0){
+			awaitingTasks[deviceId] = false;
+			schedule(getId(), 0, RESUME_DEVICE, deviceIds[deviceId]);
+		}
+	}
+
+	/**
+	 * Returns the number of the tasks of the device which are not
+	 * completed or failed yet
+	 */
+	public int getNumOfRunningTasks(int deviceId) {
+		return numOfRunningTasks[deviceId];
+	}
+
+	/**
+	 * Returns true if the last ended task of the device is completed,
+	 * false if it is failed
+	 */
+	public boolean isLastTaskCompleted(int deviceId) {
+		return lastTaskCompleted[deviceId];
+	}
+
+	public ProcessLoadGenerator getLoadGenerator() {
+		return loadGenerator;
+	}
+
+	/*
+	 * runs the steps of the device until it is suspended
+	 */
+	private void resume(int deviceId) {
+		DeviceProgram program = programs[deviceId];
+		int numOfExecutedSteps = 0;
+
+		while(CloudSim.clock() < SimSettings.getInstance().getSimulationTime()) {
+			if(nextSteps[deviceId] == program.getNumOfSteps()){
+				if(!program.isRepeated())
+					return;
+				nextSteps[deviceId] = 0;
+			}
+
+			//a repeated program must hold or wait at some step
+			if(++numOfExecutedSteps > program.getNumOfSteps())
+				throw new SimulationException("Program of device " + deviceId + " does not advance the simulated time! Terminating simulation...");
+
+			double delay = program.getStep(nextSteps[deviceId]++).execute(this, deviceId);
+
+			if(delay == DeviceStep.STOP)
+				return;
+
+			if(delay == DeviceStep.AWAIT_TASKS){
+				if(numOfRunningTasks[deviceId] > 0){
+					awaitingTasks[deviceId] = true;
+					return;
+				}
+			}
+			else if(delay > 0){
+				schedule(getId(), delay, RESUME_DEVICE, deviceIds[deviceId]);
+				return;
+			}
+		}
+	}
+}
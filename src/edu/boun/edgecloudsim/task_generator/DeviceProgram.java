@@ -0,0 +1,115 @@
+/*
+ * Title:        EdgeCloudSim - Device Program
+ *
+ * Description:
+ * DeviceProgram describes the behaviour of a mobile device as a sequence
+ * of steps in the order they are performed, e.g.
+ *
+ *   new DeviceProgram().hold(thinkTime).submitTask(taskType).awaitTasks().repeat();
+ *
+ * instead of a state machine spread over the event handlers. The program
+ * is run for each device by DeviceProcessEngine, which keeps the position
+ * of the device in its program; so a program can be shared by any number
+ * of devices. Application specific steps can be added by step().
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.distribution.RealDistribution;
+
+public class DeviceProgram {
+	private List<DeviceStep> steps;
+	private boolean repeated;
+
+	public DeviceProgram() {
+		steps = new ArrayList<DeviceStep>();
+		repeated = false;
+	}
+
+	/**
+	 * Adds a step which holds the device for the given time (in seconds)
+	 */
+	public DeviceProgram hold(final double delay) {
+		return step(new DeviceStep() {
+			@Override
+			public double execute(DeviceProcessEngine engine, int deviceId) {
+				return delay;
+			}
+		});
+	}
+
+	/**
+	 * Adds a step which holds the device for a time (in seconds) drawn
+	 * from the given distribution
+	 */
+	public DeviceProgram hold(final RealDistribution delayDistribution) {
+		return step(new DeviceStep() {
+			@Override
+			public double execute(DeviceProcessEngine engine, int deviceId) {
+				return Math.max(0, delayDistribution.sample());
+			}
+		});
+	}
+
+	/**
+	 * Adds a step which creates a task of the given type and submits it
+	 * to the mobile device manager; the device does not wait for the task
+	 */
+	public DeviceProgram submitTask(final int taskType) {
+		return step(new DeviceStep() {
+			@Override
+			public double execute(DeviceProcessEngine engine, int deviceId) {
+				engine.submitTask(deviceId, taskType);
+				return 0;
+			}
+		});
+	}
+
+	/**
+	 * Adds a step which waits until the running tasks of the device are
+	 * completed or failed
+	 */
+	public DeviceProgram awaitTasks() {
+		return step(new DeviceStep() {
+			@Override
+			public double execute(DeviceProcessEngine engine, int deviceId) {
+				return AWAIT_TASKS;
+			}
+		});
+	}
+
+	/**
+	 * Adds an application specific step
+	 */
+	public DeviceProgram step(DeviceStep step) {
+		steps.add(step);
+		return this;
+	}
+
+	/**
+	 * Runs the program again from its first step when the last step is
+	 * performed, until the simulation ends
+	 */
+	public DeviceProgram repeat() {
+		repeated = true;
+		return this;
+	}
+
+	public int getNumOfSteps() {
+		return steps.size();
+	}
+
+	public DeviceStep getStep(int index) {
+		return steps.get(index);
+	}
+
+	public boolean isRepeated() {
+		return repeated;
+	}
+}
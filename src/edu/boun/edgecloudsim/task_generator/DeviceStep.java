@@ -0,0 +1,30 @@
+/*
+ * Title:        EdgeCloudSim - Device Step
+ *
+ * Description:
+ * DeviceStep is a single step of the behaviour of a mobile device, see
+ * DeviceProgram. A step is executed when the device reaches it, and
+ * tells the process engine when the device continues with its next step.
+ * The steps are shared by the devices running the same program, so they
+ * should not keep device specific state.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+public interface DeviceStep {
+	//the device continues when its running tasks are completed or failed
+	public static final double AWAIT_TASKS = -1;
+
+	//the device stops, its program is not continued
+	public static final double STOP = -2;
+
+	/**
+	 * Executes the step for the given device and returns the simulated
+	 * time (in seconds) after which the device continues with its next
+	 * step, AWAIT_TASKS or STOP
+	 */
+	public double execute(DeviceProcessEngine engine, int deviceId);
+}
@@ -6,6 +6,8 @@
  * mobile devices generate task in active period and waits in idle period.
  * Task interarrival time (load generation period), Idle and active periods
  * are defined in the configuration file.
+ * The tasks of a device are created one by one when they are requested,
+ * so the task list is not kept in memory.
  * 
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -13,8 +15,6 @@
 
 package edu.boun.edgecloudsim.task_generator;
 
-import java.util.ArrayList;
-
 import org.apache.commons.math3.distribution.ExponentialDistribution;
 
 import edu.boun.edgecloudsim.core.SimSettings;
@@ -24,32 +24,41 @@ import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class IdleActiveLoadGenerator extends LoadGeneratorModel{
 	int taskTypeOfDevices[];
+	ExponentialDistribution[][] expRngList;
+	ExponentialDistribution[] intervalRngOfDevices;
+	double[] activePeriodStartTimeOfDevices;
+	double[] virtualTimeOfDevices;
+
 	public IdleActiveLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
 		super(_numberOfMobileDevices, _simulationTime, _simScenario);
 	}
 
 	@Override
 	public void initializeModel() {
-		taskList = new ArrayList<TaskProperty>();
+		//tasks are created on demand, see getNextTask
+		taskList = null;
 		
 		//exponential number generator for file input size, file output size and task length
-		ExponentialDistribution[][] expRngList = new ExponentialDistribution[SimSettings.getInstance().getTaskLookUpTable().length][3];
+		expRngList = new ExponentialDistribution[SimSettings.getInstance().getTaskLookUpTable().length][3];
 		
 		//create random number generator for each place
 		for(int i=0; i<SimSettings.getInstance().getTaskLookUpTable().length; i++) {
 			if(SimSettings.getInstance().getTaskLookUpTable()[i][0] ==0)
 				continue;
 			
-			expRngList[i][0] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][5]);
-			expRngList[i][1] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][6]);
-			expRngList[i][2] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][7]);
+			expRngList[i][0] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), SimSettings.getInstance().getTaskLookUpTable()[i][5]);
+			expRngList[i][1] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), SimSettings.getInstance().getTaskLookUpTable()[i][6]);
+			expRngList[i][2] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), SimSettings.getInstance().getTaskLookUpTable()[i][7]);
 		}
 		
 		//Each mobile device utilizes an app type (task type)
 		taskTypeOfDevices = new int[numberOfMobileDevices];
+		intervalRngOfDevices = new ExponentialDistribution[numberOfMobileDevices];
+		activePeriodStartTimeOfDevices = new double[numberOfMobileDevices];
+		virtualTimeOfDevices = new double[numberOfMobileDevices];
 		for(int i=0; i<numberOfMobileDevices; i++) {
 			int randomTaskType = -1;
-			double taskTypeSelector = SimUtils.getRandomDoubleNumber(0,100);
+			double taskTypeSelector = SimUtils.getRandomDoubleNumber(SimUtils.RNG_STREAM.TASK_GENERATION, 0,100);
 			double taskTypePercentage = 0;
 			for (int j=0; j<SimSettings.getInstance().getTaskLookUpTable().length; j++) {
 				taskTypePercentage += SimSettings.getInstance().getTaskLookUpTable()[j][0];
@@ -67,32 +76,45 @@ public class IdleActiveLoadGenerator extends LoadGeneratorModel{
 			
 			double poissonMean = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][2];
 			double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
-			double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
-			double activePeriodStartTime = SimUtils.getRandomDoubleNumber(
+			activePeriodStartTimeOfDevices[i] = SimUtils.getRandomDoubleNumber(SimUtils.RNG_STREAM.TASK_GENERATION, 
 					SimSettings.CLIENT_ACTIVITY_START_TIME, 
 					SimSettings.CLIENT_ACTIVITY_START_TIME + activePeriod);  //active period starts shortly after the simulation started (e.g. 10 seconds)
-			double virtualTime = activePeriodStartTime;
+			virtualTimeOfDevices[i] = activePeriodStartTimeOfDevices[i];
 
-			ExponentialDistribution rng = new ExponentialDistribution(poissonMean);
-			while(virtualTime < simulationTime) {
-				double interval = rng.sample();
+			intervalRngOfDevices[i] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), poissonMean);
+		}
+	}
 
-				if(interval <= 0){
-					SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + i + " time " + virtualTime);
-					continue;
-				}
-				//SimLogger.printLine(virtualTime + " -> " + interval + " for device " + i + " time ");
-				virtualTime += interval;
-				
-				if(virtualTime > activePeriodStartTime + activePeriod){
-					activePeriodStartTime = activePeriodStartTime + activePeriod + idlePeriod;
-					virtualTime = activePeriodStartTime;
-					continue;
-				}
-				
-				taskList.add(new TaskProperty(i,randomTaskType, virtualTime, expRngList));
+	@Override
+	public TaskProperty getNextTask(int deviceId) {
+		//device without a task type
+		if(intervalRngOfDevices[deviceId] == null)
+			return null;
+		
+		int taskType = taskTypeOfDevices[deviceId];
+		double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[taskType][3];
+		double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[taskType][4];
+		
+		while(virtualTimeOfDevices[deviceId] < simulationTime) {
+			double interval = intervalRngOfDevices[deviceId].sample();
+
+			if(interval <= 0){
+				SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + deviceId + " time " + virtualTimeOfDevices[deviceId]);
+				continue;
+			}
+			//SimLogger.printLine(virtualTime + " -> " + interval + " for device " + deviceId + " time ");
+			virtualTimeOfDevices[deviceId] += interval;
+			
+			if(virtualTimeOfDevices[deviceId] > activePeriodStartTimeOfDevices[deviceId] + activePeriod){
+				activePeriodStartTimeOfDevices[deviceId] = activePeriodStartTimeOfDevices[deviceId] + activePeriod + idlePeriod;
+				virtualTimeOfDevices[deviceId] = activePeriodStartTimeOfDevices[deviceId];
+				continue;
 			}
+			
+			return new TaskProperty(deviceId, taskType, virtualTimeOfDevices[deviceId], expRngList);
 		}
+		
+		return null;
 	}
 
 	@Override
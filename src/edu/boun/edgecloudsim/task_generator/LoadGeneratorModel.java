@@ -6,6 +6,13 @@
  * deciding task generation pattern via a task list. For those who
  * wants to add a custom Load Generator Model to EdgeCloudSim should
  * extend this class and provide a concrete instance via ScenarioFactory
+ * 
+ * The tasks are requested by SimManager one at a time for each mobile
+ * device via getNextTask. A model may fill the task list in advance, or
+ * override getNextTask and create the tasks on demand, so that only the
+ * next task of each device is kept in memory. The models which create
+ * the tasks while the simulation is running, see ProcessLoadGenerator,
+ * are notified when the tasks end.
  *               
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -13,8 +20,12 @@
 
 package edu.boun.edgecloudsim.task_generator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
+import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 
 public abstract class LoadGeneratorModel {
@@ -22,6 +33,8 @@ public abstract class LoadGeneratorModel {
 	protected int numberOfMobileDevices;
 	protected double simulationTime;
 	protected String simScenario;
+	private List<List<TaskProperty>> taskListOfDevices;
+	private int[] nextTaskIndexOfDevices;
 	
 	public LoadGeneratorModel(int _numberOfMobileDevices, double _simulationTime, String _simScenario){
 		numberOfMobileDevices=_numberOfMobileDevices;
@@ -38,11 +51,62 @@ public abstract class LoadGeneratorModel {
 	/*
 	 * each task has a virtual start time
 	 * it will be used while generating task
+	 * the list is null if the tasks are created on demand
 	 */
 	public List<TaskProperty> getTaskList() {
 		return taskList;
 	}
 
+	/*
+	 * returns the next task of the mobile device, or null if the device
+	 * has no more task; the tasks of a device are returned in the order
+	 * of their start times
+	 * 
+	 * default implementation iterates over the task list
+	 */
+	public TaskProperty getNextTask(int deviceId) {
+		if(taskListOfDevices == null)
+			splitTaskList();
+
+		if(deviceId >= taskListOfDevices.size())
+			return null;
+
+		List<TaskProperty> tasks = taskListOfDevices.get(deviceId);
+		if(nextTaskIndexOfDevices[deviceId] == tasks.size())
+			return null;
+
+		return tasks.get(nextTaskIndexOfDevices[deviceId]++);
+	}
+
+	private void splitTaskList() {
+		taskListOfDevices = new ArrayList<List<TaskProperty>>();
+		for(TaskProperty task : taskList) {
+			while(taskListOfDevices.size() <= task.getMobileDeviceId())
+				taskListOfDevices.add(new ArrayList<TaskProperty>());
+			taskListOfDevices.get(task.getMobileDeviceId()).add(task);
+		}
+
+		//sort is stable, tasks having the same start time keep their order
+		for(List<TaskProperty> tasks : taskListOfDevices) {
+			Collections.sort(tasks, new Comparator<TaskProperty>() {
+				@Override
+				public int compare(TaskProperty t1, TaskProperty t2) {
+					return Double.compare(t1.getStartTime(), t2.getStartTime());
+				}
+			});
+		}
+
+		nextTaskIndexOfDevices = new int[taskListOfDevices.size()];
+	}
+
+	/*
+	 * called when a task is completed or failed
+	 * 
+	 * default implementation does nothing since the tasks are known in advance
+	 */
+	public void taskEnded(Task task, boolean completed) {
+	}
+
 	/*
 	 * fill task list according to related task generation model
 	 */
@@ -0,0 +1,93 @@
+/*
+ * Title:        EdgeCloudSim - Process Load Generator
+ *
+ * Description:
+ * ProcessLoadGenerator is an abstract load generator model whose tasks
+ * are created by the behaviour of the mobile devices while the simulation
+ * is running, instead of a task list. The behaviour of each device is a
+ * DeviceProgram which is run by DeviceProcessEngine; so the devices may
+ * react to the results of their tasks, e.g. wait for the result of a
+ * task before the next one is created.
+ *
+ * The subclasses provide the programs of the devices; the sizes of the
+ * tasks are drawn from the exponential distributions of the task types.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+import org.apache.commons.math3.distribution.ExponentialDistribution;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.utils.SimUtils;
+import edu.boun.edgecloudsim.utils.TaskProperty;
+
+public abstract class ProcessLoadGenerator extends LoadGeneratorModel {
+	private ExponentialDistribution[][] expRngList;
+	private DeviceProcessEngine engine;
+
+	public ProcessLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
+		super(_numberOfMobileDevices, _simulationTime, _simScenario);
+	}
+
+	/*
+	 * returns the program of the mobile device, or null if the device
+	 * has no behaviour
+	 */
+	protected abstract DeviceProgram getProgram(int deviceId);
+
+	/**
+	 * Creates the process engine running the programs of the devices;
+	 * the subclasses should call it after their programs are ready
+	 */
+	@Override
+	public void initializeModel() {
+		//tasks are created by the programs of the devices
+		taskList = null;
+
+		//exponential number generator for file input size, file output size and task length
+		expRngList = new ExponentialDistribution[SimSettings.getInstance().getTaskLookUpTable().length][3];
+		for(int i=0; i<SimSettings.getInstance().getTaskLookUpTable().length; i++) {
+			if(SimSettings.getInstance().getTaskLookUpTable()[i][0] ==0)
+				continue;
+
+			expRngList[i][0] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), SimSettings.getInstance().getTaskLookUpTable()[i][5]);
+			expRngList[i][1] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), SimSettings.getInstance().getTaskLookUpTable()[i][6]);
+			expRngList[i][2] = new ExponentialDistribution(SimUtils.createRandomGenerator(SimUtils.RNG_STREAM.TASK_GENERATION), SimSettings.getInstance().getTaskLookUpTable()[i][7]);
+		}
+
+		DeviceProgram[] programs = new DeviceProgram[numberOfMobileDevices];
+		for(int i=0; i<numberOfMobileDevices; i++)
+			programs[i] = getProgram(i);
+
+		engine = new DeviceProcessEngine(this, programs);
+	}
+
+	/*
+	 * no task is scheduled in advance, see DeviceProcessEngine
+	 */
+	@Override
+	public TaskProperty getNextTask(int deviceId) {
+		return null;
+	}
+
+	@Override
+	public void taskEnded(Task task, boolean completed) {
+		engine.taskEnded(task, completed);
+	}
+
+	/**
+	 * Creates a task of the given type which is submitted by the device
+	 * at the given time
+	 */
+	public TaskProperty createTask(int deviceId, int taskType, double startTime) {
+		return new TaskProperty(deviceId, taskType, startTime, expRngList);
+	}
+
+	public DeviceProcessEngine getEngine() {
+		return engine;
+	}
+}
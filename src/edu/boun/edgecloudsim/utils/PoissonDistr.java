@@ -16,6 +16,8 @@ import cern.jet.random.Poisson;
 import cern.jet.random.engine.MersenneTwister;
 import cern.jet.random.engine.RandomEngine;
 
+import edu.boun.edgecloudsim.core.SimulationException;
+
 public class PoissonDistr {
 	Poisson poisson;
 	RandomEngine engine;
@@ -33,12 +35,22 @@ public class PoissonDistr {
 		try {
 			TimeUnit.MILLISECONDS.sleep(10);
 		} catch (InterruptedException e) {
-			SimLogger.printLine("impossible is occurred! Poisson random number cannot be created!");
-			e.printStackTrace();
-			System.exit(1);
+			throw new SimulationException("impossible is occurred! Poisson random number cannot be created!", e);
 		}
 	}
 
+	/**
+	 * Creates a new poisson number generator which is seeded from the given
+	 * random number stream of SimUtils.
+	 * 
+	 * @param mean the mean for the distribution.
+	 * @param stream the random number stream.
+ 	 */
+	public PoissonDistr(double mean, SimUtils.RNG_STREAM stream) {
+		engine = new MersenneTwister(SimUtils.getRandomStream(stream).nextInt());
+		poisson = new Poisson(mean, engine);
+	}
+
 	/**
 	 * Generate a new random number.
 	 * 
@@ -33,18 +33,23 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
+import edu.boun.edgecloudsim.core.CheckpointListener;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.core.SimulationException;
 import edu.boun.edgecloudsim.utils.SimLogger.NETWORK_ERRORS;
 
-public class SimLogger {
+public class SimLogger implements CheckpointListener {
 	public static enum TASK_STATUS {
 		CREATED, UPLOADING, PROCESSING, DOWNLOADING, COMLETED,
 		REJECTED_DUE_TO_VM_CAPACITY, REJECTED_DUE_TO_BANDWIDTH,
@@ -63,6 +68,7 @@ public class SimLogger {
 	private String filePrefix;
 	private String outputFolder;
 	private Map<Integer, LogItem> taskMap;
+	private List<LogItem> freeLogItems;
 	private LinkedList<VmLoadLogItem> vmLoadList;
 	private LinkedList<ApDelayLogItem> apDelayList;
 
@@ -71,8 +77,9 @@ public class SimLogger {
 	private int numOfAppTypes;
 	
 	private File successFile = null, failFile = null;
-	private FileWriter successFW = null, failFW = null;
-	private BufferedWriter successBW = null, failBW = null;
+	private transient FileWriter successFW = null, failFW = null;
+	private transient BufferedWriter successBW = null, failBW = null;
+	private long successFileLength, failFileLength; //length of the deep log files at the last checkpoint
 
 	// extract following values for each app type.
 	// last index is average of all app types
@@ -166,6 +173,10 @@ public class SimLogger {
 		return outputFolder;
 	}
 
+	public String getFilePrefix() {
+		return filePrefix;
+	}
+
 	private void appendToFile(BufferedWriter bw, String line) throws IOException {
 		bw.write(line);
 		bw.newLine();
@@ -186,6 +197,7 @@ public class SimLogger {
 		filePrefix = fileName;
 		outputFolder = outFolder;
 		taskMap = new HashMap<Integer, LogItem>();
+		freeLogItems = new ArrayList<LogItem>();
 		vmLoadList = new LinkedList<VmLoadLogItem>();
 		apDelayList = new LinkedList<ApDelayLogItem>();
 		
@@ -204,8 +216,7 @@ public class SimLogger {
 				appendToFile(successBW, "#auto generated file!");
 				appendToFile(failBW, "#auto generated file!");
 			} catch (IOException e) {
-				e.printStackTrace();
-				System.exit(1);
+				throw new SimulationException(e);
 			}
 		}
 
@@ -265,68 +276,150 @@ public class SimLogger {
 		orchestratorOverhead = new double[numOfAppTypes + 1];
 	}
 
+	@Override
+	public void checkpointStarted() throws IOException {
+		//the lines logged so far belong to the checkpoint
+		if (successBW != null) {
+			successBW.flush();
+			failBW.flush();
+			successFileLength = successFile.length();
+			failFileLength = failFile.length();
+		}
+	}
+
+	@Override
+	public void checkpointRestored() throws IOException {
+		//the lines logged after the checkpoint by the interrupted run are discarded
+		if (successFile != null) {
+			truncateFile(successFile, successFileLength);
+			truncateFile(failFile, failFileLength);
+
+			successFW = new FileWriter(successFile, true);
+			successBW = new BufferedWriter(successFW);
+			failFW = new FileWriter(failFile, true);
+			failBW = new BufferedWriter(failFW);
+		}
+	}
+
+	@Override
+	public File[] getAppendedFiles() {
+		if (successFile == null)
+			return new File[0];
+		return new File[] {successFile, failFile};
+	}
+
+	/**
+	 * Starts the deep logs of this run again when the checkpoint of an
+	 * interrupted run is discarded; the lines logged by the interrupted
+	 * run are removed from the files.
+	 */
+	public void checkpointDiscarded() throws IOException {
+		if (successBW != null) {
+			successBW.close();
+			failBW.close();
+
+			successFW = new FileWriter(successFile, false);
+			successBW = new BufferedWriter(successFW);
+			failFW = new FileWriter(failFile, false);
+			failBW = new BufferedWriter(failFW);
+
+			appendToFile(successBW, "#auto generated file!");
+			appendToFile(failBW, "#auto generated file!");
+		}
+	}
+
+	/**
+	 * Continues the log of a run which is forked from the checkpoint of
+	 * another run, e.g. at the end of a shared warm-up period. The restored
+	 * logs are kept but the output files of the given logger, which is
+	 * started for this run, are used instead of the files of the other run.
+	 */
+	public void forkRun(SimLogger runLogger) {
+		startTime = runLogger.startTime;
+		filePrefix = runLogger.filePrefix;
+		outputFolder = runLogger.outputFolder;
+
+		successFile = runLogger.successFile;
+		successFW = runLogger.successFW;
+		successBW = runLogger.successBW;
+		failFile = runLogger.failFile;
+		failFW = runLogger.failFW;
+		failBW = runLogger.failBW;
+	}
+
+	private void truncateFile(File file, long length) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(length);
+		} finally {
+			raf.close();
+		}
+	}
+
 	public void addLog(int deviceId, int taskId, int taskType,
 			int taskLenght, int taskInputType, int taskOutputSize) {
 		// printLine(taskId+"->"+taskStartTime);
-		taskMap.put(taskId, new LogItem(deviceId, taskType, taskLenght, taskInputType, taskOutputSize));
+		LogItem value = freeLogItems.isEmpty() ? new LogItem() : freeLogItems.remove(freeLogItems.size() - 1);
+		value.init(deviceId, taskType, taskLenght, taskInputType, taskOutputSize);
+		taskMap.put(taskId, value);
 	}
 
 	public void taskStarted(int taskId, double time) {
-		taskMap.get(taskId).taskStarted(time);
+		getLogItem(taskId).taskStarted(time);
 	}
 
 	public void setUploadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).setUploadDelay(delay, delayType);
+		getLogItem(taskId).setUploadDelay(delay, delayType);
 	}
 
 	public void setDownloadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).setDownloadDelay(delay, delayType);
+		getLogItem(taskId).setDownloadDelay(delay, delayType);
 	}
 	
 	public void taskAssigned(int taskId, int datacenterId, int hostId, int vmId, int vmType) {
-		taskMap.get(taskId).taskAssigned(datacenterId, hostId, vmId, vmType);
+		getLogItem(taskId).taskAssigned(datacenterId, hostId, vmId, vmType);
 	}
 
 	public void taskExecuted(int taskId) {
-		taskMap.get(taskId).taskExecuted();
+		getLogItem(taskId).taskExecuted();
 	}
 
 	public void taskEnded(int taskId, double time) {
-		taskMap.get(taskId).taskEnded(time);
+		getLogItem(taskId).taskEnded(time);
 		recordLog(taskId);
 	}
 
 	public void rejectedDueToVMCapacity(int taskId, double time, int vmType) {
-		taskMap.get(taskId).taskRejectedDueToVMCapacity(time, vmType);
+		getLogItem(taskId).taskRejectedDueToVMCapacity(time, vmType);
 		recordLog(taskId);
 	}
 
     public void rejectedDueToWlanCoverage(int taskId, double time, int vmType) {
-    	taskMap.get(taskId).taskRejectedDueToWlanCoverage(time, vmType);
+    	getLogItem(taskId).taskRejectedDueToWlanCoverage(time, vmType);
 		recordLog(taskId);
     }
     
 	public void rejectedDueToBandwidth(int taskId, double time, int vmType, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).taskRejectedDueToBandwidth(time, vmType, delayType);
+		getLogItem(taskId).taskRejectedDueToBandwidth(time, vmType, delayType);
 		recordLog(taskId);
 	}
 
 	public void failedDueToBandwidth(int taskId, double time, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).taskFailedDueToBandwidth(time, delayType);
+		getLogItem(taskId).taskFailedDueToBandwidth(time, delayType);
 		recordLog(taskId);
 	}
 
 	public void failedDueToMobility(int taskId, double time) {
-		taskMap.get(taskId).taskFailedDueToMobility(time);
+		getLogItem(taskId).taskFailedDueToMobility(time);
 		recordLog(taskId);
 	}
 
 	public void setQoE(int taskId, double QoE){
-		taskMap.get(taskId).setQoE(QoE);
+		getLogItem(taskId).setQoE(QoE);
 	}
 	
 	public void setOrchestratorOverhead(int taskId, double overhead){
-		taskMap.get(taskId).setOrchestratorOverhead(overhead);
+		getLogItem(taskId).setOrchestratorOverhead(overhead);
 	}
 
 	public void addVmUtilizationLog(double time, double loadOnEdge, double loadOnCloud, double loadOnMobile) {
@@ -750,12 +843,23 @@ public class SimLogger {
 
 		// clear related collections (map list etc.)
 		taskMap.clear();
+		freeLogItems.clear();
 		vmLoadList.clear();
 		apDelayList.clear();
 	}
 	
+	private LogItem getLogItem(int taskId){
+		LogItem value = taskMap.get(taskId);
+		if (value == null)
+			throw new SimulationException("Task #" + taskId + " is not logged or its log is already recorded! Terminating simulation...");
+		return value;
+	}
+
 	private void recordLog(int taskId){
 		LogItem value = taskMap.remove(taskId);
+
+		//the log item is reused by a new task after its result is recorded below
+		freeLogItems.add(value);
 		
 		if (value.isInWarmUpPeriod())
 			return;
@@ -852,8 +956,7 @@ public class SimLogger {
 				else
 					appendToFile(failBW, value.toString(taskId));
 			} catch (IOException e) {
-				e.printStackTrace();
-				System.exit(1);
+				throw new SimulationException(e);
 			}
 		}
 	}
@@ -948,7 +1051,10 @@ class LogItem {
 	private double orchestratorOverhead;
 	private boolean isInWarmUpPeriod;
 
-	LogItem(int _deviceId, int _taskType, int _taskLenght, int _taskInputType, int _taskOutputSize) {
+	/*
+	 * the log items are recycled, so all fields are set here
+	 */
+	void init(int _deviceId, int _taskType, int _taskLenght, int _taskInputType, int _taskOutputSize) {
 		deviceId = _deviceId;
 		taskType = _taskType;
 		taskLenght = _taskLenght;
@@ -956,7 +1062,25 @@ class LogItem {
 		taskOutputSize = _taskOutputSize;
 		networkError = NETWORK_ERRORS.NONE;
 		status = SimLogger.TASK_STATUS.CREATED;
+		datacenterId = 0;
+		hostId = 0;
+		vmId = 0;
+		vmType = 0;
+		taskStartTime = 0;
 		taskEndTime = 0;
+		lanUploadDelay = 0;
+		manUploadDelay = 0;
+		wanUploadDelay = 0;
+		gsmUploadDelay = 0;
+		lanDownloadDelay = 0;
+		manDownloadDelay = 0;
+		wanDownloadDelay = 0;
+		gsmDownloadDelay = 0;
+		bwCost = 0;
+		cpuCost = 0;
+		QoE = 0;
+		orchestratorOverhead = 0;
+		isInWarmUpPeriod = false;
 	}
 	
 	public void taskStarted(double time) {
@@ -12,53 +12,161 @@ package edu.boun.edgecloudsim.utils;
 import java.io.File;
 import java.util.Date;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+
+import edu.boun.edgecloudsim.core.SimCheckpoint;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationException;
+
 public class SimUtils {
 
-	public static final Random RNG = new Random(System.currentTimeMillis());
+	//enumarations for the named random number streams
+	//task generation and mobility streams are independent of the orchestrator policy
+	//in common random numbers mode, so all policies see the same workload
+	//the decision latency stream draws the decision times of the orchestrator
+	public static enum RNG_STREAM { TASK_GENERATION, MOBILITY, ORCHESTRATOR, DECISION_LATENCY }
+
+	private static final Random[] RNG_STREAMS = new Random[RNG_STREAM.values().length];
+
+	//the run whose streams are seeded
+	private static int iterationNumber;
+	private static int numOfMobileDevice;
+
+	static {
+		for(int i=0; i<RNG_STREAMS.length; i++)
+			RNG_STREAMS[i] = new Random(System.currentTimeMillis() + i);
+	}
+
+	/**
+	 * Seeds the random number streams for a simulation run. If common random
+	 * numbers mode is enabled in the config file, the task generation and
+	 * mobility streams depend only on the random seed, the iteration number
+	 * and the number of mobile devices. The orchestrator stream also depends
+	 * on the orchestrator policy, so the random choices of a policy do not
+	 * change the workload. Otherwise the streams are seeded from the clock.
+	 */
+	public static void initializeRandomStreams(String orchestratorPolicy, int _iterationNumber, int _numOfMobileDevice) {
+		iterationNumber = _iterationNumber;
+		numOfMobileDevice = _numOfMobileDevice;
+		for(RNG_STREAM stream : RNG_STREAM.values())
+			RNG_STREAMS[stream.ordinal()] = new Random(getSeed(stream, orchestratorPolicy));
+	}
+
+	/**
+	 * Seeds the orchestrator stream of the current run again for another
+	 * orchestrator policy, e.g. when the policy of a run is switched at the
+	 * end of a warm-up period shared by the policies. The other streams are
+	 * not changed.
+	 */
+	public static void initializeOrchestratorStream(String orchestratorPolicy) {
+		RNG_STREAMS[RNG_STREAM.ORCHESTRATOR.ordinal()] = new Random(getSeed(RNG_STREAM.ORCHESTRATOR, orchestratorPolicy));
+	}
+
+	/**
+	 * returns the iteration number of the run whose streams are seeded
+	 */
+	public static int getIterationNumber() {
+		return iterationNumber;
+	}
+
+	private static long getSeed(RNG_STREAM stream, String orchestratorPolicy) {
+		SimSettings SS = SimSettings.getInstance();
+		long seed = System.currentTimeMillis() + stream.ordinal();
+		if(SS.isCommonRandomNumbersEnabled()) {
+			seed = mixSeed(SS.getRandomSeed(), stream.ordinal());
+			seed = mixSeed(seed, iterationNumber);
+			seed = mixSeed(seed, numOfMobileDevice);
+			if(stream == RNG_STREAM.ORCHESTRATOR)
+				seed = mixSeed(seed, orchestratorPolicy.hashCode());
+		}
+		return seed;
+	}
+
+	public static Random getRandomStream(RNG_STREAM stream) {
+		return RNG_STREAMS[stream.ordinal()];
+	}
+
+	/**
+	 * Creates a random generator for commons-math distributions which is
+	 * seeded from the given stream.
+	 */
+	public static RandomGenerator createRandomGenerator(RNG_STREAM stream) {
+		return new Well19937c(getRandomStream(stream).nextLong());
+	}
 
 	public static int getRandomNumber(int start, int end) {
+		return getRandomNumber(RNG_STREAM.ORCHESTRATOR, start, end);
+	}
+
+	public static double getRandomDoubleNumber(double start, double end) {
+		return getRandomDoubleNumber(RNG_STREAM.ORCHESTRATOR, start, end);
+	}
+
+	public static long getRandomLongNumber(long start, long end) {
+		return getRandomLongNumber(RNG_STREAM.ORCHESTRATOR, start, end);
+	}
+
+	public static int getRandomNumber(RNG_STREAM stream, int start, int end) {
 		//return pd.sample();
 		long range = (long)end - (long)start + 1;
-		long fraction = (long)(range * RNG.nextDouble());
+		long fraction = (long)(range * getRandomStream(stream).nextDouble());
 		return (int)(fraction + start);
 	}
 
-	public static double getRandomDoubleNumber(double start, double end) {
+	public static double getRandomDoubleNumber(RNG_STREAM stream, double start, double end) {
 		//return pd.sample();
 		double range = end - start;
-		double fraction = (range * RNG.nextDouble());
+		double fraction = (range * getRandomStream(stream).nextDouble());
 		return (fraction + start); 
 	}
 
-	public static long getRandomLongNumber(long start, long end) {
+	public static long getRandomLongNumber(RNG_STREAM stream, long start, long end) {
 		//return pd.sample();
 		long range = (long)end - (long)start + 1;
-		long fraction = (long)(range * RNG.nextDouble());
+		long fraction = (long)(range * getRandomStream(stream).nextDouble());
 		return (fraction + start); 
 	}
 
+	/*
+	 * combines the seed with the given value; mixing function of SplitMix64
+	 */
+	private static long mixSeed(long seed, long value) {
+		long z = seed + value * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Deletes the result files in the output folder. The checkpoints of the
+	 * interrupted runs (*.checkpoint) and the files appended by them, e.g.
+	 * the deep logs, are kept so that the runs can be continued; see
+	 * SimCheckpoint. A run started without checkpoints discards them.
+	 */
 	public static void cleanOutputFolder(String outputFolder){
 		//clean the folder where the result files will be saved
 		File dir = new File(outputFolder);
 		if(dir.exists() && dir.isDirectory())
 		{
-			for (File f: dir.listFiles())
+			File[] files = dir.listFiles();
+			Set<String> keptFiles = SimCheckpoint.getKeptFiles(files);
+			for (File f: files)
 			{
-				if (f.exists() && f.isFile())
+				if (f.exists() && f.isFile() && !keptFiles.contains(f.getName()))
 				{
 					if(!f.delete())
 					{
-						SimLogger.printLine("file cannot be cleared: " + f.getAbsolutePath());
-						System.exit(1);
+						throw new SimulationException("file cannot be cleared: " + f.getAbsolutePath());
 					}
 				}
 			}
 		}
 		else {
-			SimLogger.printLine("Output folder is not available: " + outputFolder);
-			System.exit(1);
+			throw new SimulationException("Output folder is not available: " + outputFolder);
 		}
 	}
 
@@ -0,0 +1,199 @@
+/*
+ * Title:        EdgeCloudSim - Lazy Update Datacenter Test
+ *
+ * Description:
+ * LazyUpdateDatacenterTest is a regression test which runs the sample
+ * applications with lazy_datacenter_update disabled and enabled, i.e.
+ * with CloudSim's Datacenter and LazyUpdateDatacenter, on the same
+ * random numbers. The result files of both runs, including the deep
+ * logs, must be exactly the same except for the performance related
+ * values, which are measured in wall clock time.
+ *
+ * Each run uses the configuration of the application with a shorter
+ * simulation time, a single number of mobile devices and a subset of
+ * its orchestrator policies, so that the edge, cloud and mobile
+ * datacenters are covered in a reasonable time.
+ *
+ * The test is run by scripts/test/run_tests.sh; it exits with a non-zero
+ * status at the first difference.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+public class LazyUpdateDatacenterTest {
+	private static final int NUM_OF_MOBILE_DEVICES = 300;
+	private static final String RANDOM_SEED = "7";
+
+	//the last line of this file keeps the running time and the orchestrator overhead
+	private static final String PERFORMANCE_FILE_SUFFIX = "_ALL_APPS_GENERIC.log";
+	private static final int PERFORMANCE_LINE = 7;
+
+	//application folder, main class, orchestrator policies and simulation time (in minutes)
+	private static final String[][] APPLICATIONS = {
+		{"sample_app1", "edu.boun.edgecloudsim.applications.sample_app1.MainApp", "NEXT_FIT", "4"},
+		{"sample_app2", "edu.boun.edgecloudsim.applications.sample_app2.MainApp", "NETWORK_BASED,UTILIZATION_BASED,HYBRID", "4"},
+		{"sample_app3", "edu.boun.edgecloudsim.applications.sample_app3.MainApp", "ONLY_EDGE,ONLY_MOBILE,HYBRID", "4"},
+		{"sample_app4", "edu.boun.edgecloudsim.applications.sample_app4.FuzzyMainApp", "NETWORK_BASED,UTILIZATION_BASED,HYBRID", "4"},
+		{"sample_app5", "edu.boun.edgecloudsim.applications.sample_app5.VehicularMainApp", "RANDOM,GAME_THEORY,MAB", "6"}
+	};
+
+	private File scriptsFolder;
+	private File workFolder;
+	private int numOfFiles;
+
+	public LazyUpdateDatacenterTest(File _scriptsFolder, File _workFolder) {
+		scriptsFolder = _scriptsFolder;
+		workFolder = _workFolder;
+		numOfFiles = 0;
+	}
+
+	public static void main(String[] args) throws IOException {
+		File scriptsFolder = new File((args.length > 0) ? args[0] : "..");
+		File workFolder = Files.createTempDirectory("lazy_update_test").toFile();
+		LazyUpdateDatacenterTest test = new LazyUpdateDatacenterTest(scriptsFolder, workFolder);
+		String failure = null;
+		try {
+			for(int i=0; i<APPLICATIONS.length; i++)
+				test.runApplication(APPLICATIONS[i]);
+		}
+		catch (AssertionError e) {
+			failure = e.getMessage();
+		}
+		finally {
+			delete(workFolder);
+		}
+
+		if(failure != null) {
+			System.out.println("LazyUpdateDatacenterTest failed: " + failure);
+			System.exit(1);
+		}
+		System.out.println("LazyUpdateDatacenterTest passed: " + APPLICATIONS.length + " applications, " + test.numOfFiles + " files");
+	}
+
+	/*
+	 * runs the application without and with the lazy update and compares
+	 * the result files
+	 */
+	private void runApplication(String[] application) throws IOException {
+		File stockFolder = run(application, false);
+		File lazyFolder = run(application, true);
+
+		String[] files = stockFolder.list();
+		Arrays.sort(files);
+		check(files.length > 0, application[0] + " has no result file");
+		for(int i=0; i<files.length; i++)
+			compare(new File(stockFolder, files[i]), new File(lazyFolder, files[i]));
+	}
+
+	/*
+	 * runs all scenarios and the selected policies of the application,
+	 * returns the output folder
+	 */
+	private File run(String[] application, boolean lazyDatacenterUpdate) throws IOException {
+		File runFolder = new File(workFolder, application[0] + (lazyDatacenterUpdate ? "_lazy" : "_stock"));
+		File configFolder = new File(runFolder, "config");
+		File outputFolder = new File(runFolder, "output");
+		copy(new File(new File(scriptsFolder, application[0]), "config"), configFolder);
+		outputFolder.mkdirs();
+
+		File configFile = new File(configFolder, "default_config.properties");
+		Properties prop = new Properties();
+		InputStream input = new FileInputStream(configFile);
+		try {
+			prop.load(input);
+		} finally {
+			input.close();
+		}
+
+		prop.setProperty("simulation_time", application[3]);
+		prop.setProperty("warm_up_period", "1");
+		prop.setProperty("min_number_of_mobile_devices", Integer.toString(NUM_OF_MOBILE_DEVICES));
+		prop.setProperty("max_number_of_mobile_devices", Integer.toString(NUM_OF_MOBILE_DEVICES));
+		prop.setProperty("orchestrator_policies", application[2]);
+		prop.setProperty("file_log_enabled", "true");
+		prop.setProperty("deep_file_log_enabled", "true");
+		prop.setProperty("random_seed", RANDOM_SEED);
+		prop.setProperty("lazy_datacenter_update", Boolean.toString(lazyDatacenterUpdate));
+
+		OutputStream output = new FileOutputStream(configFile);
+		try {
+			prop.store(output, null);
+		} finally {
+			output.close();
+		}
+
+		SimulationContext context = new SimulationContext(application[1]);
+		try {
+			check(context.initialize(configFile.getPath(),
+					new File(configFolder, "edge_devices.xml").getPath(),
+					new File(configFolder, "applications.xml").getPath(), false),
+					application[0] + " cannot be initialized");
+
+			String[] scenarios = prop.getProperty("simulation_scenarios").split(",");
+			String[] policies = application[2].split(",");
+			for(int i=0; i<scenarios.length; i++)
+				for(int j=0; j<policies.length; j++)
+					context.run(outputFolder.getPath(), scenarios[i], policies[j], 1, NUM_OF_MOBILE_DEVICES);
+		} finally {
+			context.close();
+		}
+		return outputFolder;
+	}
+
+	private void compare(File expectedFile, File actualFile) throws IOException {
+		check(actualFile.exists(), actualFile.getName() + " is missing");
+
+		List<String> expected = Files.readAllLines(expectedFile.toPath(), StandardCharsets.UTF_8);
+		List<String> actual = Files.readAllLines(actualFile.toPath(), StandardCharsets.UTF_8);
+		for(int i=0; i<Math.min(expected.size(), actual.size()); i++) {
+			if(i+1 == PERFORMANCE_LINE && actualFile.getName().endsWith(PERFORMANCE_FILE_SUFFIX))
+				continue;
+
+			check(expected.get(i).equals(actual.get(i)), actualFile.getName() + " differs at line " + (i+1) +
+					": expected " + expected.get(i) + ", found " + actual.get(i));
+		}
+		check(expected.size() == actual.size(), actualFile.getName() + " has " + actual.size() +
+				" lines instead of " + expected.size());
+		numOfFiles++;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(!condition)
+			throw new AssertionError(message);
+	}
+
+	private static void copy(File source, File target) throws IOException {
+		if(source.isDirectory()) {
+			target.mkdirs();
+			for(String name : source.list())
+				copy(new File(source, name), new File(target, name));
+		}
+		else {
+			Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if(files != null)
+			for(File child : files)
+				delete(child);
+		file.delete();
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Title:        EdgeCloudSim - Uncontended VM Executor Test
+ *
+ * Description:
+ * UncontendedVmExecutorTest runs sample applications with and without
+ * analytic_execution_vm_types on the same random numbers, i.e. with the
+ * tasks executed by UncontendedVmExecutor and by the datacenters of
+ * CloudSim. The results are not the same, since the datacenters return
+ * the tasks at their update events instead of their finish times; the
+ * test checks that the difference of the mean service time, the mean
+ * processing time and the percentage of failed tasks is within bounds.
+ * The observed differences are up to about 0.5% of the mean times and
+ * 0.1 percentage points of the failed tasks.
+ *
+ * The test is run by scripts/test/run_tests.sh; it exits with a non-zero
+ * status at the first difference out of bounds.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+
+import edu.boun.edgecloudsim.core.SimulationContext;
+
+public class UncontendedVmExecutorTest {
+	private static final int NUM_OF_MOBILE_DEVICES = 300;
+	private static final String SIMULATION_TIME = "10"; //minutes
+	private static final String RANDOM_SEED = "7";
+
+	//relative difference of the mean times, and difference of the failed task percentages
+	private static final double MAX_TIME_DIFFERENCE = 0.02;
+	private static final double MAX_FAILED_TASK_DIFFERENCE = 0.5;
+
+	//application folder, main class, orchestrator policies and VM types executed analytically
+	private static final String[][] APPLICATIONS = {
+		{"sample_app1", "edu.boun.edgecloudsim.applications.sample_app1.MainApp", "NEXT_FIT", "CLOUD_VM,EDGE_VM"},
+		{"sample_app3", "edu.boun.edgecloudsim.applications.sample_app3.MainApp", "ONLY_MOBILE,HYBRID", "MOBILE_VM,EDGE_VM"}
+	};
+
+	private File scriptsFolder;
+	private File workFolder;
+	private double maxTimeDifference;
+	private double maxFailedTaskDifference;
+
+	public UncontendedVmExecutorTest(File _scriptsFolder, File _workFolder) {
+		scriptsFolder = _scriptsFolder;
+		workFolder = _workFolder;
+		maxTimeDifference = 0;
+		maxFailedTaskDifference = 0;
+	}
+
+	public static void main(String[] args) throws IOException {
+		File scriptsFolder = new File((args.length > 0) ? args[0] : "..");
+		File workFolder = Files.createTempDirectory("uncontended_vm_test").toFile();
+		UncontendedVmExecutorTest test = new UncontendedVmExecutorTest(scriptsFolder, workFolder);
+		String failure = null;
+		try {
+			for(int i=0; i<APPLICATIONS.length; i++)
+				test.runApplication(APPLICATIONS[i]);
+
+			//the same results would mean that the tasks are still executed by the datacenters
+			check(test.maxTimeDifference > 0, "the results of the analytic execution are the same");
+		}
+		catch (AssertionError e) {
+			failure = e.getMessage();
+		}
+		finally {
+			delete(workFolder);
+		}
+
+		if(failure != null) {
+			System.out.println("UncontendedVmExecutorTest failed: " + failure);
+			System.exit(1);
+		}
+		System.out.println("UncontendedVmExecutorTest passed: time difference up to " +
+				String.format("%.3f%%", 100 * test.maxTimeDifference) + ", failed task difference up to " +
+				String.format("%.3f", test.maxFailedTaskDifference) + " percentage points");
+	}
+
+	/*
+	 * runs the application without and with the analytic execution and
+	 * compares the results of each scenario and policy
+	 */
+	private void runApplication(String[] application) throws IOException {
+		File stockFolder = run(application, "");
+		File analyticFolder = run(application, application[3]);
+
+		String[] scenarios = loadConfig(new File(new File(scriptsFolder, application[0]), "config")).getProperty("simulation_scenarios").split(",");
+		String[] policies = application[2].split(",");
+		for(int i=0; i<scenarios.length; i++) {
+			for(int j=0; j<policies.length; j++) {
+				String fileName = "SIMRESULT_" + scenarios[i] + "_" + policies[j] + "_" + NUM_OF_MOBILE_DEVICES + "DEVICES_ALL_APPS_GENERIC.log";
+				compare(application[0] + " " + scenarios[i] + " " + policies[j],
+						readResults(new File(stockFolder, fileName)), readResults(new File(analyticFolder, fileName)));
+			}
+		}
+	}
+
+	/*
+	 * checks the difference of the results; the fields are the ones of
+	 * the first line of the generic log file
+	 */
+	private void compare(String name, String[] expected, String[] actual) {
+		int completed = Integer.parseInt(expected[0]);
+		int failed = Integer.parseInt(expected[1]);
+		check(completed > 0, name + " has no completed task");
+
+		for(int field=4; field<=5; field++) {
+			double expectedTime = Double.parseDouble(expected[field]);
+			double actualTime = Double.parseDouble(actual[field]);
+			double difference = Math.abs(actualTime - expectedTime) / expectedTime;
+			maxTimeDifference = Math.max(maxTimeDifference, difference);
+			check(difference <= MAX_TIME_DIFFERENCE, name + ": mean " + (field == 4 ? "service" : "processing") +
+					" time is " + actualTime + " instead of " + expectedTime);
+		}
+
+		double expectedFailed = 100.0 * failed / (completed + failed);
+		double actualFailed = 100.0 * Integer.parseInt(actual[1]) / (Integer.parseInt(actual[0]) + Integer.parseInt(actual[1]));
+		maxFailedTaskDifference = Math.max(maxFailedTaskDifference, Math.abs(actualFailed - expectedFailed));
+		check(Math.abs(actualFailed - expectedFailed) <= MAX_FAILED_TASK_DIFFERENCE, name +
+				": percentage of failed tasks is " + actualFailed + " instead of " + expectedFailed);
+	}
+
+	/*
+	 * runs all scenarios and the selected policies of the application,
+	 * returns the output folder
+	 */
+	private File run(String[] application, String analyticExecutionVmTypes) throws IOException {
+		File runFolder = new File(workFolder, application[0] + (analyticExecutionVmTypes.isEmpty() ? "_stock" : "_analytic"));
+		File configFolder = new File(runFolder, "config");
+		File outputFolder = new File(runFolder, "output");
+		copy(new File(new File(scriptsFolder, application[0]), "config"), configFolder);
+		outputFolder.mkdirs();
+
+		Properties prop = loadConfig(configFolder);
+		prop.setProperty("simulation_time", SIMULATION_TIME);
+		prop.setProperty("min_number_of_mobile_devices", Integer.toString(NUM_OF_MOBILE_DEVICES));
+		prop.setProperty("max_number_of_mobile_devices", Integer.toString(NUM_OF_MOBILE_DEVICES));
+		prop.setProperty("orchestrator_policies", application[2]);
+		prop.setProperty("file_log_enabled", "true");
+		prop.setProperty("random_seed", RANDOM_SEED);
+		prop.setProperty("analytic_execution_vm_types", analyticExecutionVmTypes);
+
+		File configFile = new File(configFolder, "default_config.properties");
+		OutputStream output = new FileOutputStream(configFile);
+		try {
+			prop.store(output, null);
+		} finally {
+			output.close();
+		}
+
+		SimulationContext context = new SimulationContext(application[1]);
+		try {
+			check(context.initialize(configFile.getPath(),
+					new File(configFolder, "edge_devices.xml").getPath(),
+					new File(configFolder, "applications.xml").getPath(), false),
+					application[0] + " cannot be initialized");
+
+			String[] scenarios = prop.getProperty("simulation_scenarios").split(",");
+			String[] policies = application[2].split(",");
+			for(int i=0; i<scenarios.length; i++)
+				for(int j=0; j<policies.length; j++)
+					context.run(outputFolder.getPath(), scenarios[i], policies[j], 1, NUM_OF_MOBILE_DEVICES);
+		} finally {
+			context.close();
+		}
+		return outputFolder;
+	}
+
+	private static String[] readResults(File file) throws IOException {
+		check(file.exists(), file.getName() + " is missing");
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		check(lines.size() > 1, file.getName() + " has no result");
+		return lines.get(1).split(";");
+	}
+
+	private static Properties loadConfig(File configFolder) throws IOException {
+		Properties prop = new Properties();
+		InputStream input = new FileInputStream(new File(configFolder, "default_config.properties"));
+		try {
+			prop.load(input);
+		} finally {
+			input.close();
+		}
+		return prop;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(!condition)
+			throw new AssertionError(message);
+	}
+
+	private static void copy(File source, File target) throws IOException {
+		if(source.isDirectory()) {
+			target.mkdirs();
+			for(String name : source.list())
+				copy(new File(source, name), new File(target, name));
+		}
+		else {
+			Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if(files != null)
+			for(File child : files)
+				delete(child);
+		file.delete();
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Title:        EdgeCloudSim - Virtual Time Cloudlet Scheduler Test
+ *
+ * Description:
+ * CloudletSchedulerVirtualTimeTest is a differential test which runs
+ * CloudletSchedulerVirtualTime and CloudSim's CloudletSchedulerTimeShared
+ * side by side on the same random cloudlet arrivals. Each VM is driven
+ * like a datacenter does: the VM is updated at the arrivals and at the
+ * next events estimated by the scheduler, and some running cloudlets
+ * are paused, resumed or canceled. The estimates, the finish times and
+ * the finish order of the cloudlets and the execution lists must be
+ * exactly the same for both schedulers.
+ *
+ * The test is run by scripts/test/run_tests.sh; it exits with a non-zero
+ * status at the first difference.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+
+public class CloudletSchedulerVirtualTimeTest {
+	private static final int NUM_OF_VMS = 50;
+	private static final int NUM_OF_ARRIVALS = 500;
+
+	//operations applied to both schedulers at an arrival, in percent
+	private static final int PAUSE_PERCENTAGE = 3;
+	private static final int RESUME_PERCENTAGE = 3;
+	private static final int CANCEL_PERCENTAGE = 1;
+
+	private Random random;
+	private CloudletScheduler stockScheduler;
+	private CloudletScheduler virtualTimeScheduler;
+	private List<Double> mipsShare;
+	private int numOfChecks;
+
+	public CloudletSchedulerVirtualTimeTest(long _seed) {
+		random = new Random(_seed);
+		numOfChecks = 0;
+	}
+
+	public static void main(String[] args) {
+		long seed = (args.length > 0) ? Long.parseLong(args[0]) : 1;
+		CloudletSchedulerVirtualTimeTest test = new CloudletSchedulerVirtualTimeTest(seed);
+		try {
+			for(int vm=0; vm<NUM_OF_VMS; vm++)
+				test.runVm(vm);
+		}
+		catch (AssertionError e) {
+			System.out.println("CloudletSchedulerVirtualTimeTest failed (seed " + seed + "): " + e.getMessage());
+			System.exit(1);
+		}
+		System.out.println("CloudletSchedulerVirtualTimeTest passed: " + NUM_OF_VMS + " VMs, " + test.numOfChecks + " checks");
+	}
+
+	/*
+	 * runs a VM with random PEs and MIPS until all of its cloudlets are finished
+	 */
+	private void runVm(int vm) {
+		stockScheduler = new CloudletSchedulerTimeShared();
+		virtualTimeScheduler = new CloudletSchedulerVirtualTime();
+
+		int numOfPes = 1 + random.nextInt(8);
+		double mips = 1000 + random.nextInt(20000);
+		mipsShare = new ArrayList<Double>();
+		for(int i=0; i<numOfPes; i++)
+			mipsShare.add(mips);
+
+		//bursts of arrivals at the same time and arrivals close to each other are included
+		double[] arrivalTimes = new double[NUM_OF_ARRIVALS];
+		double time = 0;
+		for(int i=0; i<NUM_OF_ARRIVALS; i++) {
+			int kind = random.nextInt(10);
+			if(kind == 0)
+				time += 0;
+			else if(kind == 1)
+				time += 0.0005;
+			else
+				time += random.nextDouble() * 0.5;
+			arrivalTimes[i] = time;
+		}
+
+		String context = "VM " + vm;
+		time = 0;
+		double nextEvent = update(time, context);
+		int nextArrival = 0;
+		while(nextArrival < NUM_OF_ARRIVALS || nextEvent != 0) {
+			//the next event is either an arrival or a completion estimated by the schedulers
+			if(nextArrival < NUM_OF_ARRIVALS && (nextEvent == 0 || arrivalTimes[nextArrival] <= nextEvent))
+				time = arrivalTimes[nextArrival];
+			else
+				time = nextEvent;
+
+			nextEvent = update(time, context + " at " + time);
+			while(nextArrival < NUM_OF_ARRIVALS && arrivalTimes[nextArrival] == time) {
+				nextEvent = arrive(nextArrival++, time, nextEvent, context + " at " + time);
+				compareExecLists(context + " at " + time);
+			}
+
+			//the paused cloudlets are resumed at the end, so that all cloudlets are finished
+			if(nextArrival == NUM_OF_ARRIVALS && nextEvent == 0 && stockScheduler.getCloudletPausedList().size() > 0) {
+				int cloudletId = stockScheduler.getCloudletPausedList().get(0).getCloudletId();
+				nextEvent = resume(cloudletId, time, nextEvent, context + " at " + time);
+			}
+		}
+
+		check(stockScheduler.getCloudletExecList().isEmpty() && virtualTimeScheduler.getCloudletExecList().isEmpty(),
+				context + ": cloudlets are left running");
+	}
+
+	/*
+	 * updates both schedulers, compares their estimates and the cloudlets
+	 * finished at this time in their finish order
+	 */
+	private double update(double time, String context) {
+		double stockEstimate = stockScheduler.updateVmProcessing(time, mipsShare);
+		double virtualTimeEstimate = virtualTimeScheduler.updateVmProcessing(time, mipsShare);
+		check(stockEstimate == virtualTimeEstimate, context + ": next event " + stockEstimate + " != " + virtualTimeEstimate);
+
+		while(stockScheduler.isFinishedCloudlets() || virtualTimeScheduler.isFinishedCloudlets()) {
+			Cloudlet stockCloudlet = stockScheduler.getNextFinishedCloudlet();
+			Cloudlet virtualTimeCloudlet = virtualTimeScheduler.getNextFinishedCloudlet();
+			check(stockCloudlet != null && virtualTimeCloudlet != null,
+					context + ": only one of the schedulers finishes a cloudlet");
+			check(stockCloudlet.getCloudletId() == virtualTimeCloudlet.getCloudletId(),
+					context + ": cloudlet " + stockCloudlet.getCloudletId() + " is finished instead of " + virtualTimeCloudlet.getCloudletId());
+		}
+
+		compareExecLists(context);
+		return (stockEstimate == Double.MAX_VALUE) ? 0 : stockEstimate;
+	}
+
+	/*
+	 * submits the same cloudlet to both schedulers; some running cloudlets
+	 * are paused, resumed or canceled at the arrivals as well
+	 */
+	private double arrive(int cloudletId, double time, double nextEvent, String context) {
+		int numOfPes = (random.nextInt(4) == 0) ? 1 + random.nextInt(3) : 1;
+		long length = 1 + random.nextInt(50000);
+		double fileTransferTime = (random.nextInt(5) == 0) ? random.nextDouble() : 0;
+
+		double stockEstimate = stockScheduler.cloudletSubmit(createCloudlet(cloudletId, length, numOfPes), fileTransferTime);
+		double virtualTimeEstimate = virtualTimeScheduler.cloudletSubmit(createCloudlet(cloudletId, length, numOfPes), fileTransferTime);
+		check(stockEstimate == virtualTimeEstimate, context + ": submit estimate of cloudlet " + cloudletId + " " + stockEstimate + " != " + virtualTimeEstimate);
+		nextEvent = earliest(nextEvent, time + stockEstimate);
+
+		int operation = random.nextInt(100);
+		int targetId = random.nextInt(cloudletId + 1);
+		if(operation < PAUSE_PERCENTAGE) {
+			boolean stockPaused = stockScheduler.cloudletPause(targetId);
+			boolean virtualTimePaused = virtualTimeScheduler.cloudletPause(targetId);
+			check(stockPaused == virtualTimePaused, context + ": pause of cloudlet " + targetId + " differs");
+		}
+		else if(operation < PAUSE_PERCENTAGE + RESUME_PERCENTAGE) {
+			nextEvent = resume(targetId, time, nextEvent, context);
+		}
+		else if(operation < PAUSE_PERCENTAGE + RESUME_PERCENTAGE + CANCEL_PERCENTAGE) {
+			Cloudlet stockCloudlet = stockScheduler.cloudletCancel(targetId);
+			Cloudlet virtualTimeCloudlet = virtualTimeScheduler.cloudletCancel(targetId);
+			check((stockCloudlet == null) == (virtualTimeCloudlet == null), context + ": cancel of cloudlet " + targetId + " differs");
+			if(stockCloudlet != null)
+				check(stockCloudlet.getCloudletFinishedSoFar() == virtualTimeCloudlet.getCloudletFinishedSoFar(),
+						context + ": progress of canceled cloudlet " + targetId + " differs");
+		}
+
+		//the schedulers are updated at the same time again, as a datacenter does after a submission
+		return earliest(nextEvent, update(time, context));
+	}
+
+	private double resume(int cloudletId, double time, double nextEvent, String context) {
+		double stockEstimate = stockScheduler.cloudletResume(cloudletId);
+		double virtualTimeEstimate = virtualTimeScheduler.cloudletResume(cloudletId);
+		check(stockEstimate == virtualTimeEstimate, context + ": resume estimate of cloudlet " + cloudletId + " " + stockEstimate + " != " + virtualTimeEstimate);
+		return earliest(nextEvent, update(time, context));
+	}
+
+	/*
+	 * the execution lists must have the same cloudlets in the same order
+	 * with the same remaining lengths
+	 */
+	private void compareExecLists(String context) {
+		List<ResCloudlet> stockList = stockScheduler.getCloudletExecList();
+		List<ResCloudlet> virtualTimeList = virtualTimeScheduler.getCloudletExecList();
+		check(stockList.size() == virtualTimeList.size(), context + ": " + stockList.size() + " != " + virtualTimeList.size() + " running cloudlets");
+		for(int i=0; i<stockList.size(); i++) {
+			ResCloudlet stockCloudlet = stockList.get(i);
+			ResCloudlet virtualTimeCloudlet = virtualTimeList.get(i);
+			check(stockCloudlet.getCloudletId() == virtualTimeCloudlet.getCloudletId(),
+					context + ": execution order differs at " + i);
+			check(stockCloudlet.getRemainingCloudletLength() == virtualTimeCloudlet.getRemainingCloudletLength(),
+					context + ": remaining length of cloudlet " + stockCloudlet.getCloudletId() + " differs");
+		}
+	}
+
+	private Cloudlet createCloudlet(int cloudletId, long length, int numOfPes) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(cloudletId, length, numOfPes, 1, 1, utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.setResourceParameter(0, 0, 0);
+		return cloudlet;
+	}
+
+	/*
+	 * returns the earliest of the given event times, zero stands for no event
+	 */
+	private static double earliest(double a, double b) {
+		if(a == 0 || b == 0)
+			return Math.max(a, b);
+		return Math.min(a, b);
+	}
+
+	private void check(boolean condition, String message) {
+		numOfChecks++;
+		if(!condition)
+			throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Cache Test
+ *
+ * Description:
+ * SweepCacheTest runs a short sweep of sample_app2 with SweepLauncher,
+ * then adds an orchestrator policy to the config file and runs the sweep
+ * again into a new output folder. The point of the first sweep must be
+ * restored from the cache with the same result files, and only the point
+ * of the new policy must be simulated. Changing a property of the model,
+ * e.g. the simulation time, must change the key of the point.
+ *
+ * The test is run by scripts/test/run_tests.sh; it exits with a non-zero
+ * status at the first difference.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.sweep;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+public class SweepCacheTest {
+	private static final String APPLICATION = "sample_app2";
+	private static final String MAIN_APP_CLASS = "edu.boun.edgecloudsim.applications.sample_app2.MainApp";
+	private static final String CONFIG_NAME = "default_config";
+	private static final String CACHED_POLICY = "NETWORK_BASED";
+	private static final String NEW_POLICY = "UTILIZATION_BASED";
+
+	private File scriptRootFolder;
+	private File configFile;
+
+	public SweepCacheTest(File _scriptRootFolder) {
+		scriptRootFolder = _scriptRootFolder;
+		configFile = new File(new File(scriptRootFolder, "config"), CONFIG_NAME + ".properties");
+	}
+
+	public static void main(String[] args) throws Exception {
+		File scriptsFolder = new File((args.length > 0) ? args[0] : "..");
+		File workFolder = Files.createTempDirectory("sweep_cache_test").toFile();
+		String failure = null;
+		try {
+			File scriptRootFolder = new File(workFolder, APPLICATION);
+			copy(new File(new File(scriptsFolder, APPLICATION), "config"), new File(scriptRootFolder, "config"));
+			copy(new File(new File(scriptsFolder, APPLICATION), SweepLauncher.SIMULATION_LIST_FILE),
+					new File(scriptRootFolder, SweepLauncher.SIMULATION_LIST_FILE));
+			new SweepCacheTest(scriptRootFolder).run();
+		}
+		catch (AssertionError e) {
+			failure = e.getMessage();
+		}
+		finally {
+			delete(workFolder);
+		}
+
+		if(failure != null) {
+			System.out.println("SweepCacheTest failed: " + failure);
+			System.exit(1);
+		}
+		System.out.println("SweepCacheTest passed");
+	}
+
+	private void run() throws Exception {
+		Properties prop = loadConfig();
+		prop.setProperty("simulation_time", "2");
+		prop.setProperty("warm_up_period", "1");
+		prop.setProperty("min_number_of_mobile_devices", "100");
+		prop.setProperty("max_number_of_mobile_devices", "100");
+		prop.setProperty("mobile_device_counter_size", "100");
+		prop.setProperty("orchestrator_policies", CACHED_POLICY);
+		prop.setProperty("random_seed", "7");
+		storeConfig(prop);
+
+		File firstOutputFolder = new File(scriptRootFolder, "output1");
+		List<SweepJob> firstJobs = sweep(firstOutputFolder);
+		check(firstJobs.size() == 1, "the first sweep has " + firstJobs.size() + " jobs instead of 1");
+
+		//a new policy is added to the sweep
+		prop.setProperty("orchestrator_policies", CACHED_POLICY + "," + NEW_POLICY);
+		storeConfig(prop);
+
+		File secondOutputFolder = new File(scriptRootFolder, "output2");
+		List<SweepJob> secondJobs = sweep(secondOutputFolder);
+		check(secondJobs.size() == 2, "the second sweep has " + secondJobs.size() + " jobs instead of 2");
+
+		List<String> progress = Files.readAllLines(new File(new File(secondOutputFolder, CONFIG_NAME), "progress.log").toPath(), StandardCharsets.UTF_8);
+		for(SweepJob job : secondJobs) {
+			SweepPoint point = job.getPoint();
+			String status = point.getOrchestratorPolicy().equals(CACHED_POLICY) ? "CACHED" : "OK";
+			String line = "ite" + point.getIterationNumber() + " " + point.getName() + " " + status;
+			check(progress.contains(line), "progress.log of the second sweep has no line " + line + ": " + progress);
+		}
+
+		//the restored point has the result files of the first sweep
+		SweepPoint firstPoint = firstJobs.get(0).getPoint();
+		File[] firstFiles = SweepManifest.getResultFiles(firstPoint);
+		check(firstFiles.length > 0, "the first sweep has no result file");
+		for(File firstFile : firstFiles) {
+			File secondFile = new File(new File(new File(secondOutputFolder, CONFIG_NAME), "ite1"), firstFile.getName());
+			check(secondFile.exists(), secondFile.getName() + " is not restored");
+			check(Arrays.equals(Files.readAllBytes(firstFile.toPath()), Files.readAllBytes(secondFile.toPath())),
+					secondFile.getName() + " differs from the result of the first sweep");
+		}
+
+		//a change of the model is a part of the key
+		String key = new SweepCache(getCacheFolder(), "test").getKey(firstJobs.get(0));
+		prop.setProperty("simulation_time", "3");
+		storeConfig(prop);
+		check(!key.equals(new SweepCache(getCacheFolder(), "test").getKey(firstJobs.get(0))),
+				"the key does not change with the simulation time");
+	}
+
+	/*
+	 * runs the sweep of the config on a single worker, returns its jobs
+	 */
+	private List<SweepJob> sweep(File outputFolder) throws Exception {
+		List<SweepJob> jobs = SweepLauncher.createJobs(scriptRootFolder, outputFolder, 1);
+		SweepCache cache = new SweepCache(getCacheFolder(), SweepCache.calculateBuildFingerprint());
+		SweepCostModel costModel = new SweepCostModel(new File(scriptRootFolder, SweepLauncher.COST_HISTORY_FILE));
+		SweepLauncher launcher = new SweepLauncher(MAIN_APP_CLASS, outputFolder, costModel, cache);
+		int numOfFailures = launcher.launch(jobs, 1);
+		check(numOfFailures == 0, numOfFailures + " jobs failed in " + outputFolder.getName());
+		return jobs;
+	}
+
+	private File getCacheFolder() {
+		return new File(scriptRootFolder, SweepLauncher.CACHE_FOLDER);
+	}
+
+	private Properties loadConfig() throws IOException {
+		Properties prop = new Properties();
+		InputStream input = new FileInputStream(configFile);
+		try {
+			prop.load(input);
+		} finally {
+			input.close();
+		}
+		return prop;
+	}
+
+	private void storeConfig(Properties prop) throws IOException {
+		OutputStream output = new FileOutputStream(configFile);
+		try {
+			prop.store(output, null);
+		} finally {
+			output.close();
+		}
+	}
+
+	private static void check(boolean condition, String message) {
+		if(!condition)
+			throw new AssertionError(message);
+	}
+
+	private static void copy(File source, File target) throws IOException {
+		if(source.isDirectory()) {
+			target.mkdirs();
+			for(String name : source.list())
+				copy(new File(source, name), new File(target, name));
+		}
+		else {
+			Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if(files != null)
+			for(File child : files)
+				delete(child);
+		file.delete();
+	}
+}